@@ -0,0 +1,128 @@
+package nd.mavenassistant.benchmark;
+
+import nd.mavenassistant.model.ArtifactGav;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.util.graph.transformer.ConflictResolver;
+
+import java.util.*;
+
+/**
+ * 合成依赖图生成器
+ * 按广度优先生成近似 ConflictResolver（verbose=STANDARD）输出的依赖图：
+ * 每个GA首次出现的节点胜出并继续展开，之后的出现标记为落败节点且不再有子节点。
+ * 少量“热门”构件被大量重复引用，用于模拟 Jackson、Netty 等被多处共享的依赖
+ */
+public final class SyntheticGraph {
+
+    private static final int MAX_DEPTH = 8;
+    private static final int MAX_FAN_OUT = 6;
+
+    private final DependencyNode root;
+    private final List<ArtifactGav> effectiveGavs;
+    private final Map<String, Set<String>> exclusionMap;
+    private final List<DependencyNode> nodes;
+
+    private SyntheticGraph(DependencyNode root, List<ArtifactGav> effectiveGavs, Map<String, Set<String>> exclusionMap,
+                           List<DependencyNode> nodes) {
+        this.root = root;
+        this.effectiveGavs = effectiveGavs;
+        this.exclusionMap = exclusionMap;
+        this.nodes = nodes;
+    }
+
+    /**
+     * 生成指定节点数的合成依赖图，相同的种子得到相同的图
+     *
+     * @param targetNodes 目标节点数（不含根节点）
+     * @param seed 随机种子
+     * @return 合成依赖图
+     */
+    public static SyntheticGraph generate(int targetNodes, long seed) {
+        Random random = new Random(seed);
+        int libraries = Math.max(16, targetNodes / 2);
+        int popularLibraries = Math.max(1, libraries / 50);
+        int directCount = Math.min(60, Math.max(5, targetNodes / 50));
+
+        DefaultDependencyNode root = new DefaultDependencyNode((Dependency) null);
+        Map<String, DependencyNode> winners = new LinkedHashMap<>();
+        List<DependencyNode> nodes = new ArrayList<>(targetNodes);
+        Deque<DefaultDependencyNode> queue = new ArrayDeque<>();
+        Map<DependencyNode, Integer> depths = new HashMap<>();
+
+        List<DependencyNode> directChildren = new ArrayList<>();
+        for (int i = 0; i < directCount && nodes.size() < targetNodes; i++) {
+            directChildren.add(createNode(random, libraries, popularLibraries, 1, winners, nodes, queue, depths));
+        }
+        root.setChildren(directChildren);
+
+        while (!queue.isEmpty() && nodes.size() < targetNodes) {
+            DefaultDependencyNode parent = queue.poll();
+            int depth = depths.get(parent) + 1;
+            int fanOut = 1 + random.nextInt(MAX_FAN_OUT);
+            List<DependencyNode> children = new ArrayList<>(fanOut);
+            for (int i = 0; i < fanOut && nodes.size() < targetNodes; i++) {
+                children.add(createNode(random, libraries, popularLibraries, depth, winners, nodes, queue, depths));
+            }
+            parent.setChildren(children);
+        }
+
+        List<ArtifactGav> effectiveGavs = new ArrayList<>(winners.size());
+        for (DependencyNode winner : winners.values()) {
+            effectiveGavs.add(new ArtifactGav(winner.getArtifact().getGroupId(), winner.getArtifact().getArtifactId(),
+                    winner.getArtifact().getVersion(), null, winner.getDependency().getScope()));
+        }
+
+        // 每7个直接依赖中的一个带有两条 exclusion
+        Map<String, Set<String>> exclusionMap = new HashMap<>();
+        for (int i = 0; i < directChildren.size(); i += 7) {
+            DependencyNode direct = directChildren.get(i);
+            Set<String> exclusions = new HashSet<>();
+            exclusions.add(groupId(random.nextInt(libraries)) + ":" + artifactId(random.nextInt(libraries)));
+            exclusions.add(groupId(random.nextInt(libraries)) + ":" + artifactId(random.nextInt(libraries)));
+            exclusionMap.put(direct.getArtifact().getGroupId() + ":" + direct.getArtifact().getArtifactId(), exclusions);
+        }
+
+        return new SyntheticGraph(root, effectiveGavs, exclusionMap, nodes);
+    }
+
+    private static DefaultDependencyNode createNode(Random random, int libraries, int popularLibraries, int depth,
+                                                    Map<String, DependencyNode> winners, List<DependencyNode> nodes,
+                                                    Deque<DefaultDependencyNode> queue, Map<DependencyNode, Integer> depths) {
+        int library = random.nextInt(10) < 3 ? random.nextInt(popularLibraries) : random.nextInt(libraries);
+        String version = "1." + random.nextInt(3) + ".0";
+        String scope = depth == 1 && random.nextInt(10) == 0 ? "test" : (random.nextInt(8) == 0 ? "runtime" : "compile");
+        DefaultDependencyNode node = new DefaultDependencyNode(new Dependency(
+                new DefaultArtifact(groupId(library), artifactId(library), "jar", version), scope));
+        nodes.add(node);
+        depths.put(node, depth);
+
+        String ga = groupId(library) + ":" + artifactId(library);
+        DependencyNode winner = winners.get(ga);
+        if (winner != null) {
+            node.setData(ConflictResolver.NODE_DATA_WINNER, winner);
+        } else {
+            winners.put(ga, node);
+            if (depth < MAX_DEPTH) {
+                queue.add(node);
+            }
+        }
+        return node;
+    }
+
+    private static String groupId(int library) {
+        return "org.synthetic.group" + (library % 97);
+    }
+
+    private static String artifactId(int library) {
+        return "library-" + library;
+    }
+
+    public DependencyNode getRoot() { return root; }
+    public List<ArtifactGav> getEffectiveGavs() { return effectiveGavs; }
+    public Map<String, Set<String>> getExclusionMap() { return exclusionMap; }
+    /** 所有非根节点，按生成顺序排列 */
+    public List<DependencyNode> getNodes() { return nodes; }
+}
@@ -0,0 +1,103 @@
+package nd.mavenassistant.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 合成 pom.xml 生成器
+ * 生成包含属性变量、dependencyManagement 和 exclusion 的POM，每个标签独占一行，
+ * 与手写 POM 的常见格式一致
+ */
+public final class SyntheticPom {
+
+    private final Path path;
+    private final String lastGroupId;
+    private final String lastArtifactId;
+    private final String lastVersion;
+
+    private SyntheticPom(Path path, String lastGroupId, String lastArtifactId, String lastVersion) {
+        this.path = path;
+        this.lastGroupId = lastGroupId;
+        this.lastArtifactId = lastArtifactId;
+        this.lastVersion = lastVersion;
+    }
+
+    /**
+     * 写出含指定数量依赖的POM文件
+     *
+     * @param path 目标文件路径
+     * @param dependencyCount 依赖数量
+     * @return 生成结果，记录最后一个依赖的坐标（查找时的最坏情况）
+     */
+    public static SyntheticPom write(Path path, int dependencyCount) throws IOException {
+        StringBuilder pom = new StringBuilder(dependencyCount * 200);
+        pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        pom.append("    <modelVersion>4.0.0</modelVersion>\n");
+        pom.append("    <groupId>org.synthetic</groupId>\n");
+        pom.append("    <artifactId>synthetic-project</artifactId>\n");
+        pom.append("    <version>1.0.0</version>\n");
+
+        pom.append("    <properties>\n");
+        for (int i = 0; i < dependencyCount; i += 3) {
+            pom.append("        <library-").append(i).append(".version>1.").append(i % 5).append(".0</library-")
+                    .append(i).append(".version>\n");
+        }
+        pom.append("    </properties>\n");
+
+        // 每10个依赖中有一个的版本由 dependencyManagement 管理
+        pom.append("    <dependencyManagement>\n");
+        pom.append("        <dependencies>\n");
+        for (int i = 5; i < dependencyCount; i += 10) {
+            pom.append("            <dependency>\n");
+            pom.append("                <groupId>").append(groupId(i)).append("</groupId>\n");
+            pom.append("                <artifactId>library-").append(i).append("</artifactId>\n");
+            pom.append("                <version>2.").append(i % 7).append(".0</version>\n");
+            pom.append("            </dependency>\n");
+        }
+        pom.append("        </dependencies>\n");
+        pom.append("    </dependencyManagement>\n");
+
+        pom.append("    <dependencies>\n");
+        String lastVersion = null;
+        for (int i = 0; i < dependencyCount; i++) {
+            pom.append("        <dependency>\n");
+            pom.append("            <groupId>").append(groupId(i)).append("</groupId>\n");
+            pom.append("            <artifactId>library-").append(i).append("</artifactId>\n");
+            if (i % 3 == 0) {
+                pom.append("            <version>${library-").append(i).append(".version}</version>\n");
+                lastVersion = "1." + (i % 5) + ".0";
+            } else if (i % 10 != 5) {
+                lastVersion = "1." + (i % 4) + "." + (i % 9);
+                pom.append("            <version>").append(lastVersion).append("</version>\n");
+            } else {
+                lastVersion = "2." + (i % 7) + ".0";
+            }
+            if (i % 5 == 0) {
+                pom.append("            <exclusions>\n");
+                pom.append("                <exclusion>\n");
+                pom.append("                    <groupId>commons-logging</groupId>\n");
+                pom.append("                    <artifactId>commons-logging</artifactId>\n");
+                pom.append("                </exclusion>\n");
+                pom.append("            </exclusions>\n");
+            }
+            pom.append("        </dependency>\n");
+        }
+        pom.append("    </dependencies>\n");
+        pom.append("</project>\n");
+
+        Files.writeString(path, pom);
+        int last = dependencyCount - 1;
+        return new SyntheticPom(path, groupId(last), "library-" + last, lastVersion);
+    }
+
+    private static String groupId(int index) {
+        return "org.synthetic.group" + (index % 97);
+    }
+
+    public Path getPath() { return path; }
+    public String getLastGroupId() { return lastGroupId; }
+    public String getLastArtifactId() { return lastArtifactId; }
+    public String getLastVersion() { return lastVersion; }
+}
@@ -0,0 +1,71 @@
+package nd.mavenassistant.index;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地仓库版本索引查询基准测试
+ * 在 10k 到 100k 个 GA（每个 GA 若干版本）的索引上测量版本查询以及 groupId、artifactId 前缀补全
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalRepositoryIndexBenchmark {
+
+    @Param({"10000", "100000"})
+    public int artifacts;
+
+    private final LocalRepositoryIndex index = new LocalRepositoryIndex();
+    private String[] groupIds;
+    private String[] artifactIds;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        groupIds = new String[artifacts];
+        artifactIds = new String[artifacts];
+        for (int i = 0; i < artifacts; i++) {
+            groupIds[i] = "org.vendor" + (i % 500) + ".module" + (i % 37);
+            artifactIds[i] = "artifact-" + i;
+            int versions = 1 + random.nextInt(20);
+            for (int v = 0; v < versions; v++) {
+                index.addVersion(groupIds[i], artifactIds[i], (v / 5) + "." + (v % 5) + "." + random.nextInt(10));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        index.shutdown();
+    }
+
+    @Benchmark
+    public List<String> getVersions() {
+        int i = next();
+        return index.getVersions(groupIds[i], artifactIds[i]);
+    }
+
+    @Benchmark
+    public List<String> completeGroupIds() {
+        String groupId = groupIds[next()];
+        return index.completeGroupIds(groupId.substring(0, groupId.length() / 2), 200);
+    }
+
+    @Benchmark
+    public List<String> completeArtifactIds() {
+        int i = next();
+        return index.completeArtifactIds(groupIds[i], "artifact-1", 200);
+    }
+
+    private int next() {
+        cursor = (cursor + 7919) % artifacts;
+        return cursor;
+    }
+}
@@ -0,0 +1,79 @@
+package nd.mavenassistant.lsp;
+
+import com.google.gson.Gson;
+import nd.mavenassistant.benchmark.SyntheticGraph;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.graph.DependencyNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 依赖树构建与序列化基准测试
+ * 在 100 到 50k 节点的合成依赖图上测量 buildDependencyTreeWithConflict（顺序与 fork/join 并行）、buildDepInfoContent 与 Gson 序列化
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DependencyTreeBenchmark {
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int nodes;
+
+    private final Gson gson = new Gson();
+    private SimpleLanguageServer server;
+    private SyntheticGraph graph;
+    private final Set<String> usedGAVSet = new HashSet<>();
+    private final Set<String> usedGASet = new HashSet<>();
+    private final Map<String, String> gavScopeMap = new HashMap<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = new SimpleLanguageServer();
+        graph = SyntheticGraph.generate(nodes, 42L);
+        server.fillEffectiveGavSets(graph.getEffectiveGavs(), usedGAVSet, usedGASet, gavScopeMap);
+        // 先构建一次，填充jar文件大小缓存，避免把首次磁盘访问计入测量
+        server.buildDependencyTree(graph.getRoot(), graph.getEffectiveGavs(), graph.getExclusionMap());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, Object> buildDependencyTree() {
+        return server.buildDependencyTree(graph.getRoot(), graph.getEffectiveGavs(), graph.getExclusionMap());
+    }
+
+    @Benchmark
+    public Map<String, Object> buildDependencyTreeSequential() {
+        return server.buildDependencyTreeSequential(graph.getRoot(), usedGAVSet, usedGASet, gavScopeMap, graph.getExclusionMap());
+    }
+
+    @Benchmark
+    public Map<String, Object> buildDependencyTreeParallel() {
+        return server.buildDependencyTreeParallel(graph.getRoot(), usedGAVSet, usedGASet, gavScopeMap, graph.getExclusionMap());
+    }
+
+    @Benchmark
+    public String buildDependencyTreeAndSerialize() {
+        return gson.toJson(server.buildDependencyTree(graph.getRoot(), graph.getEffectiveGavs(), graph.getExclusionMap()));
+    }
+
+    @Benchmark
+    public String buildDepInfoContentAndSerialize() {
+        List<Map<String, Object>> depInfos = new ArrayList<>(graph.getNodes().size());
+        for (DependencyNode node : graph.getNodes()) {
+            Artifact artifact = node.getArtifact();
+            String key = artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+            depInfos.add(server.buildDepInfoContent(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(),
+                    key, gavScopeMap, node, usedGAVSet, graph.getExclusionMap()));
+        }
+        return gson.toJson(depInfos);
+    }
+}
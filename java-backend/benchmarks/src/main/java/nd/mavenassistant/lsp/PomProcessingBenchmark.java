@@ -0,0 +1,107 @@
+package nd.mavenassistant.lsp;
+
+import nd.mavenassistant.benchmark.SyntheticPom;
+import nd.mavenassistant.utils.MavenModelUtils;
+import nd.mavenassistant.utils.PomXmlUtils;
+import org.apache.maven.model.Model;
+import org.openjdk.jmh.annotations.*;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * POM 处理基准测试
+ * 在包含 100 到 50k 个依赖的合成 pom.xml 上测量模型构建、exclusion 映射、DOM 查找与插入以及依赖行定位
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PomProcessingBenchmark {
+
+    // POM中的依赖数量
+    @Param({"100", "1000", "10000", "50000"})
+    public int nodes;
+
+    private Path workDir;
+    private SyntheticPom pom;
+    private String pomPath;
+    private Model model;
+    private Map<String, String> resolvedDependencies;
+    private SimpleLanguageServer server;
+    private String pomContent;
+
+    /**
+     * fillExclude 会修改文档，每次调用前重新解析一份
+     */
+    @State(Scope.Thread)
+    public static class DocumentState {
+        Document document;
+
+        @Setup(Level.Invocation)
+        public void parse(PomProcessingBenchmark benchmark) throws Exception {
+            document = PomXmlUtils.parseDocument(benchmark.pomPath);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        workDir = Files.createTempDirectory("maven-assistant-bench");
+        pom = SyntheticPom.write(workDir.resolve("pom.xml"), nodes);
+        pomPath = pom.getPath().toString();
+        pomContent = Files.readString(pom.getPath());
+        model = MavenModelUtils.getModel(pomPath);
+        resolvedDependencies = PomXmlUtils.resolveMavenVariables(pomPath);
+        server = new SimpleLanguageServer();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        server.shutdown();
+        try (Stream<Path> paths = Files.walk(workDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * 文件未变化，命中模型缓存
+     */
+    @Benchmark
+    public Model getModel() throws Exception {
+        return MavenModelUtils.getModel(pomPath);
+    }
+
+    /**
+     * 按内容构建，不经过有效模型缓存，测量实际的解析与插值开销
+     */
+    @Benchmark
+    public Model buildModelFromContent() throws Exception {
+        return MavenModelUtils.getModel(pomPath, pomContent);
+    }
+
+    @Benchmark
+    public Map<String, Set<String>> buildExclusionMap() {
+        return MavenModelUtils.buildExclusionMap(model);
+    }
+
+    @Benchmark
+    public boolean findTargetDependencyAndFillExclude(DocumentState state) {
+        Element target = PomXmlUtils.findTargetDependencyElement(state.document, pom.getLastGroupId(),
+                pom.getLastArtifactId(), pom.getLastVersion(), resolvedDependencies);
+        return PomXmlUtils.fillExclude("org.excluded", "excluded-artifact", state.document, target);
+    }
+
+    @Benchmark
+    public Map<String, Object> parseDependencyPosition() throws Exception {
+        return server.parseDependencyPosition(pomPath, pom.getLastGroupId(), pom.getLastArtifactId());
+    }
+}
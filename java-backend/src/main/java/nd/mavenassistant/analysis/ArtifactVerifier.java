@@ -0,0 +1,229 @@
+package nd.mavenassistant.analysis;
+
+import nd.mavenassistant.metrics.HitCounter;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地仓库构件完整性校验
+ * 将构件文件的 SHA-1 / SHA-256 与同目录下的 .sha1 / .sha256 校验文件比较，只计算存在校验文件的摘要。
+ * 文件以内存映射分段读取，需要多种摘要时一次遍历同时计算，各文件在线程池中并行计算；
+ * 摘要按路径缓存，修改时间和大小不变时不再重新读取构件文件，只重新读取（很小的）校验文件
+ */
+public class ArtifactVerifier {
+
+    /** 每次映射的最大字节数 */
+    private static final long MAP_CHUNK = 64L * 1024 * 1024;
+
+    /**
+     * 校验结果状态
+     */
+    public enum Status {
+        /** 所有存在的校验文件都匹配 */
+        OK,
+        /** 至少一个校验文件不匹配，文件可能损坏或被截断 */
+        MISMATCH,
+        /** 本地仓库中没有该文件 */
+        MISSING,
+        /** 没有可用的 .sha1 / .sha256 校验文件 */
+        NO_CHECKSUM,
+        /** 读取失败 */
+        ERROR
+    }
+
+    /**
+     * 单个文件的校验结果
+     */
+    public static class Result {
+        public final String gav;
+        public final String file;
+        public final Status status;
+        public final String algorithm; // 不匹配时为不匹配的算法
+        public final String expected;
+        public final String actual;
+
+        Result(String gav, Path file, Status status, String algorithm, String expected, String actual) {
+            this.gav = gav;
+            this.file = file.toString();
+            this.status = status;
+            this.algorithm = algorithm;
+            this.expected = expected;
+            this.actual = actual;
+        }
+    }
+
+    /**
+     * 一次校验的结果
+     */
+    public static class Report {
+        public final List<Result> results;
+        public final int hashed; // 本次实际读取并计算摘要的文件数，其余命中缓存
+
+        Report(List<Result> results, int hashed) {
+            this.results = results;
+            this.hashed = hashed;
+        }
+    }
+
+    private record Stamp(long lastModified, long size) {
+    }
+
+    // 已计算的摘要，键为算法名
+    private record Digests(Stamp stamp, Map<String, String> values) {
+    }
+
+    private final ExecutorService executor;
+    private final Map<Path, Digests> digests = new ConcurrentHashMap<>();
+    private final HitCounter digestStats = new HitCounter();
+
+    public ArtifactVerifier(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 并行校验一组文件
+     *
+     * @param files groupId:artifactId:version 到本地仓库文件的映射，结果按相同顺序返回
+     */
+    public Report verify(Map<String, Path> files) throws IOException {
+        AtomicInteger hashed = new AtomicInteger();
+        List<Future<Result>> futures = new ArrayList<>(files.size());
+        for (Map.Entry<String, Path> entry : files.entrySet()) {
+            futures.add(executor.submit(() -> verify(entry.getKey(), entry.getValue(), hashed)));
+        }
+        List<Result> results = new ArrayList<>(futures.size());
+        for (Future<Result> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while verifying artifacts", e);
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            }
+        }
+        return new Report(results, hashed.get());
+    }
+
+    private Result verify(String gav, Path file, AtomicInteger hashed) {
+        try {
+            String expectedSha1 = readChecksum(file, ".sha1");
+            String expectedSha256 = readChecksum(file, ".sha256");
+            if (!Files.isRegularFile(file)) {
+                return new Result(gav, file, Status.MISSING, null, null, null);
+            }
+            if (expectedSha1 == null && expectedSha256 == null) {
+                return new Result(gav, file, Status.NO_CHECKSUM, null, null, null);
+            }
+            List<String> algorithms = new ArrayList<>(2);
+            if (expectedSha256 != null) {
+                algorithms.add("SHA-256");
+            }
+            if (expectedSha1 != null) {
+                algorithms.add("SHA-1");
+            }
+            Map<String, String> computed = digests(file, algorithms, hashed);
+            if (expectedSha256 != null && !expectedSha256.equals(computed.get("SHA-256"))) {
+                return new Result(gav, file, Status.MISMATCH, "SHA-256", expectedSha256, computed.get("SHA-256"));
+            }
+            if (expectedSha1 != null && !expectedSha1.equals(computed.get("SHA-1"))) {
+                return new Result(gav, file, Status.MISMATCH, "SHA-1", expectedSha1, computed.get("SHA-1"));
+            }
+            return new Result(gav, file, Status.OK, null, null, null);
+        } catch (IOException e) {
+            return new Result(gav, file, Status.ERROR, null, null, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取文件指定算法的摘要，只计算缓存中没有的算法；文件已变化时丢弃之前的摘要
+     */
+    private Map<String, String> digests(Path file, List<String> algorithms, AtomicInteger hashed) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        Stamp stamp = new Stamp(attributes.lastModifiedTime().toMillis(), attributes.size());
+        Digests cached = digests.get(file);
+        Map<String, String> values = new HashMap<>();
+        if (cached != null && cached.stamp().equals(stamp)) {
+            values.putAll(cached.values());
+        }
+        List<MessageDigest> missing = new ArrayList<>(algorithms.size());
+        for (String algorithm : algorithms) {
+            if (!values.containsKey(algorithm)) {
+                missing.add(newDigest(algorithm));
+            }
+        }
+        digestStats.record(missing.isEmpty());
+        if (missing.isEmpty()) {
+            return values;
+        }
+        hashed.incrementAndGet();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_CHUNK) {
+                long length = Math.min(MAP_CHUNK, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                for (MessageDigest digest : missing) {
+                    digest.update(buffer.duplicate());
+                }
+            }
+        }
+        for (MessageDigest digest : missing) {
+            values.put(digest.getAlgorithm(), HexFormat.of().formatHex(digest.digest()));
+        }
+        digests.put(file, new Digests(stamp, Map.copyOf(values)));
+        return values;
+    }
+
+    /**
+     * 读取校验文件中的摘要（第一个空白前的十六进制串），不存在时返回 null
+     */
+    static String readChecksum(Path file, String extension) throws IOException {
+        Path checksum = file.resolveSibling(file.getFileName() + extension);
+        if (!Files.isRegularFile(checksum)) {
+            return null;
+        }
+        String content = new String(Files.readAllBytes(checksum), StandardCharsets.US_ASCII).trim();
+        int end = 0;
+        while (end < content.length() && !Character.isWhitespace(content.charAt(end))) {
+            end++;
+        }
+        return end > 0 ? content.substring(0, end).toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 已缓存摘要的文件数
+     */
+    public int getCacheSize() {
+        return digests.size();
+    }
+
+    /**
+     * 摘要缓存的命中统计
+     */
+    public HitCounter getDigestStats() {
+        return digestStats;
+    }
+}
@@ -0,0 +1,179 @@
+package nd.mavenassistant.analysis;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * 类文件与 jar 的轻量解析，不依赖 ASM
+ * 只读取类文件常量池中的类引用和描述符，只读取 jar 的中央目录获取类名；类名均为内部形式（a/b/C$D）
+ */
+final class ClassFileScanner {
+
+    private static final int CLASS_MAGIC = 0xCAFEBABE;
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int CENTRAL_DIRECTORY_ENTRY = 0x02014b50;
+    private static final int END_RECORD_SIZE = 22;
+
+    private ClassFileScanner() {
+    }
+
+    /**
+     * 提取类文件引用的所有类：常量池中的 Class 项，以及字段/方法描述符、泛型签名和注解类型中的 L...; 引用
+     * 被 String 常量引用的 Utf8 是字符串字面量，不参与描述符解析
+     *
+     * @param buffer 类文件内容
+     * @param out    引用的类名（内部形式）
+     * @throws IllegalArgumentException 不是合法的类文件
+     */
+    static void referencedClasses(ByteBuffer buffer, Set<String> out) {
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (in.remaining() < 10 || in.getInt() != CLASS_MAGIC) {
+            throw new IllegalArgumentException("not a class file");
+        }
+        in.position(in.position() + 4); // minor、major 版本
+        int count = in.getShort() & 0xFFFF;
+        int[] utf8Offsets = new int[count];
+        int[] utf8Lengths = new int[count];
+        BitSet classNames = new BitSet(count);
+        BitSet literals = new BitSet(count);
+        for (int i = 1; i < count; i++) {
+            int tag = in.get() & 0xFF;
+            switch (tag) {
+                case 1 -> {
+                    int length = in.getShort() & 0xFFFF;
+                    utf8Offsets[i] = in.position();
+                    utf8Lengths[i] = length;
+                    in.position(in.position() + length);
+                }
+                case 7 -> classNames.set(in.getShort() & 0xFFFF);
+                case 8 -> literals.set(in.getShort() & 0xFFFF);
+                case 16, 19, 20 -> in.position(in.position() + 2);
+                case 15 -> in.position(in.position() + 3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> in.position(in.position() + 4);
+                case 5, 6 -> {
+                    in.position(in.position() + 8);
+                    i++; // long 和 double 占两个常量池槽位
+                }
+                default -> throw new IllegalArgumentException("unknown constant pool tag " + tag);
+            }
+        }
+        for (int i = 1; i < count; i++) {
+            if (utf8Lengths[i] == 0 || literals.get(i)) {
+                continue;
+            }
+            byte[] bytes = new byte[utf8Lengths[i]];
+            in.get(utf8Offsets[i], bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            if (classNames.get(i) && value.charAt(0) != '[') {
+                out.add(value);
+            } else if (value.indexOf(';') >= 0) {
+                descriptorClasses(value, out);
+            }
+        }
+    }
+
+    /**
+     * 从描述符或签名中提取 L...; 形式的类名，泛型参数中的类型也一并提取
+     */
+    static void descriptorClasses(String descriptor, Set<String> out) {
+        int length = descriptor.length();
+        for (int i = 0; i < length; i++) {
+            if (descriptor.charAt(i) != 'L' || (i > 0 && !isDescriptorBoundary(descriptor.charAt(i - 1)))) {
+                continue;
+            }
+            int end = i + 1;
+            while (end < length && (Character.isJavaIdentifierPart(descriptor.charAt(end)) || descriptor.charAt(end) == '/')) {
+                end++;
+            }
+            if (end > i + 1 && end < length && (descriptor.charAt(end) == ';' || descriptor.charAt(end) == '<')) {
+                out.add(descriptor.substring(i + 1, end));
+                i = end;
+            }
+        }
+    }
+
+    private static boolean isDescriptorBoundary(char c) {
+        return "();[<>:+-*^BCDFIJSZV".indexOf(c) >= 0;
+    }
+
+    /**
+     * 读取 jar 中所有类的内部名：映射文件后只解析中央目录，不解压任何条目；
+     * ZIP64 或无法映射的文件退回 {@link ZipFile}
+     */
+    static List<String> jarClassNames(Path jar) throws IOException {
+        try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= END_RECORD_SIZE && size <= Integer.MAX_VALUE) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                List<String> names = centralDirectoryClassNames(mapped.order(ByteOrder.LITTLE_ENDIAN));
+                if (names != null) {
+                    return names;
+                }
+            }
+        }
+        List<String> names = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                addClassName(entries.nextElement().getName(), names);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 解析中央目录，格式不支持（ZIP64、找不到结束记录）时返回 null
+     */
+    private static List<String> centralDirectoryClassNames(ByteBuffer zip) {
+        int end = -1;
+        int limit = Math.max(0, zip.limit() - END_RECORD_SIZE - 0xFFFF);
+        for (int i = zip.limit() - END_RECORD_SIZE; i >= limit; i--) {
+            if (zip.getInt(i) == END_OF_CENTRAL_DIRECTORY) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            return null;
+        }
+        int entries = zip.getShort(end + 10) & 0xFFFF;
+        long offset = zip.getInt(end + 16) & 0xFFFFFFFFL;
+        if (entries == 0xFFFF || offset == 0xFFFFFFFFL || offset >= end) {
+            return null;
+        }
+        List<String> names = new ArrayList<>(entries);
+        byte[] name = new byte[256];
+        int position = (int) offset;
+        for (int i = 0; i < entries; i++) {
+            if (position + 46 > end || zip.getInt(position) != CENTRAL_DIRECTORY_ENTRY) {
+                return null;
+            }
+            int nameLength = zip.getShort(position + 28) & 0xFFFF;
+            int extraLength = zip.getShort(position + 30) & 0xFFFF;
+            int commentLength = zip.getShort(position + 32) & 0xFFFF;
+            if (nameLength > name.length) {
+                name = new byte[nameLength];
+            }
+            zip.get(position + 46, name, 0, nameLength);
+            addClassName(new String(name, 0, nameLength, StandardCharsets.UTF_8), names);
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+        return names;
+    }
+
+    private static void addClassName(String entry, List<String> names) {
+        if (entry.endsWith(".class") && !entry.startsWith("META-INF/")
+                && !entry.endsWith("module-info.class") && !entry.endsWith("package-info.class")) {
+            names.add(entry.substring(0, entry.length() - ".class".length()));
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package nd.mavenassistant.analysis;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.util.graph.transformer.ConflictResolver;
+
+import java.util.*;
+
+/**
+ * 依赖图的紧凑表示
+ * 将 DependencyNode 图按前序展开为若干并行的 int 数组，groupId:artifactId 与版本号各自驻留在字符串表中，
+ * 便于在上万节点的图上做集合比较而无需反复创建字符串
+ */
+public final class CompactGraph {
+
+    /** 节点标记：该节点是 ConflictResolver 仲裁的落败者 */
+    public static final byte FLAG_LOSER = 1;
+    /** 节点标记：该节点为可选依赖 */
+    public static final byte FLAG_OPTIONAL = 2;
+
+    // 字符串表：groupId:artifactId、版本号、scope
+    private final String[] gaTable;
+    private final String[] versionTable;
+    private final String[] scopeTable;
+
+    // 节点数组，下标即前序遍历序号
+    private final int[] nodeGa;
+    private final int[] nodeVersion;
+    private final int[] nodeScope;
+    private final int[] nodeParent;
+    private final int[] nodeDepth;
+    private final byte[] nodeFlags;
+
+    // 每个GA的胜出版本下标（-1 表示图中只有落败节点）
+    private final int[] winnerVersion;
+
+    private final Map<String, Integer> gaIndex;
+
+    // 每个GA被请求过的版本下标，按需构建
+    private volatile int[][] requestedVersionIds;
+
+    private CompactGraph(String[] gaTable, String[] versionTable, String[] scopeTable, int[] nodeGa, int[] nodeVersion,
+                         int[] nodeScope, int[] nodeParent, int[] nodeDepth, byte[] nodeFlags, int[] winnerVersion,
+                         Map<String, Integer> gaIndex) {
+        this.gaTable = gaTable;
+        this.versionTable = versionTable;
+        this.scopeTable = scopeTable;
+        this.nodeGa = nodeGa;
+        this.nodeVersion = nodeVersion;
+        this.nodeScope = nodeScope;
+        this.nodeParent = nodeParent;
+        this.nodeDepth = nodeDepth;
+        this.nodeFlags = nodeFlags;
+        this.winnerVersion = winnerVersion;
+        this.gaIndex = gaIndex;
+    }
+
+    /**
+     * 从 Aether 依赖图构建紧凑图，无 artifact 的根节点不计入节点数组
+     */
+    public static CompactGraph from(DependencyNode root) {
+        Builder builder = new Builder();
+        Deque<DependencyNode> nodeStack = new ArrayDeque<>();
+        Deque<Integer> parentStack = new ArrayDeque<>();
+        nodeStack.push(root);
+        parentStack.push(-1);
+        while (!nodeStack.isEmpty()) {
+            DependencyNode node = nodeStack.pop();
+            int parent = parentStack.pop();
+            if (node.getArtifact() != null) {
+                parent = builder.add(node, parent);
+            }
+            List<DependencyNode> children = node.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                nodeStack.push(children.get(i));
+                parentStack.push(parent);
+            }
+        }
+        return builder.build();
+    }
+
+    public int nodeCount() { return nodeGa.length; }
+    public int gaCount() { return gaTable.length; }
+
+    public String ga(int gaId) { return gaTable[gaId]; }
+    public String groupId(int gaId) { return gaTable[gaId].substring(0, gaTable[gaId].indexOf(':')); }
+    public String artifactId(int gaId) { return gaTable[gaId].substring(gaTable[gaId].indexOf(':') + 1); }
+    public String version(int versionId) { return versionTable[versionId]; }
+
+    public int nodeGa(int node) { return nodeGa[node]; }
+    public int nodeVersion(int node) { return nodeVersion[node]; }
+    public String nodeScope(int node) { return scopeTable[nodeScope[node]]; }
+    public int nodeParent(int node) { return nodeParent[node]; }
+    public int nodeDepth(int node) { return nodeDepth[node]; }
+    public boolean isLoser(int node) { return (nodeFlags[node] & FLAG_LOSER) != 0; }
+    public boolean isOptional(int node) { return (nodeFlags[node] & FLAG_OPTIONAL) != 0; }
+
+    /**
+     * 查找GA在本图中的下标
+     *
+     * @param ga groupId:artifactId
+     * @return GA下标，不存在时返回 -1
+     */
+    public int indexOfGa(String ga) {
+        Integer index = gaIndex.get(ga);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * 获取GA的胜出版本号，若图中没有胜出节点则返回null
+     */
+    public String winnerVersion(int gaId) {
+        int version = winnerVersion[gaId];
+        return version >= 0 ? versionTable[version] : null;
+    }
+
+    /**
+     * 获取GA在图中被请求过的所有版本号（按首次出现顺序）
+     */
+    public List<String> requestedVersions(int gaId) {
+        int[] ids = requestedVersionIds()[gaId];
+        List<String> versions = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            versions.add(versionTable[id]);
+        }
+        return versions;
+    }
+
+    /**
+     * GA是否被请求了多个不同版本
+     */
+    public boolean hasConflict(int gaId) {
+        return requestedVersionIds()[gaId].length > 1;
+    }
+
+    /**
+     * 一次遍历计算每个GA被请求过的版本下标，结果在首次使用后复用
+     */
+    private int[][] requestedVersionIds() {
+        int[][] ids = requestedVersionIds;
+        if (ids == null) {
+            ids = new int[gaTable.length][0];
+            for (int node = 0; node < nodeGa.length; node++) {
+                int[] current = ids[nodeGa[node]];
+                int version = nodeVersion[node];
+                boolean seen = false;
+                for (int id : current) {
+                    if (id == version) {
+                        seen = true;
+                        break;
+                    }
+                }
+                if (!seen) {
+                    current = Arrays.copyOf(current, current.length + 1);
+                    current[current.length - 1] = version;
+                    ids[nodeGa[node]] = current;
+                }
+            }
+            requestedVersionIds = ids;
+        }
+        return ids;
+    }
+
+    /**
+     * 增量构建器，负责字符串驻留与数组扩容
+     */
+    private static final class Builder {
+        private final Map<String, Integer> gaIndex = new HashMap<>();
+        private final Map<String, Integer> versionIndex = new HashMap<>();
+        private final Map<String, Integer> scopeIndex = new HashMap<>();
+        private final List<String> gas = new ArrayList<>();
+        private final List<String> versions = new ArrayList<>();
+        private final List<String> scopes = new ArrayList<>();
+        private int[] nodeGa = new int[64];
+        private int[] nodeVersion = new int[64];
+        private int[] nodeScope = new int[64];
+        private int[] nodeParent = new int[64];
+        private int[] nodeDepth = new int[64];
+        private byte[] nodeFlags = new byte[64];
+        private int[] winnerVersion = new int[64];
+        private int size;
+
+        int add(DependencyNode node, int parent) {
+            if (size == nodeGa.length) {
+                int capacity = size * 2;
+                nodeGa = Arrays.copyOf(nodeGa, capacity);
+                nodeVersion = Arrays.copyOf(nodeVersion, capacity);
+                nodeScope = Arrays.copyOf(nodeScope, capacity);
+                nodeParent = Arrays.copyOf(nodeParent, capacity);
+                nodeDepth = Arrays.copyOf(nodeDepth, capacity);
+                nodeFlags = Arrays.copyOf(nodeFlags, capacity);
+            }
+            Artifact artifact = node.getArtifact();
+            int gaCount = gas.size();
+            int ga = intern(gaIndex, gas, artifact.getGroupId() + ":" + artifact.getArtifactId());
+            if (ga == gaCount) {
+                // 新GA首次出现，胜出版本先置为 -1
+                if (ga == winnerVersion.length) {
+                    winnerVersion = Arrays.copyOf(winnerVersion, ga * 2);
+                }
+                winnerVersion[ga] = -1;
+            }
+            int version = intern(versionIndex, versions, artifact.getVersion());
+            String scope = node.getDependency() != null ? node.getDependency().getScope() : "compile";
+            boolean loser = node.getData().get(ConflictResolver.NODE_DATA_WINNER) != null;
+            boolean optional = node.getDependency() != null && node.getDependency().isOptional();
+
+            nodeGa[size] = ga;
+            nodeVersion[size] = version;
+            nodeScope[size] = intern(scopeIndex, scopes, scope);
+            nodeParent[size] = parent;
+            nodeDepth[size] = parent >= 0 ? nodeDepth[parent] + 1 : 1;
+            nodeFlags[size] = (byte) ((loser ? FLAG_LOSER : 0) | (optional ? FLAG_OPTIONAL : 0));
+
+            if (!loser && winnerVersion[ga] < 0) {
+                winnerVersion[ga] = version;
+            }
+            return size++;
+        }
+
+        private static int intern(Map<String, Integer> index, List<String> table, String value) {
+            Integer id = index.get(value);
+            if (id == null) {
+                id = table.size();
+                table.add(value);
+                index.put(value, id);
+            }
+            return id;
+        }
+
+        CompactGraph build() {
+            return new CompactGraph(gas.toArray(new String[0]), versions.toArray(new String[0]),
+                    scopes.toArray(new String[0]), Arrays.copyOf(nodeGa, size), Arrays.copyOf(nodeVersion, size),
+                    Arrays.copyOf(nodeScope, size), Arrays.copyOf(nodeParent, size), Arrays.copyOf(nodeDepth, size),
+                    Arrays.copyOf(nodeFlags, size), Arrays.copyOf(winnerVersion, gas.size()), gaIndex);
+        }
+    }
+}
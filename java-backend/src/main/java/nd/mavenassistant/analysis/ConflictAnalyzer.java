@@ -0,0 +1,222 @@
+package nd.mavenassistant.analysis;
+
+import nd.mavenassistant.model.ArtifactConflictInfo;
+import nd.mavenassistant.model.ArtifactGav;
+import nd.mavenassistant.model.ArtifactConflictInfo.LosingPath;
+import nd.mavenassistant.model.ArtifactConflictInfo.VersionChange;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.util.graph.transformer.ConflictResolver;
+import org.eclipse.aether.util.version.GenericVersionScheme;
+import org.eclipse.aether.version.InvalidVersionSpecificationException;
+import org.eclipse.aether.version.Version;
+
+import java.util.*;
+
+/**
+ * 依赖冲突分析引擎
+ * 对已收集（且经 ConflictResolver 以 verbose 模式处理过）的依赖图做一次遍历，
+ * 按 groupId:artifactId 归组所有被请求的版本，给出胜出版本、胜出路径以及所有落败路径
+ */
+public final class ConflictAnalyzer {
+
+    private static final GenericVersionScheme VERSION_SCHEME = new GenericVersionScheme();
+
+    private ConflictAnalyzer() {
+    }
+
+    /**
+     * groupId:artifactId 组合键，避免反复拼接字符串
+     */
+    private record GaKey(String groupId, String artifactId) {
+    }
+
+    /**
+     * 遍历中节点的一次出现，parent 为父出现的下标（根下的一级依赖为 -1）
+     */
+    private record Occurrence(DependencyNode node, int parent) {
+    }
+
+    /**
+     * 分析依赖图中的版本冲突
+     *
+     * @param root 依赖图根节点
+     * @return 存在不同版本请求的构件冲突列表，按首次出现顺序排列
+     */
+    public static List<ArtifactConflictInfo> analyze(DependencyNode root) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        Map<GaKey, List<Integer>> occurrencesByGa = new LinkedHashMap<>();
+
+        // 使用显式栈做前序遍历，保证与声明顺序一致且不受图深度影响
+        Deque<Occurrence> stack = new ArrayDeque<>();
+        stack.push(new Occurrence(root, -1));
+        while (!stack.isEmpty()) {
+            Occurrence current = stack.pop();
+            int parent = current.parent();
+            Artifact artifact = current.node().getArtifact();
+            if (artifact != null) {
+                parent = occurrences.size();
+                occurrences.add(current);
+                occurrencesByGa.computeIfAbsent(new GaKey(artifact.getGroupId(), artifact.getArtifactId()),
+                        k -> new ArrayList<>()).add(parent);
+            }
+            List<DependencyNode> children = current.node().getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(new Occurrence(children.get(i), parent));
+            }
+        }
+
+        List<ArtifactConflictInfo> conflicts = new ArrayList<>();
+        for (Map.Entry<GaKey, List<Integer>> entry : occurrencesByGa.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                ArtifactConflictInfo conflict = buildConflict(entry.getKey(), entry.getValue(), occurrences);
+                if (conflict != null) {
+                    conflicts.add(conflict);
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * 从依赖图推导实际生效的依赖列表：每个GA取 ConflictResolver 选出的胜出节点，
+     * 作为 mvn dependency:list 不可用时的替代
+     *
+     * @param root 依赖图根节点
+     * @return 按前序遍历顺序排列的生效依赖
+     */
+    public static List<ArtifactGav> effectiveArtifacts(DependencyNode root) {
+        List<ArtifactGav> gavs = new ArrayList<>();
+        for (DependencyNode node : effectiveNodes(root)) {
+            Artifact artifact = node.getArtifact();
+            String scope = node.getDependency() != null ? node.getDependency().getScope() : null;
+            gavs.add(new ArtifactGav(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), null, scope));
+        }
+        return gavs;
+    }
+
+    /**
+     * 与 effectiveArtifacts 相同的胜出节点，保留完整构件（含扩展名和 classifier），用于定位本地仓库中的文件
+     *
+     * @param root 依赖图根节点
+     * @return 按前序遍历顺序排列的生效依赖节点
+     */
+    public static List<DependencyNode> effectiveNodes(DependencyNode root) {
+        List<DependencyNode> nodes = new ArrayList<>();
+        Set<GaKey> seen = new HashSet<>();
+        Deque<DependencyNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            DependencyNode node = stack.pop();
+            Artifact artifact = node.getArtifact();
+            if (artifact != null && node != root && getWinner(node) == null
+                    && seen.add(new GaKey(artifact.getGroupId(), artifact.getArtifactId()))) {
+                nodes.add(node);
+            }
+            List<DependencyNode> children = node.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(children.get(i));
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * 为单个GA构建冲突信息，若所有出现的版本都相同则返回null
+     */
+    private static ArtifactConflictInfo buildConflict(GaKey ga, List<Integer> indexes, List<Occurrence> occurrences) {
+        // 胜出节点：未被 ConflictResolver 标记 winner 的出现；若不在图中则取落败节点记录的 winner
+        DependencyNode winnerNode = null;
+        int winnerIndex = -1;
+        for (int index : indexes) {
+            DependencyNode node = occurrences.get(index).node();
+            if (getWinner(node) == null) {
+                winnerNode = node;
+                winnerIndex = index;
+                break;
+            }
+        }
+        if (winnerNode == null) {
+            winnerNode = getWinner(occurrences.get(indexes.get(0)).node());
+        }
+        if (winnerNode == null || winnerNode.getArtifact() == null) {
+            return null;
+        }
+
+        String winnerVersion = winnerNode.getArtifact().getVersion();
+        Version parsedWinner = parseVersion(winnerVersion);
+        Set<String> requestedVersions = new LinkedHashSet<>();
+        List<LosingPath> losingPaths = new ArrayList<>();
+        boolean downgraded = false;
+
+        for (int index : indexes) {
+            String version = occurrences.get(index).node().getArtifact().getVersion();
+            requestedVersions.add(version);
+            if (index == winnerIndex || version.equals(winnerVersion)) {
+                continue;
+            }
+            VersionChange change = compare(parsedWinner, winnerVersion, version) < 0
+                    ? VersionChange.DOWNGRADE
+                    : VersionChange.UPGRADE;
+            downgraded |= change == VersionChange.DOWNGRADE;
+            losingPaths.add(new LosingPath(version, buildPath(index, occurrences), change));
+        }
+
+        if (losingPaths.isEmpty()) {
+            return null;
+        }
+
+        List<String> sortedVersions = new ArrayList<>(requestedVersions);
+        sortedVersions.sort((a, b) -> compare(parseVersion(a), a, b));
+        String scope = winnerNode.getDependency() != null ? winnerNode.getDependency().getScope() : "compile";
+        List<String> winnerPath = winnerIndex >= 0 ? buildPath(winnerIndex, occurrences) : Collections.emptyList();
+        return new ArtifactConflictInfo(ga.groupId(), ga.artifactId(), winnerVersion, scope, winnerPath,
+                sortedVersions, losingPaths, downgraded ? VersionChange.DOWNGRADE : VersionChange.UPGRADE);
+    }
+
+    /**
+     * 获取 ConflictResolver 在落败节点上记录的胜出节点
+     */
+    static DependencyNode getWinner(DependencyNode node) {
+        Object winner = node.getData().get(ConflictResolver.NODE_DATA_WINNER);
+        return winner instanceof DependencyNode ? (DependencyNode) winner : null;
+    }
+
+    /**
+     * 沿父下标回溯，生成从一级依赖到当前节点的 groupId:artifactId:version 路径
+     */
+    private static List<String> buildPath(int index, List<Occurrence> occurrences) {
+        LinkedList<String> path = new LinkedList<>();
+        for (int i = index; i >= 0; i = occurrences.get(i).parent()) {
+            Artifact artifact = occurrences.get(i).node().getArtifact();
+            path.addFirst(artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion());
+        }
+        return new ArrayList<>(path);
+    }
+
+    private static Version parseVersion(String version) {
+        try {
+            return VERSION_SCHEME.parseVersion(version);
+        } catch (InvalidVersionSpecificationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 比较两个版本字符串，无法解析时退化为字符串比较
+     */
+    static int compareVersions(String left, String right) {
+        return compare(parseVersion(left), left, right);
+    }
+
+    /**
+     * 比较两个版本，无法解析时退化为字符串比较
+     */
+    private static int compare(Version parsedLeft, String left, String right) {
+        Version parsedRight = parseVersion(right);
+        if (parsedLeft != null && parsedRight != null) {
+            return parsedLeft.compareTo(parsedRight);
+        }
+        return left.compareTo(right);
+    }
+}
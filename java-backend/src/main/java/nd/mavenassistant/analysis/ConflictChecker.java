@@ -0,0 +1,133 @@
+package nd.mavenassistant.analysis;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.graph.DependencyNode;
+
+import java.util.*;
+
+/**
+ * 按一级依赖检查依赖子树中的问题
+ * 遍历依赖图中每个一级依赖的子树，找出请求版本被仲裁为其他版本或因 scope 不在运行时类路径上的节点
+ */
+public final class ConflictChecker {
+
+    /**
+     * 问题类型
+     */
+    public enum Kind {
+        /** 请求的版本被仲裁为更高版本 */
+        CONFLICT,
+        /** 请求的版本被仲裁为更低版本 */
+        DOWNGRADE,
+        /** 版本相同，但胜出节点的 scope 使其不在运行时类路径上 */
+        DROPPED
+    }
+
+    /**
+     * 子树中的一处问题
+     *
+     * @param path 从一级依赖到问题节点的 groupId:artifactId:version 路径
+     */
+    public record Finding(Kind kind, String groupId, String artifactId, String requestedVersion,
+                          String winnerVersion, String winnerScope, List<String> path) {
+    }
+
+    private static final Set<String> RUNTIME_SCOPES = Set.of("compile", "runtime");
+
+    private ConflictChecker() {
+    }
+
+    /**
+     * 检查依赖图，返回存在问题的一级依赖及其问题列表，键为 {@link #key}，按声明顺序排列
+     */
+    public static Map<String, List<Finding>> check(DependencyNode root) {
+        Map<String, List<Finding>> result = new LinkedHashMap<>();
+        for (DependencyNode direct : root.getChildren()) {
+            Artifact artifact = direct.getArtifact();
+            if (artifact == null) {
+                continue;
+            }
+            List<Finding> findings = findIssues(direct);
+            if (!findings.isEmpty()) {
+                String key = key(artifact.getGroupId(), artifact.getArtifactId(), artifact.getExtension(), artifact.getClassifier());
+                result.computeIfAbsent(key, k -> new ArrayList<>()).addAll(findings);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 一级依赖的结果键：groupId:artifactId，扩展名不是 jar 或带 classifier 时追加 :extension[:classifier]
+     */
+    public static String key(String groupId, String artifactId, String extension, String classifier) {
+        String key = groupId + ":" + artifactId;
+        boolean classified = classifier != null && !classifier.isEmpty();
+        if (classified || (extension != null && !extension.isEmpty() && !"jar".equals(extension))) {
+            key += ":" + (extension == null || extension.isEmpty() ? "jar" : extension);
+            if (classified) {
+                key += ":" + classifier;
+            }
+        }
+        return key;
+    }
+
+    /**
+     * 查找一级依赖子树中被仲裁掉的节点
+     */
+    private static List<Finding> findIssues(DependencyNode direct) {
+        List<Finding> findings = new ArrayList<>();
+        Deque<DependencyNode> nodes = new ArrayDeque<>();
+        Deque<List<String>> paths = new ArrayDeque<>();
+        nodes.push(direct);
+        paths.push(Collections.singletonList(coordinates(direct.getArtifact())));
+        while (!nodes.isEmpty()) {
+            DependencyNode node = nodes.pop();
+            List<String> path = paths.pop();
+            Finding finding = toFinding(node, path);
+            if (finding != null) {
+                findings.add(finding);
+            }
+            List<DependencyNode> children = node.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                DependencyNode child = children.get(i);
+                if (child.getArtifact() == null) {
+                    continue;
+                }
+                List<String> childPath = new ArrayList<>(path.size() + 1);
+                childPath.addAll(path);
+                childPath.add(coordinates(child.getArtifact()));
+                nodes.push(child);
+                paths.push(childPath);
+            }
+        }
+        return findings;
+    }
+
+    private static Finding toFinding(DependencyNode node, List<String> path) {
+        DependencyNode winner = ConflictAnalyzer.getWinner(node);
+        if (winner == null || winner.getArtifact() == null || node.getArtifact() == null) {
+            return null;
+        }
+        Artifact artifact = node.getArtifact();
+        String requested = artifact.getVersion();
+        String winnerVersion = winner.getArtifact().getVersion();
+        String winnerScope = scopeOf(winner);
+        Kind kind;
+        if (!requested.equals(winnerVersion)) {
+            kind = ConflictAnalyzer.compareVersions(winnerVersion, requested) < 0 ? Kind.DOWNGRADE : Kind.CONFLICT;
+        } else if (RUNTIME_SCOPES.contains(scopeOf(node)) && !RUNTIME_SCOPES.contains(winnerScope)) {
+            kind = Kind.DROPPED;
+        } else {
+            return null;
+        }
+        return new Finding(kind, artifact.getGroupId(), artifact.getArtifactId(), requested, winnerVersion, winnerScope, path);
+    }
+
+    private static String scopeOf(DependencyNode node) {
+        return node.getDependency() != null ? node.getDependency().getScope() : null;
+    }
+
+    private static String coordinates(Artifact artifact) {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+    }
+}
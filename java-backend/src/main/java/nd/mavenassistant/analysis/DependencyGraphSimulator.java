@@ -0,0 +1,204 @@
+package nd.mavenassistant.analysis;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.util.graph.transformer.ConflictResolver;
+
+import java.util.*;
+
+/**
+ * 在已收集的依赖图上模拟修改 POM 的效果（添加 exclusion、通过 dependencyManagement 锁定版本），不写回 POM
+ * 按层序遍历原图，跳过被排除的节点、替换被锁定的版本，并以"最近者优先、同层先声明者优先"重新仲裁：每个GA第一次出现的节点胜出并展开，
+ * 其余出现作为落败节点（记录 NODE_DATA_WINNER）保留为叶子。胜出节点的子节点取自原图或调用方补充收集的子树中同一GAV展开过的节点；
+ * 都找不到时记录在 {@link Result#getUnresolved()} 中
+ */
+public final class DependencyGraphSimulator {
+
+    private DependencyGraphSimulator() {
+    }
+
+    /**
+     * 一条假设的 exclusion
+     *
+     * @param rootGa     添加 exclusion 的一级依赖 groupId:artifactId，为 null 时作用于所有一级依赖
+     * @param groupId    被排除的 groupId，支持 *
+     * @param artifactId 被排除的 artifactId，支持 *
+     */
+    public record SimulatedExclusion(String rootGa, String groupId, String artifactId) {
+    }
+
+    /**
+     * 模拟结果
+     */
+    public static final class Result {
+        private final DependencyNode root;
+        private final Set<String> unresolved;
+
+        Result(DependencyNode root, Set<String> unresolved) {
+            this.root = root;
+            this.unresolved = unresolved;
+        }
+
+        /**
+         * 应用修改并重新仲裁后的依赖图，原图不会被修改
+         */
+        public DependencyNode getRoot() {
+            return root;
+        }
+
+        /**
+         * 重新仲裁后胜出、但原图和补充子树中都没有子节点信息的 groupId:artifactId:version，其传递依赖需重新收集才能确定
+         */
+        public Set<String> getUnresolved() {
+            return unresolved;
+        }
+    }
+
+    /**
+     * 层序遍历中待处理的原图节点
+     */
+    private record Pending(DependencyNode node, DefaultDependencyNode parent, Set<String> exclusions, boolean direct) {
+    }
+
+    /**
+     * 模拟添加 exclusion 后的依赖图
+     *
+     * @param root       已收集（经 ConflictResolver 以 verbose 模式处理过）的依赖图根节点
+     * @param exclusions 假设添加的 exclusion
+     */
+    public static Result simulate(DependencyNode root, List<SimulatedExclusion> exclusions) {
+        return simulate(root, exclusions, Collections.emptyMap(), Collections.emptyList());
+    }
+
+    /**
+     * 模拟添加 exclusion 并锁定版本后的依赖图
+     * 与 Maven 的 dependencyManagement 一致，锁定的版本只作用于传递依赖，不覆盖一级依赖声明的版本
+     *
+     * @param root       已收集（经 ConflictResolver 以 verbose 模式处理过）的依赖图根节点
+     * @param exclusions 假设添加的 exclusion
+     * @param pins       groupId:artifactId 到锁定版本的映射
+     * @param subtrees   补充收集的子树（如锁定版本在原图中未展开过时单独收集的结果），优先使用原图中的子节点
+     */
+    public static Result simulate(DependencyNode root, List<SimulatedExclusion> exclusions, Map<String, String> pins,
+                                  List<DependencyNode> subtrees) {
+        // 每个GAV展开过子节点的节点
+        Map<String, DependencyNode> expanded = new HashMap<>();
+        collectExpanded(root, expanded);
+        for (DependencyNode subtree : subtrees) {
+            collectExpanded(subtree, expanded);
+        }
+
+        DefaultDependencyNode copy = copy(root);
+        Map<String, DefaultDependencyNode> winners = new HashMap<>();
+        Set<String> unresolved = new LinkedHashSet<>();
+        Deque<Pending> queue = new ArrayDeque<>();
+        for (DependencyNode child : root.getChildren()) {
+            queue.add(new Pending(child, copy, Collections.emptySet(), true));
+        }
+        while (!queue.isEmpty()) {
+            Pending pending = queue.poll();
+            Artifact artifact = pending.node().getArtifact();
+            if (isExcluded(pending.exclusions(), artifact.getGroupId(), artifact.getArtifactId())) {
+                continue;
+            }
+            DefaultDependencyNode node = copy(pending.node());
+            pending.parent().getChildren().add(node);
+
+            String ga = artifact.getGroupId() + ":" + artifact.getArtifactId();
+            String pinned = pending.direct() ? null : pins.get(ga);
+            boolean overridden = pinned != null && !pinned.equals(artifact.getVersion());
+            if (overridden) {
+                artifact = artifact.setVersion(pinned);
+                node.setArtifact(artifact);
+            }
+            DefaultDependencyNode winner = winners.get(ga);
+            if (winner != null) {
+                node.setData(ConflictResolver.NODE_DATA_WINNER, winner);
+                continue;
+            }
+            winners.put(ga, node);
+            DependencyNode source = !overridden && ConflictAnalyzer.getWinner(pending.node()) == null
+                    ? pending.node() : expanded.get(gav(artifact));
+            if (source == null) {
+                unresolved.add(gav(artifact));
+                continue;
+            }
+            Set<String> childExclusions = childExclusions(pending, ga, exclusions);
+            for (DependencyNode child : source.getChildren()) {
+                queue.add(new Pending(child, node, childExclusions, false));
+            }
+        }
+        return new Result(copy, unresolved);
+    }
+
+    /**
+     * 记录图中每个GAV第一个展开过子节点（未落败）的节点，已有记录的GAV不覆盖
+     */
+    private static void collectExpanded(DependencyNode root, Map<String, DependencyNode> expanded) {
+        Deque<DependencyNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            DependencyNode node = stack.pop();
+            if (node != root && node.getArtifact() != null && ConflictAnalyzer.getWinner(node) == null) {
+                expanded.putIfAbsent(gav(node.getArtifact()), node);
+            }
+            for (DependencyNode child : node.getChildren()) {
+                stack.push(child);
+            }
+        }
+    }
+
+    /**
+     * 子节点生效的 exclusion：父路径上的 exclusion、当前依赖声明的 exclusion，以及作用于该一级依赖的假设 exclusion
+     */
+    private static Set<String> childExclusions(Pending pending, String ga, List<SimulatedExclusion> simulated) {
+        Set<String> result = pending.exclusions();
+        if (pending.node().getDependency() != null) {
+            for (Exclusion exclusion : pending.node().getDependency().getExclusions()) {
+                result = with(result, exclusion.getGroupId() + ":" + exclusion.getArtifactId());
+            }
+        }
+        if (pending.direct()) {
+            for (SimulatedExclusion exclusion : simulated) {
+                if (exclusion.rootGa() == null || exclusion.rootGa().equals(ga)) {
+                    result = with(result, exclusion.groupId() + ":" + exclusion.artifactId());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 追加一项，父节点的集合在同层节点间共享，有变化时才复制
+     */
+    private static Set<String> with(Set<String> exclusions, String ga) {
+        if (exclusions.contains(ga)) {
+            return exclusions;
+        }
+        Set<String> result = new HashSet<>(exclusions);
+        result.add(ga);
+        return result;
+    }
+
+    private static boolean isExcluded(Set<String> exclusions, String groupId, String artifactId) {
+        return !exclusions.isEmpty() && (exclusions.contains(groupId + ":" + artifactId)
+                || exclusions.contains(groupId + ":*") || exclusions.contains("*:" + artifactId)
+                || exclusions.contains("*:*"));
+    }
+
+    /**
+     * 复制节点本身（不含子节点），清除原有的仲裁标记
+     */
+    private static DefaultDependencyNode copy(DependencyNode node) {
+        DefaultDependencyNode copy = new DefaultDependencyNode(node);
+        copy.setData(ConflictResolver.NODE_DATA_WINNER, null);
+        copy.setChildren(new ArrayList<>());
+        return copy;
+    }
+
+    private static String gav(Artifact artifact) {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+    }
+}
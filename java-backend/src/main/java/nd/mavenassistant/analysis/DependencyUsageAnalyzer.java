@@ -0,0 +1,322 @@
+package nd.mavenassistant.analysis;
+
+import nd.mavenassistant.metrics.HitCounter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * 基于字节码的依赖使用分析
+ * 解析项目编译输出中每个类文件的常量池得到引用的类，与类路径上各 jar 的类名索引匹配，
+ * 给出未使用的声明依赖和使用了但未声明的（传递）依赖。类文件和 jar 都在线程池中并行读取，
+ * 结果按文件路径缓存，文件的修改时间和大小不变时直接复用；已删除文件的缓存在下次分析时清除，缓存超过上限时整体丢弃
+ */
+public class DependencyUsageAnalyzer {
+
+    /** 每个构件在结果中最多列出的被引用类数 */
+    private static final int MAX_SAMPLE_CLASSES = 5;
+    /** 每个并行任务处理的类文件数 */
+    private static final int CLASS_BATCH = 256;
+    /** 缓存的 jar 数上限 */
+    private static final int MAX_CACHED_JARS = 4096;
+    /** 缓存的类文件数上限 */
+    private static final int MAX_CACHED_CLASS_FILES = 100_000;
+
+    /**
+     * 类路径上的一个构件
+     *
+     * @param scope    依赖范围，test 范围的依赖同时按测试类的引用判断
+     * @param declared 是否在 pom.xml 中直接声明
+     * @param jar      本地仓库中的 jar，不存在时该构件只能按未使用处理
+     */
+    public record ClasspathEntry(String groupId, String artifactId, String version, String scope, boolean declared, Path jar) {
+    }
+
+    /**
+     * 单个构件的使用情况
+     */
+    public static class Usage {
+        public String groupId;
+        public String artifactId;
+        public String version;
+        public String scope;
+        public int referencedClasses; // 项目引用的该构件中的类数
+        public List<String> classes; // 部分被引用的类名（点分形式）
+
+        Usage(ClasspathEntry entry) {
+            this.groupId = entry.groupId();
+            this.artifactId = entry.artifactId();
+            this.version = entry.version();
+            this.scope = entry.scope();
+        }
+    }
+
+    /**
+     * 分析结果
+     */
+    public static class Report {
+        public boolean success = true;
+        public List<Usage> usedDeclared = new ArrayList<>();
+        public List<Usage> unusedDeclared = new ArrayList<>(); // runtime/system 范围的依赖本就不需要在代码中引用，仍按原样列出
+        public List<Usage> usedUndeclared = new ArrayList<>();
+        public int scannedClasses;
+        public int unresolvedReferences; // 既不在项目中也不在类路径 jar 中的类（JDK 类不计）
+        public List<String> missingJars = new ArrayList<>(); // 本地仓库中找不到 jar 的构件
+    }
+
+    private record Stamp(long lastModified, long size) {
+        static Stamp of(Path file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new Stamp(attributes.lastModifiedTime().toMillis(), attributes.size());
+        }
+    }
+
+    private record Cached<T>(Stamp stamp, T value) {
+    }
+
+    private final ExecutorService executor;
+    private final Map<Path, Cached<List<String>>> jarClasses = new ConcurrentHashMap<>();
+    private final Map<Path, Cached<Set<String>>> classReferences = new ConcurrentHashMap<>();
+    private final HitCounter jarStats = new HitCounter();
+
+    public DependencyUsageAnalyzer(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 分析项目对类路径上构件的使用情况
+     *
+     * @param classesDir     主代码编译输出目录（target/classes）
+     * @param testClassesDir 测试代码编译输出目录，可为 null 或不存在
+     * @param classpath      按类路径顺序排列的构件，同一个类出现在多个 jar 中时归属于排在前面的构件
+     */
+    public Report analyze(Path classesDir, Path testClassesDir, List<ClasspathEntry> classpath) throws IOException {
+        pruneCaches();
+        Set<String> projectClasses = new HashSet<>();
+        Set<String> mainReferences = scanDirectory(classesDir, projectClasses);
+        Set<String> testReferences = testClassesDir != null && Files.isDirectory(testClassesDir)
+                ? scanDirectory(testClassesDir, projectClasses) : new HashSet<>();
+
+        Report report = new Report();
+        report.scannedClasses = projectClasses.size();
+        Map<String, Integer> owners = indexClasspath(classpath, report);
+
+        int[] mainCounts = new int[classpath.size()];
+        int[] testCounts = new int[classpath.size()];
+        List<List<String>> mainSamples = samples(classpath.size());
+        List<List<String>> testSamples = samples(classpath.size());
+        Set<String> unresolved = new HashSet<>();
+        countReferences(mainReferences, projectClasses, owners, mainCounts, mainSamples, unresolved);
+        testReferences.removeAll(mainReferences);
+        countReferences(testReferences, projectClasses, owners, testCounts, testSamples, unresolved);
+        report.unresolvedReferences = unresolved.size();
+
+        for (int i = 0; i < classpath.size(); i++) {
+            ClasspathEntry entry = classpath.get(i);
+            Usage usage = new Usage(entry);
+            usage.referencedClasses = mainCounts[i];
+            usage.classes = mainSamples.get(i);
+            if ("test".equals(entry.scope())) {
+                usage.referencedClasses += testCounts[i];
+                for (String name : testSamples.get(i)) {
+                    if (usage.classes.size() < MAX_SAMPLE_CLASSES) {
+                        usage.classes.add(name);
+                    }
+                }
+            }
+            int count = usage.referencedClasses;
+            if (entry.declared()) {
+                (count > 0 ? report.usedDeclared : report.unusedDeclared).add(usage);
+            } else if (count > 0) {
+                report.usedUndeclared.add(usage);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * 清除已删除 jar 的缓存，缓存数量超过上限时全部丢弃
+     */
+    private void pruneCaches() {
+        jarClasses.keySet().removeIf(jar -> !Files.isRegularFile(jar));
+        if (jarClasses.size() > MAX_CACHED_JARS) {
+            jarClasses.clear();
+        }
+        if (classReferences.size() > MAX_CACHED_CLASS_FILES) {
+            classReferences.clear();
+        }
+    }
+
+    /**
+     * 并行解析目录下所有类文件，返回引用的类并记录目录中定义的类；目录下已删除类文件的缓存同时清除
+     */
+    private Set<String> scanDirectory(Path dir, Set<String> projectClasses) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(dir)) {
+            files = stream.filter(path -> path.toString().endsWith(".class")).toList();
+        }
+        Set<Path> present = new HashSet<>(files);
+        classReferences.keySet().removeIf(file -> file.startsWith(dir) && !present.contains(file));
+        for (Path file : files) {
+            String name = dir.relativize(file).toString().replace(java.io.File.separatorChar, '/');
+            projectClasses.add(name.substring(0, name.length() - ".class".length()));
+        }
+        List<Future<Set<String>>> futures = new ArrayList<>();
+        for (int start = 0; start < files.size(); start += CLASS_BATCH) {
+            List<Path> batch = files.subList(start, Math.min(files.size(), start + CLASS_BATCH));
+            futures.add(executor.submit(() -> {
+                Set<String> references = new HashSet<>();
+                for (Path file : batch) {
+                    references.addAll(classReferences(file));
+                }
+                return references;
+            }));
+        }
+        Set<String> references = new HashSet<>();
+        for (Future<Set<String>> future : futures) {
+            references.addAll(await(future));
+        }
+        return references;
+    }
+
+    private Set<String> classReferences(Path file) {
+        try {
+            Stamp stamp = Stamp.of(file);
+            Cached<Set<String>> cached = classReferences.get(file);
+            if (cached != null && cached.stamp().equals(stamp)) {
+                return cached.value();
+            }
+            Set<String> references = new HashSet<>();
+            try {
+                ClassFileScanner.referencedClasses(ByteBuffer.wrap(Files.readAllBytes(file)), references);
+            } catch (RuntimeException e) {
+                // 损坏或格式不支持的类文件按无引用处理
+                references = Collections.emptySet();
+            }
+            classReferences.put(file, new Cached<>(stamp, references));
+            return references;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 并行读取各 jar 的类名，建立类名到类路径下标的索引
+     */
+    private Map<String, Integer> indexClasspath(List<ClasspathEntry> classpath, Report report) throws IOException {
+        List<Future<List<String>>> futures = new ArrayList<>(classpath.size());
+        for (ClasspathEntry entry : classpath) {
+            Path jar = entry.jar();
+            futures.add(jar != null && Files.isRegularFile(jar) ? executor.submit(() -> jarClassNames(jar)) : null);
+        }
+        Map<String, Integer> owners = new HashMap<>();
+        for (int i = 0; i < classpath.size(); i++) {
+            if (futures.get(i) == null) {
+                ClasspathEntry entry = classpath.get(i);
+                report.missingJars.add(entry.groupId() + ":" + entry.artifactId() + ":" + entry.version());
+                continue;
+            }
+            for (String name : await(futures.get(i))) {
+                owners.putIfAbsent(name, i);
+            }
+        }
+        return owners;
+    }
+
+    private List<String> jarClassNames(Path jar) {
+        try {
+            Stamp stamp = Stamp.of(jar);
+            Cached<List<String>> cached = jarClasses.get(jar);
+            boolean hit = cached != null && cached.stamp().equals(stamp);
+            jarStats.record(hit);
+            if (hit) {
+                return cached.value();
+            }
+            List<String> names;
+            try {
+                names = ClassFileScanner.jarClassNames(jar);
+            } catch (IOException e) {
+                // 损坏的 jar 按不含任何类处理
+                names = Collections.emptyList();
+            }
+            jarClasses.put(jar, new Cached<>(stamp, names));
+            return names;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<List<String>> samples(int size) {
+        List<List<String>> samples = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            samples.add(new ArrayList<>());
+        }
+        return samples;
+    }
+
+    private static void countReferences(Set<String> references, Set<String> projectClasses, Map<String, Integer> owners,
+                                        int[] counts, List<List<String>> samples, Set<String> unresolved) {
+        for (String reference : references) {
+            if (projectClasses.contains(reference)) {
+                continue;
+            }
+            Integer owner = owners.get(reference);
+            if (owner == null) {
+                if (!reference.startsWith("java/") && !reference.startsWith("javax/") && !reference.startsWith("jdk/")
+                        && !reference.startsWith("sun/")) {
+                    unresolved.add(reference);
+                }
+                continue;
+            }
+            counts[owner]++;
+            if (samples.get(owner).size() < MAX_SAMPLE_CLASSES) {
+                samples.get(owner).add(reference.replace('/', '.'));
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while scanning classes", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * 已缓存类名的 jar 数
+     */
+    public int getJarCacheSize() {
+        return jarClasses.size();
+    }
+
+    /**
+     * 已缓存引用的类文件数
+     */
+    int getClassCacheSize() {
+        return classReferences.size();
+    }
+
+    /**
+     * jar 类名缓存的命中统计
+     */
+    public HitCounter getJarStats() {
+        return jarStats;
+    }
+}
@@ -0,0 +1,82 @@
+package nd.mavenassistant.analysis;
+
+import nd.mavenassistant.model.DependencyDiff;
+import nd.mavenassistant.model.DependencyDiff.ArtifactChange;
+import nd.mavenassistant.model.DependencyDiff.ConflictChange;
+import nd.mavenassistant.model.DependencyDiff.ConflictStatus;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 基于紧凑图的依赖差异计算
+ * 两侧各按GA下标遍历一次，整体复杂度与节点数和GA数成线性关系
+ */
+public final class GraphDiffer {
+
+    private GraphDiffer() {
+    }
+
+    /**
+     * 比较基准图与目标图
+     *
+     * @param base   基准版本（如 HEAD）的紧凑依赖图
+     * @param target 目标版本（如工作区）的紧凑依赖图
+     * @return 依赖差异
+     */
+    public static DependencyDiff diff(CompactGraph base, CompactGraph target) {
+        DependencyDiff diff = new DependencyDiff();
+
+        for (int ga = 0; ga < base.gaCount(); ga++) {
+            int other = target.indexOfGa(base.ga(ga));
+            String baseWinner = base.winnerVersion(ga);
+            String targetWinner = other >= 0 ? target.winnerVersion(other) : null;
+
+            if (baseWinner != null && targetWinner == null) {
+                diff.getRemoved().add(new ArtifactChange(base.groupId(ga), base.artifactId(ga), baseWinner, null));
+            } else if (baseWinner == null && targetWinner != null) {
+                diff.getAdded().add(new ArtifactChange(base.groupId(ga), base.artifactId(ga), null, targetWinner));
+            } else if (baseWinner != null && !baseWinner.equals(targetWinner)) {
+                diff.getVersionChanged().add(new ArtifactChange(base.groupId(ga), base.artifactId(ga), baseWinner, targetWinner));
+            }
+
+            boolean baseConflict = base.hasConflict(ga);
+            boolean targetConflict = other >= 0 && target.hasConflict(other);
+            if (baseConflict || targetConflict) {
+                List<String> baseVersions = base.requestedVersions(ga);
+                List<String> targetVersions = other >= 0 ? target.requestedVersions(other) : List.of();
+                ConflictStatus status = null;
+                if (!targetConflict) {
+                    status = ConflictStatus.RESOLVED;
+                } else if (!baseConflict) {
+                    status = ConflictStatus.NEW;
+                } else if (!Objects.equals(baseWinner, targetWinner)
+                        || !new HashSet<>(baseVersions).equals(new HashSet<>(targetVersions))) {
+                    // 请求版本按首次出现顺序排列，经由不同路径得到相同版本集合时顺序可能不同，按集合比较
+                    status = ConflictStatus.CHANGED;
+                }
+                if (status != null) {
+                    diff.getConflictChanges().add(new ConflictChange(base.groupId(ga), base.artifactId(ga), status,
+                            baseWinner, targetWinner, baseVersions, targetVersions));
+                }
+            }
+        }
+
+        // 仅在目标图中出现的GA
+        for (int ga = 0; ga < target.gaCount(); ga++) {
+            if (base.indexOfGa(target.ga(ga)) >= 0) {
+                continue;
+            }
+            String targetWinner = target.winnerVersion(ga);
+            if (targetWinner != null) {
+                diff.getAdded().add(new ArtifactChange(target.groupId(ga), target.artifactId(ga), null, targetWinner));
+            }
+            if (target.hasConflict(ga)) {
+                diff.getConflictChanges().add(new ConflictChange(target.groupId(ga), target.artifactId(ga),
+                        ConflictStatus.NEW, null, targetWinner, List.of(), target.requestedVersions(ga)));
+            }
+        }
+        return diff;
+    }
+}
@@ -1,6 +1,12 @@
 package nd.mavenassistant.cache;
 
-import java.util.HashMap;
+import nd.mavenassistant.analysis.CompactGraph;
+import nd.mavenassistant.metrics.HitCounter;
+import org.apache.maven.model.Model;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.RepositoryCache;
+import org.eclipse.aether.graph.DependencyNode;
+
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -11,12 +17,23 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class DependencyCache {
     
-    // 依赖分析结果缓存
-    private final Map<CacheKey, CacheEntry> dependencyCache = new HashMap<>();
+    // 依赖分析结果缓存（线程安全）
+    private final Map<CacheKey, CacheEntry> dependencyCache = new ConcurrentHashMap<>();
+    
+    // 已收集的依赖图缓存，供冲突分析等请求复用，避免重复收集（线程安全）
+    private final Map<CacheKey, GraphEntry> graphCache = new ConcurrentHashMap<>();
+    
+    // 构件描述符缓存，跨会话共享给 Resolver，避免重复读取和解析依赖的 POM
+    private volatile RepositoryCache descriptorCache = new DefaultRepositoryCache();
     
     // 文件大小缓存，避免重复的文件I/O操作（线程安全）
     private final Map<String, Long> fileSizeCache = new ConcurrentHashMap<>();
     
+    // 命中统计
+    private final HitCounter resultStats = new HitCounter();
+    private final HitCounter graphStats = new HitCounter();
+    private final HitCounter fileSizeStats = new HitCounter();
+    
     // 缓存过期时间：5分钟
     private static final long CACHE_EXPIRY_MS = 5 * 60 * 1000;
     
@@ -26,10 +43,55 @@ public class DependencyCache {
     public static class CacheKey {
         private final String pomPath;
         private final long pomLastModified;
+        private final String variant; // 区分同一POM的不同结果，如按内容分析时为内容摘要
         
         public CacheKey(String pomPath, long pomLastModified) {
+            this(pomPath, pomLastModified, "");
+        }
+        
+        public CacheKey(String pomPath, long pomLastModified, String variant) {
             this.pomPath = pomPath;
             this.pomLastModified = pomLastModified;
+            this.variant = variant;
+        }
+        
+        /**
+         * 为未落盘的POM内容创建缓存键，以内容摘要代替修改时间
+         */
+        public static CacheKey forContent(String pomPath, String content) {
+            return new CacheKey(pomPath, -1, "content:" + digest(content));
+        }
+        
+        /**
+         * 在当前键的基础上追加区分项（如依赖收集策略），suffix 为空时返回自身
+         */
+        public CacheKey withVariant(String suffix) {
+            if (suffix == null || suffix.isEmpty()) {
+                return this;
+            }
+            return new CacheKey(pomPath, pomLastModified, variant.isEmpty() ? suffix : variant + "|" + suffix);
+        }
+        
+        /**
+         * 按内容创建的键所在的槽位（路径加内容摘要之后的区分项），同一槽位只保留最新内容的结果；
+         * 按修改时间创建的键返回null
+         */
+        String contentSlot() {
+            if (!variant.startsWith("content:")) {
+                return null;
+            }
+            int suffix = variant.indexOf('|');
+            return pomPath + (suffix < 0 ? "" : variant.substring(suffix));
+        }
+        
+        private static String digest(String content) {
+            try {
+                byte[] hash = java.security.MessageDigest.getInstance("SHA-256")
+                        .digest(content.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                return java.util.HexFormat.of().formatHex(hash);
+            } catch (java.security.NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
         }
         
         @Override
@@ -37,12 +99,13 @@ public class DependencyCache {
             if (this == obj) return true;
             if (obj == null || getClass() != obj.getClass()) return false;
             CacheKey cacheKey = (CacheKey) obj;
-            return pomLastModified == cacheKey.pomLastModified && Objects.equals(pomPath, cacheKey.pomPath);
+            return pomLastModified == cacheKey.pomLastModified && Objects.equals(pomPath, cacheKey.pomPath)
+                    && Objects.equals(variant, cacheKey.variant);
         }
         
         @Override
         public int hashCode() {
-            return Objects.hash(pomPath, pomLastModified);
+            return Objects.hash(pomPath, pomLastModified, variant);
         }
     }
     
@@ -51,41 +114,185 @@ public class DependencyCache {
      */
     public static class CacheEntry {
         private final String result;
-        private final long timestamp;
+        private final Map<String, Object> tree;
+        private volatile long timestamp;
+        private volatile boolean prewarmed;
         
         public CacheEntry(String result, long timestamp) {
+            this(result, null, timestamp);
+        }
+        
+        public CacheEntry(String result, Map<String, Object> tree, long timestamp) {
             this.result = result;
+            this.tree = tree;
             this.timestamp = timestamp;
         }
         
         public boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_EXPIRY_MS;
+            return !prewarmed && System.currentTimeMillis() - timestamp > CACHE_EXPIRY_MS;
+        }
+        
+        /**
+         * 标记为后台预热的结果，首次读取前不过期
+         */
+        public void markPrewarmed() {
+            prewarmed = true;
+        }
+        
+        // 首次读取预热结果后转为普通条目，从读取时开始计算过期时间
+        private void claim() {
+            if (prewarmed) {
+                timestamp = System.currentTimeMillis();
+                prewarmed = false;
+            }
         }
         
         public String getResult() {
             return result;
         }
+        
+        /**
+         * 序列化前的依赖树，供带过滤条件的请求复用，未保存时为null
+         */
+        public Map<String, Object> getTree() {
+            return tree;
+        }
+    }
+    
+    /**
+     * 依赖图缓存条目，保存有效模型和收集得到的依赖图根节点
+     */
+    public static class GraphEntry {
+        private final Model model;
+        private final DependencyNode root;
+        private volatile long timestamp;
+        private volatile boolean prewarmed;
+        private volatile CompactGraph compactGraph;
+        
+        public GraphEntry(Model model, DependencyNode root, long timestamp) {
+            this.model = model;
+            this.root = root;
+            this.timestamp = timestamp;
+        }
+        
+        public boolean isExpired() {
+            return !prewarmed && System.currentTimeMillis() - timestamp > CACHE_EXPIRY_MS;
+        }
+        
+        /**
+         * 标记为后台预热的依赖图，首次读取前不过期
+         */
+        public void markPrewarmed() {
+            prewarmed = true;
+        }
+        
+        // 首次读取预热结果后转为普通条目，从读取时开始计算过期时间
+        private void claim() {
+            if (prewarmed) {
+                timestamp = System.currentTimeMillis();
+                prewarmed = false;
+            }
+        }
+        
+        public Model getModel() {
+            return model;
+        }
+        
+        public DependencyNode getRoot() {
+            return root;
+        }
+        
+        /**
+         * 获取依赖图的紧凑表示，首次调用时构建并复用
+         */
+        public CompactGraph getCompactGraph() {
+            CompactGraph graph = compactGraph;
+            if (graph == null) {
+                graph = CompactGraph.from(root);
+                compactGraph = graph;
+            }
+            return graph;
+        }
     }
     
     /**
      * 获取缓存的依赖分析结果
      */
     public CacheEntry getDependencyResult(CacheKey key) {
-        return dependencyCache.get(key);
+        CacheEntry entry = dependencyCache.get(key);
+        if (entry != null) {
+            entry.claim();
+        }
+        resultStats.record(entry != null && !entry.isExpired());
+        return entry;
     }
     
     /**
      * 缓存依赖分析结果
      */
     public void putDependencyResult(CacheKey key, String result) {
+        evictOlderContent(dependencyCache, key);
         dependencyCache.put(key, new CacheEntry(result, System.currentTimeMillis()));
     }
     
+    /**
+     * 缓存依赖分析结果及其序列化前的依赖树
+     *
+     * @return 新的缓存条目
+     */
+    public CacheEntry putDependencyResult(CacheKey key, String result, Map<String, Object> tree) {
+        CacheEntry entry = new CacheEntry(result, tree, System.currentTimeMillis());
+        evictOlderContent(dependencyCache, key);
+        dependencyCache.put(key, entry);
+        return entry;
+    }
+    
+    /**
+     * 获取缓存的依赖图
+     */
+    public GraphEntry getDependencyGraph(CacheKey key) {
+        GraphEntry entry = graphCache.get(key);
+        if (entry != null) {
+            entry.claim();
+        }
+        graphStats.record(entry != null && !entry.isExpired());
+        return entry;
+    }
+    
+    /**
+     * 缓存依赖图
+     *
+     * @return 新建的缓存条目
+     */
+    public GraphEntry putDependencyGraph(CacheKey key, Model model, DependencyNode root) {
+        GraphEntry entry = new GraphEntry(model, root, System.currentTimeMillis());
+        evictOlderContent(graphCache, key);
+        graphCache.put(key, entry);
+        return entry;
+    }
+    
+    // 编辑中的POM每次防抖后内容都不同，写入新内容的结果前移除同一槽位中旧内容的结果
+    private static void evictOlderContent(Map<CacheKey, ?> cache, CacheKey key) {
+        String slot = key.contentSlot();
+        if (slot != null) {
+            cache.keySet().removeIf(existing -> !existing.equals(key) && slot.equals(existing.contentSlot()));
+        }
+    }
+    
+    /**
+     * 获取跨会话共享的构件描述符缓存
+     */
+    public RepositoryCache getDescriptorCache() {
+        return descriptorCache;
+    }
+    
     /**
      * 获取文件大小缓存
      */
     public Long getFileSize(String filePath) {
-        return fileSizeCache.get(filePath);
+        Long size = fileSizeCache.get(filePath);
+        fileSizeStats.record(size != null);
+        return size;
     }
     
     /**
@@ -100,6 +307,8 @@ public class DependencyCache {
      */
     public void clearCaches() {
         dependencyCache.clear();
+        graphCache.clear();
+        descriptorCache = new DefaultRepositoryCache();
         fileSizeCache.clear();
     }
     
@@ -108,6 +317,7 @@ public class DependencyCache {
      */
     public void cleanupExpiredCaches() {
         dependencyCache.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        graphCache.entrySet().removeIf(entry -> entry.getValue().isExpired());
     }
     
     /**
@@ -117,10 +327,38 @@ public class DependencyCache {
         return dependencyCache.size();
     }
     
+    /**
+     * 获取依赖图缓存大小
+     */
+    public int getGraphCacheSize() {
+        return graphCache.size();
+    }
+    
     /**
      * 获取文件大小缓存大小
      */
     public int getFileSizeCacheSize() {
         return fileSizeCache.size();
     }
-}
\ No newline at end of file
+    
+    /**
+     * 获取依赖分析结果缓存的命中统计
+     */
+    public HitCounter getResultStats() {
+        return resultStats;
+    }
+    
+    /**
+     * 获取依赖图缓存的命中统计
+     */
+    public HitCounter getGraphStats() {
+        return graphStats;
+    }
+    
+    /**
+     * 获取文件大小缓存的命中统计
+     */
+    public HitCounter getFileSizeStats() {
+        return fileSizeStats;
+    }
+}
@@ -0,0 +1,585 @@
+package nd.mavenassistant.index;
+
+import nd.mavenassistant.metrics.HitCounter;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * 本地仓库构件搜索索引
+ * 以 groupId、artifactId 和 jar 中类的简单名分词，建立词项到构件的倒排索引，支持前缀与模糊（编辑距离）匹配。
+ * 索引持久化到磁盘，启动时直接加载；本地仓库版本索引每次扫描后只重新读取 jar 时间戳或大小变化的构件
+ */
+public class ArtifactSearchIndex {
+
+    /**
+     * 单条搜索结果
+     */
+    public static class Result {
+        public String groupId;
+        public String artifactId;
+        public String version;
+        public List<String> matchedClasses;
+        public double score;
+    }
+
+    private static final int MAGIC = 0x4D415349;
+    private static final int FORMAT_VERSION = 1;
+    // 词项以字段前缀区分：g=groupId，a=artifactId，c=类名
+    private static final char FIELD_GROUP = 'g';
+    private static final char FIELD_ARTIFACT = 'a';
+    private static final char FIELD_CLASS = 'c';
+    private static final double WEIGHT_GROUP = 3;
+    private static final double WEIGHT_ARTIFACT = 6;
+    private static final double WEIGHT_CLASS = 4;
+    private static final double PREFIX_FACTOR = 0.6;
+    private static final double FUZZY_FACTOR = 0.3;
+    // 每个构件最多索引的类名数
+    private static final int MAX_CLASSES = 5000;
+    private static final int MAX_MATCHED_CLASSES = 5;
+
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<String, Integer> documentIds = new HashMap<>();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    // 有结果的搜索计为命中
+    private final HitCounter searches = new HitCounter();
+    private File repositoryDir;
+    private File indexFile;
+    private boolean loaded;
+    private boolean updated;
+    private int liveDocuments;
+
+    /**
+     * 设置本地仓库和索引文件，与当前不同时清空内存中的索引，下次使用时从索引文件加载
+     */
+    public synchronized void configure(File repositoryDir, File indexFile) {
+        if (repositoryDir.equals(this.repositoryDir) && Objects.equals(indexFile, this.indexFile)) {
+            return;
+        }
+        this.repositoryDir = repositoryDir;
+        this.indexFile = indexFile;
+        clear();
+        loaded = false;
+        updated = false;
+    }
+
+    /**
+     * 搜索构件，查询按空白和 : 分为多个词，构件需匹配全部词；每个词依次尝试精确、前缀和模糊匹配
+     *
+     * @param query 查询文本，如 "jackson databind"、"ObjectMapper"、"org.slf4j:slf4j-a"
+     * @param limit 最多返回的结果数
+     */
+    public synchronized List<Result> search(String query, int limit) {
+        ensureLoaded();
+        List<String> terms = queryTerms(query);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Integer, double[]> scores = null;
+        Map<Integer, Set<String>> matchedClasses = new HashMap<>();
+        for (String term : terms) {
+            Map<Integer, Double> termScores = scoreTerm(term, matchedClasses);
+            if (scores == null) {
+                scores = new HashMap<>();
+                for (Map.Entry<Integer, Double> entry : termScores.entrySet()) {
+                    scores.put(entry.getKey(), new double[]{entry.getValue()});
+                }
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                for (Map.Entry<Integer, double[]> entry : scores.entrySet()) {
+                    entry.getValue()[0] += termScores.get(entry.getKey());
+                }
+            }
+            if (scores.isEmpty()) {
+                searches.miss();
+                return Collections.emptyList();
+            }
+        }
+        searches.hit();
+        List<Map.Entry<Integer, double[]>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((left, right) -> {
+            int byScore = Double.compare(right.getValue()[0], left.getValue()[0]);
+            if (byScore != 0) {
+                return byScore;
+            }
+            Document a = documents.get(left.getKey());
+            Document b = documents.get(right.getKey());
+            int byLength = Integer.compare(a.artifactId.length(), b.artifactId.length());
+            return byLength != 0 ? byLength : a.key().compareTo(b.key());
+        });
+        List<Result> results = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Map.Entry<Integer, double[]> entry : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            Document document = documents.get(entry.getKey());
+            Result result = new Result();
+            result.groupId = document.groupId;
+            result.artifactId = document.artifactId;
+            result.version = document.version;
+            result.matchedClasses = classesMatching(document, matchedClasses.get(entry.getKey()));
+            result.score = Math.round(entry.getValue()[0] * 100) / 100.0;
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * 按本地仓库版本索引增量更新：新增或 jar 变化的构件重新读取类名，已删除的构件移出索引；有变化时写回索引文件
+     */
+    public void update(LocalRepositoryIndex versionIndex) {
+        File repository;
+        Map<String, String> known = new HashMap<>();
+        synchronized (this) {
+            ensureLoaded();
+            repository = repositoryDir;
+            for (Document document : documents) {
+                if (document != null) {
+                    known.put(document.key(), document.version + "@" + document.stamp);
+                }
+            }
+        }
+        if (repository == null) {
+            return;
+        }
+        Map<String, String> latest = versionIndex.getLatestVersions();
+        boolean changed = false;
+        for (Map.Entry<String, String> entry : latest.entrySet()) {
+            String key = entry.getKey();
+            int colon = key.indexOf(':');
+            String groupId = key.substring(0, colon);
+            String artifactId = key.substring(colon + 1);
+            File jar = jarFile(repository, groupId, artifactId, entry.getValue());
+            long stamp = jar.isFile() ? jar.lastModified() * 31 + jar.length() : 0;
+            String previous = known.remove(key);
+            if ((entry.getValue() + "@" + stamp).equals(previous)) {
+                continue;
+            }
+            Document document = new Document(groupId, artifactId, entry.getValue(), stamp,
+                    stamp != 0 ? readClassNames(jar) : new String[0]);
+            synchronized (this) {
+                if (repository != repositoryDir) {
+                    // 更新期间本地仓库已切换
+                    return;
+                }
+                add(document);
+            }
+            changed = true;
+        }
+        synchronized (this) {
+            if (repository != repositoryDir) {
+                return;
+            }
+            for (String removed : known.keySet()) {
+                remove(removed);
+                changed = true;
+            }
+            if (changed || !updated) {
+                save();
+            }
+            updated = true;
+        }
+    }
+
+    /**
+     * 索引中的构件数
+     */
+    public synchronized int size() {
+        return liveDocuments;
+    }
+
+    /**
+     * 是否已完成至少一次增量更新，之前的搜索结果只来自磁盘上的索引文件
+     */
+    public synchronized boolean isUpToDate() {
+        return updated;
+    }
+
+    public HitCounter getSearchStats() {
+        return searches;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (indexFile == null || !indexFile.isFile()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+                    || !in.readUTF().equals(repositoryDir.getAbsolutePath())) {
+                return;
+            }
+            int documentCount = in.readInt();
+            for (int i = 0; i < documentCount; i++) {
+                String groupId = in.readUTF();
+                String artifactId = in.readUTF();
+                String version = in.readUTF();
+                long stamp = in.readLong();
+                String[] classNames = new String[in.readInt()];
+                for (int c = 0; c < classNames.length; c++) {
+                    classNames[c] = in.readUTF();
+                }
+                Document document = new Document(groupId, artifactId, version, stamp, classNames);
+                documentIds.put(document.key(), documents.size());
+                documents.add(document);
+            }
+            liveDocuments = documentCount;
+            int tokenCount = in.readInt();
+            for (int i = 0; i < tokenCount; i++) {
+                String token = in.readUTF();
+                Postings list = new Postings(in.readInt());
+                int id = 0;
+                for (int p = 0; p < list.ids.length; p++) {
+                    id += in.readInt();
+                    list.ids[p] = id;
+                }
+                list.size = list.ids.length;
+                postings.put(token, list);
+            }
+        } catch (IOException | RuntimeException e) {
+            // 索引文件损坏或版本不符时从头重建
+            clear();
+        }
+    }
+
+    /**
+     * 写入索引文件，文档编号压缩为连续编号；先写临时文件再替换，避免中途退出留下损坏的索引
+     */
+    private void save() {
+        if (indexFile == null) {
+            return;
+        }
+        int[] remap = new int[documents.size()];
+        int next = 0;
+        for (int i = 0; i < documents.size(); i++) {
+            remap[i] = documents.get(i) != null ? next++ : -1;
+        }
+        try {
+            Files.createDirectories(indexFile.toPath().getParent());
+            Path temp = Files.createTempFile(indexFile.toPath().getParent(), "search-index", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeUTF(repositoryDir.getAbsolutePath());
+                    out.writeInt(next);
+                    for (Document document : documents) {
+                        if (document == null) {
+                            continue;
+                        }
+                        out.writeUTF(document.groupId);
+                        out.writeUTF(document.artifactId);
+                        out.writeUTF(document.version);
+                        out.writeLong(document.stamp);
+                        out.writeInt(document.classNames.length);
+                        for (String className : document.classNames) {
+                            out.writeUTF(className);
+                        }
+                    }
+                    out.writeInt(postings.size());
+                    for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                        Postings list = entry.getValue();
+                        out.writeUTF(entry.getKey());
+                        out.writeInt(list.size);
+                        // 编号递增，按差值写入
+                        int previous = 0;
+                        for (int p = 0; p < list.size; p++) {
+                            int id = remap[list.ids[p]];
+                            out.writeInt(id - previous);
+                            previous = id;
+                        }
+                    }
+                }
+                Files.move(temp, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // 写入或替换失败时不留下临时文件
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ignored) {
+            // 持久化失败不影响内存中的索引，下次启动时重新建立
+            return;
+        }
+        if (next != documents.size()) {
+            compact(remap, next);
+        }
+    }
+
+    private void compact(int[] remap, int count) {
+        List<Document> live = new ArrayList<>(count);
+        documentIds.clear();
+        for (Document document : documents) {
+            if (document != null) {
+                documentIds.put(document.key(), live.size());
+                live.add(document);
+            }
+        }
+        documents.clear();
+        documents.addAll(live);
+        for (Postings list : postings.values()) {
+            for (int p = 0; p < list.size; p++) {
+                list.ids[p] = remap[list.ids[p]];
+            }
+        }
+    }
+
+    private void clear() {
+        documents.clear();
+        documentIds.clear();
+        postings.clear();
+        liveDocuments = 0;
+    }
+
+    private void add(Document document) {
+        remove(document.key());
+        int id = documents.size();
+        documents.add(document);
+        documentIds.put(document.key(), id);
+        liveDocuments++;
+        for (String token : tokens(document)) {
+            postings.computeIfAbsent(token, k -> new Postings(2)).add(id);
+        }
+    }
+
+    private void remove(String key) {
+        Integer id = documentIds.remove(key);
+        if (id == null) {
+            return;
+        }
+        Document document = documents.get(id);
+        documents.set(id, null);
+        liveDocuments--;
+        for (String token : tokens(document)) {
+            Postings list = postings.get(token);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    /**
+     * 单个查询词的得分：精确匹配计满分，前缀匹配和模糊匹配按比例折减，取各字段中的最高分
+     */
+    private Map<Integer, Double> scoreTerm(String term, Map<Integer, Set<String>> matchedClasses) {
+        Map<Integer, Double> scores = new HashMap<>();
+        for (char field : new char[]{FIELD_GROUP, FIELD_ARTIFACT, FIELD_CLASS}) {
+            double weight = field == FIELD_GROUP ? WEIGHT_GROUP : field == FIELD_ARTIFACT ? WEIGHT_ARTIFACT : WEIGHT_CLASS;
+            String from = field + ":" + term;
+            for (Map.Entry<String, Postings> entry : postings.subMap(from, true, from + Character.MAX_VALUE, true).entrySet()) {
+                double factor = entry.getKey().length() == from.length() ? 1 : PREFIX_FACTOR;
+                accumulate(scores, matchedClasses, entry, field, weight * factor);
+            }
+            int maxDistance = term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+            if (maxDistance == 0) {
+                continue;
+            }
+            // 模糊匹配只在首字符相同的词项中查找
+            String first = field + ":" + term.charAt(0);
+            for (Map.Entry<String, Postings> entry : postings.subMap(first, true, first + Character.MAX_VALUE, true).entrySet()) {
+                String token = entry.getKey().substring(2);
+                if (!token.startsWith(term) && Math.abs(token.length() - term.length()) <= maxDistance
+                        && editDistance(term, token, maxDistance) <= maxDistance) {
+                    accumulate(scores, matchedClasses, entry, field, weight * FUZZY_FACTOR);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void accumulate(Map<Integer, Double> scores, Map<Integer, Set<String>> matchedClasses,
+                            Map.Entry<String, Postings> entry, char field, double score) {
+        Postings list = entry.getValue();
+        for (int p = 0; p < list.size; p++) {
+            int id = list.ids[p];
+            scores.merge(id, score, Math::max);
+            if (field == FIELD_CLASS) {
+                matchedClasses.computeIfAbsent(id, k -> new HashSet<>()).add(entry.getKey().substring(2));
+            }
+        }
+    }
+
+    private static List<String> classesMatching(Document document, Set<String> tokens) {
+        if (tokens == null) {
+            return Collections.emptyList();
+        }
+        List<String> matched = new ArrayList<>();
+        for (String className : document.classNames) {
+            String simpleName = className.substring(className.lastIndexOf('.') + 1);
+            for (String token : classTokens(simpleName)) {
+                if (tokens.contains(token)) {
+                    matched.add(className);
+                    break;
+                }
+            }
+            if (matched.size() >= MAX_MATCHED_CLASSES) {
+                break;
+            }
+        }
+        return matched;
+    }
+
+    static List<String> queryTerms(String query) {
+        List<String> terms = new ArrayList<>();
+        if (query == null) {
+            return terms;
+        }
+        for (String part : query.toLowerCase(Locale.ROOT).split("[\\s:/]+")) {
+            for (String term : part.split("[.\\-_]+")) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static Set<String> tokens(Document document) {
+        Set<String> tokens = new HashSet<>();
+        String groupId = document.groupId.toLowerCase(Locale.ROOT);
+        for (String part : groupId.split("\\.")) {
+            addToken(tokens, FIELD_GROUP, part);
+        }
+        String artifactId = document.artifactId.toLowerCase(Locale.ROOT);
+        addToken(tokens, FIELD_ARTIFACT, artifactId);
+        for (String part : artifactId.split("[.\\-_]+")) {
+            addToken(tokens, FIELD_ARTIFACT, part);
+        }
+        for (String className : document.classNames) {
+            for (String token : classTokens(className.substring(className.lastIndexOf('.') + 1))) {
+                addToken(tokens, FIELD_CLASS, token);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addToken(Set<String> tokens, char field, String token) {
+        if (!token.isEmpty()) {
+            tokens.add(field + ":" + token);
+        }
+    }
+
+    /**
+     * 类名分词：完整简单名以及驼峰拆分的各段，如 ObjectMapper -> objectmapper、object、mapper
+     */
+    static List<String> classTokens(String simpleName) {
+        List<String> tokens = new ArrayList<>();
+        tokens.add(simpleName.toLowerCase(Locale.ROOT));
+        int start = 0;
+        for (int i = 1; i <= simpleName.length(); i++) {
+            if (i == simpleName.length() || (Character.isUpperCase(simpleName.charAt(i))
+                    && !Character.isUpperCase(simpleName.charAt(i - 1)))) {
+                if (i - start < simpleName.length()) {
+                    tokens.add(simpleName.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 编辑距离，超过 max 时提前返回 max + 1
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static File jarFile(File repository, String groupId, String artifactId, String version) {
+        return new File(repository, groupId.replace('.', File.separatorChar) + File.separator + artifactId
+                + File.separator + version + File.separator + artifactId + "-" + version + ".jar");
+    }
+
+    /**
+     * 读取 jar 中的顶层类名（只读中央目录，不解压内容）
+     */
+    static String[] readClassNames(File jar) {
+        List<String> classNames = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements() && classNames.size() < MAX_CLASSES) {
+                String name = entries.nextElement().getName();
+                if (!name.endsWith(".class") || name.indexOf('$') >= 0 || name.startsWith("META-INF/")
+                        || name.endsWith("package-info.class") || name.endsWith("module-info.class")) {
+                    continue;
+                }
+                classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+            }
+        } catch (IOException ignored) {
+            // 损坏的 jar 只按坐标索引
+        }
+        return classNames.toArray(new String[0]);
+    }
+
+    private static class Document {
+        final String groupId;
+        final String artifactId;
+        final String version;
+        final long stamp;
+        final String[] classNames;
+
+        Document(String groupId, String artifactId, String version, long stamp, String[] classNames) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.stamp = stamp;
+            this.classNames = classNames;
+        }
+
+        String key() {
+            return groupId + ":" + artifactId;
+        }
+    }
+
+    /**
+     * 升序的文档编号列表
+     */
+    private static class Postings {
+        int[] ids;
+        int size;
+
+        Postings(int capacity) {
+            ids = new int[capacity];
+        }
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(2, size * 2));
+            }
+            ids[size++] = id;
+        }
+
+        boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package nd.mavenassistant.index;
+
+import nd.mavenassistant.metrics.HitCounter;
+
+import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+/**
+ * 本地仓库磁盘占用索引
+ * 在 fork/join 线程池中并行遍历本地仓库，每个目录一个任务，按 groupId、artifactId 和版本汇总文件大小。
+ * 每个目录记录修改时间、子目录和直接包含的文件的大小；再次扫描时修改时间不变的目录只读取一次目录属性，
+ * 不再列目录和读取其中文件的属性。Maven 通过临时文件加重命名写入构件，会更新所在目录的修改时间。
+ * 索引持久化到磁盘，服务重启后同样只重新读取变化的目录
+ */
+public class DiskUsageIndex {
+
+    /**
+     * 单个版本目录的占用
+     */
+    public static class VersionUsage {
+        public String groupId;
+        public String artifactId;
+        public String version;
+        public long bytes;
+        public int files;
+        public long lastModified; // 版本目录的修改时间，通常是最后一次下载的时间
+    }
+
+    /**
+     * 单个 GA 的占用
+     */
+    public static class ArtifactUsage {
+        public String groupId;
+        public String artifactId;
+        public long bytes;
+        public int versions;
+    }
+
+    /**
+     * 单个 groupId 的占用
+     */
+    public static class GroupUsage {
+        public String groupId;
+        public long bytes;
+        public int artifacts;
+        public int versions;
+    }
+
+    /**
+     * 分析结果，各列表按占用从大到小排列，最多 limit 项
+     */
+    public static class Report {
+        public String repository;
+        public long totalBytes;
+        public long totalFiles;
+        public long otherBytes; // 不属于任何版本目录的文件，如 GA 目录下的 maven-metadata*.xml
+        public int groupCount;
+        public int artifactCount;
+        public int versionCount;
+        public int scannedDirectories;
+        public int restatedDirectories; // 本次重新列出内容的目录数，其余目录复用索引
+        public List<GroupUsage> groups = new ArrayList<>();
+        public List<ArtifactUsage> artifacts = new ArrayList<>();
+        public int unreferencedCount; // 没有被任何分析的模块引用的版本
+        public long unreferencedBytes;
+        public List<VersionUsage> unreferenced = new ArrayList<>();
+    }
+
+    private static final int MAGIC = 0x4D414455;
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_DEPTH = 24;
+
+    /**
+     * 已扫描的目录
+     *
+     * @param subdirs 子目录名，版本目录不记录
+     * @param version 是否为版本目录（包含 artifactId-version.pom）
+     */
+    private record Directory(long lastModified, String[] subdirs, long fileBytes, int fileCount, boolean version) {
+    }
+
+    // 键为相对仓库根目录、以 / 分隔的路径，根目录为空串
+    private final Map<String, Directory> directories = new ConcurrentHashMap<>();
+    // 目录修改时间未变、复用索引计为命中
+    private final HitCounter directoryStats = new HitCounter();
+    private File repositoryDir;
+    private File indexFile;
+    private boolean loaded;
+
+    /**
+     * 设置本地仓库和索引文件，与当前不同时清空内存中的索引，下次分析时从索引文件加载
+     */
+    public synchronized void configure(File repositoryDir, File indexFile) {
+        if (repositoryDir.equals(this.repositoryDir) && Objects.equals(indexFile, this.indexFile)) {
+            return;
+        }
+        this.repositoryDir = repositoryDir;
+        this.indexFile = indexFile;
+        directories.clear();
+        loaded = false;
+    }
+
+    /**
+     * 增量扫描本地仓库并汇总占用
+     *
+     * @param pool       执行目录遍历的线程池
+     * @param referenced 被分析的模块引用的构件，格式为 groupId:artifactId:version
+     * @param limit      各列表最多返回的项数
+     */
+    public synchronized Report analyze(ForkJoinPool pool, Set<String> referenced, int limit) {
+        ensureLoaded();
+        Report report = new Report();
+        report.repository = repositoryDir.getAbsolutePath();
+        if (!repositoryDir.isDirectory()) {
+            directories.clear();
+            return report;
+        }
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        AtomicInteger restated = new AtomicInteger();
+        pool.invoke(new WalkTask(repositoryDir.toPath(), "", 0, seen, restated));
+        int before = directories.size();
+        directories.keySet().retainAll(seen);
+        if (restated.get() > 0 || directories.size() != before) {
+            save();
+        }
+        report.scannedDirectories = seen.size();
+        report.restatedDirectories = restated.get();
+        summarize(report, referenced, limit);
+        return report;
+    }
+
+    /**
+     * 遍历单个目录，修改时间与索引一致时复用记录，否则重新列出；子目录各自作为子任务并行执行
+     */
+    @SuppressWarnings("serial")
+    private final class WalkTask extends RecursiveAction {
+        private final Path dir;
+        private final String key;
+        private final int depth;
+        private final Set<String> seen;
+        private final AtomicInteger restated;
+
+        WalkTask(Path dir, String key, int depth, Set<String> seen, AtomicInteger restated) {
+            this.dir = dir;
+            this.key = key;
+            this.depth = depth;
+            this.seen = seen;
+            this.restated = restated;
+        }
+
+        @Override
+        protected void compute() {
+            long lastModified;
+            try {
+                lastModified = Files.readAttributes(dir, BasicFileAttributes.class).lastModifiedTime().toMillis();
+            } catch (IOException e) {
+                return;
+            }
+            Directory directory = directories.get(key);
+            boolean hit = directory != null && directory.lastModified() == lastModified;
+            directoryStats.record(hit);
+            if (!hit) {
+                directory = list(dir, key, lastModified);
+                if (directory == null) {
+                    return;
+                }
+                directories.put(key, directory);
+                restated.incrementAndGet();
+            }
+            seen.add(key);
+            if (depth >= MAX_DEPTH) {
+                return;
+            }
+            List<WalkTask> tasks = new ArrayList<>(directory.subdirs().length);
+            for (String subdir : directory.subdirs()) {
+                tasks.add(new WalkTask(dir.resolve(subdir), key.isEmpty() ? subdir : key + "/" + subdir,
+                        depth + 1, seen, restated));
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * 列出目录内容，读取其中文件的大小；无法读取时返回 null
+     */
+    private static Directory list(Path dir, String key, long lastModified) {
+        String[] segments = key.isEmpty() ? new String[0] : key.split("/");
+        // 至少 groupId/artifactId/version 三段时才可能是版本目录
+        String pom = null;
+        String snapshotPrefix = null;
+        if (segments.length >= 3) {
+            String artifactId = segments[segments.length - 2];
+            String version = segments[segments.length - 1];
+            pom = artifactId + "-" + version + ".pom";
+            if (version.endsWith("-SNAPSHOT")) {
+                // 远程快照以时间戳命名，如 demo-1.0-20240101.120000-1.pom
+                snapshotPrefix = artifactId + "-" + version.substring(0, version.length() - "SNAPSHOT".length());
+            }
+        }
+        List<String> subdirs = new ArrayList<>();
+        long fileBytes = 0;
+        int fileCount = 0;
+        boolean version = false;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            for (Path entry : entries) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue;
+                }
+                String name = entry.getFileName().toString();
+                if (attributes.isDirectory()) {
+                    if (!name.startsWith(".")) {
+                        subdirs.add(name);
+                    }
+                } else if (attributes.isRegularFile()) {
+                    fileBytes += attributes.size();
+                    fileCount++;
+                    if (pom != null && (name.equals(pom)
+                            || (snapshotPrefix != null && name.startsWith(snapshotPrefix) && name.endsWith(".pom")))) {
+                        version = true;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        if (version) {
+            // 版本目录的子目录不是构件，其大小不计入
+            subdirs.clear();
+        }
+        Collections.sort(subdirs);
+        return new Directory(lastModified, subdirs.toArray(new String[0]), fileBytes, fileCount, version);
+    }
+
+    private void summarize(Report report, Set<String> referenced, int limit) {
+        Map<String, GroupUsage> groups = new HashMap<>();
+        Map<String, ArtifactUsage> artifacts = new HashMap<>();
+        List<VersionUsage> unreferenced = new ArrayList<>();
+        for (Map.Entry<String, Directory> entry : directories.entrySet()) {
+            Directory directory = entry.getValue();
+            report.totalBytes += directory.fileBytes();
+            report.totalFiles += directory.fileCount();
+            if (!directory.version()) {
+                report.otherBytes += directory.fileBytes();
+                continue;
+            }
+            String[] segments = entry.getKey().split("/");
+            VersionUsage usage = new VersionUsage();
+            usage.groupId = String.join(".", Arrays.asList(segments).subList(0, segments.length - 2));
+            usage.artifactId = segments[segments.length - 2];
+            usage.version = segments[segments.length - 1];
+            usage.bytes = directory.fileBytes();
+            usage.files = directory.fileCount();
+            usage.lastModified = directory.lastModified();
+            report.versionCount++;
+
+            ArtifactUsage artifact = artifacts.computeIfAbsent(usage.groupId + ":" + usage.artifactId, k -> {
+                ArtifactUsage created = new ArtifactUsage();
+                created.groupId = usage.groupId;
+                created.artifactId = usage.artifactId;
+                return created;
+            });
+            artifact.bytes += usage.bytes;
+            artifact.versions++;
+
+            GroupUsage group = groups.computeIfAbsent(usage.groupId, k -> {
+                GroupUsage created = new GroupUsage();
+                created.groupId = usage.groupId;
+                return created;
+            });
+            group.bytes += usage.bytes;
+            group.versions++;
+            if (artifact.versions == 1) {
+                group.artifacts++;
+            }
+
+            if (!referenced.contains(usage.groupId + ":" + usage.artifactId + ":" + usage.version)) {
+                report.unreferencedCount++;
+                report.unreferencedBytes += usage.bytes;
+                unreferenced.add(usage);
+            }
+        }
+        report.groupCount = groups.size();
+        report.artifactCount = artifacts.size();
+        report.groups = largest(groups.values(), g -> g.bytes, limit);
+        report.artifacts = largest(artifacts.values(), a -> a.bytes, limit);
+        report.unreferenced = largest(unreferenced, v -> v.bytes, limit);
+    }
+
+    private static <T> List<T> largest(Collection<T> values, ToLongFunction<T> bytes, int limit) {
+        List<T> sorted = new ArrayList<>(values);
+        sorted.sort(Comparator.comparingLong(bytes).reversed());
+        return new ArrayList<>(sorted.subList(0, Math.min(limit, sorted.size())));
+    }
+
+    /**
+     * 索引中的目录数
+     */
+    public int size() {
+        return directories.size();
+    }
+
+    public HitCounter getDirectoryStats() {
+        return directoryStats;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (indexFile == null || !indexFile.isFile()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+                    || !in.readUTF().equals(repositoryDir.getAbsolutePath())) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                long lastModified = in.readLong();
+                long fileBytes = in.readLong();
+                int fileCount = in.readInt();
+                boolean version = in.readBoolean();
+                String[] subdirs = new String[in.readInt()];
+                for (int s = 0; s < subdirs.length; s++) {
+                    subdirs[s] = in.readUTF();
+                }
+                directories.put(key, new Directory(lastModified, subdirs, fileBytes, fileCount, version));
+            }
+        } catch (IOException | RuntimeException e) {
+            // 索引文件损坏或版本不符时从头扫描
+            directories.clear();
+        }
+    }
+
+    /**
+     * 写入索引文件，先写临时文件再替换，避免中途退出留下损坏的索引
+     */
+    private void save() {
+        if (indexFile == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(indexFile.toPath().getParent());
+            Path temp = Files.createTempFile(indexFile.toPath().getParent(), "disk-usage", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeUTF(repositoryDir.getAbsolutePath());
+                    out.writeInt(directories.size());
+                    for (Map.Entry<String, Directory> entry : directories.entrySet()) {
+                        Directory directory = entry.getValue();
+                        out.writeUTF(entry.getKey());
+                        out.writeLong(directory.lastModified());
+                        out.writeLong(directory.fileBytes());
+                        out.writeInt(directory.fileCount());
+                        out.writeBoolean(directory.version());
+                        out.writeInt(directory.subdirs().length);
+                        for (String subdir : directory.subdirs()) {
+                            out.writeUTF(subdir);
+                        }
+                    }
+                }
+                Files.move(temp, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // 写入或替换失败时不留下临时文件
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ignored) {
+            // 持久化失败不影响内存中的索引，下次启动时重新扫描
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package nd.mavenassistant.index;
+
+import nd.mavenassistant.metrics.HitCounter;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.util.version.GenericVersionScheme;
+import org.eclipse.aether.version.InvalidVersionSpecificationException;
+import org.eclipse.aether.version.Version;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 本地仓库版本索引
+ * 扫描本地仓库中的 maven-metadata-local.xml、maven-metadata-*.xml 以及版本目录，
+ * 以 groupId:artifactId 为键存入压缩前缀树，每个 GA 保存按版本排序的列表，供版本补全和悬停提示查询。
+ * 重新扫描时只重新读取目录或元数据时间戳变化的 GA，解析出的依赖图也会直接补充索引
+ */
+public class LocalRepositoryIndex {
+
+    private static final GenericVersionScheme VERSION_SCHEME = new GenericVersionScheme();
+    private static final Pattern VERSIONS_PATTERN = Pattern.compile("<versions>(.*?)</versions>", Pattern.DOTALL);
+    private static final Pattern VERSION_PATTERN = Pattern.compile("<version>\\s*([^<\\s]+)\\s*</version>");
+    private static final int MAX_DEPTH = 24;
+
+    // 键为 groupId:artifactId，读写均在 this 上同步
+    private final RadixTree<VersionList> artifacts = new RadixTree<>();
+    // 已扫描的 GA 目录及其时间戳，用于增量扫描
+    private final Map<Path, ScannedDirectory> scanned = new HashMap<>();
+    private final HitCounter lookups = new HitCounter();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "maven-assistant-index");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    // 每次扫描完成后在扫描线程中调用
+    private final List<Runnable> refreshListeners = new CopyOnWriteArrayList<>();
+
+    private volatile File repositoryDir;
+    private CompletableFuture<Void> pendingRefresh;
+
+    /**
+     * 注册扫描完成后的回调，在后台扫描线程中执行
+     */
+    public void addRefreshListener(Runnable listener) {
+        refreshListeners.add(listener);
+    }
+
+    /**
+     * 设置本地仓库目录，与当前目录不同时清空索引；已经扫描过时在后台重新扫描
+     */
+    public void setRepository(File dir) {
+        boolean refresh;
+        synchronized (this) {
+            if (dir.equals(repositoryDir)) {
+                return;
+            }
+            refresh = repositoryDir != null && !scanned.isEmpty();
+            repositoryDir = dir;
+            artifacts.clear();
+            scanned.clear();
+        }
+        if (refresh) {
+            refreshAsync();
+        }
+    }
+
+    /**
+     * 在后台线程中增量扫描本地仓库，已有扫描排队时复用
+     */
+    public synchronized CompletableFuture<Void> refreshAsync() {
+        if (pendingRefresh == null || pendingRefresh.isDone()) {
+            CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+                refresh();
+                for (Runnable listener : refreshListeners) {
+                    listener.run();
+                }
+            }, refresher);
+            pendingRefresh = future;
+            return future;
+        }
+        return pendingRefresh;
+    }
+
+    /**
+     * 增量扫描本地仓库，只重新读取时间戳变化的 GA 目录，并移除已删除的 GA
+     */
+    public void refresh() {
+        File dir = repositoryDir;
+        if (dir == null || !dir.isDirectory()) {
+            return;
+        }
+        Map<Path, ScannedDirectory> previous;
+        synchronized (this) {
+            previous = new HashMap<>(scanned);
+        }
+        Set<Path> seen = new HashSet<>();
+        scanDirectory(dir.toPath(), new ArrayList<>(), previous, seen, 0);
+        synchronized (this) {
+            if (!dir.equals(repositoryDir)) {
+                return;
+            }
+            Iterator<Map.Entry<Path, ScannedDirectory>> iterator = scanned.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Path, ScannedDirectory> entry = iterator.next();
+                if (!seen.contains(entry.getKey())) {
+                    artifacts.remove(entry.getValue().key);
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 将依赖图中的构件加入索引，解析依赖时新下载的版本无需等待重新扫描
+     */
+    public void addAll(DependencyNode root) {
+        Deque<DependencyNode> stack = new ArrayDeque<>();
+        Set<DependencyNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        stack.push(root);
+        synchronized (this) {
+            while (!stack.isEmpty()) {
+                DependencyNode node = stack.pop();
+                if (!visited.add(node)) {
+                    continue;
+                }
+                Artifact artifact = node.getArtifact();
+                if (artifact != null) {
+                    addVersion(artifact.getGroupId(), artifact.getArtifactId(), artifact.getBaseVersion());
+                }
+                for (DependencyNode child : node.getChildren()) {
+                    stack.push(child);
+                }
+            }
+        }
+    }
+
+    public synchronized void addVersion(String groupId, String artifactId, String version) {
+        Version parsed = parseVersion(version);
+        if (parsed != null) {
+            artifacts.computeIfAbsent(groupId + ":" + artifactId, k -> new VersionList()).add(parsed);
+        }
+    }
+
+    /**
+     * 获取 GA 在本地已知的版本，从新到旧排列，未知时返回空列表
+     */
+    public synchronized List<String> getVersions(String groupId, String artifactId) {
+        VersionList versions = artifacts.get(groupId + ":" + artifactId);
+        if (versions == null) {
+            lookups.miss();
+            return Collections.emptyList();
+        }
+        lookups.hit();
+        return versions.newestFirst();
+    }
+
+    /**
+     * 获取所有 GA 的最新版本，键为 groupId:artifactId
+     */
+    public synchronized Map<String, String> getLatestVersions() {
+        List<String> keys = artifacts.keysWithPrefix("", Integer.MAX_VALUE);
+        Map<String, String> latest = new LinkedHashMap<>(keys.size() * 2);
+        for (String key : keys) {
+            latest.put(key, artifacts.get(key).latest());
+        }
+        return latest;
+    }
+
+    /**
+     * 补全 groupId，返回以 prefix 开头的 groupId，按字典序最多 limit 个
+     */
+    public synchronized List<String> completeGroupIds(String prefix, int limit) {
+        return artifacts.prefixesUntil(prefix, ':', limit);
+    }
+
+    /**
+     * 补全 artifactId，返回 groupId 下以 prefix 开头的 artifactId，按字典序最多 limit 个
+     */
+    public synchronized List<String> completeArtifactIds(String groupId, String prefix, int limit) {
+        String groupPrefix = groupId + ":";
+        List<String> keys = artifacts.keysWithPrefix(groupPrefix + prefix, limit);
+        List<String> artifactIds = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            artifactIds.add(key.substring(groupPrefix.length()));
+        }
+        return artifactIds;
+    }
+
+    /**
+     * 索引中的 GA 数量
+     */
+    public synchronized int size() {
+        return artifacts.size();
+    }
+
+    public HitCounter getLookupStats() {
+        return lookups;
+    }
+
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * 递归扫描目录：同级存在 artifactId-version.pom 的版本子目录或 maven-metadata*.xml 时视为 GA 目录
+     *
+     * @param relativePath 当前目录相对仓库根目录的路径段，最后一段为 artifactId，其余拼接为 groupId
+     */
+    private void scanDirectory(Path dir, List<String> relativePath, Map<Path, ScannedDirectory> previous,
+                               Set<Path> seen, int depth) {
+        if (depth > MAX_DEPTH) {
+            return;
+        }
+        List<Path> subdirs = new ArrayList<>();
+        List<Path> metadataFiles = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (name.startsWith("maven-metadata") && name.endsWith(".xml")) {
+                    metadataFiles.add(entry);
+                } else if (!name.startsWith(".") && Files.isDirectory(entry)) {
+                    subdirs.add(entry);
+                }
+            }
+        } catch (IOException e) {
+            return;
+        }
+
+        Set<String> versionDirs = Collections.emptySet();
+        if (relativePath.size() >= 2) {
+            String artifactId = dir.getFileName().toString();
+            long stamp = stamp(dir, metadataFiles);
+            ScannedDirectory known = previous.get(dir);
+            if (known != null && known.stamp == stamp) {
+                versionDirs = known.versionDirs;
+                seen.add(dir);
+            } else {
+                versionDirs = new HashSet<>();
+                List<Version> versions = new ArrayList<>();
+                for (Path subdir : subdirs) {
+                    String version = subdir.getFileName().toString();
+                    if (Files.isRegularFile(subdir.resolve(artifactId + "-" + version + ".pom"))) {
+                        versionDirs.add(version);
+                        addParsed(versions, version);
+                    }
+                }
+                for (Path metadata : metadataFiles) {
+                    for (String version : readMetadataVersions(metadata)) {
+                        addParsed(versions, version);
+                    }
+                }
+                if (!versions.isEmpty()) {
+                    String key = String.join(".", relativePath.subList(0, relativePath.size() - 1)) + ":" + artifactId;
+                    replace(dir, new ScannedDirectory(key, stamp, versionDirs), versions);
+                    seen.add(dir);
+                }
+            }
+        }
+
+        for (Path subdir : subdirs) {
+            String name = subdir.getFileName().toString();
+            if (versionDirs.contains(name)) {
+                continue;
+            }
+            relativePath.add(name);
+            scanDirectory(subdir, relativePath, previous, seen, depth + 1);
+            relativePath.remove(relativePath.size() - 1);
+        }
+    }
+
+    private synchronized void replace(Path dir, ScannedDirectory scannedDirectory, List<Version> versions) {
+        VersionList list = new VersionList();
+        for (Version version : versions) {
+            list.add(version);
+        }
+        artifacts.put(scannedDirectory.key, list);
+        scanned.put(dir, scannedDirectory);
+    }
+
+    private static long stamp(Path dir, List<Path> metadataFiles) {
+        long stamp = dir.toFile().lastModified();
+        for (Path metadata : metadataFiles) {
+            stamp = 31 * stamp + metadata.toFile().lastModified();
+        }
+        return stamp;
+    }
+
+    static List<String> readMetadataVersions(Path metadata) {
+        List<String> versions = new ArrayList<>();
+        try {
+            String content = new String(Files.readAllBytes(metadata), StandardCharsets.UTF_8);
+            Matcher block = VERSIONS_PATTERN.matcher(content);
+            if (block.find()) {
+                Matcher version = VERSION_PATTERN.matcher(block.group(1));
+                while (version.find()) {
+                    versions.add(version.group(1));
+                }
+            }
+        } catch (IOException ignored) {
+            // 无法读取的元数据忽略，版本目录仍会被索引
+        }
+        return versions;
+    }
+
+    private static void addParsed(List<Version> versions, String version) {
+        Version parsed = parseVersion(version);
+        if (parsed != null) {
+            versions.add(parsed);
+        }
+    }
+
+    private static Version parseVersion(String version) {
+        if (version == null || version.isEmpty()) {
+            return null;
+        }
+        try {
+            return VERSION_SCHEME.parseVersion(version);
+        } catch (InvalidVersionSpecificationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 单个 GA 的版本列表，按版本从旧到新有序、去重
+     */
+    private static class VersionList {
+        private final List<Version> versions = new ArrayList<>(4);
+
+        void add(Version version) {
+            int index = Collections.binarySearch(versions, version);
+            if (index < 0) {
+                versions.add(-index - 1, version);
+            }
+        }
+
+        String latest() {
+            return versions.get(versions.size() - 1).toString();
+        }
+
+        List<String> newestFirst() {
+            List<String> result = new ArrayList<>(versions.size());
+            for (int i = versions.size() - 1; i >= 0; i--) {
+                result.add(versions.get(i).toString());
+            }
+            return result;
+        }
+    }
+
+    private static class ScannedDirectory {
+        final String key;
+        final long stamp;
+        final Set<String> versionDirs;
+
+        ScannedDirectory(String key, long stamp, Set<String> versionDirs) {
+            this.key = key;
+            this.stamp = stamp;
+            this.versionDirs = versionDirs;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package nd.mavenassistant.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 压缩前缀树（基数树），单链路径合并为一条边，查找耗时只与键长有关
+ * 子节点按边的首字符有序存放，用二分查找定位；非线程安全，由调用方加锁
+ *
+ * @param <V> 值类型
+ */
+class RadixTree<V> {
+
+    private static final Node<?>[] NO_CHILDREN = new Node<?>[0];
+
+    private final Node<V> root = new Node<>("");
+    private int size;
+
+    V get(String key) {
+        Node<V> node = find(key);
+        return node != null ? node.value : null;
+    }
+
+    V computeIfAbsent(String key, Function<String, V> factory) {
+        Node<V> node = insert(key);
+        if (node.value == null) {
+            node.value = factory.apply(key);
+            size++;
+        }
+        return node.value;
+    }
+
+    V put(String key, V value) {
+        Node<V> node = insert(key);
+        V previous = node.value;
+        node.value = value;
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    /**
+     * 删除键，并剪除不再含值的节点、合并只剩一个子节点的中间节点，使每棵子树都至少含一个值
+     */
+    V remove(String key) {
+        Node<V> parent = null;
+        Node<V> node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            Node<V> child = node.child(key.charAt(matched));
+            if (child == null || !key.startsWith(child.label, matched)) {
+                return null;
+            }
+            matched += child.label.length();
+            parent = node;
+            node = child;
+        }
+        if (node.value == null) {
+            return null;
+        }
+        V previous = node.value;
+        node.value = null;
+        size--;
+        if (parent != null) {
+            if (node.children.length == 0) {
+                parent.removeChild(node.label.charAt(0));
+                if (parent != root && parent.value == null && parent.children.length == 1) {
+                    parent.mergeOnlyChild();
+                }
+            } else if (node.children.length == 1) {
+                node.mergeOnlyChild();
+            }
+        }
+        return previous;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        root.children = emptyChildren();
+        root.value = null;
+        size = 0;
+    }
+
+    /**
+     * 按字典序返回以 prefix 开头的键，最多 limit 个
+     */
+    List<String> keysWithPrefix(String prefix, int limit) {
+        return prefixesUntil(prefix, '\0', limit);
+    }
+
+    /**
+     * 按字典序返回以 prefix 开头的键在 prefix 之后第一次出现 stop 字符之前的部分（去重），最多 limit 个；
+     * stop 为 '\0' 时返回完整的键
+     */
+    List<String> prefixesUntil(String prefix, char stop, int limit) {
+        List<String> result = new ArrayList<>();
+        Node<V> node = root;
+        StringBuilder path = new StringBuilder();
+        int matched = 0;
+        // 定位到覆盖 prefix 的节点，prefix 可能结束在某条边的中间
+        while (matched < prefix.length()) {
+            Node<V> child = node.child(prefix.charAt(matched));
+            if (child == null) {
+                return result;
+            }
+            int common = commonPrefix(child.label, prefix, matched);
+            if (common < child.label.length()) {
+                if (matched + common < prefix.length()) {
+                    return result;
+                }
+                // 边上 prefix 之后的部分已出现 stop 字符，该边下只有一个结果
+                int stopIndex = stop != '\0' ? child.label.indexOf(stop, common) : -1;
+                if (stopIndex >= 0) {
+                    result.add(path.append(child.label, 0, stopIndex).toString());
+                    return result;
+                }
+            }
+            path.append(child.label);
+            matched += common;
+            node = child;
+        }
+        collect(node, path, stop, limit, result);
+        return result;
+    }
+
+    private void collect(Node<V> node, StringBuilder path, char stop, int limit, List<String> result) {
+        if (node.value != null && result.size() < limit) {
+            result.add(path.toString());
+        }
+        for (Node<?> raw : node.children) {
+            if (result.size() >= limit) {
+                return;
+            }
+            @SuppressWarnings("unchecked")
+            Node<V> child = (Node<V>) raw;
+            int length = path.length();
+            int stopIndex = stop != '\0' ? child.label.indexOf(stop) : -1;
+            if (stopIndex >= 0) {
+                String candidate = path.append(child.label, 0, stopIndex).toString();
+                if (result.isEmpty() || !result.get(result.size() - 1).equals(candidate)) {
+                    result.add(candidate);
+                }
+            } else {
+                path.append(child.label);
+                collect(child, path, stop, limit, result);
+            }
+            path.setLength(length);
+        }
+    }
+
+    private Node<V> find(String key) {
+        Node<V> node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            Node<V> child = node.child(key.charAt(matched));
+            if (child == null || !key.startsWith(child.label, matched)) {
+                return null;
+            }
+            matched += child.label.length();
+            node = child;
+        }
+        return node;
+    }
+
+    private Node<V> insert(String key) {
+        Node<V> node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            Node<V> child = node.child(key.charAt(matched));
+            if (child == null) {
+                Node<V> leaf = new Node<>(key.substring(matched));
+                node.addChild(leaf);
+                return leaf;
+            }
+            int common = commonPrefix(child.label, key, matched);
+            if (common < child.label.length()) {
+                // 拆分边：公共部分成为新的中间节点
+                Node<V> middle = new Node<>(child.label.substring(0, common));
+                node.replaceChild(middle);
+                child.label = child.label.substring(common);
+                middle.addChild(child);
+                child = middle;
+            }
+            matched += common;
+            node = child;
+        }
+        return node;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V>[] emptyChildren() {
+        return (Node<V>[]) NO_CHILDREN;
+    }
+
+    private static class Node<V> {
+        String label;
+        Node<V>[] children = emptyChildren();
+        V value;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node<V> child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void addChild(Node<V> child) {
+            int index = -indexOf(child.label.charAt(0)) - 1;
+            Node<V>[] expanded = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(children, index, expanded, index + 1, children.length - index);
+            expanded[index] = child;
+            children = expanded;
+        }
+
+        void replaceChild(Node<V> child) {
+            children[indexOf(child.label.charAt(0))] = child;
+        }
+
+        void removeChild(char first) {
+            int index = indexOf(first);
+            Node<V>[] shrunk = Arrays.copyOf(children, children.length - 1);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk;
+        }
+
+        /**
+         * 与唯一的子节点合并为一条边，首字符不变，父节点中的位置无需调整
+         */
+        void mergeOnlyChild() {
+            Node<V> only = children[0];
+            label = label + only.label;
+            value = only.value;
+            children = only.children;
+        }
+
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
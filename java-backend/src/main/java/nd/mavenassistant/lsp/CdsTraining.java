@@ -0,0 +1,105 @@
+package nd.mavenassistant.lsp;
+
+import org.eclipse.lsp4j.*;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.launch.LSPLauncher;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.eclipse.lsp4j.services.LanguageServer;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * AppCDS 训练运行
+ * 构建时以 -XX:ArchiveClassesAtExit 启动 jar 并执行本流程：经 JSON-RPC 管道完成 initialize/initialized、
+ * 等待后台预热并发送自定义请求，使打开窗口时需要加载的类进入归档。
+ * 训练使用临时的本地仓库和存储目录，并关闭本地仓库扫描和工作区预热，不读写构建机器上的 ~/.m2 和用户缓存目录
+ */
+final class CdsTraining {
+
+    private static final long TIMEOUT_SECONDS = 120;
+
+    private CdsTraining() {
+    }
+
+    static void run() throws Exception {
+        Path repository = Files.createTempDirectory("maven-assistant-cds-repo");
+        Path storage = Files.createTempDirectory("maven-assistant-cds-storage");
+        try {
+            run(repository, storage);
+        } finally {
+            delete(repository);
+            delete(storage);
+        }
+    }
+
+    private static void run(Path repository, Path storage) throws Exception {
+        Pipe clientToServer = Pipe.open();
+        Pipe serverToClient = Pipe.open();
+        SimpleLanguageServer server = new SimpleLanguageServer();
+        Launcher<MavenAssistantClient> serverLauncher = LspServerMain.createLauncher(server,
+                Channels.newInputStream(clientToServer.source()), Channels.newOutputStream(serverToClient.sink()));
+        Launcher<LanguageServer> clientLauncher = LSPLauncher.createClientLauncher(new TrainingClient(),
+                Channels.newInputStream(serverToClient.source()), Channels.newOutputStream(clientToServer.sink()));
+        serverLauncher.startListening();
+        clientLauncher.startListening();
+
+        LanguageServer remote = clientLauncher.getRemoteProxy();
+        InitializeParams params = new InitializeParams();
+        Map<String, Object> options = new HashMap<>();
+        options.put("localRepository", repository.toString());
+        options.put("storageDir", storage.toString());
+        options.put("prewarmWorkspace", false);
+        options.put("indexLocalRepository", false);
+        params.setInitializationOptions(options);
+        remote.initialize(params).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        remote.initialized(new InitializedParams());
+        server.getWarmUpFuture().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        clientLauncher.getRemoteEndpoint().request("maven/getServerStats", null).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        // 在空的临时仓库上搜索，加载索引相关的类
+        clientLauncher.getRemoteEndpoint().request("maven/searchArtifacts", "{\"query\":\"training\"}")
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        remote.shutdown().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * 忽略服务端推送的训练用客户端
+     */
+    private static class TrainingClient implements LanguageClient {
+        @Override
+        public void telemetryEvent(Object object) {
+        }
+
+        @Override
+        public void publishDiagnostics(PublishDiagnosticsParams diagnostics) {
+        }
+
+        @Override
+        public void showMessage(MessageParams messageParams) {
+        }
+
+        @Override
+        public CompletableFuture<MessageActionItem> showMessageRequest(ShowMessageRequestParams requestParams) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void logMessage(MessageParams message) {
+        }
+    }
+}
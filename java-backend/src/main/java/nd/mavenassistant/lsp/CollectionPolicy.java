@@ -0,0 +1,192 @@
+package nd.mavenassistant.lsp;
+
+import org.eclipse.aether.graph.Dependency;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * 依赖收集策略，决定 {@link CustomScopeDependencySelector} 选择哪些依赖
+ * 默认与原有规则一致：直接依赖全部选择，传递依赖只选择非 optional 的 compile/runtime，最多收集到第 4 层；
+ * 快速概览模式只收集直接依赖，并直接使用依赖图计算生效版本而不启动 Maven 进程
+ */
+public final class CollectionPolicy {
+
+    public static final int DEFAULT_MAX_DEPTH = 4;
+    private static final Set<String> DEFAULT_SCOPES = Set.of("compile", "runtime");
+
+    public static final CollectionPolicy DEFAULT = new CollectionPolicy(DEFAULT_MAX_DEPTH, null, DEFAULT_SCOPES,
+            false, Collections.emptyList(), Collections.emptyList(), false);
+    public static final CollectionPolicy QUICK = new CollectionPolicy(1, null, DEFAULT_SCOPES,
+            false, Collections.emptyList(), Collections.emptyList(), true);
+
+    private final int maxDepth;
+    private final Set<String> directScopes; // null 表示直接依赖不限 scope
+    private final Set<String> transitiveScopes;
+    private final boolean includeOptional;
+    private final List<Pattern> includes;
+    private final List<Pattern> excludes;
+    private final boolean quick;
+    private final String key;
+
+    private CollectionPolicy(int maxDepth, Set<String> directScopes, Set<String> transitiveScopes, boolean includeOptional,
+                             List<Pattern> includes, List<Pattern> excludes, boolean quick) {
+        this.maxDepth = maxDepth;
+        this.directScopes = directScopes;
+        this.transitiveScopes = transitiveScopes;
+        this.includeOptional = includeOptional;
+        this.includes = includes;
+        this.excludes = excludes;
+        this.quick = quick;
+        this.key = buildKey();
+    }
+
+    /**
+     * 从请求参数中解析收集策略，quick 为 true 时以快速概览模式为基础，
+     * policy 对象可包含 maxDepth（直接依赖为 1）、scopes（同时限制直接依赖与传递依赖）、includeOptional、
+     * include / exclude（groupId:artifactId 通配符或 /regex/ 列表），未提供时返回 {@link #DEFAULT}
+     *
+     * @throws IllegalArgumentException 参数格式错误
+     */
+    static CollectionPolicy fromParams(Map<String, Object> params) {
+        boolean quick = Boolean.TRUE.equals(params.get("quick"));
+        CollectionPolicy base = quick ? QUICK : DEFAULT;
+        if (!(params.get("policy") instanceof Map)) {
+            return base;
+        }
+        Map<?, ?> policy = (Map<?, ?>) params.get("policy");
+        int maxDepth = base.maxDepth;
+        if (policy.get("maxDepth") instanceof Number) {
+            maxDepth = ((Number) policy.get("maxDepth")).intValue();
+            if (maxDepth < 1) {
+                throw new IllegalArgumentException("maxDepth must be at least 1");
+            }
+        }
+        Set<String> directScopes = base.directScopes;
+        Set<String> transitiveScopes = base.transitiveScopes;
+        if (policy.get("scopes") instanceof Collection<?> && !((Collection<?>) policy.get("scopes")).isEmpty()) {
+            Set<String> scopes = new TreeSet<>();
+            for (Object scope : (Collection<?>) policy.get("scopes")) {
+                scopes.add(String.valueOf(scope));
+            }
+            directScopes = scopes;
+            transitiveScopes = scopes;
+        }
+        boolean includeOptional = policy.get("includeOptional") instanceof Boolean
+                ? (Boolean) policy.get("includeOptional") : base.includeOptional;
+        return new CollectionPolicy(maxDepth, directScopes, transitiveScopes, includeOptional,
+                patterns(policy.get("include")), patterns(policy.get("exclude")), quick);
+    }
+
+    private static List<Pattern> patterns(Object value) {
+        if (!(value instanceof Collection<?>)) {
+            return Collections.emptyList();
+        }
+        List<Pattern> patterns = new ArrayList<>();
+        for (Object pattern : (Collection<?>) value) {
+            if (pattern != null && !pattern.toString().isBlank()) {
+                patterns.add(DependencyTreeFilter.compile(pattern.toString()));
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * 判断第 depth 层（直接依赖为 1）的依赖是否收集
+     */
+    boolean select(Dependency dependency, int depth) {
+        if (depth == 0) {
+            return true;
+        }
+        if (depth > maxDepth) {
+            return false;
+        }
+        if (depth == 1) {
+            // 直接依赖未声明 scope 时按 compile 处理
+            String scope = dependency.getScope() == null || dependency.getScope().isEmpty() ? "compile" : dependency.getScope();
+            if (directScopes != null && !directScopes.contains(scope)) {
+                return false;
+            }
+        } else if (!transitiveScopes.contains(dependency.getScope()) || (dependency.isOptional() && !includeOptional)) {
+            return false;
+        }
+        if (includes.isEmpty() && excludes.isEmpty()) {
+            return true;
+        }
+        String ga = dependency.getArtifact().getGroupId() + ":" + dependency.getArtifact().getArtifactId();
+        for (Pattern exclude : excludes) {
+            if (exclude.matcher(ga).matches()) {
+                return false;
+            }
+        }
+        if (includes.isEmpty()) {
+            return true;
+        }
+        for (Pattern include : includes) {
+            if (include.matcher(ga).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * 快速概览模式
+     */
+    public boolean isQuick() {
+        return quick;
+    }
+
+    public boolean isDefault() {
+        return equals(DEFAULT);
+    }
+
+    /**
+     * 策略的规范化描述，用作缓存键的一部分，默认策略为空串
+     */
+    public String getKey() {
+        return key;
+    }
+
+    private String buildKey() {
+        if (maxDepth == DEFAULT_MAX_DEPTH && directScopes == null && DEFAULT_SCOPES.equals(transitiveScopes)
+                && !includeOptional && includes.isEmpty() && excludes.isEmpty() && !quick) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder("policy:d").append(maxDepth);
+        if (directScopes != null) {
+            sb.append(";ds=").append(String.join(",", new TreeSet<>(directScopes)));
+        }
+        sb.append(";ts=").append(String.join(",", new TreeSet<>(transitiveScopes)));
+        sb.append(";o=").append(includeOptional ? 1 : 0);
+        for (Pattern include : includes) {
+            sb.append(";i=").append(include.pattern());
+        }
+        for (Pattern exclude : excludes) {
+            sb.append(";e=").append(exclude.pattern());
+        }
+        if (quick) {
+            sb.append(";quick");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CollectionPolicy && key.equals(((CollectionPolicy) obj).key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key.isEmpty() ? "default" : key;
+    }
+}
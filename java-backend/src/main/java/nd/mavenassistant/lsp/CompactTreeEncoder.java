@@ -0,0 +1,142 @@
+package nd.mavenassistant.lsp;
+
+import java.util.*;
+
+/**
+ * maven/analyzeDependencies 的紧凑响应格式（请求参数 format 为 compact 时使用）
+ * 所有字符串驻留在字符串表中，节点按前序展开为按列存放的下标数组，parent 为父节点下标（顶层为 -1），
+ * 避免每个节点重复输出键名和 groupId 等长字符串；根节点上的其他字段（如 filter）原样保留
+ * <pre>
+ * {"format":"compact","version":1,"strings":[...],"nodeCount":n,
+ *  "nodes":{"parent":[..],"groupId":[..],"artifactId":[..],"version":[..],"scope":[..],"flags":[..],"size":[..]},
+ *  "exclusions":[node,groupId,artifactId,...]}
+ * </pre>
+ */
+class CompactTreeEncoder {
+
+    static final String FORMAT = "compact";
+    static final int VERSION = 1;
+
+    /** 节点标记：因冲突被丢弃 */
+    static final int FLAG_DROPPED = 1;
+    /** 节点标记：过滤时作为路径上下文保留 */
+    static final int FLAG_CONTEXT = 2;
+    /** 节点标记：子节点因深度限制被截断 */
+    static final int FLAG_TRUNCATED = 4;
+
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private int[] parent = new int[64];
+    private int[] groupId = new int[64];
+    private int[] artifactId = new int[64];
+    private int[] version = new int[64];
+    private int[] scope = new int[64];
+    private int[] flags = new int[64];
+    private long[] size = new long[64];
+    private final List<Integer> exclusions = new ArrayList<>();
+    private int count;
+
+    private CompactTreeEncoder() {
+    }
+
+    /**
+     * 将 buildDependencyTree（或过滤后）的树编码为紧凑格式
+     *
+     * @param tree 依赖树，可为null
+     */
+    static Map<String, Object> encode(Map<String, Object> tree) {
+        CompactTreeEncoder encoder = new CompactTreeEncoder();
+        if (tree != null) {
+            encoder.addAll(tree, -1);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("format", FORMAT);
+        result.put("version", VERSION);
+        result.put("strings", encoder.strings);
+        result.put("nodeCount", encoder.count);
+        Map<String, Object> nodes = new LinkedHashMap<>();
+        nodes.put("parent", Arrays.copyOf(encoder.parent, encoder.count));
+        nodes.put("groupId", Arrays.copyOf(encoder.groupId, encoder.count));
+        nodes.put("artifactId", Arrays.copyOf(encoder.artifactId, encoder.count));
+        nodes.put("version", Arrays.copyOf(encoder.version, encoder.count));
+        nodes.put("scope", Arrays.copyOf(encoder.scope, encoder.count));
+        nodes.put("flags", Arrays.copyOf(encoder.flags, encoder.count));
+        nodes.put("size", Arrays.copyOf(encoder.size, encoder.count));
+        result.put("nodes", nodes);
+        result.put("exclusions", encoder.exclusions);
+        if (tree != null) {
+            for (Map.Entry<String, Object> entry : tree.entrySet()) {
+                if (!"children".equals(entry.getKey())) {
+                    result.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addAll(Map<String, Object> node, int parentIndex) {
+        Object children = node.get("children");
+        if (!(children instanceof List)) {
+            return;
+        }
+        for (Map<String, Object> child : (List<Map<String, Object>>) children) {
+            int index = add(child, parentIndex);
+            addAll(child, index);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int add(Map<String, Object> node, int parentIndex) {
+        if (count == parent.length) {
+            int capacity = count * 2;
+            parent = Arrays.copyOf(parent, capacity);
+            groupId = Arrays.copyOf(groupId, capacity);
+            artifactId = Arrays.copyOf(artifactId, capacity);
+            version = Arrays.copyOf(version, capacity);
+            scope = Arrays.copyOf(scope, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            size = Arrays.copyOf(size, capacity);
+        }
+        int index = count++;
+        parent[index] = parentIndex;
+        groupId[index] = intern(node.get("groupId"));
+        artifactId[index] = intern(node.get("artifactId"));
+        version[index] = intern(node.get("version"));
+        scope[index] = intern(node.get("scope"));
+        int nodeFlags = 0;
+        if (Boolean.TRUE.equals(node.get("droppedByConflict"))) {
+            nodeFlags |= FLAG_DROPPED;
+        }
+        if (Boolean.TRUE.equals(node.get("context"))) {
+            nodeFlags |= FLAG_CONTEXT;
+        }
+        if (Boolean.TRUE.equals(node.get("truncated"))) {
+            nodeFlags |= FLAG_TRUNCATED;
+        }
+        flags[index] = nodeFlags;
+        size[index] = node.get("size") instanceof Number ? ((Number) node.get("size")).longValue() : -1;
+        Object nodeExclusions = node.get("exclusions");
+        if (nodeExclusions instanceof List) {
+            for (Map<String, Object> exclusion : (List<Map<String, Object>>) nodeExclusions) {
+                exclusions.add(index);
+                exclusions.add(intern(exclusion.get("groupId")));
+                exclusions.add(intern(exclusion.get("artifactId")));
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 字符串驻留，null 编码为 -1
+     */
+    private int intern(Object value) {
+        if (value == null) {
+            return -1;
+        }
+        return stringIds.computeIfAbsent(value.toString(), s -> {
+            strings.add(s);
+            return strings.size() - 1;
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package nd.mavenassistant.lsp;
+
+import nd.mavenassistant.analysis.ConflictChecker;
+import nd.mavenassistant.analysis.ConflictChecker.Finding;
+import nd.mavenassistant.utils.PomXmlUtils;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * pom.xml 依赖冲突诊断
+ * 在子树存在冲突、降级或被排除的一级依赖声明上生成诊断。
+ * 诊断与上次发布的相同时不再重复发布
+ */
+class ConflictDiagnostics {
+
+    static final String SOURCE = "maven-assistant";
+    // 单条诊断中最多列出的问题数
+    private static final int MAX_LISTED = 10;
+    // Maven 默认类型中扩展名或 classifier 与类型名不同的类型：{扩展名, classifier}
+    private static final Map<String, String[]> TYPE_HANDLERS = Map.of(
+            "test-jar", new String[]{"jar", "tests"},
+            "ejb-client", new String[]{"jar", "client"},
+            "java-source", new String[]{"jar", "sources"},
+            "javadoc", new String[]{"jar", "javadoc"},
+            "maven-plugin", new String[]{"jar", ""},
+            "ejb", new String[]{"jar", ""});
+
+    private final Map<String, List<Diagnostic>> published = new ConcurrentHashMap<>();
+
+    /**
+     * 计算 pom.xml 的诊断
+     *
+     * @param pomPath pom.xml 绝对路径
+     * @param content 分析所用的 pom.xml 内容，用于定位依赖声明
+     * @param root 依赖图根节点
+     * @return 诊断列表，与上次发布的相同时返回null
+     */
+    List<Diagnostic> update(String pomPath, String content, DependencyNode root) {
+        Map<String, List<Finding>> findings = ConflictChecker.check(root);
+        List<Diagnostic> diagnostics = toDiagnostics(content, findings);
+        List<Diagnostic> previous = published.put(pomPath, diagnostics);
+        return diagnostics.equals(previous) ? null : diagnostics;
+    }
+
+    /**
+     * 文档关闭时丢弃状态，返回需要发布的空诊断；之前未发布过诊断时返回null
+     */
+    List<Diagnostic> clear(String pomPath) {
+        List<Diagnostic> previous = published.remove(pomPath);
+        return previous == null || previous.isEmpty() ? null : Collections.emptyList();
+    }
+
+    static List<Diagnostic> toDiagnostics(String content, Map<String, List<Finding>> findings) {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        if (findings.isEmpty()) {
+            return diagnostics;
+        }
+        int[] lineStarts = lineStarts(content);
+        for (PomXmlUtils.DependencyLocation location : PomXmlUtils.locateDirectDependencies(content)) {
+            List<Finding> dependencyFindings = findings.get(key(location));
+            if (dependencyFindings == null || dependencyFindings.isEmpty()) {
+                continue;
+            }
+            Diagnostic diagnostic = new Diagnostic(
+                    new Range(position(lineStarts, location.artifactIdStart()), position(lineStarts, location.artifactIdEnd())),
+                    message(dependencyFindings), severity(dependencyFindings), SOURCE);
+            diagnostics.add(diagnostic);
+        }
+        return diagnostics;
+    }
+
+    /**
+     * 按声明的 type 和 classifier 计算依赖声明对应的结果键
+     */
+    static String key(PomXmlUtils.DependencyLocation location) {
+        String type = location.type() == null || location.type().isEmpty() ? "jar" : location.type();
+        String[] handler = TYPE_HANDLERS.getOrDefault(type, new String[]{type, ""});
+        String classifier = location.classifier() == null || location.classifier().isEmpty()
+                ? handler[1] : location.classifier();
+        return ConflictChecker.key(location.groupId(), location.artifactId(), handler[0], classifier);
+    }
+
+    private static DiagnosticSeverity severity(List<Finding> findings) {
+        for (Finding finding : findings) {
+            if (finding.kind() != ConflictChecker.Kind.CONFLICT) {
+                return DiagnosticSeverity.Warning;
+            }
+        }
+        return DiagnosticSeverity.Information;
+    }
+
+    private static String message(List<Finding> findings) {
+        StringBuilder message = new StringBuilder();
+        int listed = Math.min(findings.size(), MAX_LISTED);
+        for (int i = 0; i < listed; i++) {
+            Finding finding = findings.get(i);
+            if (i > 0) {
+                message.append('\n');
+            }
+            String ga = finding.groupId() + ":" + finding.artifactId();
+            switch (finding.kind()) {
+                case DOWNGRADE:
+                    message.append(ga).append(' ').append(finding.requestedVersion())
+                            .append(" downgraded to ").append(finding.winnerVersion());
+                    break;
+                case DROPPED:
+                    message.append(ga).append(' ').append(finding.requestedVersion())
+                            .append(" dropped, resolved with scope ").append(finding.winnerScope());
+                    break;
+                default:
+                    message.append(ga).append(' ').append(finding.requestedVersion())
+                            .append(" conflicts with ").append(finding.winnerVersion());
+                    break;
+            }
+        }
+        if (findings.size() > listed) {
+            message.append("\n... and ").append(findings.size() - listed).append(" more");
+        }
+        return message.toString();
+    }
+
+    private static int[] lineStarts(String content) {
+        List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == '\n') {
+                starts.add(i + 1);
+            }
+        }
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static Position position(int[] lineStarts, int offset) {
+        int line = Arrays.binarySearch(lineStarts, offset);
+        if (line < 0) {
+            line = -line - 2;
+        }
+        return new Position(line, offset - lineStarts[line]);
+    }
+}
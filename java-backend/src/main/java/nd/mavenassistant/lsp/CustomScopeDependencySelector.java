@@ -5,29 +5,29 @@ import org.eclipse.aether.collection.DependencySelector;
 import org.eclipse.aether.graph.Dependency;
 
 public class CustomScopeDependencySelector implements DependencySelector {
+    private final CollectionPolicy policy;
     private final int depth;
 
     public CustomScopeDependencySelector() {
-        this(0);
+        this(CollectionPolicy.DEFAULT);
     }
 
-    private CustomScopeDependencySelector(int depth) {
+    public CustomScopeDependencySelector(CollectionPolicy policy) {
+        this(policy, 0);
+    }
+
+    private CustomScopeDependencySelector(CollectionPolicy policy, int depth) {
+        this.policy = policy;
         this.depth = depth;
     }
 
     @Override
     public boolean selectDependency(Dependency dependency) {
-        if (depth == 0 || depth == 1) {
-            return true;
-        }
-        if (depth <= 4 && !dependency.isOptional()) {
-            return "compile".equals(dependency.getScope()) || "runtime".equals(dependency.getScope());
-        }
-        return false;
+        return policy.select(dependency, depth);
     }
 
     @Override
     public DependencySelector deriveChildSelector(DependencyCollectionContext context) {
-        return new CustomScopeDependencySelector(depth + 1);
+        return new CustomScopeDependencySelector(policy, depth + 1);
     }
 }
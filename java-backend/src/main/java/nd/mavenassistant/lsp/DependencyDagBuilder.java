@@ -0,0 +1,106 @@
+package nd.mavenassistant.lsp;
+
+import nd.mavenassistant.analysis.ConflictAnalyzer;
+import nd.mavenassistant.model.ArtifactGav;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.util.graph.transformer.ConflictResolver;
+
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * maven/analyzeDependencies 的 DAG 输出（请求参数 mode 为 dag 时使用）
+ * 每个 GAV 只输出一个节点，依赖关系作为边列表输出，scope、optional、exclusions 记录在边上，由客户端按需展开；
+ * 广度优先遍历，每个 GAV 只从最近的胜出节点展开一次子节点，耗时与输出大小随不同构件数和边数线性增长
+ * <pre>
+ * {"mode":"dag","nodes":[{"id":0,"groupId":..,"artifactId":..,"version":..,"size":..,"droppedByConflict":false}],
+ *  "edges":[{"from":-1,"to":0,"scope":"compile","optional":true,"exclusions":["g:a"]}]}
+ * </pre>
+ * 顶层依赖的边 from 为 -1；optional 和 exclusions 只在存在时输出
+ */
+class DependencyDagBuilder {
+
+    static final String MODE = "dag";
+
+    private DependencyDagBuilder() {
+    }
+
+    /**
+     * @param root 依赖图根节点
+     * @param sizes 构件 jar 大小（字节）
+     */
+    static Map<String, Object> build(DependencyNode root, ToLongFunction<Artifact> sizes) {
+        Set<String> effective = new HashSet<>();
+        for (ArtifactGav gav : ConflictAnalyzer.effectiveArtifacts(root)) {
+            effective.add(gav.getGroupId() + ":" + gav.getArtifactId() + ":" + gav.getVersion());
+        }
+        Map<String, Integer> ids = new HashMap<>();
+        List<Map<String, Object>> nodes = new ArrayList<>();
+        List<Map<String, Object>> edges = new ArrayList<>();
+        BitSet expanded = new BitSet();
+
+        Deque<DependencyNode> queue = new ArrayDeque<>();
+        Deque<Integer> queueIds = new ArrayDeque<>();
+        queue.add(root);
+        queueIds.add(-1);
+        while (!queue.isEmpty()) {
+            DependencyNode parent = queue.poll();
+            int parentId = queueIds.poll();
+            for (DependencyNode child : parent.getChildren()) {
+                Artifact artifact = child.getArtifact();
+                if (artifact == null) {
+                    continue;
+                }
+                String gav = artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+                Integer id = ids.get(gav);
+                if (id == null) {
+                    id = nodes.size();
+                    ids.put(gav, id);
+                    Map<String, Object> node = new LinkedHashMap<>();
+                    node.put("id", id);
+                    node.put("groupId", artifact.getGroupId());
+                    node.put("artifactId", artifact.getArtifactId());
+                    node.put("version", artifact.getVersion());
+                    node.put("size", sizes.applyAsLong(artifact));
+                    node.put("droppedByConflict", !effective.contains(gav));
+                    nodes.add(node);
+                }
+                edges.add(edge(parentId, id, child.getDependency()));
+                // 落败节点没有子节点，只从胜出的出现位置展开
+                boolean loser = child.getData().get(ConflictResolver.NODE_DATA_WINNER) != null;
+                if (!loser && !expanded.get(id)) {
+                    expanded.set(id);
+                    queue.add(child);
+                    queueIds.add(id);
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", MODE);
+        result.put("nodes", nodes);
+        result.put("edges", edges);
+        return result;
+    }
+
+    private static Map<String, Object> edge(int from, int to, Dependency dependency) {
+        Map<String, Object> edge = new LinkedHashMap<>();
+        edge.put("from", from);
+        edge.put("to", to);
+        edge.put("scope", dependency != null && !dependency.getScope().isEmpty() ? dependency.getScope() : "compile");
+        if (dependency != null && dependency.isOptional()) {
+            edge.put("optional", true);
+        }
+        if (dependency != null && !dependency.getExclusions().isEmpty()) {
+            List<String> exclusions = new ArrayList<>();
+            for (Exclusion exclusion : dependency.getExclusions()) {
+                exclusions.add(exclusion.getGroupId() + ":" + exclusion.getArtifactId());
+            }
+            edge.put("exclusions", exclusions);
+        }
+        return edge;
+    }
+}
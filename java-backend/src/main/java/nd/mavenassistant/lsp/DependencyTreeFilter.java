@@ -0,0 +1,186 @@
+package nd.mavenassistant.lsp;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * maven/analyzeDependencies 的服务端过滤条件
+ * 在序列化之前对依赖树裁剪：节点满足全部条件时保留，不满足但有保留的后代时作为路径上下文保留（标记 context），
+ * 其余节点连同子树一并去掉；超过最大深度的节点不参与匹配
+ */
+class DependencyTreeFilter {
+
+    private Set<String> scopes;
+    private Pattern artifactPattern;
+    private boolean onlyConflicts;
+    private Pattern pathToPattern;
+    private int maxDepth;
+    private long minSize;
+
+    /**
+     * 从请求参数中解析过滤条件，未提供任何条件时返回null
+     * 支持 scopes（数组）、artifact（groupId:artifactId 的通配符，/.../ 包裹时为正则）、onlyConflicts、
+     * pathTo（同 artifact 语法，只保留通往匹配节点的路径）、maxDepth（直接依赖为 1）、minSize（字节）
+     *
+     * @throws IllegalArgumentException 参数格式错误
+     */
+    static DependencyTreeFilter fromParams(Map<String, Object> params) {
+        DependencyTreeFilter filter = new DependencyTreeFilter();
+        boolean any = false;
+        Object scopes = params.get("scopes");
+        if (scopes instanceof Collection<?> && !((Collection<?>) scopes).isEmpty()) {
+            filter.scopes = new HashSet<>();
+            for (Object scope : (Collection<?>) scopes) {
+                filter.scopes.add(String.valueOf(scope));
+            }
+            any = true;
+        }
+        if (params.get("artifact") instanceof String && !((String) params.get("artifact")).isBlank()) {
+            filter.artifactPattern = compile((String) params.get("artifact"));
+            any = true;
+        }
+        if (Boolean.TRUE.equals(params.get("onlyConflicts"))) {
+            filter.onlyConflicts = true;
+            any = true;
+        }
+        if (params.get("pathTo") instanceof String && !((String) params.get("pathTo")).isBlank()) {
+            filter.pathToPattern = compile((String) params.get("pathTo"));
+            any = true;
+        }
+        if (params.get("maxDepth") instanceof Number && ((Number) params.get("maxDepth")).intValue() > 0) {
+            filter.maxDepth = ((Number) params.get("maxDepth")).intValue();
+            any = true;
+        }
+        if (params.get("minSize") instanceof Number && ((Number) params.get("minSize")).longValue() > 0) {
+            filter.minSize = ((Number) params.get("minSize")).longValue();
+            any = true;
+        }
+        return any ? filter : null;
+    }
+
+    /**
+     * groupId:artifactId 匹配模式：/regex/ 为正则，否则为通配符（* 任意字符，? 单个字符）；
+     * 不含 : 的模式分别与 groupId:artifactId 和 artifactId 匹配
+     */
+    static Pattern compile(String pattern) {
+        String trimmed = pattern.trim();
+        if (trimmed.length() > 2 && trimmed.startsWith("/") && trimmed.endsWith("/")) {
+            return Pattern.compile(trimmed.substring(1, trimmed.length() - 1));
+        }
+        StringBuilder regex = new StringBuilder();
+        if (trimmed.indexOf(':') < 0) {
+            // 仅给出 artifactId（或 groupId 片段）时，允许匹配 GA 中冒号后的部分
+            regex.append("(?:.*:)?");
+        }
+        for (char c : trimmed.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * 过滤依赖树，返回新的树，不修改传入的树
+     *
+     * @param tree buildDependencyTree 的结果，可为null
+     */
+    Map<String, Object> apply(Map<String, Object> tree) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        List<Map<String, Object>> children = children(tree);
+        Set<String> conflictingGas = onlyConflicts ? conflictingGas(children) : Collections.emptySet();
+        int[] counts = new int[2];
+        List<Map<String, Object>> filtered = filterChildren(children, 1, conflictingGas, counts);
+        if (!filtered.isEmpty()) {
+            result.put("children", filtered);
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("matchedNodes", counts[0]);
+        summary.put("totalNodes", counts[1]);
+        result.put("filter", summary);
+        return result;
+    }
+
+    /**
+     * @param counts [0] 匹配的节点数，[1] 参与匹配的节点总数
+     */
+    private List<Map<String, Object>> filterChildren(List<Map<String, Object>> nodes, int depth,
+                                                     Set<String> conflictingGas, int[] counts) {
+        List<Map<String, Object>> kept = new ArrayList<>();
+        for (Map<String, Object> node : nodes) {
+            counts[1]++;
+            List<Map<String, Object>> children = children(node);
+            List<Map<String, Object>> keptChildren = depth < maxDepth || maxDepth == 0
+                    ? filterChildren(children, depth + 1, conflictingGas, counts)
+                    : Collections.emptyList();
+            boolean matched = matches(node, conflictingGas);
+            if (matched) {
+                counts[0]++;
+            }
+            if (!matched && keptChildren.isEmpty()) {
+                continue;
+            }
+            Map<String, Object> copy = new LinkedHashMap<>(node);
+            copy.remove("children");
+            if (!keptChildren.isEmpty()) {
+                copy.put("children", keptChildren);
+            }
+            if (!matched) {
+                copy.put("context", true);
+            }
+            if (maxDepth > 0 && depth == maxDepth && !children.isEmpty()) {
+                copy.put("truncated", true);
+            }
+            kept.add(copy);
+        }
+        return kept;
+    }
+
+    private boolean matches(Map<String, Object> node, Set<String> conflictingGas) {
+        String ga = node.get("groupId") + ":" + node.get("artifactId");
+        if (scopes != null && !scopes.contains(String.valueOf(node.get("scope")))) {
+            return false;
+        }
+        if (artifactPattern != null && !artifactPattern.matcher(ga).matches()) {
+            return false;
+        }
+        if (onlyConflicts && !Boolean.TRUE.equals(node.get("droppedByConflict")) && !conflictingGas.contains(ga)) {
+            return false;
+        }
+        if (pathToPattern != null && !pathToPattern.matcher(ga).matches()) {
+            return false;
+        }
+        return minSize <= 0 || (node.get("size") instanceof Number && ((Number) node.get("size")).longValue() >= minSize);
+    }
+
+    /**
+     * 树中出现多个版本的 groupId:artifactId
+     */
+    private static Set<String> conflictingGas(List<Map<String, Object>> roots) {
+        Map<String, Set<Object>> versions = new HashMap<>();
+        Deque<Map<String, Object>> stack = new ArrayDeque<>(roots);
+        while (!stack.isEmpty()) {
+            Map<String, Object> node = stack.pop();
+            versions.computeIfAbsent(node.get("groupId") + ":" + node.get("artifactId"), k -> new HashSet<>())
+                    .add(node.get("version"));
+            stack.addAll(children(node));
+        }
+        Set<String> conflicting = new HashSet<>();
+        for (Map.Entry<String, Set<Object>> entry : versions.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                conflicting.add(entry.getKey());
+            }
+        }
+        return conflicting;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> children(Map<String, Object> node) {
+        Object children = node != null ? node.get("children") : null;
+        return children instanceof List ? (List<Map<String, Object>>) children : Collections.emptyList();
+    }
+}
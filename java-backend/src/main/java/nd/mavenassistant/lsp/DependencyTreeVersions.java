@@ -0,0 +1,149 @@
+package nd.mavenassistant.lsp;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 记录每个 pom.xml 最近返回给客户端的依赖树版本，客户端带上 sinceVersion 时计算结构增量
+ * 节点以从顶层到自身的 groupId:artifactId 路径标识（同一父节点下重复的 GA 追加 #n），
+ * 增量由 removed（删除的子树路径）、changed（属性变化的节点，不含 children）和 added（新增子树及其在父节点中的位置）组成，
+ * 客户端按 removed、changed、added 的顺序应用即可得到新树
+ */
+class DependencyTreeVersions {
+
+    /** 每个 pom.xml 保留的历史版本数 */
+    private static final int HISTORY = 4;
+    /** 路径分隔符，GA 中不会出现 */
+    static final String SEPARATOR = "/";
+
+    // 以启动时间为起点，避免服务重启后与客户端持有的旧版本号重复
+    private final AtomicLong nextVersion = new AtomicLong(System.currentTimeMillis());
+    private final Map<String, Deque<Version>> history = new ConcurrentHashMap<>();
+
+    private record Version(long version, Map<String, Object> tree) {
+    }
+
+    /**
+     * 记录一次返回的依赖树，与最近版本是同一个对象时沿用其版本号
+     *
+     * @return 该树的版本号
+     */
+    long record(String pomKey, Map<String, Object> tree) {
+        Deque<Version> versions = history.computeIfAbsent(pomKey, k -> new ArrayDeque<>());
+        synchronized (versions) {
+            Version latest = versions.peekLast();
+            if (latest != null && latest.tree() == tree) {
+                return latest.version();
+            }
+            long version = nextVersion.incrementAndGet();
+            versions.addLast(new Version(version, tree));
+            while (versions.size() > HISTORY) {
+                versions.removeFirst();
+            }
+            return version;
+        }
+    }
+
+    /**
+     * 获取历史版本对应的树，版本已淘汰或不存在时返回 null
+     */
+    Map<String, Object> get(String pomKey, long version) {
+        Deque<Version> versions = history.get(pomKey);
+        if (versions == null) {
+            return null;
+        }
+        synchronized (versions) {
+            for (Version v : versions) {
+                if (v.version() == version) {
+                    return v.tree() != null ? v.tree() : Collections.emptyMap();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 计算从 previous 到 current 的结构增量
+     */
+    static Map<String, Object> diff(Map<String, Object> previous, Map<String, Object> current) {
+        List<String> removed = new ArrayList<>();
+        List<Map<String, Object>> changed = new ArrayList<>();
+        List<Map<String, Object>> added = new ArrayList<>();
+        diffChildren("", children(previous), children(current), removed, changed, added);
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("delta", true);
+        delta.put("removed", removed);
+        delta.put("changed", changed);
+        delta.put("added", added);
+        return delta;
+    }
+
+    private static void diffChildren(String parentPath, List<Map<String, Object>> before, List<Map<String, Object>> after,
+                                     List<String> removed, List<Map<String, Object>> changed, List<Map<String, Object>> added) {
+        Map<String, Map<String, Object>> beforeByKey = keyed(before);
+        Map<String, Map<String, Object>> afterByKey = keyed(after);
+        // 保留下来的节点相对顺序发生变化时，整个父节点的子节点按删除后重新添加处理
+        List<String> retainedBefore = new ArrayList<>(beforeByKey.keySet());
+        retainedBefore.retainAll(afterByKey.keySet());
+        List<String> retainedAfter = new ArrayList<>(afterByKey.keySet());
+        retainedAfter.retainAll(beforeByKey.keySet());
+        boolean reordered = !retainedBefore.equals(retainedAfter);
+
+        for (String key : beforeByKey.keySet()) {
+            if (reordered || !afterByKey.containsKey(key)) {
+                removed.add(parentPath + key);
+            }
+        }
+        int index = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : afterByKey.entrySet()) {
+            String path = parentPath + entry.getKey();
+            Map<String, Object> node = entry.getValue();
+            Map<String, Object> old = reordered ? null : beforeByKey.get(entry.getKey());
+            if (old == null) {
+                Map<String, Object> addition = new LinkedHashMap<>();
+                addition.put("parent", parentPath.isEmpty() ? "" : parentPath.substring(0, parentPath.length() - SEPARATOR.length()));
+                addition.put("index", index);
+                addition.put("node", node);
+                added.add(addition);
+            } else if (old != node) {
+                if (!attributes(old).equals(attributes(node))) {
+                    Map<String, Object> change = new LinkedHashMap<>();
+                    change.put("path", path);
+                    change.put("node", attributes(node));
+                    changed.add(change);
+                }
+                diffChildren(path + SEPARATOR, children(old), children(node), removed, changed, added);
+            }
+            index++;
+        }
+    }
+
+    /**
+     * 按 groupId:artifactId 为同级节点生成唯一键，保持原有顺序
+     */
+    private static Map<String, Map<String, Object>> keyed(List<Map<String, Object>> nodes) {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (Map<String, Object> node : nodes) {
+            String ga = node.get("groupId") + ":" + node.get("artifactId");
+            String key = ga;
+            for (int n = 2; result.containsKey(key); n++) {
+                key = ga + "#" + n;
+            }
+            result.put(key, node);
+        }
+        return result;
+    }
+
+    private static Map<String, Object> attributes(Map<String, Object> node) {
+        Map<String, Object> attributes = new LinkedHashMap<>(node);
+        attributes.remove("children");
+        return attributes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> children(Map<String, Object> node) {
+        Object children = node != null ? node.get("children") : null;
+        return children instanceof List ? (List<Map<String, Object>>) children : Collections.emptyList();
+    }
+}
@@ -1,7 +1,9 @@
 package nd.mavenassistant.lsp;
 
-import org.eclipse.lsp4j.launch.LSPLauncher;
-import java.io.IOException;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * LSP Server 主入口
@@ -9,15 +11,38 @@ import java.io.IOException;
  * 目前仅实现最基础的启动逻辑，后续可扩展具体服务能力。
  */
 public class LspServerMain {
-    public static void main(String[] args) throws IOException {
+    // 构建 AppCDS 归档时使用的训练运行参数
+    static final String CDS_TRAINING_ARG = "--cds-training";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && CDS_TRAINING_ARG.equals(args[0])) {
+            // 训练运行结束后直接退出，JVM 在退出时写出归档
+            CdsTraining.run();
+            System.exit(0);
+        }
         // 创建自定义的 LanguageServer 实现
         SimpleLanguageServer server = new SimpleLanguageServer();
         // 启动 LSP4J 的 Launcher，绑定标准输入输出，实现与前端的通信
-        var launcher = LSPLauncher.createServerLauncher(server, System.in, System.out);
-        // 将 VSCode 前端的 LanguageClient 注入到 server，便于推送日志
-        server.connect(launcher.getRemoteProxy());
+        var launcher = createLauncher(server, System.in, System.out);
         // 启动监听，等待前端请求
         launcher.startListening();
         // 进程会一直阻塞，直到被前端关闭
     }
-} 
\ No newline at end of file
+
+    /**
+     * 在给定的输入输出流上创建服务端 Launcher，并将前端的 LanguageClient 注入到 server
+     * 除标准输入输出外，测试中也可绑定管道流，经完整的 JSON-RPC 链路驱动服务端
+     */
+    public static Launcher<MavenAssistantClient> createLauncher(SimpleLanguageServer server, InputStream in, OutputStream out) {
+        // 远端接口包含自定义通知，除此之外与 LSPLauncher.createServerLauncher 相同
+        Launcher<MavenAssistantClient> launcher = new Launcher.Builder<MavenAssistantClient>()
+                .setLocalService(server)
+                .setRemoteInterface(MavenAssistantClient.class)
+                .setInput(in)
+                .setOutput(out)
+                .create();
+        // 将 VSCode 前端的 LanguageClient 注入到 server，便于推送日志
+        server.connect(launcher.getRemoteProxy());
+        return launcher;
+    }
+}
@@ -0,0 +1,27 @@
+package nd.mavenassistant.lsp;
+
+import org.eclipse.lsp4j.jsonrpc.services.JsonNotification;
+import org.eclipse.lsp4j.services.LanguageClient;
+
+/**
+ * VSCode 前端的客户端接口，在标准 LanguageClient 之外增加服务端主动推送的自定义通知
+ */
+public interface MavenAssistantClient extends LanguageClient {
+
+    /**
+     * pom.xml（含未保存的编辑）重新分析完成，客户端可刷新依赖视图
+     */
+    @JsonNotification("maven/dependenciesChanged")
+    void dependenciesChanged(DependenciesChangedParams params);
+
+    /**
+     * 依赖变化通知参数
+     */
+    class DependenciesChangedParams {
+        public String pomPath;
+
+        public DependenciesChangedParams(String pomPath) {
+            this.pomPath = pomPath;
+        }
+    }
+}
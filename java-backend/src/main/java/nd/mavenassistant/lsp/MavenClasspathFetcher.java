@@ -1,12 +1,16 @@
 package nd.mavenassistant.lsp;
 
+import nd.mavenassistant.metrics.HitCounter;
 import nd.mavenassistant.model.ArtifactGav;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MavenClasspathFetcher {
     // GAV列表缓存
-    private static final Map<String, CacheEntry> gavListCache = new HashMap<>();
+    private static final Map<String, CacheEntry> gavListCache = new ConcurrentHashMap<>();
+    // 缓存命中统计
+    private static final HitCounter cacheStats = new HitCounter();
     private static final long CACHE_EXPIRY_MS = 3 * 60 * 1000; // 3分钟缓存过期时间
     
     // 缓存条目类
@@ -48,8 +52,10 @@ public class MavenClasspathFetcher {
         // 检查缓存
         CacheEntry cachedEntry = gavListCache.get(pomPath);
         if (cachedEntry != null && !cachedEntry.isExpired(pomLastModified)) {
+            cacheStats.hit();
             return new ArrayList<>(cachedEntry.getGavList()); // 返回副本避免外部修改
         }
+        cacheStats.miss();
         
         // 清理过期缓存
         gavListCache.entrySet().removeIf(entry -> entry.getValue().isExpired(pomLastModified));
@@ -114,6 +120,20 @@ public class MavenClasspathFetcher {
         return gavList;
     }
 
+    /**
+     * 获取GAV列表缓存的命中统计
+     */
+    public static HitCounter getCacheStats() {
+        return cacheStats;
+    }
+
+    /**
+     * 获取GAV列表缓存大小
+     */
+    public static int getCacheSize() {
+        return gavListCache.size();
+    }
+
     // 演示用主方法
     public static void main(String[] args) throws Exception {
         List<ArtifactGav> gavs = fetchGavList();
@@ -0,0 +1,206 @@
+package nd.mavenassistant.lsp;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.graph.DependencyNode;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 并行构建依赖树，输出与 SimpleLanguageServer#buildDependencyTreeWithConflict 的顺序实现逐字节一致
+ * 顺序实现中节点的去留取决于深度优先顺序下每个 GAV 第一次出现的位置：首次出现的节点展开子节点，
+ * 之后更浅的出现沿用其 children 列表，相同或更深的出现只保留节点本身。
+ * 因此先按同样的顺序做一次只比较字符串的规划遍历，确定每个出现位置的类型，
+ * 再在 fork/join 线程池中并行构建各节点的 depInfo（scope、jar 大小、exclusion 展开等），最后回填共享的 children
+ */
+class ParallelTreeBuilder {
+
+    /** 单个任务顺序处理的最大节点数 */
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    /**
+     * 构建单个节点的 depInfo（不含 children）
+     */
+    interface DepInfoFactory {
+        Map<String, Object> create(String groupId, String artifactId, String version, String key, DependencyNode node);
+    }
+
+    private enum Kind {
+        /** GAV 首次出现，展开子节点 */
+        EXPANDED,
+        /** 比已记录层级更浅的出现，沿用首次出现的 children */
+        INHERITED,
+        /** 相同或更深的出现，不含 children */
+        LEAF
+    }
+
+    private static final class Planned {
+        final DependencyNode node;
+        final String key;
+        final Kind kind;
+        final List<Planned> children;
+        Planned source; // INHERITED 节点对应的首次出现
+        int subtreeSize = 1;
+        Map<String, Object> depInfo;
+
+        Planned(DependencyNode node, String key, Kind kind) {
+            this.node = node;
+            this.key = key;
+            this.kind = kind;
+            this.children = kind == Kind.EXPANDED ? new ArrayList<>() : Collections.emptyList();
+        }
+    }
+
+    private static final class Level {
+        int level;
+        final Planned first;
+
+        Level(int level, Planned first) {
+            this.level = level;
+            this.first = first;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final DepInfoFactory factory;
+    private final Set<String> usedGAVSet;
+    private final Set<String> usedGASet;
+
+    ParallelTreeBuilder(ForkJoinPool pool, DepInfoFactory factory, Set<String> usedGAVSet, Set<String> usedGASet) {
+        this.pool = pool;
+        this.factory = factory;
+        this.usedGAVSet = usedGAVSet;
+        this.usedGASet = usedGASet;
+    }
+
+    /**
+     * @param root 依赖图根节点
+     * @return 树形依赖结构，没有任何依赖时返回 null
+     */
+    Map<String, Object> build(DependencyNode root) {
+        List<Planned> roots = new ArrayList<>();
+        Map<String, Level> levels = new HashMap<>();
+        List<Planned> inherited = new ArrayList<>();
+        for (DependencyNode child : root.getChildren()) {
+            Planned planned = plan(child, 0, levels, inherited);
+            if (planned != null) {
+                roots.add(planned);
+            }
+        }
+        if (roots.isEmpty()) {
+            return null;
+        }
+
+        pool.invoke(new BuildTask(roots));
+        // 回填 INHERITED 节点的 children：与顺序实现一样共享首次出现的列表
+        for (Planned planned : inherited) {
+            Object children = planned.source.depInfo.get("children");
+            if (children != null) {
+                planned.depInfo.put("children", children);
+            }
+        }
+
+        List<Map<String, Object>> children = new ArrayList<>(roots.size());
+        for (Planned planned : roots) {
+            children.add(planned.depInfo);
+        }
+        Map<String, Object> rootInfo = new LinkedHashMap<>();
+        rootInfo.put("children", children);
+        return rootInfo;
+    }
+
+    /**
+     * 按顺序实现的遍历顺序规划节点类型，只做字符串比较
+     */
+    private Planned plan(DependencyNode node, int level, Map<String, Level> levels, List<Planned> inherited) {
+        Artifact artifact = node.getArtifact();
+        String ga = artifact.getGroupId() + ":" + artifact.getArtifactId();
+        if (!usedGASet.contains(ga)) {
+            return null;
+        }
+        String key = ga + ":" + artifact.getVersion();
+        Level existing = levels.get(key);
+        if (existing != null) {
+            if (level < existing.level) {
+                Planned planned = new Planned(node, key, Kind.INHERITED);
+                planned.source = existing.first;
+                existing.level = level;
+                inherited.add(planned);
+                return planned;
+            }
+            return new Planned(node, key, Kind.LEAF);
+        }
+        Planned planned = new Planned(node, key, Kind.EXPANDED);
+        levels.put(key, new Level(level, planned));
+        // 因冲突被丢弃的节点不展开子节点
+        if (usedGAVSet.contains(key)) {
+            for (DependencyNode child : node.getChildren()) {
+                Planned childPlan = plan(child, level + 1, levels, inherited);
+                if (childPlan != null) {
+                    planned.children.add(childPlan);
+                    planned.subtreeSize += childPlan.subtreeSize;
+                }
+            }
+        }
+        return planned;
+    }
+
+    private void buildSequentially(Planned planned) {
+        Artifact artifact = planned.node.getArtifact();
+        planned.depInfo = factory.create(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(),
+                planned.key, planned.node);
+        for (Planned child : planned.children) {
+            buildSequentially(child);
+        }
+        attachChildren(planned);
+    }
+
+    private static void attachChildren(Planned planned) {
+        if (planned.children.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> children = new ArrayList<>(planned.children.size());
+        for (Planned child : planned.children) {
+            children.add(child.depInfo);
+        }
+        planned.depInfo.put("children", children);
+    }
+
+    /**
+     * 构建一组同级子树，节点数较少的子树在当前线程顺序构建
+     */
+    @SuppressWarnings("serial")
+    private final class BuildTask extends RecursiveAction {
+        private final List<Planned> subtrees;
+
+        BuildTask(List<Planned> subtrees) {
+            this.subtrees = subtrees;
+        }
+
+        @Override
+        protected void compute() {
+            List<BuildTask> forked = new ArrayList<>();
+            List<Planned> large = new ArrayList<>();
+            for (Planned planned : subtrees) {
+                if (planned.subtreeSize <= SEQUENTIAL_THRESHOLD) {
+                    buildSequentially(planned);
+                } else {
+                    Artifact artifact = planned.node.getArtifact();
+                    planned.depInfo = factory.create(artifact.getGroupId(), artifact.getArtifactId(),
+                            artifact.getVersion(), planned.key, planned.node);
+                    BuildTask task = new BuildTask(planned.children);
+                    task.fork();
+                    forked.add(task);
+                    large.add(planned);
+                }
+            }
+            for (BuildTask task : forked) {
+                task.join();
+            }
+            for (Planned planned : large) {
+                attachChildren(planned);
+            }
+        }
+    }
+}
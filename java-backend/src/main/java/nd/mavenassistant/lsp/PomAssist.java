@@ -0,0 +1,115 @@
+package nd.mavenassistant.lsp;
+
+import nd.mavenassistant.index.LocalRepositoryIndex;
+import nd.mavenassistant.utils.PomXmlUtils;
+import org.eclipse.lsp4j.*;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * pom.xml 中 groupId、artifactId、version 的补全与悬停提示，数据来自本地仓库版本索引
+ */
+class PomAssist {
+
+    private static final int MAX_ITEMS = 200;
+    // plugin 未声明 groupId 时的默认值
+    private static final String DEFAULT_PLUGIN_GROUP = "org.apache.maven.plugins";
+
+    private final LocalRepositoryIndex index;
+
+    PomAssist(LocalRepositoryIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * 光标位于坐标元素内容中时返回候选项，否则返回空列表
+     */
+    CompletionList completion(String text, Position position) {
+        int offset = PomDocumentService.offsetOf(text, position);
+        PomXmlUtils.CoordinateContext context = PomXmlUtils.coordinateContextAt(text, offset);
+        CompletionList list = new CompletionList(false, new ArrayList<>());
+        if (context == null) {
+            return list;
+        }
+        String typed = text.substring(context.valueStart(), offset).stripLeading();
+        Range range = new Range(PomDocumentService.positionOf(text, offset - typed.length()),
+                PomDocumentService.positionOf(text, context.valueEnd()));
+        List<String> candidates;
+        CompletionItemKind kind;
+        switch (context.tag()) {
+            case "groupId":
+                candidates = index.completeGroupIds(typed, MAX_ITEMS + 1);
+                kind = CompletionItemKind.Module;
+                break;
+            case "artifactId":
+                String groupId = groupIdOf(context);
+                candidates = groupId != null ? index.completeArtifactIds(groupId, typed, MAX_ITEMS + 1) : List.of();
+                kind = CompletionItemKind.Module;
+                break;
+            default:
+                if (groupIdOf(context) == null || context.artifactId() == null) {
+                    return list;
+                }
+                candidates = index.getVersions(groupIdOf(context), context.artifactId());
+                kind = CompletionItemKind.Value;
+                break;
+        }
+        int count = Math.min(candidates.size(), MAX_ITEMS);
+        list.setIsIncomplete(candidates.size() > MAX_ITEMS);
+        for (int i = 0; i < count; i++) {
+            String candidate = candidates.get(i);
+            CompletionItem item = new CompletionItem(candidate);
+            item.setKind(kind);
+            item.setTextEdit(Either.forLeft(new TextEdit(range, candidate)));
+            if (kind == CompletionItemKind.Value) {
+                // 保持从新到旧的顺序
+                item.setSortText(String.format("%05d", i));
+                item.setDetail(i == 0 ? "latest in local repository" : "local repository");
+            }
+            list.getItems().add(item);
+        }
+        return list;
+    }
+
+    /**
+     * 光标位于已声明 groupId 与 artifactId 的坐标元素中时，显示本地仓库中的版本信息
+     */
+    Hover hover(String text, Position position) {
+        int offset = PomDocumentService.offsetOf(text, position);
+        PomXmlUtils.CoordinateContext context = PomXmlUtils.coordinateContextAt(text, offset);
+        if (context == null || groupIdOf(context) == null || context.artifactId() == null) {
+            return null;
+        }
+        String groupId = groupIdOf(context);
+        List<String> versions = index.getVersions(groupId, context.artifactId());
+        StringBuilder markdown = new StringBuilder();
+        markdown.append("**").append(groupId).append(':').append(context.artifactId()).append("**\n\n");
+        if (versions.isEmpty()) {
+            markdown.append("Not found in local repository");
+        } else {
+            markdown.append("Latest local version: `").append(versions.get(0)).append('`');
+            String version = context.version();
+            if (version != null && !version.isEmpty() && !version.startsWith("${")) {
+                if (!versions.contains(version)) {
+                    markdown.append("\n\n`").append(version).append("` is not in local repository");
+                } else if (!version.equals(versions.get(0))) {
+                    markdown.append("\n\n`").append(version).append("` is ")
+                            .append(versions.indexOf(version)).append(" version(s) behind");
+                }
+            }
+            markdown.append("\n\n").append(versions.size()).append(" version(s) in local repository");
+        }
+        Range range = new Range(PomDocumentService.positionOf(text, context.valueStart()),
+                PomDocumentService.positionOf(text, context.valueEnd()));
+        return new Hover(new MarkupContent(MarkupKind.MARKDOWN, markdown.toString()), range);
+    }
+
+    private static String groupIdOf(PomXmlUtils.CoordinateContext context) {
+        if (context.groupId() != null && !context.groupId().isEmpty()) {
+            return context.groupId();
+        }
+        return "plugin".equals(context.parentTag()) ? DEFAULT_PLUGIN_GROUP : null;
+    }
+}
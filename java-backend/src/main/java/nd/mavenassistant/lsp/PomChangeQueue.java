@@ -0,0 +1,48 @@
+package nd.mavenassistant.lsp;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * pom.xml 变更后的重新分析队列
+ * 同一 pom.xml 的分析按提交顺序逐个执行，不同 pom.xml 之间互不阻塞。
+ * 排队期间又有新的变更时跳过过期的分析；正在执行的分析可以通过传入的 latest 判断是否已被新变更取代，避免发布过期结果
+ */
+class PomChangeQueue {
+
+    private final Executor executor;
+    // 每个 pom.xml 最近一次提交的分析，后续分析接在其后执行
+    private final Map<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    // 每个 pom.xml 的变更序号
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    PomChangeQueue(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 提交一次分析
+     *
+     * @param pomPath pom.xml 路径
+     * @param analysis 分析任务，参数在没有更新的变更时返回true
+     * @return 分析执行完成（或被跳过）时完成的 future
+     */
+    CompletableFuture<Void> submit(String pomPath, Consumer<BooleanSupplier> analysis) {
+        long generation = generations.merge(pomPath, 1L, Long::sum);
+        BooleanSupplier latest = () -> generations.get(pomPath) == generation;
+        CompletableFuture<Void> next = tails.compute(pomPath, (path, previous) ->
+                (previous == null ? CompletableFuture.<Void>completedFuture(null) : previous)
+                        .handle((result, error) -> null)
+                        .thenRunAsync(() -> {
+                            if (latest.getAsBoolean()) {
+                                analysis.accept(latest);
+                            }
+                        }, executor));
+        next.whenComplete((result, error) -> tails.remove(pomPath, next));
+        return next;
+    }
+}
@@ -0,0 +1,308 @@
+package nd.mavenassistant.lsp;
+
+import nd.mavenassistant.index.LocalRepositoryIndex;
+import org.eclipse.lsp4j.*;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.lsp4j.services.TextDocumentService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * pom.xml 文档同步
+ * 在内存中维护客户端已打开的 pom.xml，按增量编辑更新；存在未保存修改时，分析基于内存内容而不是磁盘文件。
+ * 打开、内容变化、保存和关闭后经过防抖再通知监听方重新分析，避免每次按键都触发依赖收集。
+ * 同时基于本地仓库版本索引提供坐标补全和悬停提示
+ */
+public class PomDocumentService implements TextDocumentService {
+
+    static final long DEBOUNCE_MS = 300;
+
+    // 按规范化的绝对路径索引
+    private final Map<String, PomDocument> documents = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledFuture<?>> pendingChanges = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService debouncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "maven-assistant-debounce");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Consumer<String> changeListener;
+    // 文档打开时立即调用（不防抖）
+    private final List<Consumer<String>> openListeners = new CopyOnWriteArrayList<>();
+    private final PomAssist assist;
+    private final long debounceMs;
+
+    /**
+     * @param changeListener 文档打开、内容变化、保存或关闭并防抖后调用，参数为 pom.xml 绝对路径
+     * @param versionIndex 补全和悬停提示使用的本地仓库版本索引
+     */
+    public PomDocumentService(Consumer<String> changeListener, LocalRepositoryIndex versionIndex) {
+        this(changeListener, versionIndex, DEBOUNCE_MS);
+    }
+
+    PomDocumentService(Consumer<String> changeListener, LocalRepositoryIndex versionIndex, long debounceMs) {
+        this.changeListener = changeListener;
+        this.assist = new PomAssist(versionIndex);
+        this.debounceMs = debounceMs;
+    }
+
+    /**
+     * 注册文档打开时的回调，参数为 pom.xml 绝对路径，在消息线程中立即执行，回调应尽快返回
+     */
+    public void addOpenListener(Consumer<String> listener) {
+        openListeners.add(listener);
+    }
+
+    /**
+     * 服务端声明的文档同步能力：打开/关闭、增量变更、保存通知
+     */
+    public static TextDocumentSyncOptions syncOptions() {
+        TextDocumentSyncOptions options = new TextDocumentSyncOptions();
+        options.setOpenClose(true);
+        options.setChange(TextDocumentSyncKind.Incremental);
+        options.setSave(new SaveOptions(false));
+        return options;
+    }
+
+    /**
+     * 获取 pom.xml 未保存的内容，文档未打开或与磁盘一致时返回null
+     */
+    public String getUnsavedContent(String pomPath) {
+        PomDocument document = documents.get(normalize(pomPath));
+        if (document == null) {
+            return null;
+        }
+        synchronized (document) {
+            return document.dirty ? document.text.toString() : null;
+        }
+    }
+
+    /**
+     * pom.xml 是否已在客户端打开
+     */
+    public boolean isOpen(String pomPath) {
+        return documents.containsKey(normalize(pomPath));
+    }
+
+    /**
+     * 获取已打开 pom.xml 在客户端使用的 URI，未打开时返回null
+     */
+    public String getUri(String pomPath) {
+        PomDocument document = documents.get(normalize(pomPath));
+        return document != null ? document.uri : null;
+    }
+
+    /**
+     * 坐标补全，在消息线程中直接计算；索引查询为内存操作，无需进入请求线程池
+     */
+    @Override
+    public CompletableFuture<Either<List<CompletionItem>, CompletionList>> completion(CompletionParams params) {
+        String text = getText(params.getTextDocument().getUri());
+        CompletionList list = text != null ? assist.completion(text, params.getPosition()) : new CompletionList();
+        return CompletableFuture.completedFuture(Either.forRight(list));
+    }
+
+    @Override
+    public CompletableFuture<Hover> hover(HoverParams params) {
+        String text = getText(params.getTextDocument().getUri());
+        return CompletableFuture.completedFuture(text != null ? assist.hover(text, params.getPosition()) : null);
+    }
+
+    private String getText(String uri) {
+        String path = toPomPath(uri);
+        PomDocument document = path != null ? documents.get(path) : null;
+        if (document == null) {
+            return null;
+        }
+        synchronized (document) {
+            return document.text.toString();
+        }
+    }
+
+    @Override
+    public void didOpen(DidOpenTextDocumentParams params) {
+        TextDocumentItem item = params.getTextDocument();
+        String path = toPomPath(item.getUri());
+        if (path == null) {
+            return;
+        }
+        PomDocument document = new PomDocument(item.getUri(), item.getVersion(), item.getText());
+        // 打开时与磁盘内容不同（如恢复的未保存编辑）也视为未保存
+        document.dirty = !item.getText().equals(readDisk(path));
+        documents.put(path, document);
+        for (Consumer<String> listener : openListeners) {
+            listener.accept(path);
+        }
+        // 打开后需要发布诊断
+        scheduleChange(path);
+    }
+
+    @Override
+    public void didChange(DidChangeTextDocumentParams params) {
+        String path = toPomPath(params.getTextDocument().getUri());
+        PomDocument document = path != null ? documents.get(path) : null;
+        if (document == null) {
+            return;
+        }
+        synchronized (document) {
+            for (TextDocumentContentChangeEvent change : params.getContentChanges()) {
+                applyChange(document.text, change);
+            }
+            document.version = params.getTextDocument().getVersion();
+            document.dirty = true;
+        }
+        scheduleChange(path);
+    }
+
+    @Override
+    public void didSave(DidSaveTextDocumentParams params) {
+        String path = toPomPath(params.getTextDocument().getUri());
+        PomDocument document = path != null ? documents.get(path) : null;
+        if (document == null) {
+            return;
+        }
+        synchronized (document) {
+            document.dirty = false;
+        }
+        scheduleChange(path);
+    }
+
+    @Override
+    public void didClose(DidCloseTextDocumentParams params) {
+        String path = toPomPath(params.getTextDocument().getUri());
+        PomDocument document = path != null ? documents.remove(path) : null;
+        // 关闭时需清除诊断，丢弃了未保存的修改时还需按磁盘内容重新分析
+        if (document != null) {
+            scheduleChange(path);
+        }
+    }
+
+    /**
+     * 将一次变更应用到文档内容，range 为空时为全量替换
+     */
+    static void applyChange(StringBuilder text, TextDocumentContentChangeEvent change) {
+        Range range = change.getRange();
+        if (range == null) {
+            text.setLength(0);
+            text.append(change.getText());
+            return;
+        }
+        int start = offsetOf(text, range.getStart());
+        int end = Math.max(start, offsetOf(text, range.getEnd()));
+        text.replace(start, end, change.getText());
+    }
+
+    /**
+     * LSP 位置（行号 + UTF-16 列号）转换为字符偏移，超出范围时截断到行尾或文末
+     */
+    static int offsetOf(CharSequence text, Position position) {
+        int offset = 0;
+        for (int line = 0; line < position.getLine(); line++) {
+            int newline = indexOf(text, '\n', offset);
+            if (newline < 0) {
+                return text.length();
+            }
+            offset = newline + 1;
+        }
+        int lineEnd = indexOf(text, '\n', offset);
+        if (lineEnd < 0) {
+            lineEnd = text.length();
+        }
+        return Math.min(offset + position.getCharacter(), lineEnd);
+    }
+
+    /**
+     * 字符偏移转换为 LSP 位置
+     */
+    static Position positionOf(CharSequence text, int offset) {
+        int line = 0;
+        int lineStart = 0;
+        int end = Math.min(offset, text.length());
+        for (int i = 0; i < end; i++) {
+            if (text.charAt(i) == '\n') {
+                line++;
+                lineStart = i + 1;
+            }
+        }
+        return new Position(line, end - lineStart);
+    }
+
+    private static int indexOf(CharSequence text, char c, int from) {
+        for (int i = from; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void scheduleChange(String path) {
+        ScheduledFuture<?> previous = pendingChanges.put(path, debouncer.schedule(() -> {
+            pendingChanges.remove(path);
+            changeListener.accept(path);
+        }, debounceMs, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    public void shutdown() {
+        debouncer.shutdownNow();
+    }
+
+    /**
+     * 仅同步 file 协议下的 pom.xml，其他文档返回null
+     */
+    private static String toPomPath(String uri) {
+        try {
+            URI parsed = URI.create(uri);
+            if (!"file".equals(parsed.getScheme())) {
+                return null;
+            }
+            Path path = Paths.get(parsed);
+            return path.getFileName() != null && "pom.xml".equals(path.getFileName().toString())
+                    ? path.toAbsolutePath().normalize().toString() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String normalize(String pomPath) {
+        return Paths.get(pomPath).toAbsolutePath().normalize().toString();
+    }
+
+    private static String readDisk(String path) {
+        try {
+            return new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static class PomDocument {
+        final String uri;
+        final StringBuilder text;
+        int version;
+        boolean dirty;
+
+        PomDocument(String uri, int version, String text) {
+            this.uri = uri;
+            this.version = version;
+            this.text = new StringBuilder(text);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package nd.mavenassistant.lsp;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import org.eclipse.aether.repository.RemoteRepository;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 服务端配置，来自 initialize 请求的 initializationOptions
+ * 未提供的项使用默认值：本地仓库为 ~/.m2/repository（可用 -Dmaven.repo.local 覆盖），远程仓库为 Maven Central
+ */
+public class ServerSettings {
+
+    /** 通过 mvn dependency:list 获取实际生效的依赖 */
+    public static final String EFFECTIVE_SOURCE_MAVEN = "mvn";
+    /** 直接使用依赖图中 ConflictResolver 选出的版本，不启动 Maven 进程 */
+    public static final String EFFECTIVE_SOURCE_GRAPH = "graph";
+
+    private static final String CENTRAL_URL = "https://repo.maven.apache.org/maven2/";
+
+    private String localRepository;
+    private List<String> remoteRepositories;
+    private String effectiveDependencySource;
+    private String traceFile;
+    private Boolean prewarmWorkspace;
+    private Boolean indexLocalRepository;
+    private List<String> openPoms;
+    private String storageDir;
+
+    /**
+     * 解析 initializationOptions，为空或格式不符时返回默认配置
+     */
+    public static ServerSettings fromInitializationOptions(Object options) {
+        if (options == null) {
+            return new ServerSettings();
+        }
+        Gson gson = new Gson();
+        JsonElement element = options instanceof JsonElement ? (JsonElement) options : gson.toJsonTree(options);
+        if (!element.isJsonObject()) {
+            return new ServerSettings();
+        }
+        ServerSettings settings = gson.fromJson(element, ServerSettings.class);
+        return settings != null ? settings : new ServerSettings();
+    }
+
+    /**
+     * 本地仓库目录
+     */
+    public File getLocalRepositoryDir() {
+        if (localRepository != null && !localRepository.trim().isEmpty()) {
+            return new File(localRepository);
+        }
+        String property = System.getProperty("maven.repo.local");
+        if (property != null && !property.trim().isEmpty()) {
+            return new File(property);
+        }
+        return new File(System.getProperty("user.home"), ".m2/repository");
+    }
+
+    /**
+     * 依赖收集使用的远程仓库，按配置顺序依次为 remote-1、remote-2……
+     */
+    public List<RemoteRepository> getRemoteRepositories() {
+        if (remoteRepositories == null || remoteRepositories.isEmpty()) {
+            return Collections.singletonList(
+                    new RemoteRepository.Builder("central", "default", CENTRAL_URL).build());
+        }
+        List<RemoteRepository> repositories = new ArrayList<>(remoteRepositories.size());
+        for (int i = 0; i < remoteRepositories.size(); i++) {
+            repositories.add(new RemoteRepository.Builder("remote-" + (i + 1), "default", remoteRepositories.get(i)).build());
+        }
+        return repositories;
+    }
+
+    /**
+     * 实际生效依赖的来源，默认 mvn
+     */
+    public String getEffectiveDependencySource() {
+        return EFFECTIVE_SOURCE_GRAPH.equals(effectiveDependencySource) ? EFFECTIVE_SOURCE_GRAPH : EFFECTIVE_SOURCE_MAVEN;
+    }
+
+    /**
+     * 是否在启动后预热工作区内各模块的缓存，默认开启
+     */
+    public boolean isPrewarmWorkspace() {
+        return prewarmWorkspace == null || prewarmWorkspace;
+    }
+
+    /**
+     * 是否在启动后扫描本地仓库建立版本索引和搜索索引，默认开启；AppCDS 训练运行时关闭
+     */
+    public boolean isIndexLocalRepository() {
+        return indexLocalRepository == null || indexLocalRepository;
+    }
+
+    /**
+     * 启动时客户端已打开的 pom.xml 路径，预热时优先处理
+     */
+    public List<String> getOpenPoms() {
+        return openPoms != null ? openPoms : Collections.emptyList();
+    }
+
+    /**
+     * 服务端持久化数据（如构件搜索索引）的目录，客户端通常传入扩展的 globalStorage 目录；
+     * 未配置时为 ~/.cache/maven-assistant
+     */
+    public File getStorageDir() {
+        if (storageDir != null && !storageDir.trim().isEmpty()) {
+            return new File(storageDir);
+        }
+        return new File(System.getProperty("user.home"), ".cache/maven-assistant");
+    }
+
+    /**
+     * 请求阶段追踪的 Chrome trace 输出文件，未配置时返回null
+     */
+    public String getTraceFile() {
+        return traceFile;
+    }
+}
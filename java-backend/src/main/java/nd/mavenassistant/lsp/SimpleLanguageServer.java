@@ -1,18 +1,36 @@
 package nd.mavenassistant.lsp;
 
 import com.google.gson.Gson;
+import nd.mavenassistant.analysis.ArtifactVerifier;
+import nd.mavenassistant.analysis.CompactGraph;
+import nd.mavenassistant.analysis.ConflictAnalyzer;
+import nd.mavenassistant.analysis.DependencyGraphSimulator;
+import nd.mavenassistant.analysis.DependencyUsageAnalyzer;
+import nd.mavenassistant.analysis.GraphDiffer;
 import nd.mavenassistant.cache.DependencyCache;
+import nd.mavenassistant.index.ArtifactSearchIndex;
+import nd.mavenassistant.index.DiskUsageIndex;
+import nd.mavenassistant.index.LocalRepositoryIndex;
+import nd.mavenassistant.metrics.RequestMetrics;
+import nd.mavenassistant.metrics.ServerStats;
+import nd.mavenassistant.metrics.Tracer;
 import nd.mavenassistant.model.ArtifactConflictInfo;
 import nd.mavenassistant.model.ArtifactGav;
+import nd.mavenassistant.model.DependencyDiff;
 import nd.mavenassistant.utils.MavenModelUtils;
+import nd.mavenassistant.utils.ModelBuildingService;
+import nd.mavenassistant.utils.RepositoryModelResolver;
 import nd.mavenassistant.utils.PomXmlUtils;
 import org.apache.maven.model.Model;
 import org.codehaus.plexus.util.StringUtils;
 import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.RepositorySystemSession.CloseableSession;
 import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.collection.CollectRequest;
 import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.repository.LocalRepositoryManager;
 import org.eclipse.aether.repository.RemoteRepository;
 import org.eclipse.aether.supplier.RepositorySystemSupplier;
 import org.eclipse.aether.supplier.SessionBuilderSupplier;
@@ -26,13 +44,23 @@ import org.eclipse.lsp4j.services.WorkspaceService;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.eclipse.aether.graph.Dependency;
 
@@ -52,29 +80,117 @@ import org.w3c.dom.Node;
  * 最基础的 LanguageServer 实现
  * 目前所有方法均为空实现，后续可逐步扩展具体功能。
  */
-public class SimpleLanguageServer implements LanguageServer {
+public final class SimpleLanguageServer implements LanguageServer {
+    // 生效依赖达到该数量时并行构建依赖树
+    static final int PARALLEL_TREE_MIN_ARTIFACTS = 300;
+
     // LanguageClient 用于与 VSCode 前端通信，推送日志等
     private LanguageClient client;
     
-    // Maven本地仓库路径常量
-    private static final String USER_HOME = System.getProperty("user.home");
-    private static final String MAVEN_LOCAL_REPO_PATH = USER_HOME + "/.m2/repository";
-    private static final File MAVEN_LOCAL_REPO_DIR = new File(MAVEN_LOCAL_REPO_PATH);
+    // 服务端配置，initialize 时由 initializationOptions 覆盖
+    private volatile ServerSettings settings = new ServerSettings();
+
+    // Maven本地仓库路径
+    private volatile File localRepoDir = settings.getLocalRepositoryDir();
+    private volatile String localRepoPath = localRepoDir.getPath();
     
     // 缓存管理器
     private final DependencyCache cache = new DependencyCache();
     
     // 线程池用于并行计算jar文件大小
-    private final ExecutorService jarSizeExecutor = Executors.newFixedThreadPool(
+    private final ThreadPoolExecutor jarSizeExecutor = newFixedPool("jar-size",
             Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
-    
 
+    // 处理 maven/* 请求的线程池，独立于公共 ForkJoinPool，便于观测排队和繁忙情况
+    private final ThreadPoolExecutor requestExecutor = newFixedPool("request",
+            Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    // 并行解析类文件和读取 jar 类名的线程池，用于依赖使用分析
+    private final ThreadPoolExecutor classScanExecutor = newFixedPool("class-scan",
+            Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    // 并行计算构件摘要的线程池，用于本地仓库完整性校验
+    private final ThreadPoolExecutor verifyExecutor = newFixedPool("verify",
+            Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    // 并行构建大型依赖树的 fork/join 线程池
+    private final ForkJoinPool treeBuildPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("maven-assistant-tree-build-" + thread.getPoolIndex());
+        return thread;
+    }, null, false);
+
+    // 并行遍历本地仓库目录的 fork/join 线程池，以 IO 为主，线程数不少于 4
+    private final ForkJoinPool diskUsagePool = new ForkJoinPool(Math.max(4, Runtime.getRuntime().availableProcessors()), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("maven-assistant-disk-usage-" + thread.getPoolIndex());
+        return thread;
+    }, null, false);
+
+    // 共享的 RepositorySystem（线程安全），首次使用或 initialized 后的后台预热时创建
+    private volatile RepositorySystem repositorySystem;
+    // 模型构建解析父POM/BOM使用的共享会话，仓库配置变化时重建
+    private volatile CloseableSession modelSession;
+    private final CompletableFuture<Void> warmUpFuture = new CompletableFuture<>();
+
+    // 按请求类型统计的延迟
+    private final RequestMetrics requestMetrics = new RequestMetrics();
+
+    // 请求阶段追踪，级别由 initialize/setTrace 的 trace 值决定
+    private final Tracer tracer = new Tracer(message -> {
+        if (client != null) {
+            client.logMessage(new MessageParams(MessageType.Log, message));
+        }
+    });
+    private final long startTime = System.currentTimeMillis();
+
+    private volatile List<RemoteRepository> repos = settings.getRemoteRepositories();
+
+    // initialize 时客户端提供的工作区目录
+    private volatile List<Path> workspaceRoots = Collections.emptyList();
+
+    // 本地仓库版本索引，用于 pom.xml 中坐标的补全和悬停提示
+    private final LocalRepositoryIndex versionIndex = new LocalRepositoryIndex();
 
+    // 本地仓库构件搜索索引，每次版本索引扫描后增量更新并持久化
+    private final ArtifactSearchIndex searchIndex = new ArtifactSearchIndex();
 
+    // 本地仓库磁盘占用索引，按目录修改时间增量更新并持久化
+    private final DiskUsageIndex diskUsageIndex = new DiskUsageIndex();
 
-    private final List<RemoteRepository> repos = Collections.singletonList(
-            new RemoteRepository.Builder(
-                    "central", "default", "https://repo.maven.apache.org/maven2/").build());
+    // 编辑器中打开的 pom.xml，内容变化防抖后重新分析
+    private final PomDocumentService documentService;
+
+    // 编辑后的重新分析，同一 pom.xml 逐个执行
+    private final PomChangeQueue pomChanges = new PomChangeQueue(requestExecutor);
+
+    // 打开的 pom.xml 上发布的依赖冲突诊断
+    private final ConflictDiagnostics conflictDiagnostics = new ConflictDiagnostics();
+
+    // 每个 pom.xml 最近返回的依赖树版本，用于增量响应
+    private final DependencyTreeVersions treeVersions = new DependencyTreeVersions();
+
+    // 基于字节码的依赖使用分析，缓存各 jar 的类名和各类文件的引用
+    private final DependencyUsageAnalyzer usageAnalyzer = new DependencyUsageAnalyzer(classScanExecutor);
+
+    // 本地仓库构件完整性校验，按路径缓存摘要
+    private final ArtifactVerifier artifactVerifier = new ArtifactVerifier(verifyExecutor);
+
+    // 工作区预热，前台请求执行期间暂停
+    private final WorkspacePrewarmer prewarmer;
+
+    public SimpleLanguageServer() {
+        MavenModelUtils.getModelService().setModelResolver(newModelResolver(repos));
+        versionIndex.setRepository(localRepoDir);
+        searchIndex.configure(localRepoDir, searchIndexFile(settings));
+        diskUsageIndex.configure(localRepoDir, diskUsageIndexFile(settings));
+        versionIndex.addRefreshListener(() -> searchIndex.update(versionIndex));
+        // 回调本服务的组件在其余字段初始化完成后创建
+        documentService = new PomDocumentService(this::onPomChanged, versionIndex);
+        prewarmer = new WorkspacePrewarmer(this::prewarmModule, () -> requestExecutor.getActiveCount() > 0);
+        // 打开仍在预热队列中的模块时提前处理
+        documentService.addOpenListener(path -> prewarmer.prioritize(Paths.get(path)));
+    }
 
     // 提供一个方法让主入口注入 LanguageClient
     public void connect(LanguageClient client) {
@@ -83,39 +199,339 @@ public class SimpleLanguageServer implements LanguageServer {
 
     @Override
     public CompletableFuture<InitializeResult> initialize(InitializeParams params) {
+        applySettings(ServerSettings.fromInitializationOptions(params != null ? params.getInitializationOptions() : null));
+        if (params != null) {
+            tracer.setLevel(Tracer.Level.parse(params.getTrace()));
+            workspaceRoots = getWorkspaceRoots(params);
+        }
         // 通过 LSP 协议向 VSCode 输出面板推送初始化日志
         if (client != null) {
             client.logMessage(new MessageParams(MessageType.Info, "LSP Server initialized"));
         }
-        // 返回空的初始化结果
-        return CompletableFuture.completedFuture(new InitializeResult(new ServerCapabilities()));
+        // 声明 pom.xml 的增量文档同步，分析可基于未保存的内容；坐标补全和悬停提示基于本地仓库版本索引
+        ServerCapabilities capabilities = new ServerCapabilities();
+        capabilities.setTextDocumentSync(PomDocumentService.syncOptions());
+        capabilities.setCompletionProvider(new CompletionOptions(false, List.of(">")));
+        capabilities.setHoverProvider(true);
+        return CompletableFuture.completedFuture(new InitializeResult(capabilities));
+    }
+
+    /**
+     * 客户端收到 initialize 响应后发送，此时在后台预热重量级组件，不阻塞 initialize 响应
+     */
+    @Override
+    public void initialized(InitializedParams params) {
+        CompletableFuture.runAsync(this::warmUp, requestExecutor)
+                .thenRun(() -> {
+                    if (settings.isIndexLocalRepository()) {
+                        versionIndex.refreshAsync();
+                    }
+                })
+                .thenRun(this::prewarmWorkspace);
+    }
+
+    /**
+     * 解析 initialize 中的工作区目录，客户端未提供 workspaceFolders 时退回 rootUri/rootPath
+     */
+    static List<Path> getWorkspaceRoots(InitializeParams params) {
+        List<Path> roots = new ArrayList<>();
+        if (params.getWorkspaceFolders() != null) {
+            for (WorkspaceFolder folder : params.getWorkspaceFolders()) {
+                addFileUri(roots, folder.getUri());
+            }
+        }
+        @SuppressWarnings("deprecation")
+        String rootUri = params.getRootUri();
+        if (roots.isEmpty() && rootUri != null) {
+            addFileUri(roots, rootUri);
+        }
+        @SuppressWarnings("deprecation")
+        String rootPath = params.getRootPath();
+        if (roots.isEmpty() && rootPath != null) {
+            roots.add(Paths.get(rootPath));
+        }
+        return roots;
+    }
+
+    private static void addFileUri(List<Path> roots, String uri) {
+        try {
+            URI parsed = URI.create(uri);
+            if ("file".equals(parsed.getScheme())) {
+                roots.add(Paths.get(parsed));
+            }
+        } catch (IllegalArgumentException ignored) {
+            // 非法或非本地的 URI 不参与预热
+        }
+    }
+
+    /**
+     * 在后台低优先级地预热工作区内各模块的依赖视图，客户端已打开的模块优先，其余按目录深度；
+     * 预热结果常驻内存直到首次读取，因此最多预热 {@link WorkspacePrewarmer#MAX_PREWARMED_MODULES} 个模块
+     */
+    void prewarmWorkspace() {
+        List<Path> roots = workspaceRoots;
+        if (!settings.isPrewarmWorkspace() || roots.isEmpty()) {
+            return;
+        }
+        Set<Path> modules = new LinkedHashSet<>();
+        for (String openPom : settings.getOpenPoms()) {
+            modules.add(Paths.get(openPom).toAbsolutePath().normalize());
+        }
+        int open = modules.size();
+        for (Path pom : WorkspacePrewarmer.discoverPoms(roots)) {
+            if (modules.size() >= WorkspacePrewarmer.MAX_PREWARMED_MODULES) {
+                break;
+            }
+            modules.add(pom);
+        }
+        int index = 0;
+        for (Path pom : modules) {
+            prewarmer.submit(pom, index++ < open ? WorkspacePrewarmer.PRIORITY_OPEN : WorkspacePrewarmer.PRIORITY_BACKGROUND);
+        }
+        if (client != null) {
+            client.logMessage(new MessageParams(MessageType.Log, "Pre-warming " + modules.size() + " workspace modules"));
+        }
+    }
+
+    /**
+     * 预热单个模块：计算依赖视图首次打开时读取的依赖树（默认使用 mvn dependency:list 的结果）及其依赖图，
+     * 两者在首次读取前不过期
+     */
+    private void prewarmModule(String pomPath) throws Exception {
+        dependencyTreeEntry(pomPath, CollectionPolicy.DEFAULT).markPrewarmed();
+        collectDependencyGraph(pomPath).markPrewarmed();
+    }
+
+    /**
+     * 预热依赖收集与模型构建：创建共享 RepositorySystem，执行一次不访问仓库的空收集，并构建一个内存中的最小POM
+     * 失败不影响后续请求，真实请求会按需重新初始化
+     */
+    void warmUp() {
+        long start = System.nanoTime();
+        try {
+            RepositorySystem system = getRepositorySystem();
+            try (CloseableSession session = newSession(system)) {
+                CollectRequest collectRequest = new CollectRequest();
+                collectRequest.setRootArtifact(new DefaultArtifact("nd.mavenassistant:warm-up:1.0"));
+                system.collectDependencies(session, collectRequest);
+            }
+            MavenModelUtils.warmUp();
+            new Gson().toJson(new ServerStats());
+            if (client != null) {
+                client.logMessage(new MessageParams(MessageType.Log, "Backend warm-up finished in "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms"));
+            }
+        } catch (Exception e) {
+            if (client != null) {
+                client.logMessage(new MessageParams(MessageType.Warning, "Backend warm-up failed: " + e.getMessage()));
+            }
+        } finally {
+            warmUpFuture.complete(null);
+        }
+    }
+
+    /**
+     * 后台预热完成（无论成功与否）时完成的 Future
+     */
+    CompletableFuture<Void> getWarmUpFuture() {
+        return warmUpFuture;
+    }
+
+    /**
+     * 获取共享的 RepositorySystem，首次调用时装配
+     */
+    private RepositorySystem getRepositorySystem() {
+        RepositorySystem system = repositorySystem;
+        if (system == null) {
+            synchronized (this) {
+                system = repositorySystem;
+                if (system == null) {
+                    system = new RepositorySystemSupplier().get();
+                    repositorySystem = system;
+                }
+            }
+        }
+        return system;
+    }
+
+    /**
+     * 获取模型构建使用的共享会话，首次调用时创建
+     */
+    private RepositorySystemSession getModelSession() {
+        CloseableSession session = modelSession;
+        if (session == null) {
+            synchronized (this) {
+                session = modelSession;
+                if (session == null) {
+                    session = newSession(getRepositorySystem());
+                    modelSession = session;
+                }
+            }
+        }
+        return session;
+    }
+
+    private synchronized void closeModelSession() {
+        if (modelSession != null) {
+            modelSession.close();
+            modelSession = null;
+        }
+    }
+
+    private RepositoryModelResolver newModelResolver(List<RemoteRepository> repositories) {
+        return new RepositoryModelResolver(this::getRepositorySystem, this::getModelSession, repositories);
+    }
+
+    /**
+     * 应用服务端配置，仓库变化后已缓存的依赖图不再可信，一并清空
+     */
+    void applySettings(ServerSettings newSettings) {
+        File newLocalRepoDir = newSettings.getLocalRepositoryDir();
+        List<RemoteRepository> newRepos = newSettings.getRemoteRepositories();
+        boolean repositoriesChanged = !newLocalRepoDir.equals(localRepoDir) || !newRepos.equals(repos);
+        settings = newSettings;
+        localRepoDir = newLocalRepoDir;
+        localRepoPath = newLocalRepoDir.getPath();
+        repos = newRepos;
+        versionIndex.setRepository(newLocalRepoDir);
+        searchIndex.configure(newLocalRepoDir, searchIndexFile(newSettings));
+        diskUsageIndex.configure(newLocalRepoDir, diskUsageIndexFile(newSettings));
+        if (repositoriesChanged) {
+            cache.clearCaches();
+            closeModelSession();
+            MavenModelUtils.getModelService().setModelResolver(newModelResolver(newRepos));
+            MavenModelUtils.getModelService().clear();
+        }
+        tracer.setTraceFile(newSettings.getTraceFile());
+    }
+
+    /**
+     * 搜索索引文件，按本地仓库路径区分
+     */
+    private File searchIndexFile(ServerSettings serverSettings) {
+        String repository = serverSettings.getLocalRepositoryDir().getAbsolutePath();
+        return new File(serverSettings.getStorageDir(), "search-index-" + Integer.toHexString(repository.hashCode()) + ".bin");
+    }
+
+    /**
+     * 磁盘占用索引文件，按本地仓库路径区分
+     */
+    private File diskUsageIndexFile(ServerSettings serverSettings) {
+        String repository = serverSettings.getLocalRepositoryDir().getAbsolutePath();
+        return new File(serverSettings.getStorageDir(), "disk-usage-" + Integer.toHexString(repository.hashCode()) + ".bin");
     }
 
     @Override
     public CompletableFuture<Object> shutdown() {
         // 关闭线程池
-        jarSizeExecutor.shutdown();
+        documentService.shutdown();
+        prewarmer.shutdown();
+        versionIndex.shutdown();
+        shutdownPool(requestExecutor);
+        shutdownPool(jarSizeExecutor);
+        shutdownPool(classScanExecutor);
+        shutdownPool(verifyExecutor);
+        shutdownPool(treeBuildPool);
+        shutdownPool(diskUsagePool);
+        // 补全并关闭 Chrome trace 文件
+        tracer.setTraceFile(null);
+        closeModelSession();
+        RepositorySystem system = repositorySystem;
+        if (system != null) {
+            system.shutdown();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static void shutdownPool(ExecutorService executor) {
+        executor.shutdown();
         try {
             // 等待正在执行的任务完成，最多等待10秒
-            if (!jarSizeExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
-                jarSizeExecutor.shutdownNow(); // 强制关闭
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow(); // 强制关闭
             }
         } catch (InterruptedException e) {
-            jarSizeExecutor.shutdownNow();
+            executor.shutdownNow();
             Thread.currentThread().interrupt();
         }
-        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 创建固定大小、使用守护线程的线程池
+     */
+    private static ThreadPoolExecutor newFixedPool(String name, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "maven-assistant-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 在请求线程池中执行请求并记录耗时（含排队时间）
+     *
+     * @param request 请求名称，用于延迟统计
+     * @param task 请求处理逻辑
+     */
+    private CompletableFuture<String> supplyAsync(String request, Supplier<String> task) {
+        long start = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            Tracer.Trace trace = tracer.begin(request);
+            try {
+                return task.get();
+            } finally {
+                requestMetrics.record(request, System.nanoTime() - start);
+                tracer.end(trace);
+            }
+        }, requestExecutor);
+    }
+
+    /**
+     * 服务端运行状态：缓存大小与命中率、线程池排队与繁忙线程、堆内存以及各请求的延迟直方图
+     * 直接在消息线程中返回，不受请求线程池排队影响
+     */
+    @JsonRequest("maven/getServerStats")
+    public CompletableFuture<String> getServerStats(String request) {
+        ServerStats stats = new ServerStats();
+        stats.uptimeMs = System.currentTimeMillis() - startTime;
+        stats.caches.put("dependencyResults", ServerStats.CacheStats.of(cache.getDependencyCacheSize(), cache.getResultStats()));
+        stats.caches.put("dependencyGraphs", ServerStats.CacheStats.of(cache.getGraphCacheSize(), cache.getGraphStats()));
+        stats.caches.put("fileSizes", ServerStats.CacheStats.of(cache.getFileSizeCacheSize(), cache.getFileSizeStats()));
+        stats.caches.put("mavenClasspath", ServerStats.CacheStats.of(MavenClasspathFetcher.getCacheSize(),
+                MavenClasspathFetcher.getCacheStats()));
+        ModelBuildingService modelService = MavenModelUtils.getModelService();
+        stats.caches.put("effectiveModels", ServerStats.CacheStats.of(modelService.getEffectiveModelCount(),
+                modelService.getEffectiveModelStats()));
+        stats.caches.put("rawModels", ServerStats.CacheStats.of(modelService.getRawModelCount(),
+                modelService.getRawModelStats()));
+        stats.caches.put("parentModels", ServerStats.CacheStats.of(modelService.getModelCacheSize(),
+                modelService.getModelCacheStats()));
+        stats.caches.put("versionIndex", ServerStats.CacheStats.of(versionIndex.size(), versionIndex.getLookupStats()));
+        stats.caches.put("searchIndex", ServerStats.CacheStats.of(searchIndex.size(), searchIndex.getSearchStats()));
+        stats.caches.put("jarClasses", ServerStats.CacheStats.of(usageAnalyzer.getJarCacheSize(), usageAnalyzer.getJarStats()));
+        stats.caches.put("diskUsage", ServerStats.CacheStats.of(diskUsageIndex.size(), diskUsageIndex.getDirectoryStats()));
+        stats.caches.put("artifactDigests", ServerStats.CacheStats.of(artifactVerifier.getCacheSize(), artifactVerifier.getDigestStats()));
+        stats.executors.put("request", ServerStats.PoolStats.of(requestExecutor));
+        stats.executors.put("jarSize", ServerStats.PoolStats.of(jarSizeExecutor));
+        stats.executors.put("classScan", ServerStats.PoolStats.of(classScanExecutor));
+        stats.executors.put("verify", ServerStats.PoolStats.of(verifyExecutor));
+        stats.executors.put("prewarm", ServerStats.PoolStats.of(prewarmer.getExecutor()));
+        stats.heap = ServerStats.HeapStats.current();
+        stats.requests = requestMetrics.snapshot();
+        return CompletableFuture.completedFuture(new Gson().toJson(stats));
     }
 
     @Override
     public void exit() {
         // 进程退出时清理缓存
         cache.clearCaches();
+        MavenModelUtils.getModelService().clear();
     }
 
     @Override
     public TextDocumentService getTextDocumentService() {
-        return null;
+        return documentService;
     }
 
     @Override
@@ -124,78 +540,404 @@ public class SimpleLanguageServer implements LanguageServer {
     }
 
     /**
-     * 依赖分析请求，参数为 pom.xml 路径，返回所有依赖（含传递依赖、冲突）JSON 字符串
+     * 依赖分析请求，返回所有依赖（含传递依赖、冲突）JSON 字符串
+     * 参数可以是 pom.xml 路径，也可以是 JSON 对象 {pomPath, format, sinceVersion, quick, policy, scopes, artifact, onlyConflicts, pathTo, maxDepth, minSize}：
+     * <ul>
+     * <li>quick、policy 决定依赖收集策略，见 {@link CollectionPolicy#fromParams}，不同策略的结果分别缓存</li>
+     * <li>mode 为 dag 时直接从依赖图生成 {@link DependencyDagBuilder} 的去重 DAG，忽略过滤、格式与增量参数</li>
+     * <li>带过滤条件时基于缓存的依赖树裁剪后再序列化，字段含义见 {@link DependencyTreeFilter#fromParams}</li>
+     * <li>format 为 compact 时返回 {@link CompactTreeEncoder} 的紧凑格式</li>
+     * <li>JSON 对象形式的响应带有 treeVersion；未过滤的请求带上之前收到的 sinceVersion 且该版本仍在历史中时，
+     * 返回 {@link DependencyTreeVersions#diff} 的增量（delta 为 true）</li>
+     * </ul>
      *
-     * @param pomPath pom.xml 文件路径（可为 null，默认取当前工作目录下 pom.xml）
+     * @param request pom.xml 文件路径或查询参数（可为 null，默认取当前工作目录下 pom.xml）
      */
     @JsonRequest("maven/analyzeDependencies")
-    public CompletableFuture<String> analyzeDependencies(String pomPath) throws Exception {
-        return CompletableFuture.supplyAsync(() -> {
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<String> analyzeDependencies(String request) throws Exception {
+        return supplyAsync("maven/analyzeDependencies", () -> {
             try {
+                String pomPath = request;
+                TreeQuery query = null;
+                if (request != null && request.trim().startsWith("{")) {
+                    Map<String, Object> params = new Gson().fromJson(request, Map.class);
+                    pomPath = params.get("pomPath") != null ? params.get("pomPath").toString() : null;
+                    query = new TreeQuery();
+                    query.compact = CompactTreeEncoder.FORMAT.equals(params.get("format"));
+                    query.dag = DependencyDagBuilder.MODE.equals(params.get("mode"));
+                    query.sinceVersion = params.get("sinceVersion") instanceof Number
+                            ? ((Number) params.get("sinceVersion")).longValue() : null;
+                    try {
+                        query.filter = DependencyTreeFilter.fromParams(params);
+                        query.policy = CollectionPolicy.fromParams(params);
+                    } catch (IllegalArgumentException e) {
+                        return errorJson("Invalid query: " + e.getMessage());
+                    }
+                }
                 // 获取实际的POM文件路径
                 String actualPomPath = (pomPath == null || pomPath.trim().isEmpty()) ? "pom.xml" : pomPath;
-                File pomFile = new File(actualPomPath);
-                if (!pomFile.exists()) {
+                if (!new File(actualPomPath).exists()) {
                     return errorJson("POM file does not exist: " + actualPomPath);
                 }
-                
-                // 检查缓存
-                long pomLastModified = pomFile.lastModified();
-                DependencyCache.CacheKey cacheKey = new DependencyCache.CacheKey(actualPomPath, pomLastModified);
-                DependencyCache.CacheEntry cachedEntry = cache.getDependencyResult(cacheKey);
-                if (cachedEntry != null && !cachedEntry.isExpired()) {
-                    return cachedEntry.getResult();
+                return query == null ? analyzeDependencyTree(actualPomPath) : analyzeDependencyTree(actualPomPath, query);
+            } catch (Exception e) {
+                return errorJson("Dependency analysis exception: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * maven/analyzeDependencies 的 JSON 对象形式参数
+     */
+    private static class TreeQuery {
+        DependencyTreeFilter filter;
+        boolean compact;
+        boolean dag;
+        Long sinceVersion;
+        CollectionPolicy policy = CollectionPolicy.DEFAULT;
+    }
+
+    /**
+     * 分析依赖树并缓存结果，文档有未保存的修改时基于编辑器中的内容分析
+     *
+     * @param pomPath pom.xml 文件路径
+     * @return 依赖树JSON字符串
+     */
+    private String analyzeDependencyTree(String pomPath) throws Exception {
+        return dependencyTreeEntry(pomPath, CollectionPolicy.DEFAULT).getResult();
+    }
+
+    /**
+     * 按查询参数返回依赖树：记录版本号，可能时返回增量，否则对（缓存的）完整依赖树过滤、编码后再序列化，该结果不缓存
+     */
+    @SuppressWarnings("try")
+    private String analyzeDependencyTree(String pomPath, TreeQuery query) throws Exception {
+        if (query.dag) {
+            return analyzeDependencyDag(pomPath, query.policy);
+        }
+        Map<String, Object> tree = dependencyTreeEntry(pomPath, query.policy).getTree();
+        String pomKey = new File(pomPath).getAbsolutePath() + "|" + query.policy.getKey();
+        Map<String, Object> response;
+        if (query.filter == null) {
+            long version = treeVersions.record(pomKey, tree);
+            Map<String, Object> previous = query.sinceVersion != null ? treeVersions.get(pomKey, query.sinceVersion) : null;
+            if (previous != null) {
+                try (Tracer.Span span = tracer.span("diffDependencyTree")) {
+                    response = DependencyTreeVersions.diff(previous, tree);
                 }
-                
-                // 清理过期缓存
-                cache.cleanupExpiredCaches();
-                
-                try (RepositorySystem system = new RepositorySystemSupplier().get();
-                     CloseableSession session = new SessionBuilderSupplier(system)
-                             .get()
-                             .withLocalRepositoryBaseDirectories(MAVEN_LOCAL_REPO_DIR.toPath())
-                             .setDependencySelector(new CustomScopeDependencySelector())
-                             .setConfigProperty(ConflictResolver.CONFIG_PROP_VERBOSE, ConflictResolver.Verbosity.STANDARD)
-                             .build()) {
-                    Model model = MavenModelUtils.getModel(actualPomPath);
-                    List<Dependency> directDependencies = MavenModelUtils.getDirectDependencies(model);
-                    List<Dependency> managedDependencies = MavenModelUtils.getManagedDependencies(model);
-                    Artifact artifact = MavenModelUtils.getArtifactFromModel(model);
-                    CollectRequest collectRequest = MavenModelUtils.getEffectiveCollectRequest(artifact, directDependencies,
-                            managedDependencies, repos);
-                    DependencyNode rootNode = system.collectDependencies(session, collectRequest).getRoot();
-
-                    // 预加载文件大小以减少I/O操作
-                    preloadFileSizes(rootNode);
-                    
-                    List<ArtifactGav> effectiveGavs = MavenClasspathFetcher.fetchGavList(actualPomPath);
-                    Set<String> usedGAVSet = new HashSet<>();
-                    Set<String> usedGASet = new HashSet<>();
-                    Map<String, String> gavScopeMap = new HashMap<>();
-                    fillEffectiveGavSets(effectiveGavs, usedGAVSet, usedGASet, gavScopeMap);
-                    // 构建 exclusion 映射表，保存原始的 exclusion 信息
-                    Map<String, Set<String>> exclusionMap = MavenModelUtils.buildExclusionMap(model);
-                    // 初始化GAV层级映射，用于层级优先处理
-                    Map<String, GavLevelTuple> gavLevelMap = new HashMap<>();
-                    // 构建树形结构并返回JSON，传入 exclusion 信息
-                    Map<String, Object> tree = buildDependencyTreeWithConflict(rootNode, usedGAVSet, usedGASet, gavScopeMap, exclusionMap, gavLevelMap, 0);
-                    String result = new Gson().toJson(tree);
-                    
-                    // 缓存结果
-                    cache.putDependencyResult(cacheKey, result);
-                    
-                    return result;
+                response.put("treeVersion", version);
+                response.put("sinceVersion", query.sinceVersion);
+                try (Tracer.Span span = tracer.span("serialize")) {
+                    return new Gson().toJson(response);
                 }
+            }
+            response = tree != null ? new LinkedHashMap<>(tree) : new LinkedHashMap<>();
+            response.put("treeVersion", version);
+        } else {
+            try (Tracer.Span span = tracer.span("filterDependencyTree")) {
+                response = query.filter.apply(tree);
+            }
+        }
+        if (query.compact) {
+            try (Tracer.Span span = tracer.span("encodeCompact")) {
+                response = CompactTreeEncoder.encode(response);
+            }
+        }
+        try (Tracer.Span span = tracer.span("serialize")) {
+            return new Gson().toJson(response);
+        }
+    }
+
+    /**
+     * 以去重 DAG 的形式返回依赖图，每个 GAV 一个节点
+     */
+    @SuppressWarnings("try")
+    private String analyzeDependencyDag(String pomPath, CollectionPolicy policy) throws Exception {
+        DependencyNode rootNode = collectDependencyGraph(pomPath, documentService.getUnsavedContent(pomPath), policy).getRoot();
+        try (Tracer.Span span = tracer.span("preloadFileSizes")) {
+            preloadFileSizes(rootNode);
+        }
+        Map<String, Object> dag;
+        try (Tracer.Span span = tracer.span("buildDependencyDag")) {
+            dag = DependencyDagBuilder.build(rootNode, this::getJarFileSize);
+        }
+        try (Tracer.Span span = tracer.span("serialize")) {
+            return new Gson().toJson(dag);
+        }
+    }
+
+    /**
+     * 获取按指定收集策略分析的依赖树缓存条目，不存在或已过期时重新分析
+     */
+    @SuppressWarnings("try")
+    private DependencyCache.CacheEntry dependencyTreeEntry(String pomPath, CollectionPolicy policy) throws Exception {
+        String unsavedContent = documentService.getUnsavedContent(pomPath);
+
+        // 检查缓存
+        File pomFile = new File(pomPath);
+        String absolutePath = pomFile.toPath().toAbsolutePath().normalize().toString();
+        DependencyCache.CacheKey cacheKey = (unsavedContent == null
+                ? new DependencyCache.CacheKey(absolutePath, pomFile.lastModified())
+                : DependencyCache.CacheKey.forContent(absolutePath, unsavedContent))
+                .withVariant(policy.getKey());
+        DependencyCache.CacheEntry cachedEntry = cache.getDependencyResult(cacheKey);
+        if (cachedEntry != null && !cachedEntry.isExpired()) {
+            return cachedEntry;
+        }
+
+        // 清理过期缓存
+        cache.cleanupExpiredCaches();
+
+        DependencyCache.GraphEntry graph = collectDependencyGraph(pomPath, unsavedContent, policy);
+        Model model = graph.getModel();
+        DependencyNode rootNode = graph.getRoot();
+
+        // 预加载文件大小以减少I/O操作
+        try (Tracer.Span span = tracer.span("preloadFileSizes")) {
+            preloadFileSizes(rootNode);
+        }
+
+        List<ArtifactGav> effectiveGavs;
+        try (Tracer.Span span = tracer.span("fetchEffectiveDependencies")) {
+            // 非默认策略收集的图与 mvn dependency:list 的结果不对应，直接使用依赖图
+            effectiveGavs = fetchEffectiveGavs(pomPath, rootNode, unsavedContent != null || !policy.isDefault());
+        }
+        // 构建 exclusion 映射表，保存原始的 exclusion 信息
+        Map<String, Set<String>> exclusionMap = MavenModelUtils.buildExclusionMap(model);
+        // 构建树形结构并返回JSON，传入 exclusion 信息
+        Map<String, Object> tree;
+        try (Tracer.Span span = tracer.span("buildDependencyTree")) {
+            tree = buildDependencyTree(rootNode, effectiveGavs, exclusionMap);
+        }
+        String result;
+        try (Tracer.Span span = tracer.span("serialize")) {
+            result = new Gson().toJson(tree);
+        }
+
+        // 缓存结果
+        return cache.putDependencyResult(cacheKey, result, tree);
+    }
+
+    /**
+     * 编辑器中的 pom.xml 变化（防抖后）时在后台重新分析：先发布冲突诊断，再刷新依赖树并通知客户端更新依赖视图。
+     * 同一 pom.xml 的分析逐个执行，已被更新的变更取代的分析不再刷新依赖树和通知客户端
+     */
+    private void onPomChanged(String pomPath) {
+        pomChanges.submit(pomPath, latest -> {
+            try {
+                publishConflictDiagnostics(pomPath);
             } catch (Exception e) {
-                return errorJson("Dependency analysis exception: " + e.getMessage());
+                if (client != null) {
+                    client.logMessage(new MessageParams(MessageType.Log, "Conflict diagnostics of " + pomPath + " failed: " + e.getMessage()));
+                }
+            }
+            if (!latest.getAsBoolean()) {
+                return;
+            }
+            try {
+                if (new File(pomPath).exists()) {
+                    analyzeDependencyTree(pomPath);
+                }
+            } catch (Exception e) {
+                // 编辑中的POM可能暂时无法解析，等待下一次修改
+                if (client != null) {
+                    client.logMessage(new MessageParams(MessageType.Log, "Re-analysis of " + pomPath + " failed: " + e.getMessage()));
+                }
+            }
+            if (latest.getAsBoolean() && client instanceof MavenAssistantClient) {
+                ((MavenAssistantClient) client).dependenciesChanged(new MavenAssistantClient.DependenciesChangedParams(pomPath));
             }
         });
     }
 
+    /**
+     * 为打开的 pom.xml 发布依赖冲突诊断；文档已关闭时清除诊断
+     */
+    @SuppressWarnings("try")
+    private void publishConflictDiagnostics(String pomPath) throws Exception {
+        String uri = documentService.getUri(pomPath);
+        List<Diagnostic> diagnostics;
+        if (uri == null) {
+            uri = new File(pomPath).toURI().toString();
+            diagnostics = conflictDiagnostics.clear(pomPath);
+        } else {
+            String unsavedContent = documentService.getUnsavedContent(pomPath);
+            String content = unsavedContent != null ? unsavedContent
+                    : new String(Files.readAllBytes(Paths.get(pomPath)), StandardCharsets.UTF_8);
+            DependencyNode rootNode = collectDependencyGraph(pomPath, unsavedContent).getRoot();
+            try (Tracer.Span span = tracer.span("conflictDiagnostics")) {
+                diagnostics = conflictDiagnostics.update(pomPath, content, rootNode);
+            }
+        }
+        if (diagnostics != null && client != null) {
+            client.publishDiagnostics(new PublishDiagnosticsParams(uri, diagnostics));
+        }
+    }
+
+    /**
+     * 获取实际生效的依赖列表
+     * 配置为 graph、要求只使用依赖图（分析未保存内容或非默认收集策略），或 mvn dependency:list 执行失败（未安装 Maven、离线等）时，
+     * 使用依赖图中 ConflictResolver 选出的版本
+     */
+    @SuppressWarnings("try")
+    private List<ArtifactGav> fetchEffectiveGavs(String pomPath, DependencyNode rootNode, boolean graphOnly) {
+        if (!graphOnly && ServerSettings.EFFECTIVE_SOURCE_MAVEN.equals(settings.getEffectiveDependencySource())) {
+            try {
+                List<ArtifactGav> gavs;
+                try (Tracer.Span span = tracer.span("mvnDependencyList")) {
+                    gavs = MavenClasspathFetcher.fetchGavList(pomPath);
+                }
+                if (!gavs.isEmpty() || rootNode.getChildren().isEmpty()) {
+                    return gavs;
+                }
+            } catch (Exception e) {
+                if (client != null) {
+                    client.logMessage(new MessageParams(MessageType.Warning, "mvn dependency:list failed: " + e.getMessage()));
+                }
+            }
+        }
+        return ConflictAnalyzer.effectiveArtifacts(rootNode);
+    }
+
+    /**
+     * 创建依赖收集使用的 Resolver 会话
+     */
+    private CloseableSession newSession(RepositorySystem system) {
+        return newSession(system, CollectionPolicy.DEFAULT);
+    }
+
+    /**
+     * 创建按指定收集策略选择依赖的 Resolver 会话
+     */
+    private CloseableSession newSession(RepositorySystem system, CollectionPolicy policy) {
+        return new SessionBuilderSupplier(system)
+                .get()
+                .withLocalRepositoryBaseDirectories(localRepoDir.toPath())
+                .setCache(cache.getDescriptorCache())
+                .setDependencySelector(new CustomScopeDependencySelector(policy))
+                .setConfigProperty(ConflictResolver.CONFIG_PROP_VERBOSE, ConflictResolver.Verbosity.STANDARD)
+                .build();
+    }
+
+    /**
+     * 收集依赖图，优先复用缓存中未过期的依赖图；文档在编辑器中有未保存的修改时基于编辑器内容收集
+     *
+     * @param pomPath pom.xml 文件路径
+     * @return 包含有效模型和依赖图根节点的缓存条目
+     */
+    private DependencyCache.GraphEntry collectDependencyGraph(String pomPath) throws Exception {
+        return collectDependencyGraph(pomPath, documentService.getUnsavedContent(pomPath));
+    }
+
+    /**
+     * 收集依赖图，content 不为空时以该内容代替磁盘上的 pom.xml，缓存按内容摘要区分
+     *
+     * @param pomPath pom.xml 文件路径
+     * @param content POM内容，为null时读取磁盘文件
+     * @return 包含有效模型和依赖图根节点的缓存条目
+     */
+    private DependencyCache.GraphEntry collectDependencyGraph(String pomPath, String content) throws Exception {
+        return collectDependencyGraph(pomPath, content, CollectionPolicy.DEFAULT);
+    }
+
+    /**
+     * 按指定收集策略收集依赖图，缓存按策略区分
+     */
+    private DependencyCache.GraphEntry collectDependencyGraph(String pomPath, String content, CollectionPolicy policy) throws Exception {
+        return collectDependencyGraph(pomPath, content, policy, null);
+    }
+
+    /**
+     * 按指定收集策略收集依赖图
+     *
+     * @param slot 按内容缓存时的槽位名，同一 pom.xml 的同一槽位只保留最新内容的依赖图；为null时与编辑器中的内容共用槽位
+     */
+    @SuppressWarnings("try")
+    private DependencyCache.GraphEntry collectDependencyGraph(String pomPath, String content, CollectionPolicy policy,
+                                                              String slot) throws Exception {
+        File pomFile = new File(pomPath);
+        String absolutePath = pomFile.toPath().toAbsolutePath().normalize().toString();
+        DependencyCache.CacheKey cacheKey = (content == null
+                ? new DependencyCache.CacheKey(absolutePath, pomFile.lastModified())
+                : DependencyCache.CacheKey.forContent(absolutePath, content).withVariant(slot))
+                .withVariant(policy.getKey());
+        DependencyCache.GraphEntry cachedGraph = cache.getDependencyGraph(cacheKey);
+        if (cachedGraph != null && !cachedGraph.isExpired()) {
+            return cachedGraph;
+        }
+
+        RepositorySystem system = getRepositorySystem();
+        try (Tracer.Span collectSpan = tracer.span("collectDependencyGraph");
+             CloseableSession session = newSession(system, policy)) {
+            Model model;
+            try (Tracer.Span span = tracer.span("getModel")) {
+                model = content == null ? MavenModelUtils.getModel(pomPath) : MavenModelUtils.getModel(pomPath, content);
+            }
+            List<Dependency> directDependencies = MavenModelUtils.getDirectDependencies(model);
+            List<Dependency> managedDependencies = MavenModelUtils.getManagedDependencies(model);
+            Artifact artifact = MavenModelUtils.getArtifactFromModel(model);
+            CollectRequest collectRequest = MavenModelUtils.getEffectiveCollectRequest(artifact, directDependencies,
+                    managedDependencies, repos);
+            DependencyNode rootNode;
+            try (Tracer.Span span = tracer.span("collectDependencies")) {
+                rootNode = system.collectDependencies(session, collectRequest).getRoot();
+            }
+            // 收集过程中可能下载了新版本，直接补充到版本索引
+            versionIndex.addAll(rootNode);
+            return cache.putDependencyGraph(cacheKey, model, rootNode);
+        }
+    }
+
+    /**
+     * 根据依赖图和实际生效的GAV列表构建依赖树
+     *
+     * @param rootNode 依赖图根节点
+     * @param effectiveGavs 实际生效的GAV列表
+     * @param exclusionMap exclusion 映射表
+     * @return 树形依赖结构（Map表示）
+     */
+    Map<String, Object> buildDependencyTree(DependencyNode rootNode, List<ArtifactGav> effectiveGavs, Map<String, Set<String>> exclusionMap) {
+        Set<String> usedGAVSet = new HashSet<>();
+        Set<String> usedGASet = new HashSet<>();
+        Map<String, String> gavScopeMap = new HashMap<>();
+        fillEffectiveGavSets(effectiveGavs, usedGAVSet, usedGASet, gavScopeMap);
+        if (usedGAVSet.size() >= PARALLEL_TREE_MIN_ARTIFACTS) {
+            return buildDependencyTreeParallel(rootNode, usedGAVSet, usedGASet, gavScopeMap, exclusionMap);
+        }
+        return buildDependencyTreeSequential(rootNode, usedGAVSet, usedGASet, gavScopeMap, exclusionMap);
+    }
+
+    /**
+     * 在当前线程中递归构建依赖树
+     */
+    Map<String, Object> buildDependencyTreeSequential(DependencyNode rootNode, Set<String> usedGAVSet, Set<String> usedGASet,
+                                                      Map<String, String> gavScopeMap, Map<String, Set<String>> exclusionMap) {
+        // 初始化GAV层级映射，用于层级优先处理
+        Map<String, GavLevelTuple> gavLevelMap = new HashMap<>();
+        return buildDependencyTreeWithConflict(rootNode, usedGAVSet, usedGASet, gavScopeMap, exclusionMap, gavLevelMap, 0);
+    }
+
+    /**
+     * 在 fork/join 线程池中并行构建依赖树，结果与 {@link #buildDependencyTreeWithConflict} 一致
+     */
+    @SuppressWarnings("try")
+    Map<String, Object> buildDependencyTreeParallel(DependencyNode rootNode, Set<String> usedGAVSet, Set<String> usedGASet,
+                                                    Map<String, String> gavScopeMap, Map<String, Set<String>> exclusionMap) {
+        try (Tracer.Span span = tracer.span("preloadJarSizesParallel")) {
+            preloadJarSizesParallel(rootNode, usedGASet);
+        }
+        ParallelTreeBuilder builder = new ParallelTreeBuilder(treeBuildPool,
+                (groupId, artifactId, version, key, node) -> buildDepInfoContent(groupId, artifactId, version, key,
+                        gavScopeMap, node, usedGAVSet, exclusionMap),
+                usedGAVSet, usedGASet);
+        return builder.build(rootNode);
+    }
+
     /**
      * 填充有效依赖GAV集合和scope映射
      */
-    private void fillEffectiveGavSets(List<ArtifactGav> effectiveGavs, Set<String> usedGAVSet, Set<String> usedGASet, Map<String, String> gavScopeMap) {
+    void fillEffectiveGavSets(List<ArtifactGav> effectiveGavs, Set<String> usedGAVSet, Set<String> usedGASet, Map<String, String> gavScopeMap) {
         for (ArtifactGav gav : effectiveGavs) {
             usedGAVSet.add(gav.getGroupId() + ":" + gav.getArtifactId() + ":" + gav.getVersion());
             usedGASet.add(gav.getGroupId() + ":" + gav.getArtifactId());
@@ -218,8 +960,9 @@ public class SimpleLanguageServer implements LanguageServer {
      * @param request 包含groupId、artifactId、version等依赖信息的JSON字符串
      */
     @JsonRequest("maven/getDependencyPath")
+    @SuppressWarnings("try")
     public CompletableFuture<String> getDependencyPath(String request) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supplyAsync("maven/getDependencyPath", () -> {
             try {
                 // 解析请求参数
                 Map<String, String> params = parseDependencyPathParams(request);
@@ -230,25 +973,15 @@ public class SimpleLanguageServer implements LanguageServer {
                     return "{\"success\":false,\"error\":\"Missing required parameters: groupId, artifactId\"}";
                 }
                 String pomPath = getPomPathFromParams(params);
-                Model model = MavenModelUtils.getModel(pomPath);
-                Artifact artifact = MavenModelUtils.getArtifactFromModel(model);
-                try (RepositorySystem system = new RepositorySystemSupplier().get();
-                     CloseableSession session = new SessionBuilderSupplier(system)
-                             .get()
-                             .withLocalRepositoryBaseDirectories(
-                                     new File(System.getProperty("user.home") + "/.m2/repository").toPath())
-                             .setDependencySelector(new CustomScopeDependencySelector())
-                             .setConfigProperty(ConflictResolver.CONFIG_PROP_VERBOSE, ConflictResolver.Verbosity.STANDARD)
-                             .build()) {
-                    CollectRequest collectRequest = MavenModelUtils.getEffectiveCollectRequest(artifact,
-                            MavenModelUtils.getDirectDependencies(model), MavenModelUtils.getManagedDependencies(model), repos);
-                    DependencyNode rootNode = system.collectDependencies(session, collectRequest).getRoot();
-                    DependencyPathInfo pathInfo = findDependencyPath(rootNode, targetGroupId, targetArtifactId, targetVersion);
-                    if (pathInfo != null) {
-                        return new Gson().toJson(pathInfo);
-                    } else {
-                        return "{\"success\":false,\"error\":\"Dependency path not found\"}";
-                    }
+                DependencyNode rootNode = collectDependencyGraph(pomPath).getRoot();
+                DependencyPathInfo pathInfo;
+                try (Tracer.Span span = tracer.span("findDependencyPath")) {
+                    pathInfo = findDependencyPath(rootNode, targetGroupId, targetArtifactId, targetVersion);
+                }
+                if (pathInfo != null) {
+                    return new Gson().toJson(pathInfo);
+                } else {
+                    return "{\"success\":false,\"error\":\"Dependency path not found\"}";
                 }
             } catch (Exception e) {
                 return "{\"success\":false,\"error\":\"Failed to get dependency path: " + e.getMessage() + "\"}";
@@ -256,6 +989,35 @@ public class SimpleLanguageServer implements LanguageServer {
         });
     }
 
+    /**
+     * 依赖冲突分析请求，基于缓存的依赖图按 groupId:artifactId 返回所有版本冲突
+     *
+     * @param request 包含 pomPath 的JSON字符串（pomPath 可为空，默认取当前工作目录下 pom.xml）
+     */
+    @JsonRequest("maven/getConflicts")
+    @SuppressWarnings("try")
+    public CompletableFuture<String> getConflicts(String request) {
+        return supplyAsync("maven/getConflicts", () -> {
+            try {
+                Map<String, String> params = StringUtils.isBlank(request) ? new HashMap<>() : parseDependencyPathParams(request);
+                String pomPath = getPomPathFromParams(params);
+                if (!new File(pomPath).exists()) {
+                    return "{\"success\":false,\"error\":\"POM file does not exist: " + pomPath + "\"}";
+                }
+                DependencyNode rootNode = collectDependencyGraph(pomPath).getRoot();
+                ConflictsInfo conflictsInfo = new ConflictsInfo();
+                try (Tracer.Span span = tracer.span("analyzeConflicts")) {
+                    conflictsInfo.conflicts = ConflictAnalyzer.analyze(rootNode);
+                }
+                try (Tracer.Span span = tracer.span("serialize")) {
+                    return new Gson().toJson(conflictsInfo);
+                }
+            } catch (Exception e) {
+                return "{\"success\":false,\"error\":\"Failed to analyze conflicts: " + e.getMessage() + "\"}";
+            }
+        });
+    }
+
     /**
      * 解析依赖路径请求参数
      */
@@ -290,7 +1052,7 @@ public class SimpleLanguageServer implements LanguageServer {
         if (client != null) {
             client.logMessage(new MessageParams(MessageType.Info, "Insert exclusion request received: " + request));
         }
-        return CompletableFuture.supplyAsync(() -> {
+        return supplyAsync("maven/insertExclusion", () -> {
             try {
                 // 解析参数
                 Map<String, Object> params = new Gson().fromJson(request, Map.class);
@@ -314,6 +1076,7 @@ public class SimpleLanguageServer implements LanguageServer {
      * 使用 DOM 解析器插入 exclusion，保留注释（推荐方案）
      * 使用 DOM 解析器读取和修改 pom.xml，可以完全保留原始格式和注释
      */
+    @SuppressWarnings("try")
     private String insertExclusionWithDOM(String pomPath, Map<String, String> rootDep, Map<String, String> targetDep) {
         try {
             if (client != null) {
@@ -333,14 +1096,23 @@ public class SimpleLanguageServer implements LanguageServer {
             }
 
             // 解析 Maven 变量，获取解析后的依赖版本映射
-            Map<String, String> resolvedDependencies = PomXmlUtils.resolveMavenVariables(pomPath);
+            Map<String, String> resolvedDependencies;
+            try (Tracer.Span span = tracer.span("resolveMavenVariables")) {
+                resolvedDependencies = PomXmlUtils.resolveMavenVariables(pomPath);
+            }
 
             // 使用 DOM 解析器读取 pom.xml
-            Document doc = PomXmlUtils.parseDocument(pomPath);
+            Document doc;
+            try (Tracer.Span span = tracer.span("parseDocument")) {
+                doc = PomXmlUtils.parseDocument(pomPath);
+            }
 
             // 查找目标依赖
-            Element targetDependencyElement = PomXmlUtils.findTargetDependencyElement(
-                    doc, targetGroupId, targetArtifactId, targetVersion, resolvedDependencies);
+            Element targetDependencyElement;
+            try (Tracer.Span span = tracer.span("findTargetDependency")) {
+                targetDependencyElement = PomXmlUtils.findTargetDependencyElement(
+                        doc, targetGroupId, targetArtifactId, targetVersion, resolvedDependencies);
+            }
             
             if (client != null) {
                 client.logMessage(new MessageParams(MessageType.Info, "Resolved " + resolvedDependencies.size() + " dependencies with variables"));
@@ -366,7 +1138,9 @@ public class SimpleLanguageServer implements LanguageServer {
             }
 
             // 写回文件
-            PomXmlUtils.writeDocument(doc, pomPath);
+            try (Tracer.Span span = tracer.span("writeDocument")) {
+                PomXmlUtils.writeDocument(doc, pomPath);
+            }
 
             if (client != null) {
                 client.logMessage(new MessageParams(MessageType.Info, "File written successfully"));
@@ -400,9 +1174,535 @@ public class SimpleLanguageServer implements LanguageServer {
         public String error;
     }
 
+    /**
+     * 比较两个POM版本的依赖图差异，内容由客户端提供（如工作区版本与 HEAD 版本）
+     *
+     * @param request 包含 pomPath、baseContent、targetContent 的JSON字符串，内容为空的一侧使用磁盘上的 pom.xml
+     */
+    @JsonRequest("maven/diffDependencies")
+    @SuppressWarnings("try")
+    public CompletableFuture<String> diffDependencies(String request) {
+        return supplyAsync("maven/diffDependencies", () -> {
+            try {
+                Map<String, String> params = StringUtils.isBlank(request) ? new HashMap<>() : parseDependencyPathParams(request);
+                String pomPath = getPomPathFromParams(params);
+                String baseContent = params.get("baseContent");
+                String targetContent = params.get("targetContent");
+                if (baseContent == null && targetContent == null) {
+                    return "{\"success\":false,\"error\":\"Missing required parameters: baseContent or targetContent\"}";
+                }
+                // 两侧各占一个缓存槽位，不与编辑器中的内容或另一侧互相淘汰
+                DependencyCache.GraphEntry base = collectDependencyGraph(pomPath, baseContent, CollectionPolicy.DEFAULT, "diff:base");
+                DependencyCache.GraphEntry target = collectDependencyGraph(pomPath, targetContent, CollectionPolicy.DEFAULT, "diff:target");
+                try (Tracer.Span span = tracer.span("diff")) {
+                    return new Gson().toJson(GraphDiffer.diff(base.getCompactGraph(), target.getCompactGraph()));
+                }
+            } catch (Exception e) {
+                return "{\"success\":false,\"error\":\"Failed to diff dependencies: " + e.getMessage() + "\"}";
+            }
+        });
+    }
+
+    /**
+     * 模拟添加 exclusion 后的依赖变化，不修改 pom.xml，也不重新收集依赖图
+     * 在缓存的依赖图上应用假设的 exclusion 并重新仲裁，返回消失/新增/版本变化的构件、冲突结果变化、节省的字节数以及依赖树的结构增量
+     *
+     * @param request 包含 pomPath 和 exclusions 的JSON字符串，exclusions 每项为 {rootDependency, targetDependency}，
+     *                rootDependency 为空时作用于所有一级依赖；也可以像 maven/insertExclusion 一样直接给出单个 rootDependency、targetDependency
+     */
+    @JsonRequest("maven/simulateExclusions")
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<String> simulateExclusions(String request) {
+        return supplyAsync("maven/simulateExclusions", () -> {
+            try {
+                Map<String, Object> params = StringUtils.isBlank(request) ? new HashMap<>() : new Gson().fromJson(request, Map.class);
+                String pomPath = params.get("pomPath") != null ? params.get("pomPath").toString() : new File("pom.xml").getAbsolutePath();
+                if (!new File(pomPath).exists()) {
+                    return "{\"success\":false,\"error\":\"POM file does not exist: " + pomPath + "\"}";
+                }
+                List<Map<String, Object>> items = params.get("exclusions") instanceof List
+                        ? (List<Map<String, Object>>) params.get("exclusions")
+                        : params.get("targetDependency") != null ? List.of(params) : List.of();
+                List<DependencyGraphSimulator.SimulatedExclusion> exclusions = new ArrayList<>();
+                for (Map<String, Object> item : items) {
+                    Map<String, String> rootDep = (Map<String, String>) item.get("rootDependency");
+                    Map<String, String> targetDep = (Map<String, String>) item.get("targetDependency");
+                    if (targetDep == null || targetDep.get("groupId") == null || targetDep.get("artifactId") == null) {
+                        return "{\"success\":false,\"error\":\"Missing dependency parameters\"}";
+                    }
+                    String rootGa = rootDep != null ? rootDep.get("groupId") + ":" + rootDep.get("artifactId") : null;
+                    exclusions.add(new DependencyGraphSimulator.SimulatedExclusion(rootGa, targetDep.get("groupId"), targetDep.get("artifactId")));
+                }
+                if (exclusions.isEmpty()) {
+                    return "{\"success\":false,\"error\":\"Missing required parameter: exclusions\"}";
+                }
+                return simulateExclusions(pomPath, exclusions);
+            } catch (Exception e) {
+                return "{\"success\":false,\"error\":\"Failed to simulate exclusions: " + e.getMessage() + "\"}";
+            }
+        });
+    }
+
+    @SuppressWarnings("try")
+    private String simulateExclusions(String pomPath, List<DependencyGraphSimulator.SimulatedExclusion> exclusions) throws Exception {
+        DependencyCache.GraphEntry graph = collectDependencyGraph(pomPath);
+        DependencyGraphSimulator.Result simulated;
+        try (Tracer.Span span = tracer.span("simulateExclusions")) {
+            simulated = DependencyGraphSimulator.simulate(graph.getRoot(), exclusions);
+        }
+        Map<String, Set<String>> exclusionMap = MavenModelUtils.buildExclusionMap(graph.getModel());
+        Map<String, Set<String>> simulatedExclusionMap = new HashMap<>();
+        exclusionMap.forEach((ga, excluded) -> simulatedExclusionMap.put(ga, new HashSet<>(excluded)));
+        for (DependencyNode direct : graph.getRoot().getChildren()) {
+            String ga = direct.getArtifact().getGroupId() + ":" + direct.getArtifact().getArtifactId();
+            for (DependencyGraphSimulator.SimulatedExclusion exclusion : exclusions) {
+                if (exclusion.rootGa() == null || exclusion.rootGa().equals(ga)) {
+                    simulatedExclusionMap.computeIfAbsent(ga, k -> new HashSet<>())
+                            .add(exclusion.groupId() + ":" + exclusion.artifactId());
+                }
+            }
+        }
+        SimulationInfo info = buildSimulationInfo(graph, simulated, exclusionMap, simulatedExclusionMap);
+        try (Tracer.Span span = tracer.span("serialize")) {
+            return new Gson().toJson(info);
+        }
+    }
+
+    /**
+     * 模拟在 dependencyManagement 中锁定版本后的依赖变化，不修改 pom.xml
+     * 在缓存的依赖图上替换被锁定的版本并重新仲裁；锁定的版本在原图中没有展开过时，只单独收集该版本的子树（复用构件描述符缓存），
+     * 返回新的冲突列表、构件与冲突结果变化、节省的字节数以及依赖树的结构增量
+     *
+     * @param request 包含 pomPath 和 overrides（groupId:artifactId 到版本号的映射）的JSON字符串
+     */
+    @JsonRequest("maven/simulateVersionOverrides")
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<String> simulateVersionOverrides(String request) {
+        return supplyAsync("maven/simulateVersionOverrides", () -> {
+            try {
+                Map<String, Object> params = StringUtils.isBlank(request) ? new HashMap<>() : new Gson().fromJson(request, Map.class);
+                String pomPath = params.get("pomPath") != null ? params.get("pomPath").toString() : new File("pom.xml").getAbsolutePath();
+                if (!new File(pomPath).exists()) {
+                    return "{\"success\":false,\"error\":\"POM file does not exist: " + pomPath + "\"}";
+                }
+                if (!(params.get("overrides") instanceof Map) || ((Map<?, ?>) params.get("overrides")).isEmpty()) {
+                    return "{\"success\":false,\"error\":\"Missing required parameter: overrides\"}";
+                }
+                Map<String, String> pins = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) params.get("overrides")).entrySet()) {
+                    String ga = String.valueOf(entry.getKey());
+                    if (ga.split(":").length != 2 || entry.getValue() == null || StringUtils.isBlank(entry.getValue().toString())) {
+                        return "{\"success\":false,\"error\":\"Invalid override: " + ga + "\"}";
+                    }
+                    pins.put(ga, entry.getValue().toString());
+                }
+                return simulateVersionOverrides(pomPath, pins);
+            } catch (Exception e) {
+                return "{\"success\":false,\"error\":\"Failed to simulate version overrides: " + e.getMessage() + "\"}";
+            }
+        });
+    }
+
+    @SuppressWarnings("try")
+    private String simulateVersionOverrides(String pomPath, Map<String, String> pins) throws Exception {
+        DependencyCache.GraphEntry graph = collectDependencyGraph(pomPath);
+        DependencyNode rootNode = graph.getRoot();
+        // 与 Maven 一致，dependencyManagement 不覆盖一级依赖声明的版本；图中不存在的 GA 也不受影响
+        List<String> ignored = new ArrayList<>();
+        Set<String> directGas = new HashSet<>();
+        for (DependencyNode direct : rootNode.getChildren()) {
+            directGas.add(direct.getArtifact().getGroupId() + ":" + direct.getArtifact().getArtifactId());
+        }
+        for (String ga : pins.keySet()) {
+            if (directGas.contains(ga) || graph.getCompactGraph().indexOfGa(ga) < 0) {
+                ignored.add(ga);
+            }
+        }
+
+        DependencyGraphSimulator.Result simulated;
+        try (Tracer.Span span = tracer.span("simulateVersionOverrides")) {
+            simulated = DependencyGraphSimulator.simulate(rootNode, Collections.emptyList(), pins, Collections.emptyList());
+        }
+        // 锁定的版本在原图中未展开过时，只收集这些版本的子树，再重新模拟
+        List<String> toCollect = new ArrayList<>();
+        for (String gav : simulated.getUnresolved()) {
+            String ga = gav.substring(0, gav.lastIndexOf(':'));
+            if (gav.equals(ga + ":" + pins.get(ga))) {
+                toCollect.add(gav);
+            }
+        }
+        if (!toCollect.isEmpty()) {
+            List<DependencyNode> subtrees = collectSubtrees(graph.getModel(), toCollect, pins);
+            try (Tracer.Span span = tracer.span("simulateVersionOverrides")) {
+                simulated = DependencyGraphSimulator.simulate(rootNode, Collections.emptyList(), pins, subtrees);
+            }
+        }
+
+        Map<String, Set<String>> exclusionMap = MavenModelUtils.buildExclusionMap(graph.getModel());
+        SimulationInfo info = buildSimulationInfo(graph, simulated, exclusionMap, exclusionMap);
+        info.ignored = ignored;
+        try (Tracer.Span span = tracer.span("serialize")) {
+            return new Gson().toJson(info);
+        }
+    }
+
+    /**
+     * 以锁定的版本为唯一的一级依赖分别收集子树，锁定项排在项目自身的 dependencyManagement 之前以优先生效
+     */
+    @SuppressWarnings("try")
+    private List<DependencyNode> collectSubtrees(Model model, List<String> gavs, Map<String, String> pins) throws Exception {
+        List<Dependency> managedDependencies = new ArrayList<>();
+        for (Map.Entry<String, String> pin : pins.entrySet()) {
+            managedDependencies.add(new Dependency(new DefaultArtifact(pin.getKey() + ":" + pin.getValue()), null));
+        }
+        managedDependencies.addAll(MavenModelUtils.getManagedDependencies(model));
+        List<DependencyNode> subtrees = new ArrayList<>();
+        RepositorySystem system = getRepositorySystem();
+        try (Tracer.Span collectSpan = tracer.span("collectSubtrees");
+             CloseableSession session = newSession(system)) {
+            for (String gav : gavs) {
+                CollectRequest collectRequest = MavenModelUtils.getEffectiveCollectRequest(null,
+                        List.of(new Dependency(new DefaultArtifact(gav), "compile")), managedDependencies, repos);
+                DependencyNode subtree = system.collectDependencies(session, collectRequest).getRoot();
+                versionIndex.addAll(subtree);
+                subtrees.add(subtree);
+            }
+        }
+        return subtrees;
+    }
+
+    /**
+     * 比较缓存的依赖图与模拟结果，两侧都以依赖图中的仲裁结果构建依赖树，避免与 mvn dependency:list 的结果混用
+     */
+    @SuppressWarnings("try")
+    private SimulationInfo buildSimulationInfo(DependencyCache.GraphEntry graph, DependencyGraphSimulator.Result simulated,
+                                               Map<String, Set<String>> exclusionMap,
+                                               Map<String, Set<String>> simulatedExclusionMap) {
+        SimulationInfo info = new SimulationInfo();
+        DependencyDiff diff;
+        try (Tracer.Span span = tracer.span("diff")) {
+            diff = GraphDiffer.diff(graph.getCompactGraph(), CompactGraph.from(simulated.getRoot()));
+            info.conflicts = ConflictAnalyzer.analyze(simulated.getRoot());
+        }
+        info.removed = diff.getRemoved();
+        info.added = diff.getAdded();
+        info.versionChanged = diff.getVersionChanged();
+        info.conflictChanges = diff.getConflictChanges();
+        for (DependencyDiff.ArtifactChange change : diff.getRemoved()) {
+            info.bytesSaved += jarSize(change.getGroupId(), change.getArtifactId(), change.getFromVersion());
+        }
+        for (DependencyDiff.ArtifactChange change : diff.getAdded()) {
+            info.bytesSaved -= jarSize(change.getGroupId(), change.getArtifactId(), change.getToVersion());
+        }
+        for (DependencyDiff.ArtifactChange change : diff.getVersionChanged()) {
+            info.bytesSaved += jarSize(change.getGroupId(), change.getArtifactId(), change.getFromVersion())
+                    - jarSize(change.getGroupId(), change.getArtifactId(), change.getToVersion());
+        }
+        info.unresolved = new ArrayList<>(simulated.getUnresolved());
+        try (Tracer.Span span = tracer.span("diffDependencyTree")) {
+            Map<String, Object> before = buildDependencyTree(graph.getRoot(),
+                    ConflictAnalyzer.effectiveArtifacts(graph.getRoot()), exclusionMap);
+            Map<String, Object> after = buildDependencyTree(simulated.getRoot(),
+                    ConflictAnalyzer.effectiveArtifacts(simulated.getRoot()), simulatedExclusionMap);
+            info.tree = DependencyTreeVersions.diff(before, after);
+        }
+        return info;
+    }
+
+    private long jarSize(String groupId, String artifactId, String version) {
+        return getJarFileSize(new DefaultArtifact(groupId, artifactId, "jar", version));
+    }
+
+    /**
+     * exclusion / 版本锁定模拟结果
+     */
+    private static class SimulationInfo {
+        public boolean success = true;
+        public List<ArtifactConflictInfo> conflicts; // 模拟后的冲突列表
+        public List<DependencyDiff.ArtifactChange> removed; // 不再出现在类路径上的构件
+        public List<DependencyDiff.ArtifactChange> added; // 因落败版本晋升、新版本引入等新出现的构件
+        public List<DependencyDiff.ArtifactChange> versionChanged;
+        public List<DependencyDiff.ConflictChange> conflictChanges;
+        public long bytesSaved; // 按本地仓库中的jar大小计算，尚未下载的构件按0计，可能为负
+        public List<String> unresolved; // 胜出但传递依赖未知的GAV，需要真正修改POM后重新收集
+        public List<String> ignored; // 不生效的版本锁定（一级依赖或图中不存在的GA）
+        public Map<String, Object> tree; // 依赖树的结构增量，格式同 maven/analyzeDependencies 的 sinceVersion 响应
+    }
+
+    /**
+     * 基于字节码分析依赖的使用情况：解析编译输出（target/classes、target/test-classes）中类文件的常量池，
+     * 与依赖图中生效构件的 jar 类名匹配，返回未使用的声明依赖和使用了但未声明的依赖
+     *
+     * @param request 包含 pomPath 的JSON字符串（pomPath 可为空，默认取当前工作目录下 pom.xml）
+     */
+    @JsonRequest("maven/analyzeUsage")
+    @SuppressWarnings("try")
+    public CompletableFuture<String> analyzeUsage(String request) {
+        return supplyAsync("maven/analyzeUsage", () -> {
+            try {
+                Map<String, String> params = StringUtils.isBlank(request) ? new HashMap<>() : parseDependencyPathParams(request);
+                String pomPath = getPomPathFromParams(params);
+                File pomFile = new File(pomPath);
+                if (!pomFile.exists()) {
+                    return "{\"success\":false,\"error\":\"POM file does not exist: " + pomPath + "\"}";
+                }
+                DependencyCache.GraphEntry graph = collectDependencyGraph(pomPath);
+                Path baseDir = pomFile.getAbsoluteFile().getParentFile().toPath();
+                org.apache.maven.model.Build build = graph.getModel().getBuild();
+                Path classesDir = baseDir.resolve(build != null && build.getOutputDirectory() != null
+                        ? build.getOutputDirectory() : "target/classes");
+                Path testClassesDir = baseDir.resolve(build != null && build.getTestOutputDirectory() != null
+                        ? build.getTestOutputDirectory() : "target/test-classes");
+                if (!Files.isDirectory(classesDir)) {
+                    return "{\"success\":false,\"error\":\"Compiled classes not found, build the project first: "
+                            + classesDir.toString().replace("\\", "/") + "\"}";
+                }
+
+                Set<String> declared = new HashSet<>();
+                for (DependencyNode direct : graph.getRoot().getChildren()) {
+                    declared.add(direct.getArtifact().getGroupId() + ":" + direct.getArtifact().getArtifactId());
+                }
+                // 构件文件按自身的扩展名和 classifier 由本地仓库布局定位
+                List<DependencyUsageAnalyzer.ClasspathEntry> classpath = new ArrayList<>();
+                try (CloseableSession session = newSession(getRepositorySystem())) {
+                    LocalRepositoryManager localRepository = session.getLocalRepositoryManager();
+                    for (DependencyNode node : ConflictAnalyzer.effectiveNodes(graph.getRoot())) {
+                        Artifact artifact = node.getArtifact();
+                        String ga = artifact.getGroupId() + ":" + artifact.getArtifactId();
+                        classpath.add(new DependencyUsageAnalyzer.ClasspathEntry(artifact.getGroupId(), artifact.getArtifactId(),
+                                artifact.getVersion(), node.getDependency() != null ? node.getDependency().getScope() : null,
+                                declared.contains(ga), localRepository.getAbsolutePathForLocalArtifact(artifact)));
+                    }
+                }
+                DependencyUsageAnalyzer.Report report;
+                try (Tracer.Span span = tracer.span("analyzeUsage")) {
+                    report = usageAnalyzer.analyze(classesDir, testClassesDir, classpath);
+                }
+                try (Tracer.Span span = tracer.span("serialize")) {
+                    return new Gson().toJson(report);
+                }
+            } catch (Exception e) {
+                return "{\"success\":false,\"error\":\"Failed to analyze usage: " + e.getMessage() + "\"}";
+            }
+        });
+    }
+
+    /**
+     * 校验依赖图中所有构件（含因冲突落败的版本）在本地仓库中的文件与 .sha1 / .sha256 校验文件是否一致，
+     * 用于发现损坏或被截断的构件；文件路径按构件自身的扩展名和 classifier 由本地仓库布局计算，未变化的文件复用已缓存的摘要
+     *
+     * @param request 包含 pomPath 的JSON字符串（pomPath 可为空，默认取当前工作目录下 pom.xml）
+     */
+    @JsonRequest("maven/verifyArtifacts")
+    @SuppressWarnings("try")
+    public CompletableFuture<String> verifyArtifacts(String request) {
+        return supplyAsync("maven/verifyArtifacts", () -> {
+            try {
+                Map<String, String> params = StringUtils.isBlank(request) ? new HashMap<>() : parseDependencyPathParams(request);
+                String pomPath = getPomPathFromParams(params);
+                if (!new File(pomPath).exists()) {
+                    return "{\"success\":false,\"error\":\"POM file does not exist: " + pomPath + "\"}";
+                }
+                DependencyNode rootNode = collectDependencyGraph(pomPath).getRoot();
+                Map<String, Artifact> artifacts = new TreeMap<>();
+                Deque<DependencyNode> nodes = new ArrayDeque<>(rootNode.getChildren());
+                while (!nodes.isEmpty()) {
+                    DependencyNode node = nodes.pop();
+                    if (node.getArtifact() != null) {
+                        artifacts.putIfAbsent(node.getArtifact().toString(), node.getArtifact());
+                    }
+                    nodes.addAll(node.getChildren());
+                }
+                Map<String, Path> files = new LinkedHashMap<>();
+                try (CloseableSession session = newSession(getRepositorySystem())) {
+                    LocalRepositoryManager localRepository = session.getLocalRepositoryManager();
+                    for (Map.Entry<String, Artifact> entry : artifacts.entrySet()) {
+                        files.put(entry.getKey(), localRepository.getAbsolutePathForLocalArtifact(entry.getValue()));
+                    }
+                }
+                ArtifactVerifier.Report report;
+                try (Tracer.Span span = tracer.span("verifyArtifacts")) {
+                    report = artifactVerifier.verify(files);
+                }
+                VerificationInfo info = new VerificationInfo();
+                info.verified = report.results.size();
+                info.hashed = report.hashed;
+                for (ArtifactVerifier.Result result : report.results) {
+                    info.counts.merge(result.status.name(), 1, Integer::sum);
+                    if (result.status != ArtifactVerifier.Status.OK) {
+                        info.problems.add(result);
+                    }
+                }
+                try (Tracer.Span span = tracer.span("serialize")) {
+                    return new Gson().toJson(info);
+                }
+            } catch (Exception e) {
+                return "{\"success\":false,\"error\":\"Failed to verify artifacts: " + e.getMessage() + "\"}";
+            }
+        });
+    }
+
+    /**
+     * 构件完整性校验结果
+     */
+    private static class VerificationInfo {
+        public boolean success = true;
+        public int verified; // 校验的构件数
+        public int hashed; // 本次重新计算摘要的文件数
+        public Map<String, Integer> counts = new TreeMap<>(); // 各状态的构件数
+        public List<ArtifactVerifier.Result> problems = new ArrayList<>(); // 状态不是 OK 的构件
+    }
+
+    /**
+     * 分析本地仓库磁盘占用：按 groupId、artifactId 和版本汇总大小，并列出没有被任何分析的模块引用的版本，
+     * 作为清理候选。引用包括模块依赖图中的所有构件（含因冲突落败的版本）、模块自身、父 POM 和声明的构建插件；
+     * 父 POM 链更上层的 POM、BOM 和插件自身的依赖不计入，清理前需自行确认
+     *
+     * @param request 可选参数：pomPaths 要分析的 pom.xml 列表，默认取工作区中的所有模块，没有工作区时取 pomPath；
+     *                limit 各列表最多返回的项数，默认 50
+     */
+    @JsonRequest("maven/analyzeLocalRepository")
+    @SuppressWarnings({"try", "unchecked"})
+    public CompletableFuture<String> analyzeLocalRepository(String request) {
+        return supplyAsync("maven/analyzeLocalRepository", () -> {
+            try {
+                Map<String, Object> params = StringUtils.isBlank(request) ? new HashMap<>() : new Gson().fromJson(request, Map.class);
+                int limit = params.get("limit") instanceof Number ? ((Number) params.get("limit")).intValue() : 50;
+                List<String> poms = new ArrayList<>();
+                if (params.get("pomPaths") instanceof List) {
+                    for (Object pom : (List<?>) params.get("pomPaths")) {
+                        poms.add(String.valueOf(pom));
+                    }
+                } else if (params.get("pomPath") == null && !workspaceRoots.isEmpty()) {
+                    for (Path pom : WorkspacePrewarmer.discoverPoms(workspaceRoots)) {
+                        poms.add(pom.toString());
+                    }
+                } else {
+                    Object pomPath = params.get("pomPath");
+                    poms.add(pomPath == null || StringUtils.isBlank(pomPath.toString())
+                            ? new File("pom.xml").getAbsolutePath() : pomPath.toString());
+                }
+
+                LocalRepositoryInfo info = new LocalRepositoryInfo();
+                Set<String> referenced = new HashSet<>();
+                try (Tracer.Span span = tracer.span("collectReferences")) {
+                    for (String pom : poms) {
+                        try {
+                            collectReferencedArtifacts(collectDependencyGraph(pom), referenced);
+                            info.modules++;
+                        } catch (Exception e) {
+                            info.failedModules.add(pom);
+                        }
+                    }
+                }
+                try (Tracer.Span span = tracer.span("scanRepository")) {
+                    info.usage = diskUsageIndex.analyze(diskUsagePool, referenced, Math.max(1, Math.min(limit, 1000)));
+                }
+                try (Tracer.Span span = tracer.span("serialize")) {
+                    return new Gson().toJson(info);
+                }
+            } catch (Exception e) {
+                return "{\"success\":false,\"error\":\"Failed to analyze local repository: " + e.getMessage() + "\"}";
+            }
+        });
+    }
+
+    /**
+     * 收集模块引用的构件（groupId:artifactId:baseVersion），与本地仓库的版本目录名一致
+     */
+    private static void collectReferencedArtifacts(DependencyCache.GraphEntry graph, Set<String> referenced) {
+        Model model = graph.getModel();
+        referenced.add(model.getGroupId() + ":" + model.getArtifactId() + ":" + model.getVersion());
+        if (model.getParent() != null) {
+            org.apache.maven.model.Parent parent = model.getParent();
+            referenced.add(parent.getGroupId() + ":" + parent.getArtifactId() + ":" + parent.getVersion());
+        }
+        if (model.getBuild() != null) {
+            for (org.apache.maven.model.Plugin plugin : model.getBuild().getPlugins()) {
+                if (plugin.getVersion() != null) {
+                    referenced.add(plugin.getGroupId() + ":" + plugin.getArtifactId() + ":" + plugin.getVersion());
+                }
+            }
+        }
+        Deque<DependencyNode> stack = new ArrayDeque<>();
+        Set<DependencyNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        stack.push(graph.getRoot());
+        while (!stack.isEmpty()) {
+            DependencyNode node = stack.pop();
+            if (!visited.add(node)) {
+                continue;
+            }
+            Artifact artifact = node.getArtifact();
+            if (artifact != null) {
+                referenced.add(artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getBaseVersion());
+            }
+            for (DependencyNode child : node.getChildren()) {
+                stack.push(child);
+            }
+        }
+    }
+
+    /**
+     * 本地仓库磁盘占用分析结果
+     */
+    private static class LocalRepositoryInfo {
+        public boolean success = true;
+        public int modules; // 成功收集依赖图的模块数
+        public List<String> failedModules = new ArrayList<>(); // 无法解析的模块，其引用的版本可能被误列为未引用
+        public DiskUsageIndex.Report usage;
+    }
+
+    /**
+     * 在本地仓库中按 groupId、artifactId 和类名搜索构件，支持前缀和模糊匹配
+     *
+     * @param request 包含 query 和可选 limit（默认50，最多500）的JSON字符串
+     */
+    @JsonRequest("maven/searchArtifacts")
+    @SuppressWarnings({"try", "unchecked"})
+    public CompletableFuture<String> searchArtifacts(String request) {
+        return supplyAsync("maven/searchArtifacts", () -> {
+            try {
+                Map<String, Object> params = StringUtils.isBlank(request) ? new HashMap<>() : new Gson().fromJson(request, Map.class);
+                Object query = params.get("query");
+                if (query == null || StringUtils.isBlank(query.toString())) {
+                    return "{\"success\":false,\"error\":\"Missing required parameter: query\"}";
+                }
+                int limit = params.get("limit") instanceof Number ? ((Number) params.get("limit")).intValue() : 50;
+                SearchArtifactsInfo info = new SearchArtifactsInfo();
+                try (Tracer.Span span = tracer.span("search")) {
+                    info.results = searchIndex.search(query.toString(), Math.max(1, Math.min(limit, 500)));
+                }
+                info.indexedArtifacts = searchIndex.size();
+                info.indexing = !searchIndex.isUpToDate();
+                return new Gson().toJson(info);
+            } catch (Exception e) {
+                return "{\"success\":false,\"error\":\"Failed to search artifacts: " + e.getMessage() + "\"}";
+            }
+        });
+    }
+
+    /**
+     * 构件搜索结果
+     */
+    private static class SearchArtifactsInfo {
+        public boolean success = true;
+        public boolean indexing; // 首次增量更新尚未完成，结果可能不完整
+        public int indexedArtifacts;
+        public List<ArtifactSearchIndex.Result> results;
+    }
+
+    /**
+     * 依赖冲突分析结果
+     */
+    private static class ConflictsInfo {
+        public boolean success = true;
+        public List<ArtifactConflictInfo> conflicts; // 按首次出现顺序排列的冲突列表
+    }
+
     /**
      * 查找依赖的完整路径
      */
+    @SuppressWarnings("try")
     private DependencyPathInfo findDependencyPath(DependencyNode rootNode, String targetGroupId,
                                                   String targetArtifactId, String targetVersion) {
         List<DependencyNode> path = new ArrayList<>();
@@ -424,7 +1724,7 @@ public class SimpleLanguageServer implements LanguageServer {
                 pathInfo.parentVersion = parentArtifact.getVersion();
 
                 // 解析pom文件，找到目标依赖的位置信息
-                try {
+                try (Tracer.Span span = tracer.span("parseDependencyPosition")) {
                     Map<String, Object> positionInfo = parseDependencyPosition(parentPomPath,
                             targetArtifact.getGroupId(), targetArtifact.getArtifactId());
                     pathInfo.lineNumber = (Integer) positionInfo.get("lineNumber");
@@ -477,13 +1777,13 @@ public class SimpleLanguageServer implements LanguageServer {
         String groupId = artifact.getGroupId().replace('.', '/');
         String artifactId = artifact.getArtifactId();
         String version = artifact.getVersion();
-        return MAVEN_LOCAL_REPO_PATH + "/" + groupId + "/" + artifactId + "/" + version + "/" + artifactId + "-" + version + ".pom";
+        return localRepoPath + "/" + groupId + "/" + artifactId + "/" + version + "/" + artifactId + "-" + version + ".pom";
     }
 
     /**
      * 解析pom文件中依赖的位置信息
      */
-    private Map<String, Object> parseDependencyPosition(String pomPath, String groupId, String artifactId) throws Exception {
+    Map<String, Object> parseDependencyPosition(String pomPath, String groupId, String artifactId) throws Exception {
         Map<String, Object> result = new HashMap<>();
 
         // 读取pom文件内容
@@ -602,10 +1902,13 @@ public class SimpleLanguageServer implements LanguageServer {
      * @param currentLevel 当前层级深度
      * @return 树形依赖结构（Map表示）
      */
+    @SuppressWarnings("try")
     private Map<String, Object> buildDependencyTreeWithConflict(DependencyNode node, Set<String> usedGAVSet, Set<String> usedGASet, Map<String, String> gavScopeMap, Map<String, Set<String>> exclusionMap, Map<String, GavLevelTuple> gavLevelMap, int currentLevel) {
         // 在根节点（currentLevel == 0）时并行预加载所有jar文件大小
         if (currentLevel == 0) {
-            preloadJarSizesParallel(node, usedGASet);
+            try (Tracer.Span span = tracer.span("preloadJarSizesParallel")) {
+                preloadJarSizesParallel(node, usedGASet);
+            }
         }
         
         Artifact artifact = node.getArtifact();
@@ -702,7 +2005,7 @@ public class SimpleLanguageServer implements LanguageServer {
     /**
      * 构建依赖信息内容的辅助方法
      */
-    private Map<String, Object> buildDepInfoContent(String groupId, String artifactId, String version, String key, Map<String, String> gavScopeMap, DependencyNode node, Set<String> usedGAVSet, Map<String, Set<String>> exclusionMap) {
+    Map<String, Object> buildDepInfoContent(String groupId, String artifactId, String version, String key, Map<String, String> gavScopeMap, DependencyNode node, Set<String> usedGAVSet, Map<String, Set<String>> exclusionMap) {
         Map<String, Object> depInfo = new LinkedHashMap<>();
         
         depInfo.put("groupId", groupId);
@@ -741,51 +2044,10 @@ public class SimpleLanguageServer implements LanguageServer {
         return depInfo;
     }
 
-    /**
-     * 根据所有artifact GAV字符串和实际用到的GAV对象列表，生成包含gav、scope、是否因冲突被放弃的json数组
-     */
-    public static String buildArtifactConflictJson(Set<String> allArtifacts, List<ArtifactGav> effectiveGavs,
-                                                   Map<String, String> gavToScope) {
-        Set<String> usedGASet = new HashSet<>();
-        Set<String> usedGAVSet = new HashSet<>();
-        // 建立GAV到scope的映射，便于后续查找
-        Map<String, String> gavScopeMap = new HashMap<>();
-        for (ArtifactGav gav : effectiveGavs) {
-            usedGASet.add(gav.getGroupId() + ":" + gav.getArtifactId());
-            usedGAVSet.add(gav.getGroupId() + ":" + gav.getArtifactId() + ":" + gav.getVersion());
-            // 以 groupId:artifactId:version 作为key
-            String key = gav.getGroupId() + ":" + gav.getArtifactId() + ":" + gav.getVersion();
-            if (gav.getScope() != null) {
-                gavScopeMap.put(key, gav.getScope());
-            }
-        }
-        List<ArtifactConflictInfo> result = new ArrayList<>();
-        for (String gav : allArtifacts) {
-            String[] parts = gav.split(":");
-            if (parts.length < 3)
-                continue;
-            String ga = parts[0] + ":" + parts[1];
-            if (!usedGASet.contains(ga)) {
-                // 这个 groupId:artifactId 根本没被采用，直接跳过
-                continue;
-            }
-
-            // 优先使用effectiveGavs中的scope，否则用gavToScope，否则默认compile
-            String key = parts[0] + ":" + parts[1] + ":" + parts[2];
-            String scope = gavScopeMap.getOrDefault(key, gavToScope.getOrDefault(gav, "compile"));
-
-            boolean dropped = !usedGAVSet.contains(gav);
-            if (parts.length >= 3) {
-                result.add(new ArtifactConflictInfo(parts[0], parts[1], parts[2], scope, dropped));
-            }
-        }
-        return new Gson().toJson(result);
-    }
-
-    // 实现 setTrace 方法，防止 VSCode 发送 $/setTrace 时抛出异常
+    // 实现 setTrace 方法，根据 trace 值（off/messages/verbose）调整请求阶段追踪的日志输出
     @Override
     public void setTrace(SetTraceParams params) {
-        // 这里可以根据 params.getValue() 设置日志级别，目前为空实现
+        tracer.setLevel(Tracer.Level.parse(params != null ? params.getValue() : null));
     }
 
     /**
@@ -838,7 +2100,7 @@ public class SimpleLanguageServer implements LanguageServer {
      */
     private String buildJarPath(String groupId, String artifactId, String version) {
         String groupIdPath = groupId.replace('.', '/');
-        return MAVEN_LOCAL_REPO_PATH + "/" + groupIdPath + "/" + artifactId + "/" + version + "/" + artifactId + "-" + version + ".jar";
+        return localRepoPath + "/" + groupIdPath + "/" + artifactId + "/" + version + "/" + artifactId + "-" + version + ".jar";
     }
     
     private long getJarFileSize(Artifact artifact) {
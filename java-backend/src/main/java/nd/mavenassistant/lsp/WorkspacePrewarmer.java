@@ -0,0 +1,192 @@
+package nd.mavenassistant.lsp;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 工作区预热
+ * 在单个低优先级后台线程中依次预热工作区内 pom.xml 的依赖视图，填充模型、描述符、依赖图和依赖树缓存。
+ * 已打开的模块优先，其余按目录深度（父模块在前）处理；有前台请求执行时暂停，避免与用户操作争抢资源
+ */
+class WorkspacePrewarmer {
+
+    /**
+     * 预热单个模块的操作
+     */
+    interface ModuleTask {
+        void run(String pomPath) throws Exception;
+    }
+
+    static final int PRIORITY_OPEN = 0;
+    static final int PRIORITY_BACKGROUND = 1;
+
+    // 不进入的构建输出和工具目录，另外跳过所有以 . 开头的目录
+    private static final Set<String> SKIPPED_DIRS = Set.of("target", "node_modules", "build", "out", "bin");
+    private static final int MAX_DEPTH = 8;
+    private static final int MAX_MODULES = 500;
+    /** 最多预热的模块数：预热结果在首次读取前常驻内存，每个模块保留完整的依赖图和依赖树 */
+    static final int MAX_PREWARMED_MODULES = 32;
+    private static final long BUSY_POLL_MS = 100;
+
+    private final ModuleTask task;
+    private final BooleanSupplier foregroundBusy;
+    private final ThreadPoolExecutor executor;
+    // 尚未执行的模块，用于调整优先级
+    private final Map<String, PrewarmTask> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    WorkspacePrewarmer(ModuleTask task, BooleanSupplier foregroundBusy) {
+        this.task = task;
+        this.foregroundBusy = foregroundBusy;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "maven-assistant-prewarm");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        // 预先启动工作线程，使首个任务也经过优先级队列排序
+        executor.prestartCoreThread();
+    }
+
+    /**
+     * 查找工作区目录下的 pom.xml，按目录深度排序，最多返回 MAX_MODULES 个
+     */
+    static List<Path> discoverPoms(Collection<Path> roots) {
+        return discoverPoms(roots, MAX_MODULES);
+    }
+
+    /**
+     * 先收集 MAX_DEPTH 以内的全部 pom.xml，按目录深度排序后再截断，
+     * 避免深度优先遍历提前终止时丢掉较晚访问的分支中的浅层父模块
+     */
+    static List<Path> discoverPoms(Collection<Path> roots, int limit) {
+        List<Path> poms = new ArrayList<>();
+        for (Path root : roots) {
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try {
+                Files.walkFileTree(root, Set.of(), MAX_DEPTH, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        String name = dir.getFileName() != null ? dir.getFileName().toString() : "";
+                        if (!dir.equals(root) && (name.startsWith(".") || SKIPPED_DIRS.contains(name))) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if ("pom.xml".equals(file.getFileName().toString())) {
+                            poms.add(file.toAbsolutePath().normalize());
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException ignored) {
+                // 无法遍历的目录不预热
+            }
+        }
+        poms.sort((a, b) -> Integer.compare(a.getNameCount(), b.getNameCount()));
+        return poms.size() > limit ? new ArrayList<>(poms.subList(0, limit)) : poms;
+    }
+
+    /**
+     * 加入预热队列，已在队列中的模块只提升优先级
+     */
+    void submit(Path pom, int priority) {
+        String pomPath = pom.toAbsolutePath().normalize().toString();
+        PrewarmTask existing = pending.get(pomPath);
+        if (existing != null) {
+            if (existing.priority <= priority || !executor.getQueue().remove(existing)) {
+                return;
+            }
+            pending.remove(pomPath, existing);
+        }
+        PrewarmTask prewarmTask = new PrewarmTask(pomPath, priority, pom.getNameCount(), sequence.incrementAndGet());
+        if (pending.putIfAbsent(pomPath, prewarmTask) == null) {
+            executor.execute(prewarmTask);
+        }
+    }
+
+    /**
+     * 将模块提升为最高优先级，仅对尚未执行的模块生效
+     */
+    void prioritize(Path pom) {
+        if (pending.containsKey(pom.toAbsolutePath().normalize().toString())) {
+            submit(pom, PRIORITY_OPEN);
+        }
+    }
+
+    ThreadPoolExecutor getExecutor() {
+        return executor;
+    }
+
+    void shutdown() {
+        pending.clear();
+        executor.shutdownNow();
+    }
+
+    private class PrewarmTask implements Runnable, Comparable<PrewarmTask> {
+        final String pomPath;
+        final int priority;
+        final int depth;
+        final long order;
+
+        PrewarmTask(String pomPath, int priority, int depth, long order) {
+            this.pomPath = pomPath;
+            this.priority = priority;
+            this.depth = depth;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            if (!pending.remove(pomPath, this)) {
+                return;
+            }
+            try {
+                while (foregroundBusy.getAsBoolean()) {
+                    Thread.sleep(BUSY_POLL_MS);
+                }
+                task.run(pomPath);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception ignored) {
+                // 预热失败不影响后续请求，真实请求会重新计算并返回错误
+            }
+        }
+
+        @Override
+        public int compareTo(PrewarmTask other) {
+            if (priority != other.priority) {
+                return Integer.compare(priority, other.priority);
+            }
+            if (depth != other.depth) {
+                return Integer.compare(depth, other.depth);
+            }
+            return Long.compare(order, other.order);
+        }
+    }
+}
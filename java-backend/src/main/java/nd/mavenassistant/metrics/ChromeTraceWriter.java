@@ -0,0 +1,133 @@
+package nd.mavenassistant.metrics;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chrome trace 文件输出
+ * 使用 Trace Event 的 JSON 数组格式，每个请求和阶段写为一个完整事件（ph=X）。
+ * 该格式允许省略结尾的 ]，因此进程异常退出时已写入的内容仍可直接加载。
+ * 文件已存在时追加到原有数组中，多次启动的追踪可在同一文件中查看
+ */
+public class ChromeTraceWriter {
+
+    private static final long PID = ProcessHandle.current().pid();
+
+    private final String path;
+    private final Gson gson = new Gson();
+    private BufferedWriter writer;
+
+    public ChromeTraceWriter(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * 写入一个请求及其所有阶段，首次写入时打开文件：已是 trace 数组时去掉结尾的 ] 后追加，否则创建（覆盖）
+     */
+    public synchronized void write(Tracer.Trace trace, List<Tracer.Span> spans) throws IOException {
+        if (writer == null) {
+            Path file = Paths.get(path);
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            boolean append = reopenArray(file);
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            writer.write(append ? ",\n" : "[\n");
+        } else {
+            writer.write(",\n");
+        }
+        Map<String, Object> args = new LinkedHashMap<>();
+        args.put("id", trace.id);
+        writer.write(event(trace.request, "request", trace.startEpochMicros, trace.durationNanos, trace.threadId, args));
+        for (Tracer.Span span : spans) {
+            long startMicros = trace.startEpochMicros + (span.startNanos - trace.startNanos) / 1000;
+            writer.write(",\n");
+            writer.write(event(span.name, "phase", startMicros, span.durationNanos, trace.threadId, null));
+        }
+        writer.flush();
+    }
+
+    /**
+     * 文件以 [ 开头且含有事件时去掉结尾的 ]（上次正常关闭时写入），返回是否可以追加
+     */
+    static boolean reopenArray(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            long end = raf.length();
+            if (end == 0) {
+                return false;
+            }
+            raf.seek(0);
+            if (raf.read() != '[') {
+                return false;
+            }
+            // 跳过结尾空白，遇到 ] 时截断到该位置
+            long position = end - 1;
+            int c;
+            do {
+                raf.seek(position);
+                c = raf.read();
+            } while (Character.isWhitespace(c) && --position > 0);
+            if (c == ']') {
+                raf.setLength(position);
+                position--;
+                do {
+                    raf.seek(position);
+                    c = raf.read();
+                } while (Character.isWhitespace(c) && --position > 0);
+            }
+            // 只有 [ 时没有可追加的事件
+            return c == '}';
+        }
+    }
+
+    private String event(String name, String category, long startMicros, long durationNanos, long threadId,
+                         Map<String, Object> args) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("name", name);
+        event.put("cat", category);
+        event.put("ph", "X");
+        event.put("ts", startMicros);
+        event.put("dur", Math.max(1L, durationNanos / 1000));
+        event.put("pid", PID);
+        event.put("tid", threadId);
+        if (args != null) {
+            event.put("args", args);
+        }
+        return gson.toJson(event);
+    }
+
+    /**
+     * 补上结尾的 ] 并关闭文件
+     */
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write("\n]\n");
+            writer.close();
+        } catch (IOException ignored) {
+            // 文件不可写时放弃收尾，已写入的内容仍可加载
+        }
+        writer = null;
+    }
+}
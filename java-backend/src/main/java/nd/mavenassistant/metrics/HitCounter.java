@@ -0,0 +1,54 @@
+package nd.mavenassistant.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓存命中计数器
+ * 使用 LongAdder 计数，高并发下记录开销可忽略，可常驻生产环境
+ */
+public class HitCounter {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public void hit() {
+        hits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    /**
+     * 按查找结果记录一次命中或未命中
+     */
+    public void record(boolean hit) {
+        if (hit) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 命中率，尚无查找时返回 0
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public void reset() {
+        hits.reset();
+        misses.reset();
+    }
+}
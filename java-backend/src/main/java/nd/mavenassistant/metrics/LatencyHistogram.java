@@ -0,0 +1,104 @@
+package nd.mavenassistant.metrics;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定桶的延迟直方图
+ * 桶边界按 1-2-5 递增（毫秒），记录一次只需一次二分查找和几次 LongAdder 累加，无锁且不保存样本，
+ * 分位数取所在桶的上界，精度足以观察趋势
+ */
+public class LatencyHistogram {
+
+    // 各桶上界（毫秒，含），最后一个桶收纳超出上界的样本
+    private static final long[] BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, 60000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(Math.max(0L, nanos));
+        int index = Arrays.binarySearch(BOUNDS_MS, millis);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        buckets[index].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * 获取当前统计快照，并发记录时各字段之间可能存在细微偏差
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        Snapshot snapshot = new Snapshot();
+        snapshot.count = total;
+        snapshot.maxMs = TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        snapshot.meanMs = total == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / total;
+        snapshot.p50Ms = percentile(counts, total, 0.50, snapshot.maxMs);
+        snapshot.p90Ms = percentile(counts, total, 0.90, snapshot.maxMs);
+        snapshot.p99Ms = percentile(counts, total, 0.99, snapshot.maxMs);
+        snapshot.buckets = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                snapshot.buckets.put(i < BOUNDS_MS.length ? "<=" + BOUNDS_MS[i] + "ms" : ">" + BOUNDS_MS[BOUNDS_MS.length - 1] + "ms", counts[i]);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * 按桶估计分位数：返回累计计数首次达到目标秩的桶上界，不超过实际最大值
+     */
+    private static long percentile(long[] counts, long total, double quantile, long maxMs) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return i < BOUNDS_MS.length ? Math.min(BOUNDS_MS[i], maxMs) : maxMs;
+            }
+        }
+        return maxMs;
+    }
+
+    /**
+     * 直方图快照，仅列出非空的桶
+     */
+    public static class Snapshot {
+        public long count;
+        public double meanMs;
+        public long maxMs;
+        public long p50Ms;
+        public long p90Ms;
+        public long p99Ms;
+        public Map<String, Long> buckets;
+    }
+}
@@ -0,0 +1,32 @@
+package nd.mavenassistant.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按请求类型统计延迟
+ */
+public class RequestMetrics {
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次请求耗时
+     *
+     * @param request 请求名称，如 maven/analyzeDependencies
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(String request, long nanos) {
+        histograms.computeIfAbsent(request, k -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * 获取所有请求类型的直方图快照，按请求名称排序
+     */
+    public Map<String, LatencyHistogram.Snapshot> snapshot() {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+        histograms.forEach((request, histogram) -> snapshots.put(request, histogram.snapshot()));
+        return snapshots;
+    }
+}
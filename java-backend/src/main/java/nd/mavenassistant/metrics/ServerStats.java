@@ -0,0 +1,78 @@
+package nd.mavenassistant.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * maven/getServerStats 的返回结构
+ */
+public class ServerStats {
+
+    public boolean success = true;
+    public long uptimeMs;
+    public Map<String, CacheStats> caches = new LinkedHashMap<>();
+    public Map<String, PoolStats> executors = new LinkedHashMap<>();
+    public HeapStats heap;
+    public Map<String, LatencyHistogram.Snapshot> requests;
+
+    /**
+     * 单个缓存的大小与命中情况
+     */
+    public static class CacheStats {
+        public int size;
+        public long hits;
+        public long misses;
+        public double hitRate;
+
+        public static CacheStats of(int size, HitCounter counter) {
+            CacheStats stats = new CacheStats();
+            stats.size = size;
+            stats.hits = counter.getHits();
+            stats.misses = counter.getMisses();
+            stats.hitRate = counter.getHitRate();
+            return stats;
+        }
+    }
+
+    /**
+     * 线程池状态
+     */
+    public static class PoolStats {
+        public int poolSize;
+        public int maxPoolSize;
+        public int activeThreads;
+        public int queueDepth;
+        public long completedTasks;
+
+        public static PoolStats of(ThreadPoolExecutor executor) {
+            PoolStats stats = new PoolStats();
+            stats.poolSize = executor.getPoolSize();
+            stats.maxPoolSize = executor.getMaximumPoolSize();
+            stats.activeThreads = executor.getActiveCount();
+            stats.queueDepth = executor.getQueue().size();
+            stats.completedTasks = executor.getCompletedTaskCount();
+            return stats;
+        }
+    }
+
+    /**
+     * 堆内存使用情况（MB）
+     */
+    public static class HeapStats {
+        public long usedMb;
+        public long committedMb;
+        public long maxMb;
+
+        public static HeapStats current() {
+            MemoryUsage usage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            HeapStats stats = new HeapStats();
+            stats.usedMb = usage.getUsed() / (1024 * 1024);
+            stats.committedMb = usage.getCommitted() / (1024 * 1024);
+            stats.maxMb = usage.getMax() < 0 ? -1 : usage.getMax() / (1024 * 1024);
+            return stats;
+        }
+    }
+}
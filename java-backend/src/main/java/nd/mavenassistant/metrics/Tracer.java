@@ -0,0 +1,219 @@
+package nd.mavenassistant.metrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 请求阶段耗时追踪
+ * 每个请求对应一个 Trace，请求线程上通过 span(name) 记录各阶段耗时，请求结束时按 LSP trace 级别输出日志，
+ * 并可追加到 Chrome trace 文件（chrome://tracing 或 Perfetto 打开）。
+ * 追踪关闭时 span() 返回共享的空实现，不产生任何分配
+ */
+public class Tracer {
+
+    /**
+     * 输出级别，与 LSP 的 TraceValue 对应
+     */
+    public enum Level {
+        OFF,      // 不输出日志
+        MESSAGES, // 每个请求输出一行阶段耗时汇总
+        VERBOSE;  // 每个阶段输出一行，带缩进和相对请求开始的偏移
+
+        /**
+         * 解析 LSP TraceValue（off / messages / verbose），无法识别时视为 off
+         */
+        public static Level parse(String value) {
+            if (value == null) {
+                return OFF;
+            }
+            switch (value.toLowerCase(Locale.ROOT)) {
+                case "messages":
+                    return MESSAGES;
+                case "verbose":
+                    return VERBOSE;
+                default:
+                    return OFF;
+            }
+        }
+    }
+
+    private final Consumer<String> logger;
+    private final ThreadLocal<Trace> current = new ThreadLocal<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private volatile Level level = Level.OFF;
+    private volatile ChromeTraceWriter traceWriter;
+
+    /**
+     * @param logger 日志输出，如转发到 client.logMessage
+     */
+    public Tracer(Consumer<String> logger) {
+        this.logger = logger;
+    }
+
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * 设置 Chrome trace 输出文件，为空时关闭文件输出；路径不变时保持原文件继续追加
+     */
+    public synchronized void setTraceFile(String path) {
+        ChromeTraceWriter writer = traceWriter;
+        if (writer != null && writer.getPath().equals(path)) {
+            return;
+        }
+        if (writer != null) {
+            writer.close();
+        }
+        traceWriter = path == null || path.trim().isEmpty() ? null : new ChromeTraceWriter(path);
+    }
+
+    private boolean isEnabled() {
+        return level != Level.OFF || traceWriter != null;
+    }
+
+    /**
+     * 在当前线程上开始一个请求的追踪，追踪关闭时返回null
+     */
+    public Trace begin(String request) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Trace trace = new Trace(request, nextId.incrementAndGet());
+        current.set(trace);
+        return trace;
+    }
+
+    /**
+     * 在当前请求的追踪中开始一个阶段，需在同一线程上关闭（建议使用 try-with-resources）
+     */
+    public Span span(String name) {
+        Trace trace = current.get();
+        return trace == null ? Span.NOOP : trace.open(name);
+    }
+
+    /**
+     * 结束当前线程上的请求追踪并输出
+     */
+    public void end(Trace trace) {
+        if (trace == null) {
+            return;
+        }
+        current.remove();
+        trace.finish();
+        List<Span> spans = trace.sortedSpans();
+        Level currentLevel = level;
+        if (currentLevel == Level.MESSAGES) {
+            StringBuilder line = new StringBuilder();
+            line.append("[trace] ").append(trace.request).append(" #").append(trace.id).append(' ')
+                    .append(formatMillis(trace.durationNanos));
+            String separator = ": ";
+            for (Span span : spans) {
+                line.append(separator).append(span.name).append(' ').append(formatMillis(span.durationNanos));
+                separator = ", ";
+            }
+            logger.accept(line.toString());
+        } else if (currentLevel == Level.VERBOSE) {
+            StringBuilder lines = new StringBuilder();
+            lines.append("[trace] ").append(trace.request).append(" #").append(trace.id).append(' ')
+                    .append(formatMillis(trace.durationNanos));
+            for (Span span : spans) {
+                lines.append('\n').append("[trace] ").append("  ".repeat(span.depth + 1))
+                        .append('+').append(formatMillis(span.startNanos - trace.startNanos)).append(' ')
+                        .append(span.name).append(' ').append(formatMillis(span.durationNanos));
+            }
+            logger.accept(lines.toString());
+        }
+
+        ChromeTraceWriter writer = traceWriter;
+        if (writer != null) {
+            try {
+                writer.write(trace, spans);
+            } catch (IOException e) {
+                logger.accept("[trace] Failed to write trace file " + writer.getPath() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.1fms", nanos / 1_000_000.0);
+    }
+
+    /**
+     * 单个请求的追踪记录
+     */
+    public static class Trace {
+        final String request;
+        final long id;
+        final long threadId;
+        final long startNanos;
+        final long startEpochMicros;
+        long durationNanos;
+        private final List<Span> spans = new ArrayList<>();
+        private int depth;
+
+        Trace(String request, long id) {
+            this.request = request;
+            this.id = id;
+            this.threadId = Thread.currentThread().threadId();
+            this.startNanos = System.nanoTime();
+            this.startEpochMicros = System.currentTimeMillis() * 1000;
+        }
+
+        Span open(String name) {
+            return new Span(this, name, depth++);
+        }
+
+        synchronized void closed(Span span) {
+            depth--;
+            spans.add(span);
+        }
+
+        void finish() {
+            durationNanos = System.nanoTime() - startNanos;
+        }
+
+        synchronized List<Span> sortedSpans() {
+            List<Span> sorted = new ArrayList<>(spans);
+            sorted.sort(Comparator.comparingLong(span -> span.startNanos));
+            return sorted;
+        }
+    }
+
+    /**
+     * 请求中的一个阶段
+     */
+    public static class Span implements AutoCloseable {
+        static final Span NOOP = new Span(null, null, 0);
+
+        private final Trace trace;
+        final String name;
+        final int depth;
+        final long startNanos;
+        long durationNanos;
+
+        Span(Trace trace, String name, int depth) {
+            this.trace = trace;
+            this.name = name;
+            this.depth = depth;
+            this.startNanos = trace == null ? 0 : System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            if (trace != null) {
+                durationNanos = System.nanoTime() - startNanos;
+                trace.closed(this);
+            }
+        }
+    }
+}
@@ -1,23 +1,70 @@
 package nd.mavenassistant.model;
 
+import java.util.List;
+
+/**
+ * 单个 groupId:artifactId 的版本冲突信息
+ * 记录所有被请求的版本、最终胜出的版本及其路径，以及每条落败路径
+ */
 public class ArtifactConflictInfo {
+    /**
+     * 胜出版本相对于被请求版本的变化方向
+     */
+    public enum VersionChange {
+        UPGRADE,
+        DOWNGRADE
+    }
+
+    /**
+     * 落败路径：请求了某个版本但最终被仲裁掉的依赖路径
+     */
+    public static class LosingPath {
+        private final String version;
+        private final List<String> path;
+        private final VersionChange change;
+
+        public LosingPath(String version, List<String> path, VersionChange change) {
+            this.version = version;
+            this.path = path;
+            this.change = change;
+        }
+
+        public String getVersion() { return version; }
+        public List<String> getPath() { return path; }
+        public VersionChange getChange() { return change; }
+    }
+
     private final String groupId;
     private final String artifactId;
-    private final String version;
+    private final String winnerVersion;
     private final String scope;
-    private final boolean droppedByConflict;
+    private final List<String> winnerPath;
+    private final List<String> requestedVersions;
+    private final List<LosingPath> losingPaths;
+    private final VersionChange change;
 
-    public ArtifactConflictInfo(String groupId, String artifactId, String version, String scope, boolean droppedByConflict) {
+    public ArtifactConflictInfo(String groupId, String artifactId, String winnerVersion, String scope,
+                                List<String> winnerPath, List<String> requestedVersions,
+                                List<LosingPath> losingPaths, VersionChange change) {
         this.groupId = groupId;
         this.artifactId = artifactId;
-        this.version = version;
+        this.winnerVersion = winnerVersion;
         this.scope = scope;
-        this.droppedByConflict = droppedByConflict;
+        this.winnerPath = winnerPath;
+        this.requestedVersions = requestedVersions;
+        this.losingPaths = losingPaths;
+        this.change = change;
     }
 
     public String getGroupId() { return groupId; }
     public String getArtifactId() { return artifactId; }
-    public String getVersion() { return version; }
+    public String getWinnerVersion() { return winnerVersion; }
     public String getScope() { return scope; }
-    public boolean isDroppedByConflict() { return droppedByConflict; }
-} 
\ No newline at end of file
+    public List<String> getWinnerPath() { return winnerPath; }
+    public List<String> getRequestedVersions() { return requestedVersions; }
+    public List<LosingPath> getLosingPaths() { return losingPaths; }
+    /**
+     * 只要有任意一条落败路径被降级即视为 DOWNGRADE，否则为 UPGRADE
+     */
+    public VersionChange getChange() { return change; }
+}
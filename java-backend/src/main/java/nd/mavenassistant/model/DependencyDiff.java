@@ -0,0 +1,91 @@
+package nd.mavenassistant.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 两个POM版本之间的依赖图差异
+ * 以最终生效（冲突仲裁胜出）的构件为准比较新增、移除与版本变化，并给出冲突结果的变化
+ */
+public class DependencyDiff {
+
+    /**
+     * 冲突结果的变化类型
+     */
+    public enum ConflictStatus {
+        NEW,      // 仅在目标版本中存在冲突
+        RESOLVED, // 仅在基准版本中存在冲突
+        CHANGED   // 两侧都有冲突，但胜出版本或被请求版本不同
+    }
+
+    /**
+     * 单个构件的变化，新增时 fromVersion 为null，移除时 toVersion 为null
+     */
+    public static class ArtifactChange {
+        private final String groupId;
+        private final String artifactId;
+        private final String fromVersion;
+        private final String toVersion;
+
+        public ArtifactChange(String groupId, String artifactId, String fromVersion, String toVersion) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.fromVersion = fromVersion;
+            this.toVersion = toVersion;
+        }
+
+        public String getGroupId() { return groupId; }
+        public String getArtifactId() { return artifactId; }
+        public String getFromVersion() { return fromVersion; }
+        public String getToVersion() { return toVersion; }
+    }
+
+    /**
+     * 单个GA冲突结果的变化
+     */
+    public static class ConflictChange {
+        private final String groupId;
+        private final String artifactId;
+        private final ConflictStatus status;
+        private final String baseWinner;
+        private final String targetWinner;
+        private final List<String> baseRequestedVersions;
+        private final List<String> targetRequestedVersions;
+
+        public ConflictChange(String groupId, String artifactId, ConflictStatus status, String baseWinner,
+                              String targetWinner, List<String> baseRequestedVersions,
+                              List<String> targetRequestedVersions) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.status = status;
+            this.baseWinner = baseWinner;
+            this.targetWinner = targetWinner;
+            this.baseRequestedVersions = baseRequestedVersions;
+            this.targetRequestedVersions = targetRequestedVersions;
+        }
+
+        public String getGroupId() { return groupId; }
+        public String getArtifactId() { return artifactId; }
+        public ConflictStatus getStatus() { return status; }
+        public String getBaseWinner() { return baseWinner; }
+        public String getTargetWinner() { return targetWinner; }
+        public List<String> getBaseRequestedVersions() { return baseRequestedVersions; }
+        public List<String> getTargetRequestedVersions() { return targetRequestedVersions; }
+    }
+
+    private final boolean success = true;
+    private final List<ArtifactChange> added = new ArrayList<>();
+    private final List<ArtifactChange> removed = new ArrayList<>();
+    private final List<ArtifactChange> versionChanged = new ArrayList<>();
+    private final List<ConflictChange> conflictChanges = new ArrayList<>();
+
+    public boolean isSuccess() { return success; }
+    public List<ArtifactChange> getAdded() { return added; }
+    public List<ArtifactChange> getRemoved() { return removed; }
+    public List<ArtifactChange> getVersionChanged() { return versionChanged; }
+    public List<ConflictChange> getConflictChanges() { return conflictChanges; }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && versionChanged.isEmpty() && conflictChanges.isEmpty();
+    }
+}
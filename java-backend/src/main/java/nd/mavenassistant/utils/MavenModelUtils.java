@@ -1,7 +1,6 @@
 package nd.mavenassistant.utils;
 
 import org.apache.maven.model.Model;
-import org.apache.maven.model.building.*;
 import org.codehaus.plexus.util.StringUtils;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
@@ -19,6 +18,20 @@ import java.util.*;
  */
 public class MavenModelUtils {
 
+    /**
+     * ModelBuilder 装配开销较大且线程安全，首次使用时创建一次后复用，构建结果由服务统一缓存
+     */
+    private static class ModelServiceHolder {
+        private static final ModelBuildingService INSTANCE = new ModelBuildingService();
+    }
+
+    // 预热用的最小POM
+    private static final String WARM_UP_POM = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+            + "<modelVersion>4.0.0</modelVersion><groupId>nd.mavenassistant</groupId>"
+            + "<artifactId>warm-up</artifactId><version>1.0</version>"
+            + "<dependencies><dependency><groupId>nd.mavenassistant</groupId><artifactId>warm-up-dependency</artifactId>"
+            + "<version>${project.version}</version></dependency></dependencies></project>";
+
     /**
      * 从POM文件路径获取Maven模型
      * 
@@ -35,16 +48,38 @@ public class MavenModelUtils {
             throw new FileNotFoundException("{\"error\":\"pom.xml does not exist: " + pomFilePath + "\"}");
         }
 
-        DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
-        request.setPomFile(pomFile);
-        request.setModelResolver(null);
-        request.setValidationLevel(ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL);
-        request.setSystemProperties(System.getProperties());
+        return getModelService().getEffectiveModel(pomFile);
+    }
+
+    /**
+     * 从未落盘的POM内容获取Maven模型
+     * 内容替代文件本身参与构建，文件路径仍用于定位项目目录和相对路径的父POM
+     *
+     * @param pomPath POM文件路径，如果为空则使用当前目录的pom.xml
+     * @param content POM文件内容
+     * @return Maven模型对象
+     * @throws Exception 如果解析失败
+     */
+    public static Model getModel(String pomPath, String content) throws Exception {
+        String pomFilePath = (StringUtils.isBlank(pomPath))
+                ? new File("pom.xml").getAbsolutePath()
+                : pomPath;
+        return getModelService().getEffectiveModel(new File(pomFilePath), content);
+    }
 
-        DefaultModelBuilder modelBuilder = new DefaultModelBuilderFactory().newInstance();
-        ModelBuildingResult result = modelBuilder.build(request);
+    /**
+     * 进程内共享的模型构建服务
+     */
+    public static ModelBuildingService getModelService() {
+        return ModelServiceHolder.INSTANCE;
+    }
 
-        return result.getEffectiveModel();
+    /**
+     * 预热模型构建：创建 ModelBuilder 并构建一个内存中的最小POM，使相关类在首次真实请求前完成加载
+     */
+    public static void warmUp() throws Exception {
+        File pomFile = new File(System.getProperty("java.io.tmpdir"), "maven-assistant-warm-up/pom.xml");
+        getModelService().getEffectiveModel(pomFile, WARM_UP_POM);
     }
 
     /**
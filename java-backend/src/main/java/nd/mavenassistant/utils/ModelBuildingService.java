@@ -0,0 +1,309 @@
+package nd.mavenassistant.utils;
+
+import nd.mavenassistant.metrics.HitCounter;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.*;
+import org.apache.maven.model.resolution.ModelResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模型构建服务
+ * 复用同一个 ModelBuilder，并缓存原始模型和有效模型：
+ * 磁盘上的 POM 按 文件 + 修改时间 缓存，文件或其父 POM 变化后自动失效；
+ * 父 POM 和 import 的 BOM 通过共享的 ModelCache 按 GAV 缓存，多个模块共享同一个父 POM 时只解析、插值一次。
+ * 返回的模型被多个请求共享，调用方不应修改
+ */
+public class ModelBuildingService {
+
+    // ModelBuilder 缓存 import 依赖管理时使用的标签
+    private static final String IMPORT_TAG = "import";
+
+    private final ModelBuilder modelBuilder;
+    private final SharedModelCache modelCache = new SharedModelCache();
+    private final Map<File, CachedModel> effectiveModels = new ConcurrentHashMap<>();
+    private final Map<File, CachedModel> rawModels = new ConcurrentHashMap<>();
+    // 构建时读取过的父 POM 文件及其 GAV，文件变化后从 ModelCache 中淘汰
+    private final Map<File, LineageFile> lineageFiles = new ConcurrentHashMap<>();
+
+    private final HitCounter effectiveStats = new HitCounter();
+    private final HitCounter rawStats = new HitCounter();
+
+    // 解析 relativePath 之外的父POM和 import 的 BOM，未设置时只能使用工作区中的父POM
+    private volatile ModelResolver modelResolver;
+
+    public ModelBuildingService() {
+        this(new DefaultModelBuilderFactory().newInstance());
+    }
+
+    public ModelBuildingService(ModelBuilder modelBuilder) {
+        this.modelBuilder = modelBuilder;
+    }
+
+    /**
+     * 获取磁盘上POM的有效模型，文件及其父POM均未变化时直接返回缓存
+     */
+    public Model getEffectiveModel(File pomFile) throws ModelBuildingException {
+        File key = pomFile.getAbsoluteFile();
+        evictChangedLineage();
+        CachedModel cached = effectiveModels.get(key);
+        boolean hit = cached != null && cached.isCurrent();
+        effectiveStats.record(hit);
+        if (hit) {
+            return cached.model;
+        }
+        // 先记录文件状态再构建，构建期间文件被修改时下次查找会重新构建
+        FileStamp stamp = FileStamp.of(key);
+        ModelBuildingResult result = build(key, null);
+        List<FileStamp> lineage = recordLineage(result, key);
+        effectiveModels.put(key, new CachedModel(result.getEffectiveModel(), stamp, lineage));
+        rawModels.put(key, new CachedModel(result.getRawModel(), stamp, Collections.emptyList()));
+        return result.getEffectiveModel();
+    }
+
+    /**
+     * 以未落盘的内容构建有效模型
+     * 内容本身不缓存，父POM仍从共享的 ModelCache 中获取
+     */
+    public Model getEffectiveModel(File pomFile, String content) throws ModelBuildingException {
+        File file = pomFile.getAbsoluteFile();
+        evictChangedLineage();
+        ModelBuildingResult result = build(file, new ContentModelSource(content, file));
+        recordLineage(result, file);
+        return result.getEffectiveModel();
+    }
+
+    /**
+     * 获取磁盘上POM的原始模型（未继承、未插值），文件未变化时直接返回缓存
+     */
+    public Model getRawModel(File pomFile) throws ModelBuildingException {
+        File key = pomFile.getAbsoluteFile();
+        CachedModel cached = rawModels.get(key);
+        boolean hit = cached != null && cached.isCurrent();
+        rawStats.record(hit);
+        if (hit) {
+            return cached.model;
+        }
+        FileStamp stamp = FileStamp.of(key);
+        Result<? extends Model> result = modelBuilder.buildRawModel(key, ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL, false);
+        Model model = result.get();
+        if (model == null) {
+            // 原始模型没有 ModelBuildingResult，只能按问题列表构造异常
+            @SuppressWarnings("deprecation")
+            ModelBuildingException failure = new ModelBuildingException(null, key.getPath(), toList(result.getProblems()));
+            throw failure;
+        }
+        rawModels.put(key, new CachedModel(model, stamp, Collections.emptyList()));
+        return model;
+    }
+
+    private ModelBuildingResult build(File pomFile, ModelSource2 modelSource) throws ModelBuildingException {
+        DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
+        request.setPomFile(pomFile);
+        request.setModelSource(modelSource);
+        ModelResolver resolver = modelResolver;
+        // ModelResolver 会记录POM中声明的仓库，每次构建使用独立副本
+        request.setModelResolver(resolver != null ? resolver.newCopy() : null);
+        request.setModelCache(modelCache);
+        request.setValidationLevel(ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL);
+        request.setSystemProperties(System.getProperties());
+        return modelBuilder.build(request);
+    }
+
+    /**
+     * 记录继承链上各父POM文件的状态，返回其中除根POM外的文件状态
+     */
+    private List<FileStamp> recordLineage(ModelBuildingResult result, File rootFile) {
+        List<FileStamp> lineage = new ArrayList<>();
+        for (String modelId : result.getModelIds()) {
+            // 超级POM的 modelId 为空字符串
+            if (modelId.isEmpty()) {
+                continue;
+            }
+            Model rawModel = result.getRawModel(modelId);
+            File file = rawModel != null ? rawModel.getPomFile() : null;
+            if (file == null || file.getAbsoluteFile().equals(rootFile)) {
+                continue;
+            }
+            File parentFile = file.getAbsoluteFile();
+            FileStamp stamp = FileStamp.of(parentFile);
+            lineage.add(stamp);
+            lineageFiles.put(parentFile, new LineageFile(modelId, stamp));
+        }
+        return lineage;
+    }
+
+    /**
+     * 淘汰已变化的父POM在 ModelCache 中的条目
+     * import 的依赖管理可能来自任一父POM，只要有父POM变化就全部丢弃
+     */
+    private void evictChangedLineage() {
+        boolean changed = false;
+        for (Map.Entry<File, LineageFile> entry : lineageFiles.entrySet()) {
+            LineageFile lineageFile = entry.getValue();
+            if (!lineageFile.stamp.isCurrent()) {
+                modelCache.evict(lineageFile.modelId);
+                lineageFiles.remove(entry.getKey(), lineageFile);
+                changed = true;
+            }
+        }
+        if (changed) {
+            modelCache.evictTag(IMPORT_TAG);
+        }
+    }
+
+    /**
+     * 设置构建使用的 ModelResolver，仓库变化后需重新设置并清空缓存
+     */
+    public void setModelResolver(ModelResolver modelResolver) {
+        this.modelResolver = modelResolver;
+    }
+
+    public void clear() {
+        effectiveModels.clear();
+        rawModels.clear();
+        lineageFiles.clear();
+        modelCache.clear();
+    }
+
+    public int getEffectiveModelCount() {
+        return effectiveModels.size();
+    }
+
+    public int getRawModelCount() {
+        return rawModels.size();
+    }
+
+    public int getModelCacheSize() {
+        return modelCache.entries.size();
+    }
+
+    public HitCounter getEffectiveModelStats() {
+        return effectiveStats;
+    }
+
+    public HitCounter getRawModelStats() {
+        return rawStats;
+    }
+
+    public HitCounter getModelCacheStats() {
+        return modelCache.stats;
+    }
+
+    private static <T> List<T> toList(Iterable<? extends T> iterable) {
+        List<T> list = new ArrayList<>();
+        iterable.forEach(list::add);
+        return list;
+    }
+
+    /**
+     * 文件状态：修改时间和大小
+     */
+    private record FileStamp(File file, long lastModified, long length) {
+        static FileStamp of(File file) {
+            return new FileStamp(file, file.lastModified(), file.length());
+        }
+
+        boolean isCurrent() {
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+    }
+
+    /**
+     * 未落盘的POM内容，relativePath 相对原文件所在目录解析，使子模块能找到工作区中的父POM
+     */
+    private static class ContentModelSource implements ModelSource2 {
+        private final String content;
+        private final File pomFile;
+
+        ContentModelSource(String content, File pomFile) {
+            this.content = content;
+            this.pomFile = pomFile;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String getLocation() {
+            return pomFile.getPath();
+        }
+
+        @Override
+        public ModelSource2 getRelatedSource(String relPath) {
+            return new FileModelSource(pomFile).getRelatedSource(relPath);
+        }
+
+        @Override
+        public URI getLocationURI() {
+            return pomFile.toURI();
+        }
+    }
+
+    private record LineageFile(String modelId, FileStamp stamp) {
+    }
+
+    private record CachedModel(Model model, FileStamp stamp, List<FileStamp> lineage) {
+        boolean isCurrent() {
+            if (!stamp.isCurrent()) {
+                return false;
+            }
+            for (FileStamp parent : lineage) {
+                if (!parent.isCurrent()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 跨请求共享的 ModelCache，按 groupId:artifactId:version 和标签缓存父POM原始模型与 import 的依赖管理
+     */
+    private static class SharedModelCache implements ModelCache {
+
+        private final Map<Key, Object> entries = new ConcurrentHashMap<>();
+        private final HitCounter stats = new HitCounter();
+
+        @Override
+        public void put(String groupId, String artifactId, String version, String tag, Object data) {
+            entries.put(new Key(groupId, artifactId, version, tag), data);
+        }
+
+        @Override
+        public Object get(String groupId, String artifactId, String version, String tag) {
+            Object data = entries.get(new Key(groupId, artifactId, version, tag));
+            stats.record(data != null);
+            return data;
+        }
+
+        /**
+         * 淘汰指定 modelId（groupId:artifactId:version）的全部条目
+         */
+        void evict(String modelId) {
+            entries.keySet().removeIf(key -> modelId.equals(key.groupId + ":" + key.artifactId + ":" + key.version));
+        }
+
+        void evictTag(String tag) {
+            entries.keySet().removeIf(key -> tag.equals(key.tag));
+        }
+
+        void clear() {
+            entries.clear();
+        }
+
+        private record Key(String groupId, String artifactId, String version, String tag) {
+        }
+    }
+}
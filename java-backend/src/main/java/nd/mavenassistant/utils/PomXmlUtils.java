@@ -14,8 +14,16 @@ import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * POM XML 文件处理工具类
@@ -300,4 +308,184 @@ public class PomXmlUtils {
         
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * 文本中声明的直接依赖位置，偏移均为字符偏移（start 含、end 不含）；未声明 type、classifier 时为null
+     */
+    public static record DependencyLocation(String groupId, String artifactId, String type, String classifier,
+                                            int start, int end, int artifactIdStart, int artifactIdEnd) {
+    }
+
+    // 标签（开始、结束或自闭合）
+    private static final Pattern TAG_PATTERN = Pattern.compile("<(/?)([A-Za-z_][\\w.:-]*)[^>]*?(/?)>");
+
+    /**
+     * 扫描POM文本，定位 project/dependencies 下声明的依赖
+     * 不要求文本是合法的XML，编辑过程中未闭合的部分会被忽略；注释中的内容不参与匹配
+     *
+     * @param content POM文本
+     * @return 按声明顺序排列的依赖位置
+     */
+    public static List<DependencyLocation> locateDirectDependencies(String content) {
+        CharSequence text = blankComments(content);
+        List<DependencyLocation> locations = new ArrayList<>();
+        Deque<String> path = new ArrayDeque<>();
+        int dependencyStart = -1;
+        String groupId = null;
+        String artifactId = null;
+        String type = null;
+        String classifier = null;
+        int artifactIdStart = -1;
+        int artifactIdEnd = -1;
+        int valueStart = -1;
+        Matcher matcher = TAG_PATTERN.matcher(text);
+        while (matcher.find()) {
+            String name = matcher.group(2);
+            boolean closing = !matcher.group(1).isEmpty();
+            boolean selfClosing = !matcher.group(3).isEmpty();
+            if (!closing) {
+                if (selfClosing) {
+                    continue;
+                }
+                path.addLast(name);
+                if (path.size() == 3 && "dependency".equals(name) && isProjectDependencies(path)) {
+                    dependencyStart = matcher.start();
+                    groupId = null;
+                    artifactId = null;
+                    type = null;
+                    classifier = null;
+                    artifactIdStart = -1;
+                }
+                valueStart = matcher.end();
+                continue;
+            }
+            if (!path.isEmpty() && path.peekLast().equals(name)) {
+                if (dependencyStart >= 0 && path.size() == 4) {
+                    String value = text.subSequence(valueStart, matcher.start()).toString().trim();
+                    if ("groupId".equals(name)) {
+                        groupId = value;
+                    } else if ("artifactId".equals(name)) {
+                        artifactId = value;
+                        artifactIdStart = valueStart;
+                        artifactIdEnd = matcher.start();
+                    } else if ("type".equals(name)) {
+                        type = value;
+                    } else if ("classifier".equals(name)) {
+                        classifier = value;
+                    }
+                } else if (dependencyStart >= 0 && path.size() == 3 && "dependency".equals(name)) {
+                    if (groupId != null && artifactId != null) {
+                        locations.add(new DependencyLocation(groupId, artifactId, type, classifier,
+                                dependencyStart, matcher.end(), artifactIdStart, artifactIdEnd));
+                    }
+                    dependencyStart = -1;
+                }
+                path.removeLast();
+            }
+        }
+        return locations;
+    }
+
+    private static boolean isProjectDependencies(Deque<String> path) {
+        Iterator<String> iterator = path.iterator();
+        return "project".equals(iterator.next()) && "dependencies".equals(iterator.next());
+    }
+
+    /**
+     * 光标所在的坐标元素（groupId、artifactId 或 version）及其所属元素中声明的坐标
+     *
+     * @param tag 光标所在元素名
+     * @param valueStart 元素内容起始偏移
+     * @param valueEnd 元素内容结束偏移（结束标签位置）
+     * @param parentTag 所属元素名，如 dependency、plugin、parent
+     * @param groupId 所属元素中的 groupId，未声明时为null
+     * @param artifactId 所属元素中的 artifactId，未声明时为null
+     * @param version 所属元素中的 version，未声明时为null
+     */
+    public static record CoordinateContext(String tag, int valueStart, int valueEnd, String parentTag,
+                                           String groupId, String artifactId, String version) {
+    }
+
+    private static final Set<String> COORDINATE_TAGS = Set.of("groupId", "artifactId", "version");
+
+    /**
+     * 定位光标所在的坐标元素，光标不在 groupId、artifactId、version 元素内容中时返回null
+     * 与 locateDirectDependencies 一样容忍未闭合的文本，注释中的内容不参与匹配
+     *
+     * @param content POM文本
+     * @param offset 光标字符偏移
+     */
+    public static CoordinateContext coordinateContextAt(String content, int offset) {
+        CharSequence text = blankComments(content);
+        Deque<int[]> starts = new ArrayDeque<>();
+        Deque<String> path = new ArrayDeque<>();
+        Deque<Map<String, String>> values = new ArrayDeque<>();
+        String tag = null;
+        int valueStart = -1;
+        int valueEnd = -1;
+        int parentDepth = -1;
+        Matcher matcher = TAG_PATTERN.matcher(text);
+        while (matcher.find()) {
+            if (tag == null && matcher.start() >= offset) {
+                // 第一个位于光标之后的标签：此时栈顶即光标所在元素
+                if (path.isEmpty() || !COORDINATE_TAGS.contains(path.peekLast()) || path.size() < 2
+                        || starts.peekLast()[0] > offset) {
+                    return null;
+                }
+                tag = path.peekLast();
+                valueStart = starts.peekLast()[0];
+                parentDepth = path.size() - 1;
+            }
+            String name = matcher.group(2);
+            boolean closing = !matcher.group(1).isEmpty();
+            if (!closing) {
+                if (matcher.group(3).isEmpty()) {
+                    path.addLast(name);
+                    starts.addLast(new int[]{matcher.end()});
+                    values.addLast(new HashMap<>());
+                }
+                continue;
+            }
+            if (path.isEmpty() || !path.peekLast().equals(name)) {
+                continue;
+            }
+            int depth = path.size();
+            int contentStart = starts.removeLast()[0];
+            path.removeLast();
+            Map<String, String> children = values.removeLast();
+            if (tag != null && depth == parentDepth + 1 && valueEnd < 0 && contentStart == valueStart) {
+                valueEnd = matcher.start();
+            }
+            if (depth == parentDepth) {
+                return new CoordinateContext(tag, valueStart, valueEnd < 0 ? offset : valueEnd, name,
+                        children.get("groupId"), children.get("artifactId"), children.get("version"));
+            }
+            if (!values.isEmpty() && COORDINATE_TAGS.contains(name)) {
+                values.peekLast().put(name, text.subSequence(contentStart, matcher.start()).toString().trim());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 注释替换为等长空白，保持偏移不变
+     */
+    private static CharSequence blankComments(String content) {
+        int commentStart = content.indexOf("<!--");
+        if (commentStart < 0) {
+            return content;
+        }
+        StringBuilder text = new StringBuilder(content);
+        while (commentStart >= 0) {
+            int commentEnd = content.indexOf("-->", commentStart + 4);
+            int stop = commentEnd < 0 ? content.length() : commentEnd + 3;
+            for (int i = commentStart; i < stop; i++) {
+                if (text.charAt(i) != '\n') {
+                    text.setCharAt(i, ' ');
+                }
+            }
+            commentStart = commentEnd < 0 ? -1 : content.indexOf("<!--", stop);
+        }
+        return text;
+    }
+}
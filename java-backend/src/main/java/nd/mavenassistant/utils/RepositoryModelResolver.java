@@ -0,0 +1,149 @@
+package nd.mavenassistant.utils;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelSource2;
+import org.apache.maven.model.resolution.ModelResolver;
+import org.apache.maven.model.resolution.UnresolvableModelException;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.VersionRangeRequest;
+import org.eclipse.aether.resolution.VersionRangeResolutionException;
+import org.eclipse.aether.resolution.VersionRangeResult;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 基于本地仓库和共享 Resolver 会话的 ModelResolver
+ * 用于解析不在 relativePath 上的父POM以及 scope 为 import 的 BOM，本地缺失时从远程仓库下载。
+ * 已解析的非 SNAPSHOT POM 文件在所有副本间共享缓存，解析后的模型由 ModelBuildingService 的 ModelCache 跨请求缓存
+ */
+public class RepositoryModelResolver implements ModelResolver {
+
+    private final Supplier<RepositorySystem> system;
+    private final Supplier<RepositorySystemSession> session;
+    private final Map<String, File> resolvedPoms;
+    // 每次构建一个副本，POM 中声明的 <repositories> 只影响本次构建
+    private final List<RemoteRepository> repositories;
+
+    public RepositoryModelResolver(Supplier<RepositorySystem> system, Supplier<RepositorySystemSession> session,
+                                   List<RemoteRepository> repositories) {
+        this(system, session, repositories, new ConcurrentHashMap<>());
+    }
+
+    private RepositoryModelResolver(Supplier<RepositorySystem> system, Supplier<RepositorySystemSession> session,
+                                    List<RemoteRepository> repositories, Map<String, File> resolvedPoms) {
+        this.system = system;
+        this.session = session;
+        this.repositories = new ArrayList<>(repositories);
+        this.resolvedPoms = resolvedPoms;
+    }
+
+    @Override
+    public ModelSource2 resolveModel(String groupId, String artifactId, String version) throws UnresolvableModelException {
+        String key = groupId + ":" + artifactId + ":" + version;
+        File pomFile = resolvedPoms.get(key);
+        if (pomFile != null && pomFile.isFile()) {
+            return new FileModelSource(pomFile);
+        }
+        Artifact pomArtifact = new DefaultArtifact(groupId, artifactId, "", "pom", version);
+        try {
+            ArtifactRequest request = new ArtifactRequest(pomArtifact, repositories, null);
+            pomFile = system.get().resolveArtifact(session.get(), request).getArtifact().getPath().toFile();
+        } catch (ArtifactResolutionException e) {
+            throw new UnresolvableModelException(e.getMessage(), groupId, artifactId, version, e);
+        }
+        // SNAPSHOT 可能被重新部署，不缓存
+        if (!pomArtifact.isSnapshot()) {
+            resolvedPoms.put(key, pomFile);
+        }
+        return new FileModelSource(pomFile);
+    }
+
+    @Override
+    public ModelSource2 resolveModel(Parent parent) throws UnresolvableModelException {
+        String version = resolveVersion(parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+        // 版本范围解析为具体版本后写回，ModelBuilder 以此校验父POM
+        parent.setVersion(version);
+        return resolveModel(parent.getGroupId(), parent.getArtifactId(), version);
+    }
+
+    @Override
+    public ModelSource2 resolveModel(Dependency dependency) throws UnresolvableModelException {
+        String version = resolveVersion(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion());
+        dependency.setVersion(version);
+        return resolveModel(dependency.getGroupId(), dependency.getArtifactId(), version);
+    }
+
+    /**
+     * 版本范围取满足范围的最高版本，普通版本原样返回
+     */
+    private String resolveVersion(String groupId, String artifactId, String version) throws UnresolvableModelException {
+        if (version == null || !(version.startsWith("[") || version.startsWith("("))) {
+            return version;
+        }
+        try {
+            VersionRangeRequest request = new VersionRangeRequest(
+                    new DefaultArtifact(groupId, artifactId, "", "pom", version), repositories, null);
+            VersionRangeResult result = system.get().resolveVersionRange(session.get(), request);
+            if (result.getHighestVersion() == null) {
+                throw new UnresolvableModelException("No versions matched the requested range '" + version + "'",
+                        groupId, artifactId, version);
+            }
+            return result.getHighestVersion().toString();
+        } catch (VersionRangeResolutionException e) {
+            throw new UnresolvableModelException(e.getMessage(), groupId, artifactId, version, e);
+        }
+    }
+
+    @Override
+    public void addRepository(Repository repository) {
+        addRepository(repository, false);
+    }
+
+    @Override
+    public void addRepository(Repository repository, boolean replace) {
+        RepositorySystemSession currentSession = session.get();
+        if (currentSession.isIgnoreArtifactDescriptorRepositories()) {
+            return;
+        }
+        for (int i = 0; i < repositories.size(); i++) {
+            if (repositories.get(i).getId().equals(repository.getId())) {
+                if (!replace) {
+                    return;
+                }
+                repositories.remove(i);
+                break;
+            }
+        }
+        RemoteRepository remote = new RemoteRepository.Builder(repository.getId(),
+                repository.getLayout() != null ? repository.getLayout() : "default", repository.getUrl()).build();
+        // 应用会话中的镜像、代理和认证配置
+        repositories.addAll(system.get().newResolutionRepositories(currentSession, Collections.singletonList(remote)));
+    }
+
+    @Override
+    public ModelResolver newCopy() {
+        return new RepositoryModelResolver(system, session, repositories, resolvedPoms);
+    }
+
+    /**
+     * 已缓存的父POM/BOM文件数量
+     */
+    public int getResolvedPomCount() {
+        return resolvedPoms.size();
+    }
+}
@@ -0,0 +1,120 @@
+package nd.mavenassistant.analysis;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试ArtifactVerifier的校验文件比对和摘要缓存
+ */
+public class ArtifactVerifierTest {
+
+    private Path temp;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        temp = Files.createTempDirectory("artifact-verify");
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        executor.shutdown();
+        try (var paths = Files.walk(temp)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private Path artifact(String name, byte[] content, boolean sha1, boolean sha256) throws Exception {
+        Path jar = temp.resolve(name);
+        Files.write(jar, content);
+        if (sha1) {
+            Files.writeString(jar.resolveSibling(name + ".sha1"), hex("SHA-1", content).toUpperCase(Locale.ROOT) + "  " + name + "\n");
+        }
+        if (sha256) {
+            Files.writeString(jar.resolveSibling(name + ".sha256"), hex("SHA-256", content));
+        }
+        return jar;
+    }
+
+    private static String hex(String algorithm, byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance(algorithm).digest(content));
+    }
+
+    @Test
+    public void testStatuses() throws Exception {
+        byte[] content = "jar content".getBytes(StandardCharsets.UTF_8);
+        Map<String, Path> files = new LinkedHashMap<>();
+        files.put("org.demo:ok:1.0", artifact("ok.jar", content, true, true));
+        Path truncated = artifact("truncated.jar", content, true, false);
+        Files.write(truncated, Arrays.copyOf(content, 4));
+        files.put("org.demo:truncated:1.0", truncated);
+        files.put("org.demo:missing:1.0", temp.resolve("missing.jar"));
+        files.put("org.demo:unchecked:1.0", artifact("unchecked.jar", content, false, false));
+
+        ArtifactVerifier.Report report = new ArtifactVerifier(executor).verify(files);
+
+        assertEquals(List.of(ArtifactVerifier.Status.OK, ArtifactVerifier.Status.MISMATCH,
+                        ArtifactVerifier.Status.MISSING, ArtifactVerifier.Status.NO_CHECKSUM),
+                report.results.stream().map(r -> r.status).toList());
+        ArtifactVerifier.Result mismatch = report.results.get(1);
+        assertEquals("SHA-1", mismatch.algorithm);
+        assertEquals(hex("SHA-1", content), mismatch.expected);
+        assertEquals(hex("SHA-1", Arrays.copyOf(content, 4)), mismatch.actual);
+        assertEquals(2, report.hashed);
+    }
+
+    @Test
+    public void testReverifyHashesOnlyChangedFiles() throws Exception {
+        Map<String, Path> files = new LinkedHashMap<>();
+        files.put("org.demo:a:1.0", artifact("a.jar", new byte[]{1, 2, 3}, true, true));
+        Path b = artifact("b.jar", new byte[]{4, 5, 6}, true, true);
+        files.put("org.demo:b:1.0", b);
+
+        ArtifactVerifier verifier = new ArtifactVerifier(executor);
+        assertEquals(2, verifier.verify(files).hashed);
+        assertEquals(0, verifier.verify(files).hashed);
+        assertEquals(2, verifier.getCacheSize());
+
+        // 内容和修改时间都变化后只重新计算该文件，校验文件未更新因此不匹配
+        Files.write(b, new byte[]{4, 5, 7});
+        Files.setLastModifiedTime(b, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        ArtifactVerifier.Report report = verifier.verify(files);
+        assertEquals(1, report.hashed);
+        assertEquals(ArtifactVerifier.Status.OK, report.results.get(0).status);
+        assertEquals(ArtifactVerifier.Status.MISMATCH, report.results.get(1).status);
+        assertEquals("SHA-256", report.results.get(1).algorithm);
+    }
+
+    @Test
+    public void testComputesOnlyDigestsWithChecksumFiles() throws Exception {
+        byte[] content = "pom content".getBytes(StandardCharsets.UTF_8);
+        Path pom = artifact("a-1.0.pom", content, true, false);
+        Map<String, Path> files = Map.of("org.demo:a:pom:1.0", pom);
+
+        ArtifactVerifier verifier = new ArtifactVerifier(executor);
+        assertEquals(1, verifier.verify(files).hashed);
+        assertEquals(0, verifier.verify(files).hashed);
+
+        // 之前只计算了 SHA-1，出现 .sha256 后补算一次
+        Files.writeString(pom.resolveSibling("a-1.0.pom.sha256"), hex("SHA-256", content));
+        ArtifactVerifier.Report report = verifier.verify(files);
+        assertEquals(1, report.hashed);
+        assertEquals(ArtifactVerifier.Status.OK, report.results.get(0).status);
+        assertEquals(0, verifier.verify(files).hashed);
+    }
+}
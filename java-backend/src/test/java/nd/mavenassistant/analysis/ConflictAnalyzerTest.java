@@ -0,0 +1,75 @@
+package nd.mavenassistant.analysis;
+
+import nd.mavenassistant.model.ArtifactConflictInfo;
+import nd.mavenassistant.model.ArtifactGav;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static nd.mavenassistant.fixture.DependencyGraphs.loser;
+import static nd.mavenassistant.fixture.DependencyGraphs.node;
+import static nd.mavenassistant.fixture.DependencyGraphs.root;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试ConflictAnalyzer对内存依赖图的冲突分析
+ */
+public class ConflictAnalyzerTest {
+
+    @Test
+    public void testDowngradeConflict() {
+        DefaultDependencyNode winner = node("org.demo:c:1.0");
+        DefaultDependencyNode a = node("org.demo:a:1", winner);
+        DefaultDependencyNode b = node("org.demo:b:1", loser("org.demo:c:2.0", winner));
+
+        List<ArtifactConflictInfo> conflicts = ConflictAnalyzer.analyze(root(a, b));
+
+        assertEquals(1, conflicts.size());
+        ArtifactConflictInfo conflict = conflicts.get(0);
+        assertEquals("c", conflict.getArtifactId());
+        assertEquals("1.0", conflict.getWinnerVersion());
+        assertEquals(List.of("org.demo:a:1", "org.demo:c:1.0"), conflict.getWinnerPath());
+        assertEquals(List.of("1.0", "2.0"), conflict.getRequestedVersions());
+        assertEquals(1, conflict.getLosingPaths().size());
+        assertEquals(List.of("org.demo:b:1", "org.demo:c:2.0"), conflict.getLosingPaths().get(0).getPath());
+        assertEquals(ArtifactConflictInfo.VersionChange.DOWNGRADE, conflict.getLosingPaths().get(0).getChange());
+        assertEquals(ArtifactConflictInfo.VersionChange.DOWNGRADE, conflict.getChange());
+    }
+
+    @Test
+    public void testUpgradeConflict() {
+        DefaultDependencyNode winner = node("org.demo:c:3.0");
+        DefaultDependencyNode b = node("org.demo:b:1", loser("org.demo:c:2.0", winner));
+
+        List<ArtifactConflictInfo> conflicts = ConflictAnalyzer.analyze(root(winner, b));
+
+        assertEquals(1, conflicts.size());
+        assertEquals(List.of("org.demo:c:3.0"), conflicts.get(0).getWinnerPath());
+        assertEquals(ArtifactConflictInfo.VersionChange.UPGRADE, conflicts.get(0).getChange());
+    }
+
+    @Test
+    public void testSameVersionDuplicatesAreNotConflicts() {
+        DefaultDependencyNode winner = node("org.demo:c:1.0");
+        DefaultDependencyNode b = node("org.demo:b:1", loser("org.demo:c:1.0", winner));
+
+        assertTrue(ConflictAnalyzer.analyze(root(winner, b)).isEmpty());
+    }
+
+    @Test
+    public void testEffectiveArtifactsSkipLosers() {
+        DefaultDependencyNode winner = node("org.demo:c:1.0");
+        DefaultDependencyNode a = node("org.demo:a:1", winner);
+        DefaultDependencyNode b = node("org.demo:b:1", loser("org.demo:c:2.0", winner));
+
+        List<ArtifactGav> gavs = ConflictAnalyzer.effectiveArtifacts(root(a, b));
+
+        assertEquals(3, gavs.size());
+        assertEquals("a", gavs.get(0).getArtifactId());
+        assertEquals("c", gavs.get(1).getArtifactId());
+        assertEquals("1.0", gavs.get(1).getVersion());
+        assertEquals("compile", gavs.get(1).getScope());
+        assertEquals("b", gavs.get(2).getArtifactId());
+    }
+}
@@ -0,0 +1,59 @@
+package nd.mavenassistant.analysis;
+
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.DependencyNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static nd.mavenassistant.fixture.DependencyGraphs.loser;
+import static nd.mavenassistant.fixture.DependencyGraphs.node;
+import static nd.mavenassistant.fixture.DependencyGraphs.root;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试ConflictChecker的问题分类与结果键
+ */
+public class ConflictCheckerTest {
+
+    @Test
+    public void testClassifiesFindings() {
+        DefaultDependencyNode guava = node("com.google.guava:guava:20.0");
+        DefaultDependencyNode junit = node("junit:junit:4.13", "test");
+        DefaultDependencyNode slf4j = node("org.slf4j:slf4j-api:2.0.0");
+        DependencyNode root = root(guava, junit, slf4j,
+                node("org.demo:a:1",
+                        loser("com.google.guava:guava:30.0", guava),
+                        loser("junit:junit:4.13", junit),
+                        loser("org.slf4j:slf4j-api:1.7.36", slf4j)),
+                node("org.demo:clean:1"));
+
+        Map<String, List<ConflictChecker.Finding>> findings = ConflictChecker.check(root);
+
+        assertEquals(List.of("org.demo:a"), List.copyOf(findings.keySet()));
+        List<ConflictChecker.Finding> list = findings.get("org.demo:a");
+        assertEquals(3, list.size());
+        assertEquals(ConflictChecker.Kind.DOWNGRADE, list.get(0).kind());
+        assertEquals("20.0", list.get(0).winnerVersion());
+        assertEquals(List.of("org.demo:a:1", "com.google.guava:guava:30.0"), list.get(0).path());
+        assertEquals(ConflictChecker.Kind.DROPPED, list.get(1).kind());
+        assertEquals("test", list.get(1).winnerScope());
+        assertEquals(ConflictChecker.Kind.CONFLICT, list.get(2).kind());
+    }
+
+    @Test
+    public void testKeysIncludeExtensionAndClassifier() {
+        DefaultDependencyNode guava = node("com.google.guava:guava:20.0");
+        DependencyNode root = root(guava,
+                node("org.demo:a:1"),
+                node("org.demo:a:jar:tests:1", loser("com.google.guava:guava:30.0", guava)),
+                node("org.demo:a:pom:1"));
+
+        Map<String, List<ConflictChecker.Finding>> findings = ConflictChecker.check(root);
+
+        assertEquals(List.of("org.demo:a:jar:tests"), List.copyOf(findings.keySet()));
+        assertEquals("org.demo:a:pom", ConflictChecker.key("org.demo", "a", "pom", ""));
+        assertEquals("org.demo:a", ConflictChecker.key("org.demo", "a", "jar", null));
+    }
+}
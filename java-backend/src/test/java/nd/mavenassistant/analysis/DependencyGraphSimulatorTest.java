@@ -0,0 +1,99 @@
+package nd.mavenassistant.analysis;
+
+import nd.mavenassistant.model.DependencyDiff;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.util.graph.transformer.ConflictResolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static nd.mavenassistant.fixture.DependencyGraphs.loser;
+import static nd.mavenassistant.fixture.DependencyGraphs.node;
+import static nd.mavenassistant.fixture.DependencyGraphs.root;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试DependencyGraphSimulator在缓存依赖图上的 exclusion、版本锁定模拟与重新仲裁
+ */
+public class DependencyGraphSimulatorTest {
+
+    @Test
+    public void testExcludingWinnerPromotesLoser() {
+        DefaultDependencyNode winner = node("org.demo:c:1.0", node("org.demo:e:1"));
+        DependencyNode root = root(node("org.demo:a:1", winner),
+                node("org.demo:b:1", node("org.demo:d:1", loser("org.demo:c:2.0", winner))));
+
+        DependencyGraphSimulator.Result result = DependencyGraphSimulator.simulate(root,
+                List.of(new DependencyGraphSimulator.SimulatedExclusion("org.demo:a", "org.demo", "c")));
+        DependencyDiff diff = GraphDiffer.diff(CompactGraph.from(root), CompactGraph.from(result.getRoot()));
+
+        assertEquals(1, diff.getRemoved().size());
+        assertEquals("e", diff.getRemoved().get(0).getArtifactId());
+        assertEquals(1, diff.getVersionChanged().size());
+        assertEquals("2.0", diff.getVersionChanged().get(0).getToVersion());
+        assertEquals(DependencyDiff.ConflictStatus.RESOLVED, diff.getConflictChanges().get(0).getStatus());
+        // 2.0 在原图中只以落败者出现，传递依赖未知
+        assertEquals(Set.of("org.demo:c:2.0"), result.getUnresolved());
+        // 原图不受影响
+        assertEquals(1, root.getChildren().get(0).getChildren().size());
+        assertNotNull(root.getChildren().get(1).getChildren().get(0).getChildren().get(0)
+                .getData().get(ConflictResolver.NODE_DATA_WINNER));
+    }
+
+    @Test
+    public void testPromotedDuplicateKeepsChildren() {
+        DefaultDependencyNode winner = node("org.demo:x:1", node("org.demo:y:1"));
+        DependencyNode root = root(node("org.demo:a:1", winner), node("org.demo:b:1", loser("org.demo:x:1", winner)));
+
+        DependencyGraphSimulator.Result result = DependencyGraphSimulator.simulate(root,
+                List.of(new DependencyGraphSimulator.SimulatedExclusion("org.demo:a", "org.demo", "x")));
+
+        assertTrue(GraphDiffer.diff(CompactGraph.from(root), CompactGraph.from(result.getRoot())).isEmpty());
+        assertTrue(result.getUnresolved().isEmpty());
+        DependencyNode promoted = result.getRoot().getChildren().get(1).getChildren().get(0);
+        assertNull(promoted.getData().get(ConflictResolver.NODE_DATA_WINNER));
+        assertEquals("y", promoted.getChildren().get(0).getArtifact().getArtifactId());
+        assertTrue(result.getRoot().getChildren().get(0).getChildren().isEmpty());
+    }
+
+    @Test
+    public void testVersionPinUsesCollectedSubtree() {
+        DefaultDependencyNode winner = node("org.demo:c:1.0", node("org.demo:e:1"));
+        DependencyNode root = root(node("org.demo:a:1", winner),
+                node("org.demo:b:1", node("org.demo:d:1", loser("org.demo:c:2.0", winner))));
+        Map<String, String> pins = Map.of("org.demo:c", "2.0", "org.demo:a", "9");
+
+        DependencyGraphSimulator.Result pending = DependencyGraphSimulator.simulate(root, List.of(), pins, List.of());
+        assertEquals(Set.of("org.demo:c:2.0"), pending.getUnresolved());
+
+        DependencyNode subtree = root(node("org.demo:c:2.0", node("org.demo:f:1")));
+        DependencyGraphSimulator.Result result = DependencyGraphSimulator.simulate(root, List.of(), pins, List.of(subtree));
+        DependencyDiff diff = GraphDiffer.diff(CompactGraph.from(root), CompactGraph.from(result.getRoot()));
+
+        assertTrue(result.getUnresolved().isEmpty());
+        assertEquals("e", diff.getRemoved().get(0).getArtifactId());
+        assertEquals("f", diff.getAdded().get(0).getArtifactId());
+        assertEquals(1, diff.getVersionChanged().size());
+        assertEquals("org.demo:c", diff.getVersionChanged().get(0).getGroupId() + ":" + diff.getVersionChanged().get(0).getArtifactId());
+        // 所有出现都被锁定为同一版本，冲突消失；一级依赖的版本不受影响
+        assertEquals(DependencyDiff.ConflictStatus.RESOLVED, diff.getConflictChanges().get(0).getStatus());
+        assertEquals("1", result.getRoot().getChildren().get(0).getArtifact().getVersion());
+    }
+
+    @Test
+    public void testWildcardExclusionOnAllDirectDependencies() {
+        DependencyNode root = root(node("org.demo:a:1", node("commons-logging:commons-logging:1.2")),
+                node("org.demo:b:1", node("org.demo:log:1", node("commons-logging:commons-logging-api:1.1"))));
+
+        DependencyGraphSimulator.Result result = DependencyGraphSimulator.simulate(root,
+                List.of(new DependencyGraphSimulator.SimulatedExclusion(null, "commons-logging", "*")));
+        DependencyDiff diff = GraphDiffer.diff(CompactGraph.from(root), CompactGraph.from(result.getRoot()));
+
+        assertEquals(2, diff.getRemoved().size());
+        assertTrue(diff.getAdded().isEmpty());
+        assertEquals(1, result.getRoot().getChildren().get(1).getChildren().size());
+    }
+}
@@ -0,0 +1,126 @@
+package nd.mavenassistant.analysis;
+
+import com.google.gson.Gson;
+import org.eclipse.aether.graph.DependencyNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试DependencyUsageAnalyzer基于常量池和 jar 中央目录的使用分析
+ */
+public class DependencyUsageAnalyzerTest {
+
+    /**
+     * 只通过字段描述符和泛型签名引用依赖中的类，常量池中没有对应的 Class 项
+     */
+    @SuppressWarnings("unused")
+    static class Fixture {
+        private DependencyNode node;
+
+        List<Gson> gsons() {
+            return null;
+        }
+    }
+
+    private Path temp;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        temp = Files.createTempDirectory("usage-analysis");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (var paths = Files.walk(temp)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private Path jar(String name, String... entries) throws IOException {
+        Path jar = temp.resolve(name);
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("META-INF/versions/11/org/demo/Ignored.class"));
+            for (String entry : entries) {
+                out.putNextEntry(new ZipEntry(entry));
+                out.write(new byte[]{1, 2, 3});
+            }
+        }
+        return jar;
+    }
+
+    @Test
+    public void testUsedUnusedAndUndeclared() throws IOException {
+        Path classes = temp.resolve("classes");
+        String fixture = Fixture.class.getName().replace('.', '/') + ".class";
+        Files.createDirectories(classes.resolve(fixture).getParent());
+        try (InputStream in = Fixture.class.getClassLoader().getResourceAsStream(fixture);
+             OutputStream out = Files.newOutputStream(classes.resolve(fixture))) {
+            in.transferTo(out);
+        }
+
+        List<DependencyUsageAnalyzer.ClasspathEntry> classpath = List.of(
+                new DependencyUsageAnalyzer.ClasspathEntry("org.apache.maven.resolver", "maven-resolver-api", "2.0.9",
+                        "compile", true, jar("api.jar", "org/eclipse/aether/graph/DependencyNode.class")),
+                new DependencyUsageAnalyzer.ClasspathEntry("org.demo", "unused", "1.0", "compile", true,
+                        jar("unused.jar", "org/demo/Unused.class")),
+                new DependencyUsageAnalyzer.ClasspathEntry("com.google.code.gson", "gson", "2.10", "compile", false,
+                        jar("gson.jar", "com/google/gson/Gson.class", "com/google/gson/JsonElement.class")),
+                new DependencyUsageAnalyzer.ClasspathEntry("org.demo", "missing", "1.0", "compile", true,
+                        temp.resolve("missing.jar")));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            DependencyUsageAnalyzer analyzer = new DependencyUsageAnalyzer(executor);
+            DependencyUsageAnalyzer.Report report = analyzer.analyze(classes, temp.resolve("test-classes"), classpath);
+
+            assertEquals(1, report.scannedClasses);
+            assertEquals(List.of("maven-resolver-api"), report.usedDeclared.stream().map(u -> u.artifactId).toList());
+            assertEquals(List.of("org.eclipse.aether.graph.DependencyNode"), report.usedDeclared.get(0).classes);
+            assertEquals(List.of("unused", "missing"), report.unusedDeclared.stream().map(u -> u.artifactId).toList());
+            assertEquals(List.of("gson"), report.usedUndeclared.stream().map(u -> u.artifactId).toList());
+            assertEquals(List.of("org.demo:missing:1.0"), report.missingJars);
+
+            // 第二次分析复用 jar 类名缓存
+            analyzer.analyze(classes, null, classpath);
+            assertEquals(3, analyzer.getJarStats().getHits());
+            assertEquals(3, analyzer.getJarCacheSize());
+            assertEquals(1, analyzer.getClassCacheSize());
+
+            // 删除的 jar 和类文件不再保留在缓存中
+            Files.delete(temp.resolve("unused.jar"));
+            Files.delete(classes.resolve(fixture));
+            analyzer.analyze(classes, null, classpath);
+            assertEquals(2, analyzer.getJarCacheSize());
+            assertEquals(0, analyzer.getClassCacheSize());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDescriptorClasses() {
+        Set<String> classes = new TreeSet<>();
+        ClassFileScanner.descriptorClasses("<T:Ljava/lang/Object;>(ILorg/demo/A;[Lorg/demo/B;)Ljava/util/Map<Lorg/demo/C;+Lorg/demo/D$E;>;", classes);
+        assertEquals(Set.of("java/lang/Object", "org/demo/A", "org/demo/B", "java/util/Map", "org/demo/C", "org/demo/D$E"), classes);
+    }
+
+    @Test
+    public void testJarClassNamesFromCentralDirectory() throws IOException {
+        Path jar = jar("demo.jar", "org/demo/A.class", "org/demo/A$1.class", "org/demo/package-info.class", "org/demo/res.txt");
+        assertEquals(List.of("org/demo/A", "org/demo/A$1"), ClassFileScanner.jarClassNames(jar));
+    }
+}
@@ -0,0 +1,75 @@
+package nd.mavenassistant.analysis;
+
+import nd.mavenassistant.model.DependencyDiff;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.DependencyNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static nd.mavenassistant.fixture.DependencyGraphs.loser;
+import static nd.mavenassistant.fixture.DependencyGraphs.node;
+import static nd.mavenassistant.fixture.DependencyGraphs.root;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试GraphDiffer在紧凑图上的差异计算
+ */
+public class GraphDifferTest {
+
+    private static CompactGraph graph(DependencyNode... children) {
+        return CompactGraph.from(root(children));
+    }
+
+    @Test
+    public void testAddedRemovedAndVersionChanged() {
+        CompactGraph base = graph(node("org.demo:a:1", node("org.demo:old:1")), node("org.demo:b:1"));
+        CompactGraph target = graph(node("org.demo:a:2", node("org.demo:new:1")), node("org.demo:b:1"));
+
+        DependencyDiff diff = GraphDiffer.diff(base, target);
+
+        assertEquals(1, diff.getAdded().size());
+        assertEquals("new", diff.getAdded().get(0).getArtifactId());
+        assertEquals(1, diff.getRemoved().size());
+        assertEquals("old", diff.getRemoved().get(0).getArtifactId());
+        assertEquals(1, diff.getVersionChanged().size());
+        assertEquals("1", diff.getVersionChanged().get(0).getFromVersion());
+        assertEquals("2", diff.getVersionChanged().get(0).getToVersion());
+        assertTrue(diff.getConflictChanges().isEmpty());
+    }
+
+    @Test
+    public void testConflictOutcomeChanges() {
+        DefaultDependencyNode baseWinner = node("org.demo:c:1.0");
+        CompactGraph base = graph(baseWinner, node("org.demo:b:1", loser("org.demo:c:2.0", baseWinner)));
+        CompactGraph target = graph(node("org.demo:c:2.0"), node("org.demo:b:1"));
+
+        DependencyDiff diff = GraphDiffer.diff(base, target);
+
+        assertEquals(1, diff.getConflictChanges().size());
+        DependencyDiff.ConflictChange change = diff.getConflictChanges().get(0);
+        assertEquals(DependencyDiff.ConflictStatus.RESOLVED, change.getStatus());
+        assertEquals("1.0", change.getBaseWinner());
+        assertEquals("2.0", change.getTargetWinner());
+        assertEquals(List.of("1.0", "2.0"), change.getBaseRequestedVersions());
+        assertEquals(1, diff.getVersionChanged().size());
+    }
+
+    @Test
+    public void testSameRequestedVersionsInDifferentOrderIsUnchanged() {
+        DefaultDependencyNode baseWinner = node("org.demo:c:1.0");
+        CompactGraph base = graph(node("org.demo:a:1", baseWinner), node("org.demo:b:1", loser("org.demo:c:2.0", baseWinner)));
+        DefaultDependencyNode targetWinner = node("org.demo:c:1.0");
+        CompactGraph target = graph(node("org.demo:b:1", loser("org.demo:c:2.0", targetWinner)), node("org.demo:a:1", targetWinner));
+
+        assertTrue(GraphDiffer.diff(base, target).getConflictChanges().isEmpty());
+    }
+
+    @Test
+    public void testIdenticalGraphsProduceEmptyDiff() {
+        CompactGraph base = graph(node("org.demo:a:1", node("org.demo:c:1")));
+        CompactGraph target = graph(node("org.demo:a:1", node("org.demo:c:1")));
+
+        assertTrue(GraphDiffer.diff(base, target).isEmpty());
+    }
+}
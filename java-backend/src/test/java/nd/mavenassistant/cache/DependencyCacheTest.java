@@ -0,0 +1,42 @@
+package nd.mavenassistant.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试DependencyCache按内容缓存时的槽位淘汰
+ */
+public class DependencyCacheTest {
+
+    private static final String POM = "/work/app/pom.xml";
+
+    @Test
+    public void testKeepsOnlyLatestContentPerPomAndVariant() {
+        DependencyCache cache = new DependencyCache();
+        DependencyCache.CacheKey saved = new DependencyCache.CacheKey(POM, 1000L);
+        DependencyCache.CacheKey first = DependencyCache.CacheKey.forContent(POM, "<project>1</project>");
+        DependencyCache.CacheKey firstTest = first.withVariant("scopes=test");
+        DependencyCache.CacheKey second = DependencyCache.CacheKey.forContent(POM, "<project>2</project>");
+        DependencyCache.CacheKey other = DependencyCache.CacheKey.forContent("/work/lib/pom.xml", "<project>1</project>");
+
+        cache.putDependencyResult(saved, "saved");
+        cache.putDependencyResult(first, "first");
+        cache.putDependencyResult(firstTest, "first-test");
+        cache.putDependencyResult(other, "other");
+        cache.putDependencyResult(second, "second");
+
+        assertNull(cache.getDependencyResult(first));
+        assertEquals("second", cache.getDependencyResult(second).getResult());
+        // 按修改时间的键、其他收集策略和其他POM不受影响
+        assertEquals("saved", cache.getDependencyResult(saved).getResult());
+        assertEquals("first-test", cache.getDependencyResult(firstTest).getResult());
+        assertEquals("other", cache.getDependencyResult(other).getResult());
+        assertEquals(4, cache.getDependencyCacheSize());
+
+        cache.putDependencyGraph(first, null, null);
+        cache.putDependencyGraph(second, null, null);
+        assertNull(cache.getDependencyGraph(first));
+        assertEquals(1, cache.getGraphCacheSize());
+    }
+}
@@ -0,0 +1,56 @@
+package nd.mavenassistant.fixture;
+
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.util.graph.transformer.ConflictResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 手工构造 Resolver 依赖图的工具方法
+ * 落败节点与 ConflictResolver 在 verbose 模式下的输出一致：没有子节点，并记录胜出节点
+ */
+public final class DependencyGraphs {
+
+    private DependencyGraphs() {
+    }
+
+    /**
+     * 创建依赖节点，子节点列表可修改
+     *
+     * @param coords groupId:artifactId[:extension[:classifier]]:version
+     */
+    public static DefaultDependencyNode node(String coords, String scope, DependencyNode... children) {
+        DefaultDependencyNode node = new DefaultDependencyNode(new Dependency(new DefaultArtifact(coords), scope));
+        node.setChildren(new ArrayList<>(List.of(children)));
+        return node;
+    }
+
+    /**
+     * 创建 compile 范围的依赖节点
+     */
+    public static DefaultDependencyNode node(String coords, DependencyNode... children) {
+        return node(coords, "compile", children);
+    }
+
+    /**
+     * 创建在冲突仲裁中落败给 winner 的节点
+     */
+    public static DefaultDependencyNode loser(String coords, DependencyNode winner) {
+        DefaultDependencyNode node = node(coords);
+        node.setData(ConflictResolver.NODE_DATA_WINNER, winner);
+        return node;
+    }
+
+    /**
+     * 创建没有构件的根节点，与按 pom.xml 收集得到的依赖图一致
+     */
+    public static DefaultDependencyNode root(DependencyNode... children) {
+        DefaultDependencyNode root = new DefaultDependencyNode((Dependency) null);
+        root.setChildren(new ArrayList<>(List.of(children)));
+        return root;
+    }
+}
@@ -0,0 +1,388 @@
+package nd.mavenassistant.fixture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+/**
+ * 合成 Maven 远程仓库生成器
+ * 在磁盘上生成一个 default 布局的仓库（可通过 file:// URL 作为远程仓库使用）以及一个依赖其中构件的项目 pom.xml。
+ * 仓库包含：
+ * - 数千个 GAV（每个库 3 个版本），带 jar、pom 以及 sha1 校验文件
+ * - 多层 parent 继承链，版本号通过 parent 中定义的属性引用
+ * - 被部分库以 scope=import 引入的 BOM
+ * - 版本范围依赖（附带 GA 级 maven-metadata.xml 供范围解析）
+ * - 同一库被不同路径请求不同版本造成的版本冲突，以及 runtime/test/optional 依赖
+ * 相同的参数与种子生成相同的仓库
+ */
+public final class SyntheticRepository {
+
+    public static final String[] VERSIONS = {"1.0.0", "1.1.0", "2.0.0"};
+
+    private static final String PARENT_GROUP_ID = "org.synthrepo";
+    private static final String BOM_ARTIFACT_ID = "synth-bom";
+    private static final String PARENT_VERSION = "1.0";
+    private static final int PARENT_DEPTH = 5;
+    private static final int GROUP_COUNT = 40;
+    private static final int BOM_SIZE = 100;
+    private static final int MAX_DEPENDENCIES = 4;
+    // 依赖只指向编号更小的库，保证依赖图无环；窗口越小共享依赖越多，冲突越密集
+    private static final int DEPENDENCY_WINDOW = 300;
+
+    /**
+     * 库之间的一条依赖声明
+     */
+    public static final class Declared {
+        public final int library;
+        public final String version; // 具体版本、版本范围、属性引用，或 null（由 BOM 管理）
+        public final String scope;
+        public final boolean optional;
+
+        Declared(int library, String version, String scope, boolean optional) {
+            this.library = library;
+            this.version = version;
+            this.scope = scope;
+            this.optional = optional;
+        }
+    }
+
+    private final Path remoteDir;
+    private final Path projectPom;
+    private final int libraryCount;
+    private final List<Integer> directLibraries;
+    private final List<List<Declared>> libraryDependencies;
+
+    private SyntheticRepository(Path remoteDir, Path projectPom, int libraryCount, List<Integer> directLibraries,
+                                List<List<Declared>> libraryDependencies) {
+        this.remoteDir = remoteDir;
+        this.projectPom = projectPom;
+        this.libraryCount = libraryCount;
+        this.directLibraries = directLibraries;
+        this.libraryDependencies = libraryDependencies;
+    }
+
+    /**
+     * 在 baseDir 下生成 remote/ 仓库与 project/pom.xml
+     *
+     * @param baseDir 输出目录
+     * @param libraries 库数量（GAV 数为其 3 倍）
+     * @param directDependencies 项目直接依赖数量
+     * @param seed 随机种子
+     */
+    public static SyntheticRepository generate(Path baseDir, int libraries, int directDependencies, long seed) throws IOException {
+        Random random = new Random(seed);
+        Path remoteDir = baseDir.resolve("remote");
+        Files.createDirectories(remoteDir);
+
+        writeParents(remoteDir);
+        writeBom(remoteDir);
+
+        List<List<Declared>> dependencies = new ArrayList<>(libraries);
+        for (int i = 0; i < libraries; i++) {
+            dependencies.add(declareDependencies(i, random));
+        }
+        for (int i = 0; i < libraries; i++) {
+            for (String version : VERSIONS) {
+                writeLibrary(remoteDir, i, version, dependencies.get(i), random);
+            }
+            writeMetadata(remoteDir, groupId(i), artifactId(i));
+        }
+
+        // 直接依赖取编号最大的库，传递依赖链最长
+        List<Integer> directLibraries = new ArrayList<>(directDependencies);
+        for (int i = libraries - 1; i >= 0 && directLibraries.size() < directDependencies; i -= 1 + random.nextInt(3)) {
+            directLibraries.add(i);
+        }
+        Path projectPom = baseDir.resolve("project").resolve("pom.xml");
+        Files.createDirectories(projectPom.getParent());
+        writeProject(projectPom, directLibraries);
+        return new SyntheticRepository(remoteDir, projectPom, libraries, directLibraries, dependencies);
+    }
+
+    private static List<Declared> declareDependencies(int library, Random random) {
+        if (library == 0) {
+            return Collections.emptyList();
+        }
+        int count = random.nextInt(Math.min(library, MAX_DEPENDENCIES) + 1);
+        Set<Integer> targets = new LinkedHashSet<>();
+        int low = Math.max(0, library - DEPENDENCY_WINDOW);
+        while (targets.size() < count) {
+            // 三成概率指向 BOM 覆盖范围内的“热门”库
+            int target = random.nextInt(10) < 3 ? random.nextInt(Math.min(BOM_SIZE, library))
+                    : low + random.nextInt(library - low);
+            targets.add(target);
+        }
+
+        List<Declared> declared = new ArrayList<>(count);
+        for (int target : targets) {
+            int kind = random.nextInt(16);
+            String version;
+            if (target < BOM_SIZE && importsBom(library) && kind < 4) {
+                version = null;
+            } else if (kind < 6) {
+                version = "[1.0.0,2.0.0)";
+            } else if (kind < 8 && hasParent(library)) {
+                version = "${synth.lib.version}";
+            } else {
+                version = VERSIONS[random.nextInt(VERSIONS.length)];
+            }
+            int scopeRoll = random.nextInt(20);
+            String scope = scopeRoll == 0 ? "test" : (scopeRoll < 3 ? "runtime" : "compile");
+            declared.add(new Declared(target, version, scope, random.nextInt(20) == 0));
+        }
+        return declared;
+    }
+
+    private static boolean importsBom(int library) {
+        return library % 4 == 0;
+    }
+
+    private static boolean hasParent(int library) {
+        return library % 7 != 0;
+    }
+
+    /**
+     * parent 继承链：synth-parent-0 <- synth-parent-1 <- ... ，每层定义一个属性，
+     * 最顶层定义被库依赖引用的 synth.lib.version
+     */
+    private static void writeParents(Path remoteDir) throws IOException {
+        for (int depth = 0; depth < PARENT_DEPTH; depth++) {
+            StringBuilder pom = pomHeader();
+            if (depth > 0) {
+                appendParent(pom, PARENT_GROUP_ID, "synth-parent-" + (depth - 1), PARENT_VERSION);
+            }
+            appendCoordinates(pom, PARENT_GROUP_ID, "synth-parent-" + depth, PARENT_VERSION);
+            pom.append("    <packaging>pom</packaging>\n");
+            pom.append("    <properties>\n");
+            if (depth == 0) {
+                pom.append("        <synth.lib.version>1.0.0</synth.lib.version>\n");
+            }
+            pom.append("        <synth.level").append(depth).append(">").append(depth).append("</synth.level")
+                    .append(depth).append(">\n");
+            pom.append("    </properties>\n");
+            pom.append("</project>\n");
+            writeArtifact(remoteDir, PARENT_GROUP_ID, "synth-parent-" + depth, PARENT_VERSION, "pom",
+                    pom.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void writeBom(Path remoteDir) throws IOException {
+        StringBuilder pom = pomHeader();
+        appendCoordinates(pom, PARENT_GROUP_ID, BOM_ARTIFACT_ID, PARENT_VERSION);
+        pom.append("    <packaging>pom</packaging>\n");
+        pom.append("    <dependencyManagement>\n");
+        pom.append("        <dependencies>\n");
+        for (int i = 0; i < BOM_SIZE; i++) {
+            appendDependency(pom, "            ", groupId(i), artifactId(i), VERSIONS[1], null, false, null);
+        }
+        pom.append("        </dependencies>\n");
+        pom.append("    </dependencyManagement>\n");
+        pom.append("</project>\n");
+        writeArtifact(remoteDir, PARENT_GROUP_ID, BOM_ARTIFACT_ID, PARENT_VERSION, "pom",
+                pom.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeLibrary(Path remoteDir, int library, String version, List<Declared> dependencies,
+                                     Random random) throws IOException {
+        StringBuilder pom = pomHeader();
+        if (hasParent(library)) {
+            appendParent(pom, PARENT_GROUP_ID, "synth-parent-" + (PARENT_DEPTH - 1 - library % 2), PARENT_VERSION);
+        }
+        appendCoordinates(pom, groupId(library), artifactId(library), version);
+        if (importsBom(library)) {
+            pom.append("    <dependencyManagement>\n");
+            pom.append("        <dependencies>\n");
+            pom.append("            <dependency>\n");
+            pom.append("                <groupId>").append(PARENT_GROUP_ID).append("</groupId>\n");
+            pom.append("                <artifactId>").append(BOM_ARTIFACT_ID).append("</artifactId>\n");
+            pom.append("                <version>").append(PARENT_VERSION).append("</version>\n");
+            pom.append("                <type>pom</type>\n");
+            pom.append("                <scope>import</scope>\n");
+            pom.append("            </dependency>\n");
+            pom.append("        </dependencies>\n");
+            pom.append("    </dependencyManagement>\n");
+        }
+        pom.append("    <dependencies>\n");
+        for (Declared dependency : dependencies) {
+            appendDependency(pom, "        ", groupId(dependency.library), artifactId(dependency.library),
+                    dependency.version, dependency.scope, dependency.optional, null);
+        }
+        pom.append("    </dependencies>\n");
+        pom.append("</project>\n");
+        writeArtifact(remoteDir, groupId(library), artifactId(library), version, "pom",
+                pom.toString().getBytes(StandardCharsets.UTF_8));
+        writeArtifact(remoteDir, groupId(library), artifactId(library), version, "jar",
+                jar(library, 512 + random.nextInt(16 * 1024), random));
+    }
+
+    private static void writeProject(Path projectPom, List<Integer> directLibraries) throws IOException {
+        StringBuilder pom = pomHeader();
+        appendCoordinates(pom, "org.synthrepo.app", "synthetic-app", "1.0.0-SNAPSHOT");
+        pom.append("    <properties>\n");
+        for (int i = 0; i < directLibraries.size(); i += 3) {
+            pom.append("        <lib-").append(directLibraries.get(i)).append(".version>").append(VERSIONS[2])
+                    .append("</lib-").append(directLibraries.get(i)).append(".version>\n");
+        }
+        pom.append("    </properties>\n");
+        pom.append("    <dependencies>\n");
+        for (int i = 0; i < directLibraries.size(); i++) {
+            int library = directLibraries.get(i);
+            String version = i % 3 == 0 ? "${lib-" + library + ".version}" : directVersion(i);
+            String scope = isTestScoped(i) ? "test" : null;
+            String exclusion = hasExclusion(i) ? groupId(library / 2) + ":" + artifactId(library / 2) : null;
+            appendDependency(pom, "        ", groupId(library), artifactId(library), version, scope, false, exclusion);
+        }
+        pom.append("    </dependencies>\n");
+        pom.append("</project>\n");
+        Files.writeString(projectPom, pom);
+    }
+
+    /**
+     * 第 index 个直接依赖解析后的版本（属性引用的版本也在此还原）
+     */
+    public static String directVersion(int index) {
+        return index % 3 == 0 ? VERSIONS[2] : VERSIONS[index % VERSIONS.length];
+    }
+
+    public static boolean isTestScoped(int index) {
+        return index % 11 == 10;
+    }
+
+    public static boolean hasExclusion(int index) {
+        return index % 5 == 4;
+    }
+
+    private static StringBuilder pomHeader() {
+        StringBuilder pom = new StringBuilder(2048);
+        pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        pom.append("    <modelVersion>4.0.0</modelVersion>\n");
+        return pom;
+    }
+
+    private static void appendParent(StringBuilder pom, String groupId, String artifactId, String version) {
+        pom.append("    <parent>\n");
+        pom.append("        <groupId>").append(groupId).append("</groupId>\n");
+        pom.append("        <artifactId>").append(artifactId).append("</artifactId>\n");
+        pom.append("        <version>").append(version).append("</version>\n");
+        pom.append("    </parent>\n");
+    }
+
+    private static void appendCoordinates(StringBuilder pom, String groupId, String artifactId, String version) {
+        pom.append("    <groupId>").append(groupId).append("</groupId>\n");
+        pom.append("    <artifactId>").append(artifactId).append("</artifactId>\n");
+        pom.append("    <version>").append(version).append("</version>\n");
+    }
+
+    private static void appendDependency(StringBuilder pom, String indent, String groupId, String artifactId,
+                                         String version, String scope, boolean optional, String exclusion) {
+        pom.append(indent).append("<dependency>\n");
+        pom.append(indent).append("    <groupId>").append(groupId).append("</groupId>\n");
+        pom.append(indent).append("    <artifactId>").append(artifactId).append("</artifactId>\n");
+        if (version != null) {
+            pom.append(indent).append("    <version>").append(version).append("</version>\n");
+        }
+        if (scope != null && !"compile".equals(scope)) {
+            pom.append(indent).append("    <scope>").append(scope).append("</scope>\n");
+        }
+        if (optional) {
+            pom.append(indent).append("    <optional>true</optional>\n");
+        }
+        if (exclusion != null) {
+            String[] ga = exclusion.split(":");
+            pom.append(indent).append("    <exclusions>\n");
+            pom.append(indent).append("        <exclusion>\n");
+            pom.append(indent).append("            <groupId>").append(ga[0]).append("</groupId>\n");
+            pom.append(indent).append("            <artifactId>").append(ga[1]).append("</artifactId>\n");
+            pom.append(indent).append("        </exclusion>\n");
+            pom.append(indent).append("    </exclusions>\n");
+        }
+        pom.append(indent).append("</dependency>\n");
+    }
+
+    /**
+     * GA 级 maven-metadata.xml，版本范围解析依赖它列出可用版本
+     */
+    private static void writeMetadata(Path remoteDir, String groupId, String artifactId) throws IOException {
+        StringBuilder metadata = new StringBuilder(512);
+        metadata.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        metadata.append("<metadata>\n");
+        metadata.append("  <groupId>").append(groupId).append("</groupId>\n");
+        metadata.append("  <artifactId>").append(artifactId).append("</artifactId>\n");
+        metadata.append("  <versioning>\n");
+        metadata.append("    <latest>").append(VERSIONS[VERSIONS.length - 1]).append("</latest>\n");
+        metadata.append("    <release>").append(VERSIONS[VERSIONS.length - 1]).append("</release>\n");
+        metadata.append("    <versions>\n");
+        for (String version : VERSIONS) {
+            metadata.append("      <version>").append(version).append("</version>\n");
+        }
+        metadata.append("    </versions>\n");
+        metadata.append("    <lastUpdated>20240101000000</lastUpdated>\n");
+        metadata.append("  </versioning>\n");
+        metadata.append("</metadata>\n");
+        Path file = remoteDir.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve("maven-metadata.xml");
+        writeWithSha1(file, metadata.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeArtifact(Path remoteDir, String groupId, String artifactId, String version,
+                                      String extension, byte[] content) throws IOException {
+        Path file = remoteDir.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version)
+                .resolve(artifactId + "-" + version + "." + extension);
+        writeWithSha1(file, content);
+    }
+
+    private static void writeWithSha1(Path file, byte[] content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+        Files.writeString(file.resolveSibling(file.getFileName() + ".sha1"), sha1(content));
+    }
+
+    private static byte[] jar(int library, int fillerSize, Random random) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(fillerSize + 512);
+        try (JarOutputStream jar = new JarOutputStream(bytes, manifest)) {
+            jar.putNextEntry(new ZipEntry("org/synthrepo/lib" + library + "/filler.bin"));
+            byte[] filler = new byte[fillerSize];
+            random.nextBytes(filler);
+            jar.write(filler);
+            jar.closeEntry();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String sha1(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String groupId(int library) {
+        return "org.synthrepo.group" + (library % GROUP_COUNT);
+    }
+
+    public static String artifactId(int library) {
+        return "lib-" + library;
+    }
+
+    /** 远程仓库的 file:// URL */
+    public String getRemoteUrl() { return remoteDir.toUri().toString(); }
+    public Path getRemoteDir() { return remoteDir; }
+    public Path getProjectPom() { return projectPom; }
+    public int getLibraryCount() { return libraryCount; }
+    /** 项目直接依赖的库编号，按声明顺序排列 */
+    public List<Integer> getDirectLibraries() { return directLibraries; }
+    /** 指定库（所有版本相同）声明的依赖 */
+    public List<Declared> getDependencies(int library) { return libraryDependencies.get(library); }
+}
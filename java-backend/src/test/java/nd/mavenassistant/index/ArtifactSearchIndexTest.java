@@ -0,0 +1,118 @@
+package nd.mavenassistant.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试ArtifactSearchIndex的前缀、模糊和类名搜索以及持久化与增量更新
+ */
+public class ArtifactSearchIndexTest {
+
+    private static void install(Path repo, String groupId, String artifactId, String version, String... classes) throws Exception {
+        Path dir = repo.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version);
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(artifactId + "-" + version + ".pom"), "<project/>");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(dir.resolve(artifactId + "-" + version + ".jar")))) {
+            for (String className : classes) {
+                zip.putNextEntry(new ZipEntry(className.replace('.', '/') + ".class"));
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private static List<String> artifactIds(List<ArtifactSearchIndex.Result> results) {
+        return results.stream().map(result -> result.artifactId).collect(Collectors.toList());
+    }
+
+    private static Path repository() throws Exception {
+        Path repo = Files.createTempDirectory("search-repo");
+        install(repo, "com.fasterxml.jackson.core", "jackson-databind", "2.17.0",
+                "com.fasterxml.jackson.databind.ObjectMapper", "com.fasterxml.jackson.databind.ObjectMapper$1");
+        install(repo, "com.fasterxml.jackson.core", "jackson-core", "2.17.0", "com.fasterxml.jackson.core.JsonParser");
+        install(repo, "org.slf4j", "slf4j-api", "2.0.13", "org.slf4j.LoggerFactory");
+        return repo;
+    }
+
+    @Test
+    public void testPrefixFuzzyAndClassSearch() throws Exception {
+        Path repo = repository();
+        LocalRepositoryIndex versionIndex = new LocalRepositoryIndex();
+        versionIndex.setRepository(repo.toFile());
+        versionIndex.refresh();
+        ArtifactSearchIndex index = new ArtifactSearchIndex();
+        index.configure(repo.toFile(), Files.createTempDirectory("search-storage").resolve("index.bin").toFile());
+        index.update(versionIndex);
+
+        assertEquals(3, index.size());
+        assertEquals(List.of("jackson-core", "jackson-databind"), artifactIds(index.search("jack", 10)));
+        assertEquals(List.of("jackson-databind"), artifactIds(index.search("jackson databind", 10)));
+        assertEquals(List.of("jackson-databind"), artifactIds(index.search("databnd", 10)), "fuzzy match");
+        List<ArtifactSearchIndex.Result> byClass = index.search("ObjectMapper", 10);
+        assertEquals(List.of("jackson-databind"), artifactIds(byClass));
+        assertEquals(List.of("com.fasterxml.jackson.databind.ObjectMapper"), byClass.get(0).matchedClasses);
+        assertEquals(List.of("slf4j-api"), artifactIds(index.search("org.slf4j:slf4j-a", 10)));
+        assertTrue(index.search("nothing-like-this", 10).isEmpty());
+    }
+
+    @Test
+    public void testPersistedIndexAndIncrementalUpdate() throws Exception {
+        Path repo = repository();
+        File indexFile = Files.createTempDirectory("search-storage").resolve("index.bin").toFile();
+        LocalRepositoryIndex versionIndex = new LocalRepositoryIndex();
+        versionIndex.setRepository(repo.toFile());
+        versionIndex.refresh();
+        ArtifactSearchIndex index = new ArtifactSearchIndex();
+        index.configure(repo.toFile(), indexFile);
+        index.update(versionIndex);
+
+        // 新实例直接从索引文件加载，无需扫描本地仓库
+        ArtifactSearchIndex reloaded = new ArtifactSearchIndex();
+        reloaded.configure(repo.toFile(), indexFile);
+        assertEquals(List.of("slf4j-api"), artifactIds(reloaded.search("LoggerFactory", 10)));
+        assertFalse(reloaded.isUpToDate());
+
+        try (Stream<Path> files = Files.walk(repo.resolve("org/slf4j"))) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+        install(repo, "org.demo", "widgets", "1.0", "org.demo.WidgetFactory");
+        versionIndex.refresh();
+        reloaded.update(versionIndex);
+
+        assertTrue(reloaded.isUpToDate());
+        assertTrue(reloaded.search("LoggerFactory", 10).isEmpty());
+        assertEquals(List.of("widgets"), artifactIds(reloaded.search("widget", 10)));
+        assertEquals(3, reloaded.size());
+    }
+
+    @Test
+    public void testFailedSaveLeavesNoTempFile() throws Exception {
+        Path repo = repository();
+        File indexFile = Files.createTempDirectory("search-storage").resolve("index.bin").toFile();
+        // 索引文件位置被非空目录占用，替换失败
+        Files.createDirectories(indexFile.toPath());
+        Files.writeString(indexFile.toPath().resolve("occupied"), "");
+        LocalRepositoryIndex versionIndex = new LocalRepositoryIndex();
+        versionIndex.setRepository(repo.toFile());
+        versionIndex.refresh();
+        ArtifactSearchIndex index = new ArtifactSearchIndex();
+        index.configure(repo.toFile(), indexFile);
+        index.update(versionIndex);
+
+        // 持久化失败不影响内存中的索引
+        assertEquals(3, index.size());
+        try (Stream<Path> files = Files.list(indexFile.toPath().getParent())) {
+            assertEquals(List.of(indexFile.toPath()), files.collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package nd.mavenassistant.index;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试DiskUsageIndex的占用汇总、未引用版本、增量扫描与持久化
+ */
+public class DiskUsageIndexTest {
+
+    private Path repo;
+    private File indexFile;
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        repo = Files.createTempDirectory("disk-usage-repo");
+        indexFile = Files.createTempDirectory("disk-usage-storage").resolve("disk-usage.bin").toFile();
+        pool = new ForkJoinPool(2);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        for (Path dir : List.of(repo, indexFile.toPath().getParent())) {
+            try (var paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private Path install(String groupId, String artifactId, String version, int jarSize) throws IOException {
+        Path dir = repo.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version);
+        Files.createDirectories(dir);
+        Files.write(dir.resolve(artifactId + "-" + version + ".pom"), new byte[10]);
+        Files.write(dir.resolve(artifactId + "-" + version + ".jar"), new byte[jarSize]);
+        return dir;
+    }
+
+    private DiskUsageIndex index() {
+        DiskUsageIndex index = new DiskUsageIndex();
+        index.configure(repo.toFile(), indexFile);
+        return index;
+    }
+
+    private static List<String> versions(List<DiskUsageIndex.VersionUsage> usages) {
+        return usages.stream().map(u -> u.groupId + ":" + u.artifactId + ":" + u.version).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testAggregatesAndUnreferencedVersions() throws IOException {
+        install("org.demo", "core", "1.0", 100);
+        install("org.demo", "core", "2.0", 200);
+        install("org.demo", "util", "1.0", 50);
+        install("com.other", "lib", "3.1-SNAPSHOT", 1000);
+        Files.write(repo.resolve("org/demo/core/maven-metadata-local.xml"), new byte[5]);
+
+        DiskUsageIndex.Report report = index().analyze(pool, Set.of("org.demo:core:2.0", "org.demo:util:1.0"), 10);
+
+        assertEquals(4, report.versionCount);
+        assertEquals(3, report.artifactCount);
+        assertEquals(2, report.groupCount);
+        assertEquals(1350 + 4 * 10 + 5, report.totalBytes);
+        assertEquals(5, report.otherBytes);
+        assertEquals(List.of("com.other", "org.demo"), report.groups.stream().map(g -> g.groupId).toList());
+        assertEquals(2, report.groups.get(1).artifacts);
+        assertEquals(3, report.groups.get(1).versions);
+        assertEquals(List.of("lib", "core", "util"), report.artifacts.stream().map(a -> a.artifactId).toList());
+        assertEquals(List.of("com.other:lib:3.1-SNAPSHOT", "org.demo:core:1.0"), versions(report.unreferenced));
+        assertEquals(1010 + 110, report.unreferencedBytes);
+    }
+
+    @Test
+    public void testIncrementalRescanAndPersistence() throws IOException {
+        install("org.demo", "core", "1.0", 100);
+        Path util = install("org.demo", "util", "1.0", 50);
+
+        DiskUsageIndex index = index();
+        DiskUsageIndex.Report first = index.analyze(pool, Set.of(), 10);
+        assertEquals(first.scannedDirectories, first.restatedDirectories);
+        assertEquals(0, index.analyze(pool, Set.of(), 10).restatedDirectories);
+
+        // 新增文件更新版本目录的修改时间，只重新列出该目录
+        Files.write(util.resolve("util-1.0-sources.jar"), new byte[30]);
+        Files.setLastModifiedTime(util, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        DiskUsageIndex.Report second = index.analyze(pool, Set.of(), 10);
+        assertEquals(1, second.restatedDirectories);
+        assertEquals(first.totalBytes + 30, second.totalBytes);
+
+        // 新的实例从索引文件加载，不需要重新列出任何目录
+        DiskUsageIndex reloaded = index();
+        DiskUsageIndex.Report third = reloaded.analyze(pool, Set.of(), 10);
+        assertEquals(0, third.restatedDirectories);
+        assertEquals(second.totalBytes, third.totalBytes);
+
+        // 删除版本后从索引中移除
+        try (var paths = Files.walk(repo.resolve("org/demo/core"))) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+        DiskUsageIndex.Report fourth = reloaded.analyze(pool, Set.of(), 10);
+        assertEquals(List.of("org.demo:util:1.0"), versions(fourth.unreferenced));
+        assertEquals(first.scannedDirectories - 2, fourth.scannedDirectories);
+    }
+
+    @Test
+    public void testFailedSaveLeavesNoTempFile() throws IOException {
+        install("org.demo", "core", "1.0", 100);
+        // 索引文件位置被非空目录占用，替换失败
+        Files.createDirectories(indexFile.toPath());
+        Files.write(indexFile.toPath().resolve("occupied"), new byte[1]);
+
+        assertEquals(1, index().analyze(pool, Set.of(), 10).versionCount);
+
+        try (var files = Files.list(indexFile.toPath().getParent())) {
+            assertEquals(List.of(indexFile.toPath()), files.collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package nd.mavenassistant.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试LocalRepositoryIndex的扫描、查询与增量更新
+ */
+public class LocalRepositoryIndexTest {
+
+    private static void install(Path repo, String groupId, String artifactId, String version) throws Exception {
+        Path dir = repo.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version);
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(artifactId + "-" + version + ".pom"), "<project/>");
+    }
+
+    @Test
+    public void testScanMetadataAndVersionDirectories() throws Exception {
+        Path repo = Files.createTempDirectory("local-repo");
+        install(repo, "org.demo", "core", "1.2.0");
+        install(repo, "org.demo", "core", "1.10.0");
+        install(repo, "org.demo", "core", "1.9.0-SNAPSHOT");
+        install(repo, "org.demo", "api", "2.0");
+        install(repo, "org.demo.tools", "cli", "0.1");
+        Files.writeString(repo.resolve("org/demo/core/maven-metadata-central.xml"),
+                "<metadata><groupId>org.demo</groupId><artifactId>core</artifactId><versioning>"
+                        + "<versions><version>1.2.0</version><version>1.11.0</version></versions></versioning></metadata>");
+
+        LocalRepositoryIndex index = new LocalRepositoryIndex();
+        index.setRepository(repo.toFile());
+        index.refresh();
+
+        assertEquals(3, index.size());
+        assertEquals(List.of("1.11.0", "1.10.0", "1.9.0-SNAPSHOT", "1.2.0"), index.getVersions("org.demo", "core"));
+        assertEquals(List.of("org.demo.tools", "org.demo"), index.completeGroupIds("org.d", 10));
+        assertEquals(List.of("api", "core"), index.completeArtifactIds("org.demo", "", 10));
+        assertEquals(List.of("core"), index.completeArtifactIds("org.demo", "c", 10));
+        assertTrue(index.getVersions("org.demo", "missing").isEmpty());
+    }
+
+    @Test
+    public void testIncrementalRefreshAndGraphAdditions() throws Exception {
+        Path repo = Files.createTempDirectory("local-repo");
+        install(repo, "org.demo", "core", "1.0");
+        install(repo, "org.demo", "api", "1.0");
+        LocalRepositoryIndex index = new LocalRepositoryIndex();
+        index.setRepository(repo.toFile());
+        index.refresh();
+
+        install(repo, "org.demo", "core", "2.0");
+        Path core = repo.resolve("org/demo/core");
+        core.toFile().setLastModified(core.toFile().lastModified() + 2000);
+        try (Stream<Path> files = Files.walk(repo.resolve("org/demo/api"))) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+        index.refresh();
+
+        assertEquals(List.of("2.0", "1.0"), index.getVersions("org.demo", "core"));
+        assertTrue(index.getVersions("org.demo", "api").isEmpty());
+
+        index.addVersion("org.demo", "core", "3.0");
+        assertEquals("3.0", index.getVersions("org.demo", "core").get(0));
+    }
+
+    @Test
+    public void testRemovedGroupIsNoLongerCompleted() throws Exception {
+        Path repo = Files.createTempDirectory("local-repo");
+        install(repo, "org.demo", "core", "1.0");
+        install(repo, "org.demo.tools", "cli", "0.1");
+        LocalRepositoryIndex index = new LocalRepositoryIndex();
+        index.setRepository(repo.toFile());
+        index.refresh();
+        assertEquals(List.of("org.demo.tools", "org.demo"), index.completeGroupIds("org.d", 10));
+
+        // 删除 groupId 下唯一的 GA
+        try (Stream<Path> files = Files.walk(repo.resolve("org/demo/tools"))) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+        index.refresh();
+
+        assertEquals(List.of("org.demo"), index.completeGroupIds("org.d", 10));
+        assertTrue(index.completeGroupIds("org.demo.t", 10).isEmpty());
+        assertEquals(List.of("core"), index.completeArtifactIds("org.demo", "", 10));
+        assertEquals(List.of("1.0"), index.getVersions("org.demo", "core"));
+    }
+}
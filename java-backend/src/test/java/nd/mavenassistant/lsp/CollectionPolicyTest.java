@@ -0,0 +1,68 @@
+package nd.mavenassistant.lsp;
+
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.Dependency;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试CollectionPolicy的解析、依赖选择与缓存键
+ */
+public class CollectionPolicyTest {
+
+    private static Dependency dependency(String coords, String scope, boolean optional) {
+        return new Dependency(new DefaultArtifact(coords), scope, optional);
+    }
+
+    @Test
+    public void testDefaultMatchesOriginalRules() {
+        CollectionPolicy policy = CollectionPolicy.fromParams(Map.of());
+        assertSame(CollectionPolicy.DEFAULT, policy);
+        assertTrue(policy.isDefault());
+        assertEquals("", policy.getKey());
+
+        assertTrue(policy.select(dependency("junit:junit:4.13.2", "test", false), 1));
+        assertTrue(policy.select(dependency("org.demo:opt:1.0", "compile", true), 1));
+        assertTrue(policy.select(dependency("org.demo:lib:1.0", "runtime", false), 4));
+        assertFalse(policy.select(dependency("org.demo:lib:1.0", "compile", false), 5));
+        assertFalse(policy.select(dependency("org.demo:lib:1.0", "test", false), 2));
+        assertFalse(policy.select(dependency("org.demo:lib:1.0", "compile", true), 2));
+    }
+
+    @Test
+    public void testQuickAndCustomPolicies() {
+        CollectionPolicy quick = CollectionPolicy.fromParams(Map.of("quick", true));
+        assertTrue(quick.isQuick());
+        assertTrue(quick.select(dependency("org.demo:lib:1.0", "compile", false), 1));
+        assertFalse(quick.select(dependency("org.demo:lib:1.0", "compile", false), 2));
+        assertNotEquals(CollectionPolicy.DEFAULT.getKey(), quick.getKey());
+
+        CollectionPolicy policy = CollectionPolicy.fromParams(Map.of("policy", Map.of(
+                "maxDepth", 6.0,
+                "scopes", List.of("compile"),
+                "includeOptional", true,
+                "exclude", List.of("org.slf4j:*"))));
+        assertFalse(policy.isDefault());
+        assertTrue(policy.select(dependency("org.demo:opt:1.0", "compile", true), 6));
+        assertFalse(policy.select(dependency("org.demo:lib:1.0", "runtime", false), 2));
+        assertFalse(policy.select(dependency("junit:junit:4.13.2", "test", false), 1));
+        assertFalse(policy.select(dependency("org.slf4j:slf4j-api:2.0.9", "compile", false), 1));
+
+        CollectionPolicy include = CollectionPolicy.fromParams(Map.of("policy", Map.of("include", List.of("org.demo:*"))));
+        assertTrue(include.select(dependency("org.demo:lib:1.0", "compile", false), 2));
+        assertFalse(include.select(dependency("org.other:lib:1.0", "compile", false), 2));
+
+        // 相同的参数得到相同的缓存键
+        assertEquals(policy, CollectionPolicy.fromParams(Map.of("policy", Map.of(
+                "exclude", List.of("org.slf4j:*"),
+                "scopes", List.of("compile"),
+                "includeOptional", true,
+                "maxDepth", 6))));
+        assertThrows(IllegalArgumentException.class,
+                () -> CollectionPolicy.fromParams(Map.of("policy", Map.of("maxDepth", 0))));
+    }
+}
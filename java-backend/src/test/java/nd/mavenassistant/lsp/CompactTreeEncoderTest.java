@@ -0,0 +1,102 @@
+package nd.mavenassistant.lsp;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试CompactTreeEncoder的编码结果可以还原为原始依赖树
+ */
+public class CompactTreeEncoderTest {
+
+    private static Map<String, Object> node(String groupId, String artifactId, String version, boolean dropped) {
+        Map<String, Object> node = new LinkedHashMap<>();
+        node.put("groupId", groupId);
+        node.put("artifactId", artifactId);
+        node.put("version", version);
+        node.put("scope", "compile");
+        node.put("droppedByConflict", dropped);
+        node.put("size", 1024L * artifactId.length());
+        return node;
+    }
+
+    /**
+     * 按 maven-assistant/src/compactTree.ts 的方式解码
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> decode(Map<String, Object> compact) {
+        List<String> strings = (List<String>) compact.get("strings");
+        Map<String, List<Number>> nodes = (Map<String, List<Number>>) compact.get("nodes");
+        int count = ((Number) compact.get("nodeCount")).intValue();
+        List<Map<String, Object>> decoded = new ArrayList<>();
+        Map<String, Object> root = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> node = new LinkedHashMap<>();
+            node.put("groupId", strings.get(nodes.get("groupId").get(i).intValue()));
+            node.put("artifactId", strings.get(nodes.get("artifactId").get(i).intValue()));
+            node.put("version", strings.get(nodes.get("version").get(i).intValue()));
+            node.put("scope", strings.get(nodes.get("scope").get(i).intValue()));
+            node.put("droppedByConflict", (nodes.get("flags").get(i).intValue() & CompactTreeEncoder.FLAG_DROPPED) != 0);
+            node.put("size", nodes.get("size").get(i).longValue());
+            decoded.add(node);
+            int parent = nodes.get("parent").get(i).intValue();
+            Map<String, Object> parentNode = parent < 0 ? root : decoded.get(parent);
+            ((List<Object>) parentNode.computeIfAbsent("children", k -> new ArrayList<>())).add(node);
+        }
+        List<Number> exclusions = (List<Number>) compact.get("exclusions");
+        for (int i = 0; i < exclusions.size(); i += 3) {
+            Map<String, Object> exclusion = new LinkedHashMap<>();
+            exclusion.put("groupId", strings.get(exclusions.get(i + 1).intValue()));
+            exclusion.put("artifactId", strings.get(exclusions.get(i + 2).intValue()));
+            ((List<Object>) decoded.get(exclusions.get(i).intValue())
+                    .computeIfAbsent("exclusions", k -> new ArrayList<>())).add(exclusion);
+        }
+        return root;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRoundTrip() {
+        Map<String, Object> web = node("org.springframework.boot", "spring-boot-starter-web", "3.2.0", false);
+        Map<String, Object> core = node("org.springframework", "spring-core", "6.1.1", false);
+        Map<String, Object> oldCore = node("org.springframework", "spring-core", "5.3.0", true);
+        web.put("children", List.of(core, node("org.springframework.boot", "spring-boot", "3.2.0", false)));
+        Map<String, Object> exclusion = new LinkedHashMap<>();
+        exclusion.put("groupId", "commons-logging");
+        exclusion.put("artifactId", "commons-logging");
+        web.put("exclusions", List.of(exclusion));
+        Map<String, Object> tree = new LinkedHashMap<>();
+        tree.put("children", List.of(web, oldCore));
+
+        Gson gson = new Gson();
+        Map<String, Object> compact = gson.fromJson(gson.toJson(CompactTreeEncoder.encode(tree)), Map.class);
+        assertEquals("compact", compact.get("format"));
+        assertEquals(4.0, compact.get("nodeCount"));
+        assertEquals(gson.toJson(tree), gson.toJson(decode(compact)));
+
+        Map<String, Object> empty = CompactTreeEncoder.encode(null);
+        assertEquals(0, empty.get("nodeCount"));
+    }
+
+    @Test
+    public void testSmallerThanJsonOnLargeTrees() {
+        List<Map<String, Object>> roots = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Map<String, Object> root = node("org.springframework.boot", "spring-boot-starter-" + (i % 40), "3.2.0", false);
+            List<Map<String, Object>> children = new ArrayList<>();
+            for (int j = 0; j < 20; j++) {
+                children.add(node("org.springframework", "spring-module-" + (j % 30), "6.1." + (j % 3), j % 7 == 0));
+            }
+            root.put("children", children);
+            roots.add(root);
+        }
+        Map<String, Object> tree = Map.of("children", roots);
+        Gson gson = new Gson();
+        int json = gson.toJson(tree).length();
+        int compact = gson.toJson(CompactTreeEncoder.encode(tree)).length();
+        assertTrue(compact * 5 < json, "compact " + compact + " vs json " + json);
+    }
+}
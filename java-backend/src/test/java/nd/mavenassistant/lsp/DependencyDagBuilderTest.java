@@ -0,0 +1,70 @@
+package nd.mavenassistant.lsp;
+
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.Exclusion;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static nd.mavenassistant.fixture.DependencyGraphs.loser;
+import static nd.mavenassistant.fixture.DependencyGraphs.node;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试DependencyDagBuilder对共享子图的去重输出
+ */
+public class DependencyDagBuilderTest {
+
+    /**
+     * 每个 starter 下都有一份独立的 jackson 子图，与 Resolver 收集的结果一致
+     */
+    private static DefaultDependencyNode jackson() {
+        return node("com.fasterxml.jackson.core:jackson-databind:2.15.0",
+                node("com.fasterxml.jackson.core:jackson-core:2.15.0"),
+                node("com.fasterxml.jackson.core:jackson-annotations:2.15.0"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSharedSubgraphEmittedOnce() {
+        List<DependencyNode> starters = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            starters.add(node("org.springframework.boot:starter-" + i + ":3.2.0", jackson()));
+        }
+        DefaultDependencyNode loser = loser("com.fasterxml.jackson.core:jackson-core:2.12.0",
+                starters.get(0).getChildren().get(0).getChildren().get(0));
+        DefaultDependencyNode legacy = new DefaultDependencyNode(new Dependency(
+                new DefaultArtifact("org.demo:legacy:1.0"), "runtime", true,
+                List.of(new Exclusion("commons-logging", "commons-logging", "*", "*"))));
+        legacy.setChildren(new ArrayList<>(List.of(loser)));
+        starters.add(legacy);
+        DefaultDependencyNode root = new DefaultDependencyNode((Dependency) null);
+        root.setChildren(starters);
+
+        Map<String, Object> dag = DependencyDagBuilder.build(root, artifact -> 100L);
+        List<Map<String, Object>> nodes = (List<Map<String, Object>>) dag.get("nodes");
+        List<Map<String, Object>> edges = (List<Map<String, Object>>) dag.get("edges");
+
+        // 20 个 starter + legacy + 3 个 jackson + 落败的 jackson-core 2.12.0
+        assertEquals(25, nodes.size());
+        // 21 条顶层边 + 20 条 starter -> databind + 2 条 databind 的子边 + legacy -> 落败节点
+        assertEquals(44, edges.size());
+
+        Map<String, Object> legacyEdge = edges.get(20);
+        assertEquals(-1, legacyEdge.get("from"));
+        assertEquals("runtime", legacyEdge.get("scope"));
+        assertEquals(true, legacyEdge.get("optional"));
+        assertEquals(List.of("commons-logging:commons-logging"), legacyEdge.get("exclusions"));
+        assertFalse(edges.get(0).containsKey("optional"));
+
+        Map<String, Object> dropped = nodes.stream()
+                .filter(n -> "2.12.0".equals(n.get("version"))).findFirst().orElseThrow();
+        assertEquals(true, dropped.get("droppedByConflict"));
+        assertEquals(false, nodes.get(0).get("droppedByConflict"));
+    }
+}
@@ -0,0 +1,95 @@
+package nd.mavenassistant.lsp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试DependencyTreeFilter对依赖树的裁剪
+ */
+public class DependencyTreeFilterTest {
+
+    @SafeVarargs
+    private static Map<String, Object> node(String ga, String version, String scope, long size, Map<String, Object>... children) {
+        Map<String, Object> node = new LinkedHashMap<>();
+        String[] parts = ga.split(":");
+        node.put("groupId", parts[0]);
+        node.put("artifactId", parts[1]);
+        node.put("version", version);
+        node.put("scope", scope);
+        node.put("droppedByConflict", false);
+        node.put("size", size);
+        if (children.length > 0) {
+            List<Map<String, Object>> list = new ArrayList<>(children.length);
+            for (Map<String, Object> child : children) {
+                list.add(child);
+            }
+            node.put("children", list);
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> tree() {
+        Map<String, Object> tree = new LinkedHashMap<>();
+        tree.put("children", List.of(
+                node("org.demo:web", "1.0", "compile", 1000,
+                        node("com.fasterxml.jackson.core:jackson-databind", "2.15.0", "compile", 1_500_000,
+                                node("com.fasterxml.jackson.core:jackson-core", "2.15.0", "compile", 500_000))),
+                node("org.demo:util", "1.0", "compile", 2000,
+                        node("com.fasterxml.jackson.core:jackson-core", "2.12.0", "compile", 400_000)),
+                node("org.junit.jupiter:junit-jupiter", "5.10.0", "test", 6000)));
+        return tree;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> children(Map<String, Object> node) {
+        return (List<Map<String, Object>>) node.getOrDefault("children", List.of());
+    }
+
+    @Test
+    public void testNoFilter() {
+        assertNull(DependencyTreeFilter.fromParams(Map.of("pomPath", "pom.xml")));
+    }
+
+    @Test
+    public void testScopeAndPathTo() {
+        Map<String, Object> result = DependencyTreeFilter.fromParams(Map.of("scopes", List.of("test"))).apply(tree());
+        assertEquals(1, children(result).size());
+        assertEquals("junit-jupiter", children(result).get(0).get("artifactId"));
+
+        result = DependencyTreeFilter.fromParams(Map.of("pathTo", "jackson-core")).apply(tree());
+        List<Map<String, Object>> roots = children(result);
+        assertEquals(2, roots.size());
+        assertEquals(true, roots.get(0).get("context"));
+        Map<String, Object> databind = children(roots.get(0)).get(0);
+        assertEquals(true, databind.get("context"));
+        assertNull(children(databind).get(0).get("context"));
+        Map<?, ?> summary = (Map<?, ?>) result.get("filter");
+        assertEquals(2, summary.get("matchedNodes"));
+        assertEquals(6, summary.get("totalNodes"));
+
+        // 原始树不被修改
+        assertNull(children(tree()).get(0).get("context"));
+    }
+
+    @Test
+    public void testConflictsDepthAndSize() {
+        Map<String, Object> result = DependencyTreeFilter.fromParams(Map.of("onlyConflicts", true)).apply(tree());
+        assertEquals(2, children(result).size());
+
+        result = DependencyTreeFilter.fromParams(Map.of("maxDepth", 1.0)).apply(tree());
+        assertEquals(3, children(result).size());
+        assertTrue(children(children(result).get(0)).isEmpty());
+        assertEquals(true, children(result).get(0).get("truncated"));
+
+        result = DependencyTreeFilter.fromParams(Map.of("minSize", 1_000_000.0, "artifact", "/com\\.fasterxml\\..*/")).apply(tree());
+        assertEquals(1, children(result).size());
+        assertEquals("jackson-databind", children(children(result).get(0)).get(0).get("artifactId"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> DependencyTreeFilter.fromParams(Map.of("artifact", "/[unclosed/")));
+    }
+}
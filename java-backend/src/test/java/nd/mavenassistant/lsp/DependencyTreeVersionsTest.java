@@ -0,0 +1,167 @@
+package nd.mavenassistant.lsp;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试DependencyTreeVersions的版本记录与增量计算，增量按 maven-assistant/src/treeDelta.ts 的方式应用
+ */
+public class DependencyTreeVersionsTest {
+
+    private static final Gson GSON = new Gson();
+
+    @SafeVarargs
+    private static Map<String, Object> node(String ga, String version, Map<String, Object>... children) {
+        Map<String, Object> node = new LinkedHashMap<>();
+        node.put("groupId", ga.split(":")[0]);
+        node.put("artifactId", ga.split(":")[1]);
+        node.put("version", version);
+        node.put("scope", "compile");
+        if (children.length > 0) {
+            List<Map<String, Object>> list = new ArrayList<>(children.length);
+            for (Map<String, Object> child : children) {
+                list.add(child);
+            }
+            node.put("children", list);
+        }
+        return node;
+    }
+
+    @SafeVarargs
+    private static Map<String, Object> tree(Map<String, Object>... children) {
+        Map<String, Object> tree = new LinkedHashMap<>();
+        if (children.length > 0) {
+            List<Map<String, Object>> list = new ArrayList<>(children.length);
+            for (Map<String, Object> child : children) {
+                list.add(child);
+            }
+            tree.put("children", list);
+        }
+        return tree;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> copy(Map<String, Object> tree) {
+        return GSON.fromJson(GSON.toJson(tree), Map.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> children(Map<String, Object> node) {
+        return (List<Map<String, Object>>) node.computeIfAbsent("children", k -> new ArrayList<>());
+    }
+
+    private static Map<String, Object> resolve(Map<String, Object> root, String path) {
+        Map<String, Object> node = root;
+        if (path.isEmpty()) {
+            return node;
+        }
+        for (String key : path.split(DependencyTreeVersions.SEPARATOR)) {
+            Map<String, Map<String, Object>> keyed = new LinkedHashMap<>();
+            for (Map<String, Object> child : children(node)) {
+                String ga = child.get("groupId") + ":" + child.get("artifactId");
+                String childKey = ga;
+                for (int n = 2; keyed.containsKey(childKey); n++) {
+                    childKey = ga + "#" + n;
+                }
+                keyed.put(childKey, child);
+            }
+            node = keyed.get(key);
+            assertNotNull(node, path);
+        }
+        return node;
+    }
+
+    private static String parentPath(String path) {
+        int slash = path.lastIndexOf(DependencyTreeVersions.SEPARATOR);
+        return slash < 0 ? "" : path.substring(0, slash);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> apply(Map<String, Object> tree, Map<String, Object> delta) {
+        Map<String, Object> root = copy(tree);
+        List<List<Map<String, Object>>> removals = new ArrayList<>();
+        for (String path : (List<String>) delta.get("removed")) {
+            removals.add(List.of(resolve(root, parentPath(path)), resolve(root, path)));
+        }
+        for (List<Map<String, Object>> removal : removals) {
+            children(removal.get(0)).removeIf(child -> child == removal.get(1));
+        }
+        for (Map<String, Object> change : (List<Map<String, Object>>) delta.get("changed")) {
+            Map<String, Object> target = resolve(root, (String) change.get("path"));
+            Object kids = target.get("children");
+            target.clear();
+            target.putAll((Map<String, Object>) change.get("node"));
+            target.put("children", kids);
+        }
+        for (Map<String, Object> addition : (List<Map<String, Object>>) delta.get("added")) {
+            children(resolve(root, (String) addition.get("parent")))
+                    .add(((Number) addition.get("index")).intValue(), (Map<String, Object>) addition.get("node"));
+        }
+        prune(root);
+        return root;
+    }
+
+    private static void prune(Map<String, Object> node) {
+        if (children(node).isEmpty()) {
+            node.remove("children");
+            return;
+        }
+        children(node).forEach(DependencyTreeVersionsTest::prune);
+    }
+
+    private static void assertDeltaApplies(Map<String, Object> before, Map<String, Object> after) {
+        Map<String, Object> delta = copy(DependencyTreeVersions.diff(before, after));
+        assertEquals(GSON.toJson(copy(after)), GSON.toJson(apply(before, delta)));
+    }
+
+    @Test
+    public void testRecordAndHistory() {
+        DependencyTreeVersions versions = new DependencyTreeVersions();
+        Map<String, Object> first = tree(node("a:a", "1"));
+        long v1 = versions.record("pom", first);
+        assertEquals(v1, versions.record("pom", first));
+        long v2 = versions.record("pom", tree(node("a:a", "2")));
+        assertTrue(v2 > v1);
+        assertSame(first, versions.get("pom", v1));
+        for (int i = 0; i < 4; i++) {
+            versions.record("pom", tree());
+        }
+        assertNull(versions.get("pom", v1));
+        assertNull(versions.get("other", v2));
+    }
+
+    @Test
+    public void testDeltaOnlyContainsChangedSubtree() {
+        Map<String, Object> spring = node("org.springframework:spring-core", "6.1.0");
+        Map<String, Object> before = tree(
+                node("org.demo:web", "1.0", spring, node("com.fasterxml.jackson.core:jackson-databind", "2.15.0",
+                        node("com.fasterxml.jackson.core:jackson-core", "2.15.0"))),
+                node("junit:junit", "4.13.2"));
+        Map<String, Object> after = tree(
+                node("org.demo:web", "1.0", spring, node("com.fasterxml.jackson.core:jackson-databind", "2.16.0",
+                        node("com.fasterxml.jackson.core:jackson-annotations", "2.16.0"))),
+                node("junit:junit", "4.13.2"),
+                node("org.slf4j:slf4j-api", "2.0.9"));
+
+        Map<String, Object> delta = DependencyTreeVersions.diff(before, after);
+        assertEquals(List.of("org.demo:web/com.fasterxml.jackson.core:jackson-databind/com.fasterxml.jackson.core:jackson-core"),
+                delta.get("removed"));
+        assertEquals(1, ((List<?>) delta.get("changed")).size());
+        assertEquals(2, ((List<?>) delta.get("added")).size());
+        assertDeltaApplies(before, after);
+    }
+
+    @Test
+    public void testDuplicateAndReorderedSiblings() {
+        Map<String, Object> before = tree(node("a:a", "1"), node("a:a", "2"), node("b:b", "1"), node("c:c", "1"));
+        assertDeltaApplies(before, tree(node("a:a", "1"), node("b:b", "1"), node("c:c", "1")));
+        assertDeltaApplies(before, tree(node("a:a", "3"), node("a:a", "2"), node("a:a", "4"), node("c:c", "1")));
+        assertDeltaApplies(before, tree(node("c:c", "1"), node("b:b", "1"), node("a:a", "1")));
+        assertDeltaApplies(before, tree());
+        assertDeltaApplies(tree(), before);
+    }
+}
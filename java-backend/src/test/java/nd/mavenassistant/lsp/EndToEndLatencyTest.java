@@ -0,0 +1,333 @@
+package nd.mavenassistant.lsp;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import nd.mavenassistant.fixture.SyntheticRepository;
+import org.eclipse.lsp4j.*;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.jsonrpc.services.JsonRequest;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.eclipse.lsp4j.services.LanguageServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 端到端延迟回归测试
+ * 在合成仓库上经 LSP JSON-RPC 链路驱动 SimpleLanguageServer，记录 analyzeDependencies、getDependencyPath、
+ * insertExclusion 的 p50/p99 延迟与峰值堆占用，超出预算（或相对基线退化超过容差）时失败。
+ * 默认不随 mvn test 运行，使用 mvn test -Pperformance 执行。可调参数（系统属性）：
+ * - perf.libraries / perf.directDependencies：合成仓库规模
+ * - perf.&lt;请求名&gt;.p50Ms / perf.&lt;请求名&gt;.p99Ms / perf.maxHeapMb：预算
+ * - perf.baseline：上一次生成的报告文件，perf.tolerance 为允许的退化比例（默认 0.25）
+ * 报告写入 target/perf/e2e-latency.json
+ */
+@Tag("performance")
+public class EndToEndLatencyTest {
+
+    /**
+     * 客户端视角的服务端接口，只声明本测试用到的请求
+     */
+    public interface MavenAssistantServer extends LanguageServer {
+        @JsonRequest("maven/analyzeDependencies")
+        CompletableFuture<String> analyzeDependencies(String pomPath);
+
+        @JsonRequest("maven/getDependencyPath")
+        CompletableFuture<String> getDependencyPath(String request);
+
+        @JsonRequest("maven/insertExclusion")
+        CompletableFuture<String> insertExclusion(String request);
+    }
+
+    /**
+     * 单个请求的统计结果
+     */
+    private static class RequestStats {
+        public String request;
+        public int iterations;
+        public long coldMs;
+        public long p50Ms;
+        public long p99Ms;
+        public long maxMs;
+        public long peakHeapMb;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        String invoke(int iteration) throws Exception;
+    }
+
+    private static final Gson GSON = new Gson();
+    private static final long REQUEST_TIMEOUT_SECONDS = 300;
+
+    private static Path workDir;
+    private static SyntheticRepository repository;
+    private static SimpleLanguageServer server;
+    private static MavenAssistantServer remote;
+    private static ExecutorService launcherThreads;
+    private static final Map<String, RequestStats> report = new LinkedHashMap<>();
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        workDir = Files.createTempDirectory("maven-assistant-e2e");
+        int libraries = Integer.getInteger("perf.libraries", 2000);
+        int directDependencies = Integer.getInteger("perf.directDependencies", 40);
+        repository = SyntheticRepository.generate(workDir, libraries, directDependencies, 42L);
+
+        // 两条单向管道模拟 stdio，客户端与服务端各自通过 lsp4j Launcher 收发 JSON-RPC 消息
+        Pipe clientToServer = Pipe.open();
+        Pipe serverToClient = Pipe.open();
+        launcherThreads = Executors.newCachedThreadPool();
+        server = new SimpleLanguageServer();
+        Launcher<MavenAssistantClient> serverLauncher = LspServerMain.createLauncher(server,
+                Channels.newInputStream(clientToServer.source()), Channels.newOutputStream(serverToClient.sink()));
+        Launcher<MavenAssistantServer> clientLauncher = new Launcher.Builder<MavenAssistantServer>()
+                .setLocalService(new SilentClient())
+                .setRemoteInterface(MavenAssistantServer.class)
+                .setInput(Channels.newInputStream(serverToClient.source()))
+                .setOutput(Channels.newOutputStream(clientToServer.sink()))
+                .setExecutorService(launcherThreads)
+                .create();
+        serverLauncher.startListening();
+        clientLauncher.startListening();
+        remote = clientLauncher.getRemoteProxy();
+
+        Map<String, Object> options = new HashMap<>();
+        options.put("localRepository", workDir.resolve("local").toString());
+        options.put("remoteRepositories", List.of(repository.getRemoteUrl()));
+        options.put("effectiveDependencySource", ServerSettings.EFFECTIVE_SOURCE_GRAPH);
+        InitializeParams params = new InitializeParams();
+        params.setInitializationOptions(options);
+        remote.initialize(params).get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void tearDown() throws Exception {
+        try {
+            writeReport();
+            if (remote != null) {
+                remote.shutdown().get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } finally {
+            if (launcherThreads != null) {
+                launcherThreads.shutdownNow();
+            }
+            if (workDir != null) {
+                try (var paths = Files.walk(workDir)) {
+                    paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAnalyzeDependenciesLatency() throws Exception {
+        File pom = repository.getProjectPom().toFile();
+        long baseModified = pom.lastModified();
+        // 每次迭代推进 pom.xml 的修改时间使结果缓存和依赖图缓存失效，模拟编辑后重新分析（描述符缓存保持热）
+        RequestStats stats = measure("analyzeDependencies", 15, iteration -> {
+            if (iteration > 0) {
+                assertTrue(pom.setLastModified(baseModified + iteration * 1000L));
+            }
+            return remote.analyzeDependencies(pom.getAbsolutePath()).get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        });
+        assertWithinBudget(stats, 5000, 15000);
+    }
+
+    @Test
+    public void testGetDependencyPathLatency() throws Exception {
+        String pomPath = repository.getProjectPom().toString();
+        SyntheticRepository.Declared target = findTransitiveTarget();
+        assertNotNull(target, "No compile-scoped transitive dependency in the synthetic repository");
+        Map<String, String> request = new HashMap<>();
+        request.put("pomPath", pomPath);
+        request.put("groupId", SyntheticRepository.groupId(target.library));
+        request.put("artifactId", SyntheticRepository.artifactId(target.library));
+        String json = GSON.toJson(request);
+        RequestStats stats = measure("getDependencyPath", 50,
+                iteration -> remote.getDependencyPath(json).get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertWithinBudget(stats, 500, 3000);
+    }
+
+    @Test
+    public void testInsertExclusionLatency() throws Exception {
+        // 在副本上插入，避免改写其他测试使用的 pom.xml
+        Path pomCopy = repository.getProjectPom().resolveSibling("pom-exclusion.xml");
+        Files.copy(repository.getProjectPom(), pomCopy);
+        int index = firstDirectIndex(false);
+        int library = repository.getDirectLibraries().get(index);
+        Map<String, String> rootDependency = new HashMap<>();
+        rootDependency.put("groupId", SyntheticRepository.groupId(library));
+        rootDependency.put("artifactId", SyntheticRepository.artifactId(library));
+        rootDependency.put("version", SyntheticRepository.directVersion(index));
+        RequestStats stats = measure("insertExclusion", 30, iteration -> {
+            Map<String, Object> request = new HashMap<>();
+            request.put("pomPath", pomCopy.toString());
+            request.put("rootDependency", rootDependency);
+            request.put("targetDependency", Map.of("groupId", "org.synthrepo.excluded", "artifactId", "excluded-" + iteration));
+            return remote.insertExclusion(GSON.toJson(request)).get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        });
+        assertWithinBudget(stats, 200, 1000);
+    }
+
+    /**
+     * 首个非 test scope 且（可选）不带 exclusion 的直接依赖下标
+     */
+    private static int firstDirectIndex(boolean requireDependencies) {
+        List<Integer> direct = repository.getDirectLibraries();
+        for (int i = 0; i < direct.size(); i++) {
+            if (SyntheticRepository.isTestScoped(i) || SyntheticRepository.hasExclusion(i)) {
+                continue;
+            }
+            if (!requireDependencies || findCompileDependency(direct.get(i)) != null) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("No suitable direct dependency in the synthetic repository");
+    }
+
+    private static SyntheticRepository.Declared findTransitiveTarget() {
+        return findCompileDependency(repository.getDirectLibraries().get(firstDirectIndex(true)));
+    }
+
+    private static SyntheticRepository.Declared findCompileDependency(int library) {
+        for (SyntheticRepository.Declared declared : repository.getDependencies(library)) {
+            if ("compile".equals(declared.scope) && !declared.optional) {
+                return declared;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 执行一次冷启动调用与若干次测量调用，统计延迟分位数和期间的峰值堆占用
+     */
+    private static RequestStats measure(String request, int iterations, Call call) throws Exception {
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+
+        RequestStats stats = new RequestStats();
+        stats.request = request;
+        stats.iterations = iterations;
+        stats.coldMs = timed(call, 0);
+        long[] latencies = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            latencies[i] = timed(call, i + 1);
+        }
+        Arrays.sort(latencies);
+        stats.p50Ms = percentile(latencies, 50);
+        stats.p99Ms = percentile(latencies, 99);
+        stats.maxMs = latencies[latencies.length - 1];
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+        stats.peakHeapMb = peakHeap / (1024 * 1024);
+        report.put(request, stats);
+        System.out.printf("[e2e] %-20s cold=%dms p50=%dms p99=%dms max=%dms peakHeap=%dMB%n",
+                request, stats.coldMs, stats.p50Ms, stats.p99Ms, stats.maxMs, stats.peakHeapMb);
+        return stats;
+    }
+
+    private static long timed(Call call, int iteration) throws Exception {
+        long start = System.nanoTime();
+        String response = call.invoke(iteration);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertNotNull(response);
+        assertFalse(response.contains("\"error\""), "Request failed: " + response);
+        return elapsed;
+    }
+
+    /**
+     * 最近秩法求分位数
+     */
+    private static long percentile(long[] sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static void assertWithinBudget(RequestStats stats, long defaultP50Ms, long defaultP99Ms) throws Exception {
+        long p50Budget = Long.getLong("perf." + stats.request + ".p50Ms", defaultP50Ms);
+        long p99Budget = Long.getLong("perf." + stats.request + ".p99Ms", defaultP99Ms);
+        long heapBudget = Long.getLong("perf.maxHeapMb", 1024);
+        assertTrue(stats.p50Ms <= p50Budget, stats.request + " p50 " + stats.p50Ms + "ms exceeds budget " + p50Budget + "ms");
+        assertTrue(stats.p99Ms <= p99Budget, stats.request + " p99 " + stats.p99Ms + "ms exceeds budget " + p99Budget + "ms");
+        assertTrue(stats.peakHeapMb <= heapBudget, stats.request + " peak heap " + stats.peakHeapMb + "MB exceeds budget " + heapBudget + "MB");
+
+        String baselinePath = System.getProperty("perf.baseline");
+        if (baselinePath == null || baselinePath.isEmpty()) {
+            return;
+        }
+        Map<String, RequestStats> baseline = GSON.fromJson(Files.readString(Path.of(baselinePath)),
+                new TypeToken<Map<String, RequestStats>>() { }.getType());
+        RequestStats previous = baseline != null ? baseline.get(stats.request) : null;
+        if (previous == null) {
+            return;
+        }
+        double tolerance = Double.parseDouble(System.getProperty("perf.tolerance", "0.25"));
+        // 加上固定的 5ms 余量，避免极短请求的计时抖动被当作退化
+        long allowedP99 = (long) (previous.p99Ms * (1 + tolerance)) + 5;
+        long allowedHeap = (long) (previous.peakHeapMb * (1 + tolerance)) + 16;
+        assertTrue(stats.p99Ms <= allowedP99, stats.request + " p99 regressed: " + stats.p99Ms + "ms vs baseline " + previous.p99Ms + "ms");
+        assertTrue(stats.peakHeapMb <= allowedHeap, stats.request + " peak heap regressed: " + stats.peakHeapMb + "MB vs baseline " + previous.peakHeapMb + "MB");
+    }
+
+    private static void writeReport() throws Exception {
+        if (report.isEmpty()) {
+            return;
+        }
+        Path reportFile = Path.of("target", "perf", "e2e-latency.json");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, GSON.toJson(report));
+    }
+
+    /**
+     * 忽略所有服务端推送的客户端实现
+     */
+    private static class SilentClient implements LanguageClient {
+        @Override
+        public void telemetryEvent(Object object) {
+        }
+
+        @Override
+        public void publishDiagnostics(PublishDiagnosticsParams diagnostics) {
+        }
+
+        @Override
+        public void showMessage(MessageParams messageParams) {
+        }
+
+        @Override
+        public CompletableFuture<MessageActionItem> showMessageRequest(ShowMessageRequestParams requestParams) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void logMessage(MessageParams message) {
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package nd.mavenassistant.lsp;
+
+import com.google.gson.Gson;
+import nd.mavenassistant.model.ArtifactGav;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试并行构建的依赖树与顺序实现逐字节一致
+ */
+public class ParallelTreeBuilderTest {
+
+    private static final int TIERS = 5;
+    private static final int TIER_SIZE = 55;
+    private static final int ARTIFACTS = TIERS * TIER_SIZE;
+
+    /**
+     * 生成有大量共享子图的随机依赖图：GA 按编号分为 5 层，每个 GAV 的子节点列表固定且只来自下一层，
+     * 每个 GA 有两个版本，其中 2.0 只在部分位置出现且不是生效版本
+     */
+    private static DependencyNode randomGraph(long seed) {
+        Random random = new Random(seed);
+        Map<String, List<DependencyNode>> childrenByGav = new HashMap<>();
+        DefaultDependencyNode root = new DefaultDependencyNode((Dependency) null);
+        List<DependencyNode> direct = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            direct.add(node(random.nextInt(TIER_SIZE), random, childrenByGav));
+        }
+        root.setChildren(direct);
+        return root;
+    }
+
+    private static DependencyNode node(int ga, Random random, Map<String, List<DependencyNode>> childrenByGav) {
+        String version = random.nextInt(5) == 0 ? "2.0" : "1.0";
+        String coords = "org.demo.g" + (ga % 7) + ":a" + ga + ":" + version;
+        DefaultDependencyNode node = new DefaultDependencyNode(new Dependency(new DefaultArtifact(coords),
+                random.nextInt(4) == 0 ? "runtime" : "compile"));
+        List<DependencyNode> children = childrenByGav.get(coords);
+        if (children == null) {
+            children = new ArrayList<>();
+            int tier = ga / TIER_SIZE;
+            int count = tier + 1 < TIERS ? random.nextInt(10) : 0;
+            for (int i = 0; i < count; i++) {
+                children.add(node((tier + 1) * TIER_SIZE + random.nextInt(TIER_SIZE), random, childrenByGav));
+            }
+            childrenByGav.put(coords, children);
+        }
+        node.setChildren(children);
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int countNodes(Map<String, Object> tree) {
+        int count = 0;
+        Object children = tree.get("children");
+        if (children instanceof List) {
+            for (Object child : (List<?>) children) {
+                count += 1 + countNodes((Map<String, Object>) child);
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testOutputMatchesSequentialBuilder() {
+        SimpleLanguageServer server = new SimpleLanguageServer();
+        List<ArtifactGav> effective = new ArrayList<>();
+        for (int ga = 0; ga < ARTIFACTS; ga++) {
+            // 少量 GA 不在生效列表中，对应节点被跳过
+            if (ga % 31 != 5) {
+                effective.add(new ArtifactGav("org.demo.g" + (ga % 7), "a" + ga, "1.0", null, ga % 3 == 0 ? "runtime" : null));
+            }
+        }
+        Map<String, Set<String>> exclusionMap = new HashMap<>();
+        exclusionMap.put("org.demo.g1:a1", new LinkedHashSet<>(List.of("commons-logging:commons-logging", "log4j:log4j")));
+        exclusionMap.put("org.demo.g3:a10", new LinkedHashSet<>(List.of("org.demo.g4:a11")));
+
+        Gson gson = new Gson();
+        for (long seed = 1; seed <= 5; seed++) {
+            DependencyNode root = randomGraph(seed);
+            Set<String> usedGAVSet = new HashSet<>();
+            Set<String> usedGASet = new HashSet<>();
+            Map<String, String> gavScopeMap = new HashMap<>();
+            server.fillEffectiveGavSets(effective, usedGAVSet, usedGASet, gavScopeMap);
+            Map<String, Object> sequential = server.buildDependencyTreeSequential(root, usedGAVSet, usedGASet, gavScopeMap, exclusionMap);
+            Map<String, Object> parallel = server.buildDependencyTreeParallel(root, usedGAVSet, usedGASet, gavScopeMap, exclusionMap);
+
+            assertTrue(countNodes(sequential) > 500, "graph too small for seed " + seed + ": " + countNodes(sequential));
+            assertEquals(gson.toJson(sequential), gson.toJson(parallel), "seed " + seed);
+        }
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        SimpleLanguageServer server = new SimpleLanguageServer();
+        DefaultDependencyNode root = new DefaultDependencyNode((Dependency) null);
+        assertNull(server.buildDependencyTreeParallel(root, Set.of(), Set.of(), Map.of(), Map.of()));
+    }
+}
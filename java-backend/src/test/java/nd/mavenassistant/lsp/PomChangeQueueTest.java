@@ -0,0 +1,76 @@
+package nd.mavenassistant.lsp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试PomChangeQueue按 pom.xml 串行执行并丢弃过期的分析
+ */
+public class PomChangeQueueTest {
+
+    @Test
+    public void testSlowStaleAnalysisDoesNotPublishAfterNewerEdit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            PomChangeQueue queue = new PomChangeQueue(executor);
+            List<String> events = new CopyOnWriteArrayList<>();
+            CountDownLatch firstStarted = new CountDownLatch(1);
+            CountDownLatch releaseFirst = new CountDownLatch(1);
+
+            // 第一次编辑的分析较慢，在第二次编辑提交后才完成
+            CompletableFuture<Void> first = queue.submit("/work/pom.xml", latest -> {
+                firstStarted.countDown();
+                await(releaseFirst);
+                events.add(latest.getAsBoolean() ? "first-published" : "first-stale");
+            });
+            assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Void> second = queue.submit("/work/pom.xml", latest -> events.add("second-published"));
+            CompletableFuture<Void> third = queue.submit("/work/pom.xml", latest -> events.add("third-published"));
+            // 其他 pom.xml 不受阻塞
+            queue.submit("/work/other/pom.xml", latest -> events.add("other-published")).get(5, TimeUnit.SECONDS);
+            assertFalse(second.isDone());
+
+            releaseFirst.countDown();
+            CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+
+            // 第二次编辑在排队期间被第三次取代，直接跳过
+            assertEquals(List.of("other-published", "first-stale", "third-published"), events);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedAnalysisDoesNotBlockLaterOnes() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            PomChangeQueue queue = new PomChangeQueue(executor);
+            List<String> events = new CopyOnWriteArrayList<>();
+            CompletableFuture<Void> failed = queue.submit("/work/pom.xml", latest -> {
+                throw new IllegalStateException("broken pom");
+            });
+            assertThrows(Exception.class, () -> failed.get(5, TimeUnit.SECONDS));
+            queue.submit("/work/pom.xml", latest -> events.add("published")).get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("published"), events);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package nd.mavenassistant.lsp;
+
+import nd.mavenassistant.index.LocalRepositoryIndex;
+import org.eclipse.lsp4j.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试PomDocumentService的增量同步与防抖通知
+ */
+public class PomDocumentServiceTest {
+
+    private static final String POM = "<project>\n  <version>1.0</version>\n</project>\n";
+
+    private static TextDocumentContentChangeEvent edit(int startLine, int startChar, int endLine, int endChar, String text) {
+        return new TextDocumentContentChangeEvent(
+                new Range(new Position(startLine, startChar), new Position(endLine, endChar)), text);
+    }
+
+    /**
+     * 打开另一个 pom.xml 作为标记，返回标记的通知之前收到的通知；防抖线程按计划时间顺序执行，标记之前计划的通知都已送达
+     */
+    private static List<String> changesBefore(PomDocumentService service, BlockingQueue<String> changes, Path dir) throws Exception {
+        Path marker = Files.writeString(Files.createDirectories(dir.resolve("marker")).resolve("pom.xml"), POM);
+        service.didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(marker.toUri().toString(), "xml", 1, POM)));
+        String markerPath = marker.toAbsolutePath().normalize().toString();
+        List<String> before = new ArrayList<>();
+        for (String path = changes.poll(5, TimeUnit.SECONDS); !markerPath.equals(path); path = changes.poll(5, TimeUnit.SECONDS)) {
+            assertNotNull(path, "timed out waiting for change notifications");
+            before.add(path);
+        }
+        return before;
+    }
+
+    @Test
+    public void testApplyIncrementalChanges() {
+        StringBuilder text = new StringBuilder(POM);
+        PomDocumentService.applyChange(text, edit(1, 11, 1, 14, "2.0.1"));
+        assertEquals("<project>\n  <version>2.0.1</version>\n</project>\n", text.toString());
+
+        PomDocumentService.applyChange(text, edit(2, 0, 2, 0, "  <!-- x -->\n"));
+        assertEquals("<project>\n  <version>2.0.1</version>\n  <!-- x -->\n</project>\n", text.toString());
+
+        PomDocumentService.applyChange(text, new TextDocumentContentChangeEvent("<project/>"));
+        assertEquals("<project/>", text.toString());
+    }
+
+    @Test
+    public void testUnsavedContentAndDebouncedNotification() throws Exception {
+        Path dir = Files.createTempDirectory("pom-documents");
+        Path pom = Files.writeString(dir.resolve("pom.xml"), POM);
+        String uri = pom.toUri().toString();
+        BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+        PomDocumentService service = new PomDocumentService(changes::add, new LocalRepositoryIndex(), 200);
+        List<String> opened = new CopyOnWriteArrayList<>();
+        service.addOpenListener(opened::add);
+        try {
+            service.didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(uri, "xml", 1, POM)));
+            assertEquals(List.of(pom.toAbsolutePath().normalize().toString()), opened, "open listeners run without debouncing");
+            assertNull(service.getUnsavedContent(pom.toString()), "content identical to disk is not unsaved");
+
+            for (int version = 2; version <= 4; version++) {
+                service.didChange(new DidChangeTextDocumentParams(new VersionedTextDocumentIdentifier(uri, version),
+                        List.of(edit(1, 11, 1, 14, "1." + version))));
+            }
+            assertEquals("<project>\n  <version>1.4</version>\n</project>\n", service.getUnsavedContent(pom.toString()));
+
+            assertEquals(List.of(pom.toAbsolutePath().normalize().toString()), changesBefore(service, changes, dir),
+                    "rapid edits should be debounced");
+
+            service.didSave(new DidSaveTextDocumentParams(new TextDocumentIdentifier(uri)));
+            assertNull(service.getUnsavedContent(pom.toString()));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void testIgnoresOtherDocuments() throws Exception {
+        Path dir = Files.createTempDirectory("pom-documents");
+        Path other = Files.writeString(dir.resolve("settings.xml"), "<settings/>");
+        BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+        PomDocumentService service = new PomDocumentService(changes::add, new LocalRepositoryIndex(), 10);
+        try {
+            service.didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(other.toUri().toString(), "xml", 1, "<changed/>")));
+            assertNull(service.getUnsavedContent(other.toString()));
+            assertTrue(changesBefore(service, changes, dir).isEmpty());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void testVersionCompletionAndHover() throws Exception {
+        Path dir = Files.createTempDirectory("pom-documents");
+        String text = "<project>\n  <dependencies>\n    <dependency>\n      <groupId>org.demo</groupId>\n"
+                + "      <artifactId>core</artifactId>\n      <version>1.</version>\n    </dependency>\n"
+                + "  </dependencies>\n</project>\n";
+        Path pom = Files.writeString(dir.resolve("pom.xml"), text);
+        String uri = pom.toUri().toString();
+        LocalRepositoryIndex index = new LocalRepositoryIndex();
+        index.addVersion("org.demo", "core", "1.0");
+        index.addVersion("org.demo", "core", "1.1");
+        PomDocumentService service = new PomDocumentService(path -> { }, index, 10);
+        try {
+            service.didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(uri, "xml", 1, text)));
+            Position position = new Position(5, 17);
+
+            CompletionList list = service.completion(new CompletionParams(new TextDocumentIdentifier(uri), position))
+                    .get().getRight();
+            assertEquals(List.of("1.1", "1.0"), list.getItems().stream().map(CompletionItem::getLabel).toList());
+            TextEdit edit = list.getItems().get(0).getTextEdit().getLeft();
+            assertEquals(new Range(new Position(5, 15), new Position(5, 17)), edit.getRange());
+
+            Hover hover = service.hover(new HoverParams(new TextDocumentIdentifier(uri), position)).get();
+            assertTrue(hover.getContents().getRight().getValue().contains("Latest local version: `1.1`"));
+        } finally {
+            service.shutdown();
+        }
+    }
+}
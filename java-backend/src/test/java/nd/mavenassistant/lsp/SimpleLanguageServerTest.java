@@ -181,6 +181,32 @@ public class SimpleLanguageServerTest {
     
 
     
+    @Test
+    public void testRepeatedDiffReusesCachedGraphs() throws Exception {
+        String pom = "<project><modelVersion>4.0.0</modelVersion><groupId>org.demo</groupId>"
+                + "<artifactId>app</artifactId><version>%s</version></project>";
+        Path pomPath = tempDir.resolve("pom.xml");
+        Files.writeString(pomPath, String.format(pom, "1.0"));
+        SimpleLanguageServer server = createServer();
+        InitializeParams params = new InitializeParams();
+        params.setInitializationOptions(Map.of("localRepository", tempDir.resolve("local").toString()));
+        server.initialize(params).get();
+
+        Map<String, String> request = new HashMap<>();
+        request.put("pomPath", pomPath.toString());
+        request.put("baseContent", String.format(pom, "1.0"));
+        request.put("targetContent", String.format(pom, "2.0"));
+        String json = new com.google.gson.Gson().toJson(request);
+        assertFalse(server.diffDependencies(json).get().contains("\"success\":false"));
+        assertFalse(server.diffDependencies(json).get().contains("\"success\":false"));
+
+        // 第二次比较两侧都命中依赖图缓存，两侧不会互相淘汰
+        com.google.gson.JsonObject graphs = com.google.gson.JsonParser.parseString(server.getServerStats(null).get())
+                .getAsJsonObject().getAsJsonObject("caches").getAsJsonObject("dependencyGraphs");
+        assertEquals(2, graphs.get("hits").getAsLong());
+        assertEquals(2, graphs.get("size").getAsInt());
+    }
+
     @Test
     public void testInsertExclusionWithComments() throws Exception {
         // 复制 test-pom.xml 到临时文件
@@ -0,0 +1,99 @@
+package nd.mavenassistant.lsp;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试WorkspacePrewarmer的模块发现与优先级顺序
+ */
+public class WorkspacePrewarmerTest {
+
+    private static Path pom(Path dir) throws Exception {
+        Files.createDirectories(dir);
+        return Files.writeString(dir.resolve("pom.xml"), "<project/>");
+    }
+
+    @Test
+    public void testDiscoverPomsSkipsBuildOutputAndSortsByDepth() throws Exception {
+        Path root = Files.createTempDirectory("prewarm");
+        pom(root.resolve("modules/core/impl"));
+        pom(root.resolve("modules/api"));
+        pom(root);
+        pom(root.resolve("target/classes"));
+        pom(root.resolve(".git/hooks"));
+
+        List<Path> poms = WorkspacePrewarmer.discoverPoms(Collections.singletonList(root));
+
+        assertEquals(3, poms.size());
+        assertEquals(root.resolve("pom.xml").toAbsolutePath().normalize(), poms.get(0));
+        assertTrue(poms.get(1).endsWith("modules/api/pom.xml"));
+        assertTrue(poms.get(2).endsWith("modules/core/impl/pom.xml"));
+    }
+
+    @Test
+    public void testDiscoverPomsKeepsShallowModulesWhenTruncating() throws Exception {
+        Path root = Files.createTempDirectory("prewarm");
+        // 深层分支中的模块数超过上限，浅层父模块所在分支不一定先被遍历
+        for (int i = 0; i < 4; i++) {
+            pom(root.resolve("a/deep/nested/m" + i));
+            pom(root.resolve("z/deep/nested/m" + i));
+        }
+        pom(root.resolve("a"));
+        pom(root.resolve("z"));
+        pom(root);
+
+        List<Path> poms = WorkspacePrewarmer.discoverPoms(Collections.singletonList(root), 3);
+
+        assertEquals(3, poms.size());
+        assertEquals(root.resolve("pom.xml").toAbsolutePath().normalize(), poms.get(0));
+        assertTrue(poms.contains(root.resolve("a/pom.xml").toAbsolutePath().normalize()));
+        assertTrue(poms.contains(root.resolve("z/pom.xml").toAbsolutePath().normalize()));
+    }
+
+    @Test
+    public void testOpenModulesRunFirstAndForegroundPauses() throws Exception {
+        Path root = Files.createTempDirectory("prewarm");
+        List<String> order = new CopyOnWriteArrayList<>();
+        AtomicBoolean busy = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(4);
+        WorkspacePrewarmer prewarmer = new WorkspacePrewarmer(pomPath -> {
+            order.add(pomPath);
+            finished.countDown();
+        }, () -> {
+            started.countDown();
+            return busy.get();
+        });
+        try {
+            Path first = root.resolve("first/pom.xml");
+            Path deep = root.resolve("a/b/c/pom.xml");
+            Path shallow = root.resolve("d/pom.xml");
+            Path opened = root.resolve("e/f/pom.xml");
+            // 工作线程取走第一个任务后因前台繁忙而等待，其余任务在队列中排序
+            prewarmer.submit(first, WorkspacePrewarmer.PRIORITY_BACKGROUND);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            prewarmer.submit(deep, WorkspacePrewarmer.PRIORITY_BACKGROUND);
+            prewarmer.submit(shallow, WorkspacePrewarmer.PRIORITY_BACKGROUND);
+            prewarmer.submit(opened, WorkspacePrewarmer.PRIORITY_BACKGROUND);
+            prewarmer.prioritize(opened);
+            assertTrue(order.isEmpty(), "nothing should run while the foreground is busy");
+
+            busy.set(false);
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+            assertEquals(List.of(first.toString(), opened.toString(), shallow.toString(), deep.toString()), order);
+        } finally {
+            prewarmer.shutdown();
+        }
+    }
+}
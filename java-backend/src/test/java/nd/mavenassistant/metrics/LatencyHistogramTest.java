@@ -0,0 +1,57 @@
+package nd.mavenassistant.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试LatencyHistogram的分桶与分位数估计
+ */
+public class LatencyHistogramTest {
+
+    private static long millis(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    @Test
+    public void testEmptySnapshot() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.count);
+        assertEquals(0, snapshot.p99Ms);
+        assertTrue(snapshot.buckets.isEmpty());
+    }
+
+    @Test
+    public void testPercentilesUseBucketUpperBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 98; i++) {
+            histogram.record(millis(3));
+        }
+        histogram.record(millis(150));
+        histogram.record(millis(70000));
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.count);
+        assertEquals(5, snapshot.p50Ms);
+        assertEquals(5, snapshot.p90Ms);
+        assertEquals(200, snapshot.p99Ms);
+        assertEquals(70000, snapshot.maxMs);
+        assertEquals(Long.valueOf(98), snapshot.buckets.get("<=5ms"));
+        assertEquals(Long.valueOf(1), snapshot.buckets.get(">60000ms"));
+    }
+
+    @Test
+    public void testHitCounterRate() {
+        HitCounter counter = new HitCounter();
+        assertEquals(0.0, counter.getHitRate());
+        counter.record(true);
+        counter.record(true);
+        counter.record(false);
+        counter.miss();
+        assertEquals(2, counter.getHits());
+        assertEquals(2, counter.getMisses());
+        assertEquals(0.5, counter.getHitRate());
+    }
+}
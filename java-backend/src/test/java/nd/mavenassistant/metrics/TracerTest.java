@@ -0,0 +1,95 @@
+package nd.mavenassistant.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试Tracer的日志输出与Chrome trace文件输出
+ */
+public class TracerTest {
+
+    @SuppressWarnings("try")
+    private static void runRequest(Tracer tracer) {
+        Tracer.Trace trace = tracer.begin("maven/analyzeDependencies");
+        try (Tracer.Span outer = tracer.span("collectDependencyGraph")) {
+            try (Tracer.Span inner = tracer.span("getModel")) {
+                assertNotNull(inner);
+            }
+        }
+        try (Tracer.Span span = tracer.span("serialize")) {
+            assertNotNull(span);
+        }
+        tracer.end(trace);
+    }
+
+    @Test
+    public void testOffProducesNothing() {
+        List<String> logs = new ArrayList<>();
+        Tracer tracer = new Tracer(logs::add);
+        assertNull(tracer.begin("maven/analyzeDependencies"));
+        runRequest(tracer);
+        assertTrue(logs.isEmpty());
+    }
+
+    @Test
+    public void testMessagesAndVerboseOutput() {
+        List<String> logs = new ArrayList<>();
+        Tracer tracer = new Tracer(logs::add);
+        tracer.setLevel(Tracer.Level.parse("messages"));
+        runRequest(tracer);
+        assertEquals(1, logs.size());
+        String summary = logs.get(0);
+        assertTrue(summary.startsWith("[trace] maven/analyzeDependencies #1 "));
+        assertTrue(summary.indexOf("collectDependencyGraph") < summary.indexOf("getModel"));
+        assertTrue(summary.indexOf("getModel") < summary.indexOf("serialize"));
+
+        tracer.setLevel(Tracer.Level.VERBOSE);
+        runRequest(tracer);
+        String[] lines = logs.get(1).split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[1].startsWith("[trace]   +"));
+        assertTrue(lines[2].startsWith("[trace]     +"), "nested span should be indented deeper");
+        assertTrue(lines[2].contains("getModel"));
+    }
+
+    @Test
+    public void testChromeTraceFile() throws Exception {
+        Path dir = Files.createTempDirectory("maven-assistant-trace");
+        Path file = dir.resolve("trace.json");
+        try {
+            Tracer tracer = new Tracer(message -> { });
+            tracer.setTraceFile(file.toString());
+            runRequest(tracer);
+            runRequest(tracer);
+            tracer.setTraceFile(null);
+
+            List<Map<String, Object>> events = new Gson().fromJson(Files.readString(file),
+                    new TypeToken<List<Map<String, Object>>>() { }.getType());
+            assertEquals(8, events.size());
+            assertEquals("maven/analyzeDependencies", events.get(0).get("name"));
+            assertEquals("request", events.get(0).get("cat"));
+            assertEquals("X", events.get(1).get("ph"));
+            assertEquals("collectDependencyGraph", events.get(1).get("name"));
+
+            // 重新打开同一文件时追加到原有数组
+            Tracer restarted = new Tracer(message -> { });
+            restarted.setTraceFile(file.toString());
+            runRequest(restarted);
+            restarted.setTraceFile(null);
+            events = new Gson().fromJson(Files.readString(file), new TypeToken<List<Map<String, Object>>>() { }.getType());
+            assertEquals(12, events.size());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package nd.mavenassistant.utils;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelSource2;
+import org.apache.maven.model.resolution.ModelResolver;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试ModelBuildingService的模型缓存与失效
+ */
+public class ModelBuildingServiceTest {
+
+    private static final String PARENT = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+            + "<modelVersion>4.0.0</modelVersion><groupId>org.demo</groupId><artifactId>parent</artifactId>"
+            + "<version>1.0</version><packaging>pom</packaging>"
+            + "<properties><lib.version>%s</lib.version></properties></project>";
+
+    private static final String CHILD = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+            + "<modelVersion>4.0.0</modelVersion>"
+            + "<parent><groupId>org.demo</groupId><artifactId>parent</artifactId><version>1.0</version></parent>"
+            + "<artifactId>%s</artifactId>"
+            + "<dependencies><dependency><groupId>org.demo</groupId><artifactId>lib</artifactId>"
+            + "<version>${lib.version}</version></dependency></dependencies></project>";
+
+    private static final String BOM = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+            + "<modelVersion>4.0.0</modelVersion><groupId>org.demo</groupId><artifactId>bom</artifactId>"
+            + "<version>1.0</version><packaging>pom</packaging>"
+            + "<dependencyManagement><dependencies><dependency><groupId>org.demo</groupId><artifactId>managed</artifactId>"
+            + "<version>4.2</version></dependency></dependencies></dependencyManagement></project>";
+
+    private static final String BOM_CONSUMER = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+            + "<modelVersion>4.0.0</modelVersion>"
+            + "<parent><groupId>org.demo</groupId><artifactId>parent</artifactId><version>1.0</version>"
+            + "<relativePath/></parent>"
+            + "<artifactId>%s</artifactId>"
+            + "<dependencyManagement><dependencies><dependency><groupId>org.demo</groupId><artifactId>bom</artifactId>"
+            + "<version>[1.0,2.0)</version><type>pom</type><scope>import</scope></dependency></dependencies></dependencyManagement>"
+            + "<dependencies><dependency><groupId>org.demo</groupId><artifactId>managed</artifactId></dependency>"
+            + "</dependencies></project>";
+
+    /**
+     * 从目录中按 artifactId 提供POM的 ModelResolver，记录解析次数
+     */
+    private static class DirectoryModelResolver implements ModelResolver {
+        private final Path dir;
+        private final AtomicInteger resolveCount;
+
+        DirectoryModelResolver(Path dir, AtomicInteger resolveCount) {
+            this.dir = dir;
+            this.resolveCount = resolveCount;
+        }
+
+        @Override
+        public ModelSource2 resolveModel(String groupId, String artifactId, String version) {
+            resolveCount.incrementAndGet();
+            return new FileModelSource(dir.resolve(artifactId + ".pom").toFile());
+        }
+
+        @Override
+        public ModelSource2 resolveModel(Parent parent) {
+            return resolveModel(parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+        }
+
+        @Override
+        public ModelSource2 resolveModel(Dependency dependency) {
+            dependency.setVersion("1.0");
+            return resolveModel(dependency.getGroupId(), dependency.getArtifactId(), "1.0");
+        }
+
+        @Override
+        public void addRepository(Repository repository) {
+        }
+
+        @Override
+        public void addRepository(Repository repository, boolean replace) {
+        }
+
+        @Override
+        public ModelResolver newCopy() {
+            return this;
+        }
+    }
+
+    private static File write(Path file, String content) throws Exception {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file.toFile();
+    }
+
+    private static String libVersion(Model model) {
+        return model.getDependencies().get(0).getVersion();
+    }
+
+    @Test
+    public void testEffectiveModelCachedUntilFileChanges() throws Exception {
+        Path dir = Files.createTempDirectory("model-service");
+        write(dir.resolve("pom.xml"), String.format(PARENT, "1.0"));
+        File child = write(dir.resolve("a/pom.xml"), String.format(CHILD, "a"));
+        ModelBuildingService service = new ModelBuildingService();
+
+        Model first = service.getEffectiveModel(child);
+        assertEquals("1.0", libVersion(first));
+        assertSame(first, service.getEffectiveModel(child));
+        assertEquals(1, service.getEffectiveModelStats().getHits());
+
+        write(child.toPath(), String.format(CHILD, "a").replace("${lib.version}", "2.0"));
+        child.setLastModified(child.lastModified() + 2000);
+        Model rebuilt = service.getEffectiveModel(child);
+        assertNotSame(first, rebuilt);
+        assertEquals("2.0", libVersion(rebuilt));
+    }
+
+    @Test
+    public void testParentSharedAcrossModulesAndInvalidated() throws Exception {
+        Path dir = Files.createTempDirectory("model-service");
+        File parent = write(dir.resolve("pom.xml"), String.format(PARENT, "1.0"));
+        File a = write(dir.resolve("a/pom.xml"), String.format(CHILD, "a"));
+        File b = write(dir.resolve("b/pom.xml"), String.format(CHILD, "b"));
+        ModelBuildingService service = new ModelBuildingService();
+
+        service.getEffectiveModel(a);
+        long parentHits = service.getModelCacheStats().getHits();
+        assertEquals("1.0", libVersion(service.getEffectiveModel(b)));
+        assertTrue(service.getModelCacheStats().getHits() > parentHits, "second module should reuse the cached parent");
+
+        write(parent.toPath(), String.format(PARENT, "1.1"));
+        parent.setLastModified(parent.lastModified() + 2000);
+        assertEquals("1.1", libVersion(service.getEffectiveModel(a)));
+        assertEquals("1.1", libVersion(service.getEffectiveModel(b)));
+    }
+
+    @Test
+    public void testRawModelAndUnsavedContent() throws Exception {
+        Path dir = Files.createTempDirectory("model-service");
+        write(dir.resolve("pom.xml"), String.format(PARENT, "1.0"));
+        File child = write(dir.resolve("a/pom.xml"), String.format(CHILD, "a"));
+        ModelBuildingService service = new ModelBuildingService();
+
+        Model raw = service.getRawModel(child);
+        assertEquals("${lib.version}", libVersion(raw));
+        assertSame(raw, service.getRawModel(child));
+
+        Model unsaved = service.getEffectiveModel(child, String.format(CHILD, "a").replace("${lib.version}", "3.0"));
+        assertEquals("3.0", libVersion(unsaved));
+        assertEquals("1.0", libVersion(service.getEffectiveModel(child)), "unsaved content must not replace the cached file model");
+    }
+
+    @Test
+    public void testParentAndImportedBomResolvedOnceAcrossModules() throws Exception {
+        Path repository = Files.createTempDirectory("model-service-repo");
+        write(repository.resolve("parent.pom"), String.format(PARENT, "1.0"));
+        write(repository.resolve("bom.pom"), BOM);
+        Path project = Files.createTempDirectory("model-service");
+        File a = write(project.resolve("a/pom.xml"), String.format(BOM_CONSUMER, "a"));
+        File b = write(project.resolve("b/pom.xml"), String.format(BOM_CONSUMER, "b"));
+        AtomicInteger resolveCount = new AtomicInteger();
+        ModelBuildingService service = new ModelBuildingService();
+        service.setModelResolver(new DirectoryModelResolver(repository, resolveCount));
+
+        Model modelA = service.getEffectiveModel(a);
+        assertEquals("4.2", modelA.getDependencies().get(0).getVersion(), "version should come from the imported BOM");
+        assertEquals(2, resolveCount.get());
+
+        Model modelB = service.getEffectiveModel(b);
+        assertEquals("4.2", modelB.getDependencies().get(0).getVersion());
+        assertEquals(2, resolveCount.get(), "parent and BOM should be served from the shared model cache");
+    }
+}
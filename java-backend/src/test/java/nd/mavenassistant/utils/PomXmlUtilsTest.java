@@ -0,0 +1,68 @@
+package nd.mavenassistant.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试PomXmlUtils中依赖声明的定位
+ */
+public class PomXmlUtilsTest {
+
+    @Test
+    public void testLocateDirectDependenciesSkipsManagementAndComments() {
+        String pom = "<project>\n"
+                + "  <dependencyManagement><dependencies>\n"
+                + "    <dependency><groupId>org.demo</groupId><artifactId>managed</artifactId></dependency>\n"
+                + "  </dependencies></dependencyManagement>\n"
+                + "  <dependencies>\n"
+                + "    <!-- <dependency><groupId>org.demo</groupId><artifactId>commented</artifactId></dependency> -->\n"
+                + "    <dependency>\n"
+                + "      <groupId>org.demo</groupId>\n"
+                + "      <artifactId>core</artifactId>\n"
+                + "      <type>test-jar</type>\n"
+                + "      <exclusions><exclusion><groupId>x</groupId><artifactId>y</artifactId></exclusion></exclusions>\n"
+                + "    </dependency>\n"
+                + "  </dependencies>\n"
+                + "</project>\n";
+
+        List<PomXmlUtils.DependencyLocation> locations = PomXmlUtils.locateDirectDependencies(pom);
+
+        assertEquals(1, locations.size());
+        PomXmlUtils.DependencyLocation location = locations.get(0);
+        assertEquals("org.demo", location.groupId());
+        assertEquals("core", location.artifactId());
+        assertEquals("test-jar", location.type());
+        assertNull(location.classifier());
+        assertEquals("core", pom.substring(location.artifactIdStart(), location.artifactIdEnd()));
+        assertTrue(pom.substring(location.start(), location.end()).startsWith("<dependency>"));
+        assertTrue(pom.substring(location.start(), location.end()).endsWith("</dependency>"));
+    }
+
+    @Test
+    public void testCoordinateContextAt() {
+        String pom = "<project>\n"
+                + "  <dependencies>\n"
+                + "    <dependency>\n"
+                + "      <groupId>org.demo</groupId>\n"
+                + "      <artifactId>core</artifactId>\n"
+                + "      <version>1.</version>\n"
+                + "      <exclusions><exclusion><groupId>x</groupId><artifactId>y</artifactId></exclusion></exclusions>\n"
+                + "    </dependency>\n"
+                + "  </dependencies>\n"
+                + "</project>\n";
+        int offset = pom.indexOf("1.</version>") + 2;
+
+        PomXmlUtils.CoordinateContext context = PomXmlUtils.coordinateContextAt(pom, offset);
+
+        assertNotNull(context);
+        assertEquals("version", context.tag());
+        assertEquals("dependency", context.parentTag());
+        assertEquals("org.demo", context.groupId());
+        assertEquals("core", context.artifactId());
+        assertEquals("1.", pom.substring(context.valueStart(), context.valueEnd()));
+        assertNull(PomXmlUtils.coordinateContextAt(pom, pom.indexOf("<dependencies>") + 3));
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Decoder for the compact dependency tree format returned by maven/analyzeDependencies when
+ * the request asks for `format: 'compact'`: a string table plus pre-order, column-based node arrays
+ */
+
+export const COMPACT_FORMAT = 'compact';
+const COMPACT_VERSION = 1;
+
+const FLAG_DROPPED = 1;
+const FLAG_CONTEXT = 2;
+const FLAG_TRUNCATED = 4;
+
+export interface CompactTree {
+	format: 'compact';
+	version: number;
+	strings: string[];
+	nodeCount: number;
+	nodes: {
+		parent: number[];
+		groupId: number[];
+		artifactId: number[];
+		version: number[];
+		scope: number[];
+		flags: number[];
+		size: number[];
+	};
+	/** Flattened [node, groupId, artifactId] triples */
+	exclusions: number[];
+	[key: string]: unknown;
+}
+
+export function isCompactTree(value: unknown): value is CompactTree {
+	return typeof value === 'object' && value !== null && (value as { format?: unknown }).format === COMPACT_FORMAT;
+}
+
+/**
+ * Rebuild the nested tree (same shape as the plain JSON response) from the compact format
+ */
+export function decodeCompactTree(compact: CompactTree): any {
+	if (compact.version !== COMPACT_VERSION) {
+		throw new Error(`Unsupported compact tree version: ${compact.version}`);
+	}
+	const { strings, nodes } = compact;
+	const str = (index: number) => (index < 0 ? undefined : strings[index]);
+	const root: any = {};
+	for (const key of Object.keys(compact)) {
+		if (!['format', 'version', 'strings', 'nodeCount', 'nodes', 'exclusions'].includes(key)) {
+			root[key] = compact[key];
+		}
+	}
+	const decoded: any[] = new Array(compact.nodeCount);
+	for (let i = 0; i < compact.nodeCount; i++) {
+		const flags = nodes.flags[i];
+		const node: any = {
+			groupId: str(nodes.groupId[i]),
+			artifactId: str(nodes.artifactId[i]),
+			version: str(nodes.version[i]),
+			scope: str(nodes.scope[i]),
+			droppedByConflict: (flags & FLAG_DROPPED) !== 0
+		};
+		if (nodes.size[i] >= 0) {
+			node.size = nodes.size[i];
+		}
+		if (flags & FLAG_CONTEXT) {
+			node.context = true;
+		}
+		if (flags & FLAG_TRUNCATED) {
+			node.truncated = true;
+		}
+		decoded[i] = node;
+		const parent = nodes.parent[i] < 0 ? root : decoded[nodes.parent[i]];
+		(parent.children ??= []).push(node);
+	}
+	for (let i = 0; i + 2 < compact.exclusions.length; i += 3) {
+		const node = decoded[compact.exclusions[i]];
+		(node.exclusions ??= []).push({
+			groupId: str(compact.exclusions[i + 1]),
+			artifactId: str(compact.exclusions[i + 2])
+		});
+	}
+	return root;
+}
@@ -55,6 +55,9 @@ export class DependencyAnalyzerEditorProvider implements vscode.CustomReadonlyEd
         // Webview加载后，主动推送依赖数据
         setTimeout(() => postDependencyData(), 100);
 
+        // pom.xml 编辑（含未保存的修改）经后端重新分析后自动刷新
+        const dependenciesChanged = this.lspClient.onDependenciesChanged(() => postDependencyData());
+
         // 监听Webview消息，实现刷新等功能
         webviewPanel.webview.onDidReceiveMessage(async (msg) => {
             if (msg.type === 'refresh') {
@@ -89,6 +92,7 @@ export class DependencyAnalyzerEditorProvider implements vscode.CustomReadonlyEd
         // 监听webviewPanel关闭事件，清理引用
         webviewPanel.onDidDispose(() => {
             this.currentWebviewPanel = undefined;
+            dependenciesChanged.dispose();
         });
     }
 
@@ -0,0 +1,95 @@
+/**
+ * Deduplicated dependency graph returned by maven/analyzeDependencies with `mode: 'dag'`.
+ * Every GAV appears once in `nodes`; `edges` carry scope, optional flag and exclusions.
+ * Children are expanded lazily, so shared subgraphs (Jackson, Netty...) are only materialized when opened.
+ */
+
+export interface DagNode {
+	id: number;
+	groupId: string;
+	artifactId: string;
+	version: string;
+	size: number;
+	droppedByConflict: boolean;
+}
+
+export interface DagEdge {
+	/** -1 for top-level dependencies */
+	from: number;
+	to: number;
+	scope: string;
+	optional?: boolean;
+	/** groupId:artifactId */
+	exclusions?: string[];
+}
+
+export interface DagResponse {
+	mode: 'dag';
+	nodes: DagNode[];
+	edges: DagEdge[];
+}
+
+export function isDagResponse(value: unknown): value is DagResponse {
+	return typeof value === 'object' && value !== null && (value as { mode?: unknown }).mode === 'dag';
+}
+
+export class DependencyDag {
+	private readonly outgoing = new Map<number, DagEdge[]>();
+
+	constructor(readonly response: DagResponse) {
+		for (const edge of response.edges) {
+			let list = this.outgoing.get(edge.from);
+			if (!list) {
+				list = [];
+				this.outgoing.set(edge.from, list);
+			}
+			list.push(edge);
+		}
+	}
+
+	node(id: number): DagNode {
+		return this.response.nodes[id];
+	}
+
+	/**
+	 * Direct children of a node (or top-level dependencies for -1), in resolution order
+	 */
+	children(id: number): { edge: DagEdge; node: DagNode }[] {
+		return (this.outgoing.get(id) ?? []).map(edge => ({ edge, node: this.response.nodes[edge.to] }));
+	}
+
+	/**
+	 * Expand into the nested tree shape used by the plain response, down to `maxDepth` levels.
+	 * Nodes already on the current path are not expanded again.
+	 */
+	expand(id = -1, maxDepth = Number.MAX_SAFE_INTEGER, path = new Set<number>()): any[] {
+		if (maxDepth <= 0) {
+			return [];
+		}
+		return this.children(id).map(({ edge, node }) => {
+			const expanded: any = {
+				groupId: node.groupId,
+				artifactId: node.artifactId,
+				version: node.version,
+				scope: edge.scope,
+				droppedByConflict: node.droppedByConflict,
+				size: node.size
+			};
+			if (edge.exclusions) {
+				expanded.exclusions = edge.exclusions.map(ga => {
+					const [groupId, artifactId] = ga.split(':');
+					return { groupId, artifactId };
+				});
+			}
+			if (!path.has(node.id)) {
+				path.add(node.id);
+				const children = this.expand(node.id, maxDepth - 1, path);
+				path.delete(node.id);
+				if (children.length > 0) {
+					expanded.children = children;
+				}
+			}
+			return expanded;
+		});
+	}
+}
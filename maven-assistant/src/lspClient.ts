@@ -3,6 +3,46 @@ import * as vscode from 'vscode';
 import * as child_process from 'child_process';
 import { LanguageClient, LanguageClientOptions, ServerOptions, TransportKind } from 'vscode-languageclient/node';
 import { workspace } from 'vscode';
+import { COMPACT_FORMAT, decodeCompactTree, isCompactTree } from './compactTree';
+import { applyTreeDelta, isTreeDelta } from './treeDelta';
+import { DependencyDag, isDagResponse } from './dependencyDag';
+
+/**
+ * Server-side filters for maven/analyzeDependencies; nodes that do not match but lead to a match are kept with `context: true`
+ */
+export interface DependencyTreeQuery {
+	pomPath?: string;
+	/** Wire format; defaults to the compact string-table format, decoded transparently */
+	format?: 'json' | 'compact';
+	scopes?: string[];
+	/** groupId:artifactId glob (`*`, `?`) or a regex wrapped in slashes */
+	artifact?: string;
+	onlyConflicts?: boolean;
+	/** Keep only paths leading to artifacts matching this glob or /regex/ */
+	pathTo?: string;
+	/** 1 = direct dependencies only */
+	maxDepth?: number;
+	/** Minimum jar size in bytes */
+	minSize?: number;
+	/** Quick overview: collect direct dependencies only and skip `mvn dependency:list` */
+	quick?: boolean;
+	/** How the graph is collected; results are cached per policy */
+	policy?: CollectionPolicy;
+}
+
+export interface CollectionPolicy {
+	/** 1 = direct dependencies only (default 4) */
+	maxDepth?: number;
+	/** Scopes to collect at every depth (default: any direct scope, compile/runtime transitively) */
+	scopes?: string[];
+	/** Also collect optional transitive dependencies */
+	includeOptional?: boolean;
+	/** groupId:artifactId globs or /regex/ patterns */
+	include?: string[];
+	exclude?: string[];
+}
+
+const FILTER_FIELDS: (keyof DependencyTreeQuery)[] = ['scopes', 'artifact', 'onlyConflicts', 'pathTo', 'maxDepth', 'minSize'];
 
 /**
  * Maven Assistant LSP Client
@@ -12,6 +52,14 @@ export class LspClient {
 	private client: LanguageClient | undefined;
 	private context: vscode.ExtensionContext;
 	private serverProcess: child_process.ChildProcess | undefined;
+	private readonly dependenciesChangedEmitter = new vscode.EventEmitter<{ pomPath: string }>();
+	/** Last unfiltered tree per pomPath, so refreshes only transfer a delta */
+	private readonly lastTrees = new Map<string, { version: number; tree: any }>();
+
+	/**
+	 * Fired when the backend has re-analyzed a pom.xml after an edit (saved or not)
+	 */
+	readonly onDependenciesChanged = this.dependenciesChangedEmitter.event;
 
 	constructor(context: vscode.ExtensionContext) {
 		this.context = context;
@@ -21,6 +69,7 @@ export class LspClient {
 	 * Start LSP client
 	 */
 	async start(): Promise<void> {
+		const startedAt = Date.now();
 		try {
 			// Get Java backend jar path
 			const serverJarPath = path.join(this.context.extensionPath, 'server', 'java-backend-1.0-SNAPSHOT.jar');
@@ -34,10 +83,11 @@ export class LspClient {
 			}
 
 			// Configure server options
+			const jvmArgs = this.getStartupJvmArgs(serverJarPath);
 			const serverOptions: ServerOptions = {
 				run: {
 					command: 'java',
-					args: ['-jar', serverJarPath],
+					args: [...jvmArgs, '-jar', serverJarPath],
 					transport: TransportKind.stdio,
 					options: {
 						cwd: vscode.workspace.workspaceFolders?.[0]?.uri.fsPath || process.cwd()
@@ -45,7 +95,7 @@ export class LspClient {
 				},
 				debug: {
 					command: 'java',
-					args: ['-jar', serverJarPath],
+					args: [...jvmArgs, '-jar', serverJarPath],
 					transport: TransportKind.stdio,
 					options: {
 						cwd: vscode.workspace.workspaceFolders?.[0]?.uri.fsPath || process.cwd()
@@ -62,7 +112,17 @@ export class LspClient {
 				synchronize: {
 					fileEvents: vscode.workspace.createFileSystemWatcher('**/pom.xml')
 				},
-				outputChannel: vscode.window.createOutputChannel('Maven Assistant LSP')
+				outputChannel: vscode.window.createOutputChannel('Maven Assistant LSP'),
+				initializationOptions: {
+					traceFile: workspace.getConfiguration('maven-assistant').get<string>('traceFile') || undefined,
+					prewarmWorkspace: workspace.getConfiguration('maven-assistant').get<boolean>('server.prewarmWorkspace', true),
+					// Persistent backend data such as the artifact search index
+					storageDir: this.context.globalStorageUri.fsPath,
+					// POMs already open in the editor are pre-warmed first
+					openPoms: workspace.textDocuments
+						.filter(doc => doc.uri.scheme === 'file' && path.basename(doc.uri.fsPath) === 'pom.xml')
+						.map(doc => doc.uri.fsPath)
+				}
 			};
 
 			// Create language client
@@ -76,7 +136,10 @@ export class LspClient {
 			// Start the client
 			console.log('Starting LSP client...');
 			await this.client.start();
-			console.log('LSP client started successfully');
+			console.log(`LSP client started successfully in ${Date.now() - startedAt}ms`);
+			this.client.onNotification('maven/dependenciesChanged', (params: { pomPath: string }) => {
+				this.dependenciesChangedEmitter.fire(params);
+			});
 
 		} catch (error) {
 			console.error('Failed to start LSP client:', error);
@@ -85,6 +148,41 @@ export class LspClient {
 		}
 	}
 
+	/**
+	 * JVM options for a faster backend start: use an AppCDS archive for the server jar.
+	 * An archive built with the jar (-Pappcds) is copied to global storage on first use; on JDK 19+
+	 * the JVM creates or refreshes it automatically when missing or built by another JDK.
+	 * CDS warnings are routed to stderr because stdout carries the LSP stream.
+	 */
+	private getStartupJvmArgs(serverJarPath: string): string[] {
+		if (!workspace.getConfiguration('maven-assistant').get<boolean>('server.classDataSharing', true)) {
+			return [];
+		}
+		try {
+			const fs = require('fs');
+			const storageDir = this.context.globalStorageUri.fsPath;
+			const jarStat = fs.statSync(serverJarPath);
+			// Key the archive by jar timestamp and size so an updated jar never reuses a stale archive
+			const archivePath = path.join(storageDir, `java-backend-${Math.floor(jarStat.mtimeMs)}-${jarStat.size}.jsa`);
+			fs.mkdirSync(storageDir, { recursive: true });
+			const bundledArchive = serverJarPath.replace(/\.jar$/, '.jsa');
+			if (!fs.existsSync(archivePath) && fs.existsSync(bundledArchive)) {
+				fs.copyFileSync(bundledArchive, archivePath);
+			}
+			return [
+				'-XX:+IgnoreUnrecognizedVMOptions',
+				'-Xshare:auto',
+				`-XX:SharedArchiveFile=${archivePath}`,
+				'-XX:+AutoCreateSharedArchive',
+				'-Xlog:disable',
+				'-Xlog:all=warning:stderr'
+			];
+		} catch (error) {
+			console.warn('Class data sharing disabled:', error);
+			return [];
+		}
+	}
+
 	/**
 	 * Stop LSP client
 	 */
@@ -119,18 +217,38 @@ export class LspClient {
 	}
 
 	/**
-	 * Analyze dependencies
+	 * Analyze dependencies, optionally filtered on the server before the tree is sent back
 	 */
-	async analyzeDependencies(): Promise<string> {
+	async analyzeDependencies(query?: DependencyTreeQuery): Promise<string> {
 		try {
 			if (!this.client) {
 				throw new Error('LSP client not started');
 			}
 
-			// Analyze dependencies through LSP custom method
-			const result = await this.client.sendRequest('maven/analyzeDependencies', null);
-			// console.log(result);
-			return result as string;
+			// Analyze dependencies through LSP custom method, asking for the compact format unless told otherwise
+			// and for a delta against the last unfiltered tree we received
+			const filtered = FILTER_FIELDS.some(field => query?.[field] !== undefined);
+			const key = `${query?.pomPath ?? ''}|${JSON.stringify([query?.quick ?? false, query?.policy ?? null])}`;
+			const previous = filtered ? undefined : this.lastTrees.get(key);
+			const request = { format: COMPACT_FORMAT, ...query, sinceVersion: previous?.version };
+			const result = await this.client.sendRequest('maven/analyzeDependencies', JSON.stringify(request)) as string;
+			const parsed = JSON.parse(result);
+			let tree: any;
+			if (isTreeDelta(parsed)) {
+				try {
+					tree = applyTreeDelta(previous!.tree, parsed);
+				} catch (error) {
+					console.warn('Failed to apply dependency tree delta, requesting the full tree:', error);
+					this.lastTrees.delete(key);
+					return this.analyzeDependencies(query);
+				}
+			} else {
+				tree = isCompactTree(parsed) ? decodeCompactTree(parsed) : parsed;
+			}
+			if (!filtered && typeof tree?.treeVersion === 'number') {
+				this.lastTrees.set(key, { version: tree.treeVersion, tree });
+			}
+			return JSON.stringify(tree);
 		} catch (error) {
 			console.error('Failed to analyze dependencies:', error);
 			// Throw error instead of returning mock data
@@ -138,6 +256,168 @@ export class LspClient {
 		}
 	}
 
+	/**
+	 * Get the dependency graph as a deduplicated DAG (each GAV once) that can be expanded lazily
+	 */
+	async getDependencyDag(pomPath?: string, options?: { quick?: boolean; policy?: CollectionPolicy }): Promise<DependencyDag> {
+		if (!this.client) {
+			throw new Error('LSP client not started');
+		}
+		const result = await this.client.sendRequest('maven/analyzeDependencies',
+			JSON.stringify({ pomPath, mode: 'dag', ...options })) as string;
+		const parsed = JSON.parse(result);
+		if (!isDagResponse(parsed)) {
+			throw new Error(`Failed to get dependency graph: ${parsed.error ?? result}`);
+		}
+		return new DependencyDag(parsed);
+	}
+
+	/**
+	 * Get version conflicts grouped by groupId:artifactId
+	 */
+	async getConflicts(pomPath?: string): Promise<string> {
+		try {
+			if (!this.client) {
+				throw new Error('LSP client not started');
+			}
+			const result = await this.client.sendRequest('maven/getConflicts', JSON.stringify({ pomPath }));
+			return result as string;
+		} catch (error) {
+			console.error('Failed to get conflicts:', error);
+			throw new Error(`Failed to get conflicts: ${error}`);
+		}
+	}
+
+	/**
+	 * Diff dependency graphs of two POM revisions (e.g. working copy vs HEAD)
+	 */
+	async diffDependencies(pomPath: string, baseContent?: string, targetContent?: string): Promise<string> {
+		try {
+			if (!this.client) {
+				throw new Error('LSP client not started');
+			}
+			const result = await this.client.sendRequest('maven/diffDependencies', JSON.stringify({ pomPath, baseContent, targetContent }));
+			return result as string;
+		} catch (error) {
+			console.error('Failed to diff dependencies:', error);
+			throw new Error(`Failed to diff dependencies: ${error}`);
+		}
+	}
+
+	/**
+	 * Preview the effect of adding exclusions without touching pom.xml: removed/added artifacts,
+	 * conflict outcome changes, bytes saved and a structural tree delta
+	 */
+	async simulateExclusions(pomPath: string, exclusions: { rootDependency?: any; targetDependency: any }[]): Promise<string> {
+		try {
+			if (!this.client) {
+				throw new Error('LSP client not started');
+			}
+			const result = await this.client.sendRequest('maven/simulateExclusions', JSON.stringify({ pomPath, exclusions }));
+			return result as string;
+		} catch (error) {
+			console.error('Failed to simulate exclusions:', error);
+			throw new Error(`Failed to simulate exclusions: ${error}`);
+		}
+	}
+
+	/**
+	 * Preview pinning transitive versions through dependencyManagement without touching pom.xml
+	 * @param overrides groupId:artifactId -> version
+	 */
+	async simulateVersionOverrides(pomPath: string, overrides: Record<string, string>): Promise<string> {
+		try {
+			if (!this.client) {
+				throw new Error('LSP client not started');
+			}
+			const result = await this.client.sendRequest('maven/simulateVersionOverrides', JSON.stringify({ pomPath, overrides }));
+			return result as string;
+		} catch (error) {
+			console.error('Failed to simulate version overrides:', error);
+			throw new Error(`Failed to simulate version overrides: ${error}`);
+		}
+	}
+
+	/**
+	 * Bytecode-based usage analysis of target/classes: unused declared and used-but-undeclared dependencies
+	 */
+	async analyzeUsage(pomPath?: string): Promise<string> {
+		try {
+			if (!this.client) {
+				throw new Error('LSP client not started');
+			}
+			const result = await this.client.sendRequest('maven/analyzeUsage', JSON.stringify({ pomPath }));
+			return result as string;
+		} catch (error) {
+			console.error('Failed to analyze usage:', error);
+			throw new Error(`Failed to analyze usage: ${error}`);
+		}
+	}
+
+	/**
+	 * Verify the local repository files of the dependency tree against their .sha1/.sha256 files
+	 */
+	async verifyArtifacts(pomPath?: string): Promise<string> {
+		try {
+			if (!this.client) {
+				throw new Error('LSP client not started');
+			}
+			const result = await this.client.sendRequest('maven/verifyArtifacts', JSON.stringify({ pomPath }));
+			return result as string;
+		} catch (error) {
+			console.error('Failed to verify artifacts:', error);
+			throw new Error(`Failed to verify artifacts: ${error}`);
+		}
+	}
+
+	/**
+	 * Local repository disk usage by group/artifact/version, with versions no workspace module references
+	 */
+	async analyzeLocalRepository(pomPaths?: string[], limit?: number): Promise<string> {
+		try {
+			if (!this.client) {
+				throw new Error('LSP client not started');
+			}
+			const result = await this.client.sendRequest('maven/analyzeLocalRepository', JSON.stringify({ pomPaths, limit }));
+			return result as string;
+		} catch (error) {
+			console.error('Failed to analyze local repository:', error);
+			throw new Error(`Failed to analyze local repository: ${error}`);
+		}
+	}
+
+	/**
+	 * Search artifacts in the local repository by groupId, artifactId or class name (prefix and fuzzy)
+	 */
+	async searchArtifacts(query: string, limit?: number): Promise<string> {
+		try {
+			if (!this.client) {
+				throw new Error('LSP client not started');
+			}
+			const result = await this.client.sendRequest('maven/searchArtifacts', JSON.stringify({ query, limit }));
+			return result as string;
+		} catch (error) {
+			console.error('Failed to search artifacts:', error);
+			throw new Error(`Failed to search artifacts: ${error}`);
+		}
+	}
+
+	/**
+	 * Get backend statistics (cache hit rates, pool usage, heap, request latency histograms)
+	 */
+	async getServerStats(): Promise<string> {
+		try {
+			if (!this.client) {
+				throw new Error('LSP client not started');
+			}
+			const result = await this.client.sendRequest('maven/getServerStats', null);
+			return result as string;
+		} catch (error) {
+			console.error('Failed to get server stats:', error);
+			throw new Error(`Failed to get server stats: ${error}`);
+		}
+	}
+
 
 
 
@@ -0,0 +1,85 @@
+/**
+ * Applies the structural delta returned by maven/analyzeDependencies when the request carries `sinceVersion`.
+ * Nodes are addressed by the groupId:artifactId path from the top level, joined with '/';
+ * siblings with the same GA get a '#n' suffix (n starting at 2) in their original order.
+ */
+
+export interface TreeDelta {
+	delta: true;
+	treeVersion: number;
+	sinceVersion: number;
+	/** Paths of removed subtrees, resolved against the previous tree */
+	removed: string[];
+	/** New attributes (without children) of nodes whose fields changed */
+	changed: { path: string; node: any }[];
+	/** New subtrees, in ascending index order for each parent ('' is the top level) */
+	added: { parent: string; index: number; node: any }[];
+}
+
+export function isTreeDelta(value: unknown): value is TreeDelta {
+	return typeof value === 'object' && value !== null && (value as { delta?: unknown }).delta === true;
+}
+
+function childKeys(children: any[]): Map<string, any> {
+	const keyed = new Map<string, any>();
+	for (const child of children) {
+		const ga = `${child.groupId}:${child.artifactId}`;
+		let key = ga;
+		for (let n = 2; keyed.has(key); n++) {
+			key = `${ga}#${n}`;
+		}
+		keyed.set(key, child);
+	}
+	return keyed;
+}
+
+function resolve(root: any, path: string): any {
+	let node = root;
+	if (path === '') {
+		return node;
+	}
+	for (const key of path.split('/')) {
+		node = childKeys(node?.children ?? []).get(key);
+		if (!node) {
+			throw new Error(`Delta path not found: ${path}`);
+		}
+	}
+	return node;
+}
+
+function parentOf(root: any, path: string): any {
+	const slash = path.lastIndexOf('/');
+	return resolve(root, slash < 0 ? '' : path.substring(0, slash));
+}
+
+/**
+ * Apply a delta to a tree in place and return it; throws if the delta does not fit the tree
+ */
+export function applyTreeDelta(tree: any, delta: TreeDelta): any {
+	const root = tree ?? {};
+	// Resolve every removal first: removing a node can change the '#n' keys of its siblings
+	const removals = delta.removed.map(path => ({ parent: parentOf(root, path), node: resolve(root, path) }));
+	for (const { parent, node } of removals) {
+		parent.children = parent.children.filter((child: any) => child !== node);
+		if (parent.children.length === 0) {
+			delete parent.children;
+		}
+	}
+	for (const { path, node } of delta.changed) {
+		const target = resolve(root, path);
+		const children = target.children;
+		for (const key of Object.keys(target)) {
+			delete target[key];
+		}
+		Object.assign(target, node);
+		if (children) {
+			target.children = children;
+		}
+	}
+	for (const { parent, index, node } of delta.added) {
+		const target = resolve(root, parent);
+		(target.children ??= []).splice(index, 0, node);
+	}
+	root.treeVersion = delta.treeVersion;
+	return root;
+}